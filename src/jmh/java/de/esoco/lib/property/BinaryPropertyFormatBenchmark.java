@@ -0,0 +1,242 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static de.esoco.lib.property.ContentProperties.FORMAT_ARGUMENTS;
+import static de.esoco.lib.property.ContentProperties.LABEL;
+import static de.esoco.lib.property.ContentProperties.TOOLTIP;
+import static de.esoco.lib.property.LayoutProperties.COLUMN_SPAN;
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.HORIZONTAL_ALIGN;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StandardProperties.DATE;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StateProperties.INTERACTION_EVENT_TYPES;
+import static de.esoco.lib.property.StorageProperties.QUERY_SORT;
+import static de.esoco.lib.property.StyleProperties.BACKGROUND_COLOR;
+import static de.esoco.lib.property.StyleProperties.CSS_STYLES;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+
+/**
+ * Compares the default serialization of {@link StringProperties} in the
+ * string map format with the binary format of {@link BinaryPropertyFormat}
+ * that is used by {@link Externalizable} subclasses. Both variants serialize
+ * a list of property objects like it is done for the UI state of a session.
+ * The serialized sizes are printed on setup.
+ *
+ * @author eso
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryPropertyFormatBenchmark {
+
+	@Param({ "1", "100" })
+	int objectCount;
+
+	private List<StringProperties> standardObjects;
+
+	private List<BinaryProperties> binaryObjects;
+
+	private byte[] standardData;
+
+	private byte[] binaryData;
+
+	/**
+	 * Fills a properties object with typical properties of a UI component.
+	 *
+	 * @param properties The properties to fill
+	 * @param index      The index of the object
+	 */
+	static void fill(MutableProperties properties, int index) {
+		Map<String, String> css = new HashMap<>();
+		Map<String, SortDirection> sort = new HashMap<>();
+
+		css.put("margin", "4px");
+		css.put("font-weight", "bold");
+		sort.put("name", SortDirection.ASCENDING);
+
+		properties.setProperty(STYLE, "Component" + index % 10);
+		properties.setProperty(LABEL, "$lblComponent" + index);
+		properties.setProperty(TOOLTIP, "$ttComponent" + index);
+		properties.setProperty(WIDTH, 120 + index % 50);
+		properties.setProperty(HEIGHT, 24);
+		properties.setProperty(COLUMN_SPAN, 2);
+		properties.setProperty(HORIZONTAL_ALIGN, Alignment.CENTER);
+		properties.setProperty(BACKGROUND_COLOR, Color.valueOf(0x336699));
+		properties.setProperty(DATE, new Date(1600000000000L + index));
+		properties.setProperty(FORMAT_ARGUMENTS, Arrays.asList("a", "b,c"));
+		properties.setProperty(INTERACTION_EVENT_TYPES,
+			EnumSet.of(InteractionEventType.ACTION,
+				InteractionEventType.UPDATE));
+		properties.setProperty(CSS_STYLES, css);
+		properties.setProperty(QUERY_SORT, sort);
+		properties.setProperty(DISABLED, index % 2 == 0);
+		properties.setProperty(HIDDEN, false);
+	}
+
+	/**
+	 * Serializes an object.
+	 *
+	 * @param object The object
+	 * @return The serialized data
+	 * @throws IOException If writing fails
+	 */
+	static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			out.writeObject(object);
+		}
+
+		return data.toByteArray();
+	}
+
+	/**
+	 * De-serializes an object.
+	 *
+	 * @param data The serialized data
+	 * @return The object
+	 * @throws Exception If reading fails
+	 */
+	static Object deserialize(byte[] data) throws Exception {
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(data))) {
+			return in.readObject();
+		}
+	}
+
+	/**
+	 * Creates the properties and the serialized data.
+	 *
+	 * @throws IOException If the serialization fails
+	 */
+	@Setup
+	public void setup() throws IOException {
+		standardObjects = new ArrayList<>(objectCount);
+		binaryObjects = new ArrayList<>(objectCount);
+
+		for (int i = 0; i < objectCount; i++) {
+			StringProperties standard = new StringProperties();
+			BinaryProperties binary = new BinaryProperties();
+
+			fill(standard, i);
+			fill(binary, i);
+			standardObjects.add(standard);
+			binaryObjects.add(binary);
+		}
+
+		standardData = serialize(standardObjects);
+		binaryData = serialize(binaryObjects);
+
+		System.out.printf("%nSerialized size of %d objects: standard %d, " +
+				"binary %d bytes%n", objectCount, standardData.length,
+			binaryData.length);
+	}
+
+	/**
+	 * Reads properties in the binary format.
+	 *
+	 * @return The result
+	 * @throws Exception If reading fails
+	 */
+	@Benchmark
+	public Object readBinary() throws Exception {
+		return deserialize(binaryData);
+	}
+
+	/**
+	 * Reads properties in the standard format.
+	 *
+	 * @return The result
+	 * @throws Exception If reading fails
+	 */
+	@Benchmark
+	public Object readStandard() throws Exception {
+		return deserialize(standardData);
+	}
+
+	/**
+	 * Writes properties in the binary format.
+	 *
+	 * @return The result
+	 * @throws IOException If writing fails
+	 */
+	@Benchmark
+	public byte[] writeBinary() throws IOException {
+		return serialize(binaryObjects);
+	}
+
+	/**
+	 * Writes properties in the standard format.
+	 *
+	 * @return The result
+	 * @throws IOException If writing fails
+	 */
+	@Benchmark
+	public byte[] writeStandard() throws IOException {
+		return serialize(standardObjects);
+	}
+
+	/**
+	 * A properties subclass that uses the binary format.
+	 *
+	 * @author eso
+	 */
+	public static class BinaryProperties extends StringProperties
+		implements Externalizable {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Creates a new instance.
+		 */
+		public BinaryProperties() {
+		}
+	}
+}
@@ -0,0 +1,172 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bulk transformations of {@link ColorArrays} with the
+ * transformation of each array element through the per-object API of
+ * {@link Color}. All benchmarks copy the source colors into a work array
+ * first so that each invocation transforms the same input.
+ *
+ * @author eso
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorArraysBenchmark {
+
+	private static final int TARGET_RGB = 0xFFCC00;
+
+	@Param({ "256", "1048576" })
+	int size;
+
+	private int[] source;
+
+	private int[] work;
+
+	private Color target;
+
+	/**
+	 * Creates the source colors.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		source = new int[size];
+		work = new int[size];
+		target = Color.valueOf(TARGET_RGB);
+
+		for (int i = 0; i < size; i++) {
+			source[i] = random.nextInt() & 0xFFFFFF;
+		}
+	}
+
+	/**
+	 * Blends an array with {@link ColorArrays}.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] blendArray() {
+		System.arraycopy(source, 0, work, 0, size);
+		ColorArrays.blend(work, TARGET_RGB, 30);
+
+		return work;
+	}
+
+	/**
+	 * Blends an array with {@link Color} objects.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] blendObjects() {
+		for (int i = 0; i < size; i++) {
+			work[i] = Color.valueOf(source[i]).blend(target, 30).toRGB();
+		}
+
+		return work;
+	}
+
+	/**
+	 * Changes the brightness of an array with {@link ColorArrays}.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] brightnessArray() {
+		System.arraycopy(source, 0, work, 0, size);
+		ColorArrays.changeBrightness(work, 20);
+
+		return work;
+	}
+
+	/**
+	 * Changes the brightness of an array with {@link ColorArrays} in
+	 * parallel.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] brightnessArrayParallel() {
+		System.arraycopy(source, 0, work, 0, size);
+		ColorArrays.transformParallel(work,
+			(rgb, from, to) -> ColorArrays.changeBrightness(rgb, from, to, 20));
+
+		return work;
+	}
+
+	/**
+	 * Changes the brightness of an array with {@link Color} objects.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] brightnessObjects() {
+		for (int i = 0; i < size; i++) {
+			work[i] = Color.valueOf(source[i]).changeBrightness(20).toRGB();
+		}
+
+		return work;
+	}
+
+	/**
+	 * Converts an array to gray values with {@link ColorArrays}.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] grayscaleArray() {
+		System.arraycopy(source, 0, work, 0, size);
+		ColorArrays.grayscale(work);
+
+		return work;
+	}
+
+	/**
+	 * Converts an array to gray values with {@link Color} objects.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public int[] grayscaleObjects() {
+		for (int i = 0; i < size; i++) {
+			work[i] = Color.valueOf(source[i]).grayscale().toRGB();
+		}
+
+		return work;
+	}
+}
@@ -0,0 +1,161 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+
+/**
+ * Compares {@link ConcurrentStringProperties} with a {@link StringProperties}
+ * instance that is guarded by synchronization. Each benchmark group runs
+ * three reader threads and one writer thread on a shared instance. The
+ * writer alternates between single property updates and merges of another
+ * properties object.
+ *
+ * @author eso
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentStringPropertiesBenchmark {
+
+	private ConcurrentStringProperties concurrent;
+
+	private StringProperties synchronizedProperties;
+
+	private StringProperties update;
+
+	private int counter;
+
+	/**
+	 * Creates the shared properties.
+	 */
+	@Setup
+	public void setup() {
+		concurrent = new ConcurrentStringProperties();
+		synchronizedProperties = new StringProperties();
+		update = new StringProperties();
+
+		for (MutableProperties properties : new MutableProperties[] {
+			concurrent, synchronizedProperties }) {
+			properties.setProperty(STYLE, "Default");
+			properties.setProperty(WIDTH, 100);
+			properties.setProperty(HEIGHT, 20);
+			properties.setFlag(DISABLED);
+		}
+
+		update.setProperty(STYLE, "Updated");
+		update.setProperty(HEIGHT, 40);
+	}
+
+	/**
+	 * Reads properties from the concurrent instance.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	@Group("concurrent")
+	@GroupThreads(3)
+	public int concurrentRead() {
+		return read(concurrent);
+	}
+
+	/**
+	 * Modifies the concurrent instance.
+	 */
+	@Benchmark
+	@Group("concurrent")
+	@GroupThreads(1)
+	public void concurrentWrite() {
+		write(concurrent);
+	}
+
+	/**
+	 * Reads properties from the synchronized instance.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(3)
+	public int synchronizedRead() {
+		synchronized (synchronizedProperties) {
+			return read(synchronizedProperties);
+		}
+	}
+
+	/**
+	 * Modifies the synchronized instance.
+	 */
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(1)
+	public void synchronizedWrite() {
+		synchronized (synchronizedProperties) {
+			write(synchronizedProperties);
+		}
+	}
+
+	/**
+	 * Reads some properties.
+	 *
+	 * @param properties The properties to read
+	 * @return A value that depends on the properties
+	 */
+	private int read(HasProperties properties) {
+		int result = properties.getIntProperty(WIDTH, 0) +
+			properties.getIntProperty(HEIGHT, 0) +
+			properties.getProperty(STYLE, "").length();
+
+		return properties.hasFlag(DISABLED) ? result : -result;
+	}
+
+	/**
+	 * Modifies the properties. Only invoked by a single thread.
+	 *
+	 * @param properties The properties to modify
+	 */
+	private void write(MutableProperties properties) {
+		int count = counter++;
+
+		if ((count & 0xF) == 0) {
+			properties.setProperties(update, true);
+		} else {
+			properties.setProperty(WIDTH, count & 0xFF);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link JsonPropertyFormat} with writing the property map of
+ * properties as JSON, where each value is converted into a string first. Both
+ * produce the same JSON text. The benchmarks write or read the properties of
+ * all components of a screen.
+ *
+ * @author eso
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonPropertyFormatBenchmark {
+
+	@Param({ "10", "1000" })
+	int componentCount;
+
+	private List<StringProperties> components;
+
+	private List<String> json;
+
+	/**
+	 * Appends a text as a JSON string with minimal escaping.
+	 *
+	 * @param out  The string builder to append to
+	 * @param text The text
+	 */
+	private static void appendString(StringBuilder out, String text) {
+		out.append('"');
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < 0x20) {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+
+		out.append('"');
+	}
+
+	/**
+	 * Creates the screen components and their JSON representations.
+	 */
+	@Setup
+	public void setup() {
+		components = new ArrayList<>(componentCount);
+		json = new ArrayList<>(componentCount);
+
+		for (int i = 0; i < componentCount; i++) {
+			StringProperties properties = new StringProperties();
+
+			BinaryPropertyFormatBenchmark.fill(properties, i);
+			components.add(properties);
+			json.add(JsonPropertyFormat.toJson(properties));
+		}
+	}
+
+	/**
+	 * Parses the JSON format.
+	 *
+	 * @param blackhole The blackhole to consume the results
+	 */
+	@Benchmark
+	public void readJson(Blackhole blackhole) {
+		for (String component : json) {
+			blackhole.consume(JsonPropertyFormat.parse(component));
+		}
+	}
+
+	/**
+	 * Writes the JSON format.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public StringBuilder writeJson() {
+		StringBuilder out = new StringBuilder();
+
+		for (StringProperties properties : components) {
+			JsonPropertyFormat.write(properties, out);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Writes the string map format.
+	 *
+	 * @return The result
+	 */
+	@Benchmark
+	public StringBuilder writeStringMap() {
+		StringBuilder out = new StringBuilder();
+
+		for (StringProperties properties : components) {
+			writeStringMap(properties, out);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Writes the string map of properties as a JSON object of strings.
+	 *
+	 * @param properties The properties
+	 * @param out        The string builder to append to
+	 * @return The string builder
+	 */
+	private StringBuilder writeStringMap(StringProperties properties,
+		StringBuilder out) {
+		Map<PropertyName<?>, String> map = properties.getPropertyMap();
+		boolean first = true;
+
+		out.append('{');
+
+		for (Entry<PropertyName<?>, String> entry : map.entrySet()) {
+			if (!first) {
+				out.append(',');
+			}
+
+			appendString(out, entry.getKey().getName());
+			out.append(':');
+			appendString(out, entry.getValue());
+			first = false;
+		}
+
+		return out.append('}');
+	}
+}
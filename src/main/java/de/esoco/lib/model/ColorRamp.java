@@ -0,0 +1,636 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.model;
+
+import de.esoco.lib.property.Color;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps numeric values to colors through a precomputed lookup table. A color
+ * ramp is created from a list of color stops that are distributed evenly
+ * over a value range. The table is computed once on creation by interpolating
+ * between the stops in a certain {@link Interpolation color space}. Mapping a
+ * value to a color then only requires a scaling of the value and a table
+ * lookup. The HTML strings of the table entries are created only once when
+ * needed. Color ramps are immutable and can be shared between threads.
+ *
+ * <p>The mapping methods for {@link DataSet data sets} convert whole rows or
+ * columns into arrays of packed RGB values (see {@link Color#toRGB()}) or
+ * HTML color strings. The result arrays can be provided by the caller and
+ * reused so that the mapping of large data sets like heatmaps doesn't
+ * create any objects. The values of {@link DoubleDataSet} and
+ * {@link IntDataSet} are read without boxing.</p>
+ *
+ * <p>Values outside of the value range are mapped to the first or last color
+ * of the ramp, NaN values to the first color.</p>
+ *
+ * @author eso
+ */
+public class ColorRamp {
+
+	/**
+	 * The default number of entries in the lookup table.
+	 */
+	public static final int DEFAULT_SIZE = 256;
+
+	/**
+	 * Enumeration of the color spaces in which the stops of a ramp can be
+	 * interpolated. RGB interpolation is the simplest form but intermediate
+	 * colors may appear darker or less saturated. HSL interpolates hue,
+	 * saturation, and lightness and rotates the hue along the shorter
+	 * direction of the color wheel. LAB uses the CIE L*a*b* color space which
+	 * creates perceptually uniform transitions.
+	 */
+	public enum Interpolation { RGB, HSL, LAB }
+
+	private static final double LAB_EPSILON = 216.0 / 24389.0;
+
+	private static final double LAB_KAPPA = 24389.0 / 27.0;
+
+	private static final double WHITE_X = 0.95047;
+
+	private static final double WHITE_Z = 1.08883;
+
+	private final int[] table;
+
+	private final double minValue;
+
+	private final double scale;
+
+	private volatile String[] htmlTable;
+
+	/**
+	 * Creates a new instance with the default size and RGB interpolation.
+	 *
+	 * @param minValue The value that will be mapped to the first color
+	 * @param maxValue The value that will be mapped to the last color
+	 * @param stops    The color stops
+	 * @see #ColorRamp(double, double, int, Interpolation, List)
+	 */
+	public ColorRamp(double minValue, double maxValue, Color... stops) {
+		this(minValue, maxValue, DEFAULT_SIZE, Interpolation.RGB,
+			Arrays.asList(stops));
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param minValue      The value that will be mapped to the first color
+	 * @param maxValue      The value that will be mapped to the last color
+	 * @param size          The number of entries in the lookup table (at least
+	 *                      2)
+	 * @param interpolation The color space for the interpolation of the stops
+	 * @param stops         The color stops which will be distributed evenly
+	 *                      over the value range
+	 * @throws IllegalArgumentException If the size is invalid or no stops
+	 *                                  are provided
+	 */
+	public ColorRamp(double minValue, double maxValue, int size,
+		Interpolation interpolation, List<Color> stops) {
+		if (size < 2) {
+			throw new IllegalArgumentException("Invalid ramp size: " + size);
+		}
+
+		if (stops.isEmpty()) {
+			throw new IllegalArgumentException("No color stops");
+		}
+
+		this.minValue = minValue;
+		this.scale =
+			maxValue != minValue ? (size - 1) / (maxValue - minValue) : 0;
+
+		table = createTable(size, interpolation, stops);
+	}
+
+	/**
+	 * Returns the color for a certain value.
+	 *
+	 * @param value The value to map
+	 * @return The color
+	 */
+	public Color getColor(double value) {
+		return Color.valueOf(table[indexOf(value)]);
+	}
+
+	/**
+	 * Returns the HTML color string for a certain value.
+	 *
+	 * @param value The value to map
+	 * @return The HTML color string
+	 */
+	public String getHtml(double value) {
+		return getHtmlTable()[indexOf(value)];
+	}
+
+	/**
+	 * Returns the packed RGB value for a certain value.
+	 *
+	 * @param value The value to map
+	 * @return The RGB value
+	 */
+	public int getRgb(double value) {
+		return table[indexOf(value)];
+	}
+
+	/**
+	 * Returns the number of entries in the lookup table of this ramp.
+	 *
+	 * @return The table size
+	 */
+	public int getSize() {
+		return table.length;
+	}
+
+	/**
+	 * Maps a range of values to packed RGB values.
+	 *
+	 * @param values    The values to map
+	 * @param fromIndex The index of the first value to map
+	 * @param toIndex   The index after the last value to map
+	 * @param rgb       The array to store the RGB values in, starting at
+	 *                  index 0
+	 */
+	public void map(double[] values, int fromIndex, int toIndex, int[] rgb) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			rgb[i - fromIndex] = table[indexOf(values[i])];
+		}
+	}
+
+	/**
+	 * Maps the values of a data set column to packed RGB values.
+	 *
+	 * @param data   The data set
+	 * @param column The column index
+	 * @param rgb    The array to store the RGB values in or NULL to create a
+	 *               new array (also if the array is too small)
+	 * @return The array containing the RGB values, indexed by row
+	 */
+	public int[] mapColumn(DataSet<? extends Number> data, int column,
+		int[] rgb) {
+		int rows = data.getRowCount();
+
+		if (rgb == null || rgb.length < rows) {
+			rgb = new int[rows];
+		}
+
+		for (int row = 0; row < rows; row++) {
+			rgb[row] = table[indexOf(getValue(data, row, column))];
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Maps the values of a data set column to HTML color strings. The
+	 * strings are shared with other invocations and are not created for
+	 * each value.
+	 *
+	 * @param data   The data set
+	 * @param column The column index
+	 * @param html   The array to store the HTML colors in or NULL to create a
+	 *               new array (also if the array is too small)
+	 * @return The array containing the HTML colors, indexed by row
+	 */
+	public String[] mapColumnToHtml(DataSet<? extends Number> data,
+		int column, String[] html) {
+		String[] colors = getHtmlTable();
+		int rows = data.getRowCount();
+
+		if (html == null || html.length < rows) {
+			html = new String[rows];
+		}
+
+		for (int row = 0; row < rows; row++) {
+			html[row] = colors[indexOf(getValue(data, row, column))];
+		}
+
+		return html;
+	}
+
+	/**
+	 * Maps the values of a data set row to packed RGB values.
+	 *
+	 * @param data The data set
+	 * @param row  The row index
+	 * @param rgb  The array to store the RGB values in or NULL to create a
+	 *             new array (also if the array is too small)
+	 * @return The array containing the RGB values, indexed by column
+	 */
+	public int[] mapRow(DataSet<? extends Number> data, int row, int[] rgb) {
+		int columns = data.getColumnCount();
+
+		if (rgb == null || rgb.length < columns) {
+			rgb = new int[columns];
+		}
+
+		for (int column = 0; column < columns; column++) {
+			rgb[column] = table[indexOf(getValue(data, row, column))];
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Maps the values of a data set row to HTML color strings. The strings
+	 * are shared with other invocations and are not created for each value.
+	 *
+	 * @param data The data set
+	 * @param row  The row index
+	 * @param html The array to store the HTML colors in or NULL to create a
+	 *             new array (also if the array is too small)
+	 * @return The array containing the HTML colors, indexed by column
+	 */
+	public String[] mapRowToHtml(DataSet<? extends Number> data, int row,
+		String[] html) {
+		String[] colors = getHtmlTable();
+		int columns = data.getColumnCount();
+
+		if (html == null || html.length < columns) {
+			html = new String[columns];
+		}
+
+		for (int column = 0; column < columns; column++) {
+			html[column] = colors[indexOf(getValue(data, row, column))];
+		}
+
+		return html;
+	}
+
+	/**
+	 * Adjusts the hues of HSL stops so that the linear interpolation between
+	 * adjacent stops rotates along the shorter direction of the color wheel.
+	 * Gray stops have no defined hue and therefore receive the hue of their
+	 * neighbor.
+	 *
+	 * @param vectors The HSL vectors of the stops
+	 */
+	private void adjustHues(double[][] vectors) {
+		int count = vectors.length;
+
+		for (int i = 0; i < count; i++) {
+			if (vectors[i][1] == 0) {
+				int neighbor = i > 0 ? i - 1 : Math.min(1, count - 1);
+
+				vectors[i][0] = vectors[neighbor][0];
+			}
+		}
+
+		for (int i = 1; i < count; i++) {
+			double difference = vectors[i][0] - vectors[i - 1][0];
+
+			// normalize to -180..180 because the previous hue may already be
+			// shifted by multiple turns
+			difference = ((difference % 360) + 540) % 360 - 180;
+			vectors[i][0] = vectors[i - 1][0] + difference;
+		}
+	}
+
+	/**
+	 * Creates the lookup table by interpolating the color stops.
+	 *
+	 * @param size          The table size
+	 * @param interpolation The color space for the interpolation
+	 * @param stops         The color stops
+	 * @return The lookup table
+	 */
+	private int[] createTable(int size, Interpolation interpolation,
+		List<Color> stops) {
+		int[] lookupTable = new int[size];
+		int segments = stops.size() - 1;
+		double[][] vectors = new double[stops.size()][];
+
+		for (int i = 0; i <= segments; i++) {
+			vectors[i] = toColorSpace(interpolation, stops.get(i).toRGB());
+		}
+
+		if (interpolation == Interpolation.HSL) {
+			adjustHues(vectors);
+		}
+
+		double[] vector = new double[3];
+
+		for (int i = 0; i < size; i++) {
+			double position = (double) i * segments / (size - 1);
+			int segment = Math.min((int) position, Math.max(segments - 1, 0));
+			double fraction = position - segment;
+			double[] from = vectors[segment];
+			double[] to = vectors[Math.min(segment + 1, segments)];
+
+			for (int c = 0; c < 3; c++) {
+				vector[c] = from[c] + (to[c] - from[c]) * fraction;
+			}
+
+			if (interpolation == Interpolation.HSL) {
+				vector[0] = (vector[0] % 360 + 360) % 360;
+			}
+
+			lookupTable[i] = fromColorSpace(interpolation, vector);
+		}
+
+		return lookupTable;
+	}
+
+	/**
+	 * Converts a color space vector into a packed RGB value.
+	 *
+	 * @param interpolation The color space
+	 * @param vector        The color space vector
+	 * @return The RGB value
+	 */
+	private static int fromColorSpace(Interpolation interpolation,
+		double[] vector) {
+		switch (interpolation) {
+			case HSL:
+				return fromHsl(vector[0], vector[1], vector[2]);
+
+			case LAB:
+				return fromLab(vector[0], vector[1], vector[2]);
+
+			default:
+				return Color.rgb((int) Math.round(vector[0]),
+					(int) Math.round(vector[1]), (int) Math.round(vector[2]));
+		}
+	}
+
+	/**
+	 * Converts HSL values into a packed RGB value.
+	 *
+	 * @param hue        The hue in degrees (0 - 360)
+	 * @param saturation The saturation (0 - 1)
+	 * @param lightness  The lightness (0 - 1)
+	 * @return The RGB value
+	 */
+	private static int fromHsl(double hue, double saturation,
+		double lightness) {
+		double chroma = (1 - Math.abs(2 * lightness - 1)) * saturation;
+		double sector = hue / 60;
+		double x = chroma * (1 - Math.abs(sector % 2 - 1));
+		double r = 0;
+		double g = 0;
+		double b = 0;
+
+		if (sector < 1) {
+			r = chroma;
+			g = x;
+		} else if (sector < 2) {
+			r = x;
+			g = chroma;
+		} else if (sector < 3) {
+			g = chroma;
+			b = x;
+		} else if (sector < 4) {
+			g = x;
+			b = chroma;
+		} else if (sector < 5) {
+			r = x;
+			b = chroma;
+		} else {
+			r = chroma;
+			b = x;
+		}
+
+		double m = lightness - chroma / 2;
+
+		return Color.rgb(toByte(r + m), toByte(g + m), toByte(b + m));
+	}
+
+	/**
+	 * Converts CIE L*a*b* values into a packed RGB value. Colors that are
+	 * outside of the sRGB gamut will be clipped.
+	 *
+	 * @param l The lightness
+	 * @param a The a* component
+	 * @param b The b* component
+	 * @return The RGB value
+	 */
+	private static int fromLab(double l, double a, double b) {
+		double fy = (l + 16) / 116;
+		double x = fromLabComponent(fy + a / 500) * WHITE_X;
+		double y = fromLabComponent(fy);
+		double z = fromLabComponent(fy - b / 200) * WHITE_Z;
+
+		double red = 3.2404542 * x - 1.5371385 * y - 0.4985314 * z;
+		double green = -0.9692660 * x + 1.8760108 * y + 0.0415560 * z;
+		double blue = 0.0556434 * x - 0.2040259 * y + 1.0572252 * z;
+
+		return Color.rgb(toByte(toGamma(red)), toByte(toGamma(green)),
+			toByte(toGamma(blue)));
+	}
+
+	/**
+	 * Inverts the non-linear L*a*b* component function.
+	 *
+	 * @param f The function value
+	 * @return The normalized XYZ component
+	 */
+	private static double fromLabComponent(double f) {
+		double cube = f * f * f;
+
+		return cube > LAB_EPSILON ? cube : (116 * f - 16) / LAB_KAPPA;
+	}
+
+	/**
+	 * Returns the lookup table of HTML color strings and creates it if
+	 * necessary.
+	 *
+	 * @return The HTML table
+	 */
+	private String[] getHtmlTable() {
+		String[] html = htmlTable;
+
+		if (html == null) {
+			html = new String[table.length];
+
+			for (int i = 0; i < table.length; i++) {
+				html[i] = Color.toHtml(table[i]);
+			}
+
+			// the volatile write publishes the complete array to other threads
+			htmlTable = html;
+		}
+
+		return html;
+	}
+
+	/**
+	 * Returns a data set value as a double without boxing if possible.
+	 *
+	 * @param data   The data set
+	 * @param row    The row index
+	 * @param column The column index
+	 * @return The value
+	 */
+	private double getValue(DataSet<? extends Number> data, int row,
+		int column) {
+		if (data instanceof DoubleDataSet) {
+			return ((DoubleDataSet) data).getDoubleValue(row, column);
+		} else if (data instanceof IntDataSet) {
+			return ((IntDataSet) data).getIntValue(row, column);
+		} else {
+			return data.getValue(row, column).doubleValue();
+		}
+	}
+
+	/**
+	 * Returns the table index for a value.
+	 *
+	 * @param value The value
+	 * @return The table index
+	 */
+	private int indexOf(double value) {
+		double position = (value - minValue) * scale + 0.5;
+
+		// NaN fails both comparisons and is converted to 0
+		return position <= 0 ? 0 :
+		       position >= table.length ? table.length - 1 : (int) position;
+	}
+
+	/**
+	 * Converts a color component in the range 0 - 1 into a byte value and
+	 * clips it to the valid range.
+	 *
+	 * @param component The color component
+	 * @return The byte value (0 - 255)
+	 */
+	private static int toByte(double component) {
+		long value = Math.round(component * 255);
+
+		return (int) (value < 0 ? 0 : (value > 255 ? 255 : value));
+	}
+
+	/**
+	 * Converts a packed RGB value into a vector of a certain color space.
+	 *
+	 * @param interpolation The color space
+	 * @param rgb           The RGB value
+	 * @return The color space vector
+	 */
+	private static double[] toColorSpace(Interpolation interpolation,
+		int rgb) {
+		switch (interpolation) {
+			case HSL:
+				return toHsl(rgb);
+
+			case LAB:
+				return toLab(rgb);
+
+			default:
+				return new double[] { Color.red(rgb), Color.green(rgb),
+					Color.blue(rgb) };
+		}
+	}
+
+	/**
+	 * Converts a color component from linear intensity to sRGB gamma
+	 * encoding.
+	 *
+	 * @param component The linear component
+	 * @return The gamma encoded component
+	 */
+	private static double toGamma(double component) {
+		return component <= 0.0031308 ?
+		       component * 12.92 :
+		       1.055 * Math.pow(component, 1 / 2.4) - 0.055;
+	}
+
+	/**
+	 * Converts a packed RGB value into HSL values.
+	 *
+	 * @param rgb The RGB value
+	 * @return An array containing hue, saturation, and lightness
+	 */
+	private static double[] toHsl(int rgb) {
+		double r = Color.red(rgb) / 255.0;
+		double g = Color.green(rgb) / 255.0;
+		double b = Color.blue(rgb) / 255.0;
+		double max = Math.max(r, Math.max(g, b));
+		double min = Math.min(r, Math.min(g, b));
+		double chroma = max - min;
+		double lightness = (max + min) / 2;
+		double hue = 0;
+		double saturation = 0;
+
+		if (chroma > 0) {
+			saturation = chroma / (1 - Math.abs(2 * lightness - 1));
+
+			if (max == r) {
+				hue = (g - b) / chroma;
+			} else if (max == g) {
+				hue = (b - r) / chroma + 2;
+			} else {
+				hue = (r - g) / chroma + 4;
+			}
+
+			hue = hue * 60;
+
+			if (hue < 0) {
+				hue += 360;
+			}
+		}
+
+		return new double[] { hue, saturation, lightness };
+	}
+
+	/**
+	 * Converts a packed RGB value into CIE L*a*b* values with the D65 white
+	 * point.
+	 *
+	 * @param rgb The RGB value
+	 * @return An array containing the L*, a*, and b* values
+	 */
+	private static double[] toLab(int rgb) {
+		double r = toLinear(Color.red(rgb) / 255.0);
+		double g = toLinear(Color.green(rgb) / 255.0);
+		double b = toLinear(Color.blue(rgb) / 255.0);
+
+		double x = (0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / WHITE_X;
+		double y = 0.2126729 * r + 0.7151522 * g + 0.0721750 * b;
+		double z = (0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / WHITE_Z;
+
+		double fx = toLabComponent(x);
+		double fy = toLabComponent(y);
+		double fz = toLabComponent(z);
+
+		return new double[] { 116 * fy - 16, 500 * (fx - fy),
+			200 * (fy - fz) };
+	}
+
+	/**
+	 * Applies the non-linear L*a*b* component function.
+	 *
+	 * @param t The normalized XYZ component
+	 * @return The function value
+	 */
+	private static double toLabComponent(double t) {
+		return t > LAB_EPSILON ? Math.cbrt(t) : (LAB_KAPPA * t + 16) / 116;
+	}
+
+	/**
+	 * Converts a color component from sRGB gamma encoding to linear
+	 * intensity.
+	 *
+	 * @param component The gamma encoded component (0 - 1)
+	 * @return The linear component
+	 */
+	private static double toLinear(double component) {
+		return component <= 0.04045 ?
+		       component / 12.92 :
+		       Math.pow((component + 0.055) / 1.055, 2.4);
+	}
+}
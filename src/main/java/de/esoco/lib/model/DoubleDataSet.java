@@ -29,7 +29,7 @@ public class DoubleDataSet extends AbstractDataSet<Double> {
 
 	private static final long serialVersionUID = 1L;
 
-	private final List<double[]> data = new ArrayList<double[]>();
+	private List<double[]> data;
 
 	/**
 	 * Creates a new instance without data. Data can then be added through the
@@ -61,7 +61,7 @@ public class DoubleDataSet extends AbstractDataSet<Double> {
 		super(rowLabels, columnLabels, rowAxisLabel, valueAxisLabel,
 			columnAxisLabel);
 
-		data = data;
+		this.data = data;
 	}
 
 	/**
@@ -78,6 +78,21 @@ public class DoubleDataSet extends AbstractDataSet<Double> {
 		return data.size() > 0 ? data.get(0).length : 0;
 	}
 
+	/**
+	 * Returns a value as a primitive double. This should be preferred over
+	 * {@link #getValue(int, int)} if many values are processed because it
+	 * doesn't create a wrapper object for each value.
+	 *
+	 * @param row    The row index
+	 * @param column The column index
+	 * @return The value
+	 * @throws IndexOutOfBoundsException If the either given row or column
+	 *                                   doesn't exist
+	 */
+	public final double getDoubleValue(int row, int column) {
+		return data.get(row)[column];
+	}
+
 	/**
 	 * @see DataSet#getValue(int, int)
 	 */
@@ -60,7 +60,7 @@ public class IntDataSet extends AbstractDataSet<Integer> {
 		super(rowLabels, columnLabels, rowAxisLabel, valueAxisLabel,
 			columnAxisLabel);
 
-		data = data;
+		this.data = data;
 	}
 
 	/**
@@ -77,6 +77,21 @@ public class IntDataSet extends AbstractDataSet<Integer> {
 		return data.size() > 0 ? data.get(0).length : 0;
 	}
 
+	/**
+	 * Returns a value as a primitive int. This should be preferred over
+	 * {@link #getValue(int, int)} if many values are processed because it
+	 * doesn't create a wrapper object for each value.
+	 *
+	 * @param row    The row index
+	 * @param column The column index
+	 * @return The value
+	 * @throws IndexOutOfBoundsException If the either given row or column
+	 *                                   doesn't exist
+	 */
+	public final int getIntValue(int row, int column) {
+		return data.get(row)[column];
+	}
+
 	/**
 	 * @see DataSet#getValue(int, int)
 	 */
@@ -115,9 +115,10 @@ public class SimpleColumnDefinition extends StringProperties
 
 		SimpleColumnDefinition other = (SimpleColumnDefinition) obj;
 
-		return hasEqualProperties(other) && Objects.equals(id, other.id) &&
+		return Objects.equals(id, other.id) &&
 			Objects.equals(title, other.title) &&
-			Objects.equals(datatype, other.datatype);
+			Objects.equals(datatype, other.datatype) &&
+			hasEqualProperties(other);
 	}
 
 	/**
@@ -16,23 +16,32 @@
 //++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
 package de.esoco.lib.property;
 
+import de.esoco.lib.text.CollectionTextCodec.Scanner;
+
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
+import static de.esoco.lib.text.CollectionTextCodec.appendElement;
+import static de.esoco.lib.text.CollectionTextCodec.appendEntry;
+import static de.esoco.lib.text.CollectionTextCodec.scan;
 import static de.esoco.lib.text.TextConvert.DEFAULT_COLLECTION_SEPARATOR;
 import static de.esoco.lib.text.TextConvert.DEFAULT_KEY_VALUE_SEPARATOR;
-import static de.esoco.lib.text.TextConvert.unicodeDecode;
-import static de.esoco.lib.text.TextConvert.unicodeEncode;
 
 /**
  * A base class for classes that provide access to string-based properties. A
@@ -40,9 +49,79 @@ import static de.esoco.lib.text.TextConvert.unicodeEncode;
  * in the class {@link StringProperties}.
  *
  * <p>
- * The internal property map of the base implementation will initially be NULL
- * to save space for empty property objects. Subclasses must handle the case of
- * a NULL map returned by {@link #getPropertyMap()} appropriately and may
+ * Although the properties are exchanged in a string-based format, values of
+ * the standard datatypes (strings, integer, long, and double numbers,
+ * booleans, enums, dates, colors, and lists, sets, and maps of such) are
+ * stored internally as immutable typed values in a compact storage that is
+ * indexed by the {@link PropertyName#getId() property name IDs}. Boolean
+ * properties are stored in a bit set so that flags can be queried and
+ * modified with simple bit operations, including the combined queries
+ * {@link #hasAllFlags(FlagMask)} and {@link #hasAnyFlag(FlagMask)}. Reading
+ * such properties doesn't require parsing and the primitive accessors like
+ * {@link #getIntProperty(PropertyName, int)} or
+ * {@link #getDoubleProperty(PropertyName, double)} return the stored values
+ * without allocating objects. Values of other datatypes are stored in their
+ * string representation as before. The string representation of the standard
+ * types is only created if it is needed for the transfer of the properties,
+ * e.g. for serialization or through the string map view returned by
+ * {@link #getPropertyMap()}. The conversion between values and strings is
+ * performed by the {@link PropertyName#getCodec() codecs} of the property
+ * names. Additional datatypes can be supported by registering codecs in
+ * {@link PropertyCodecs}. Values of registered datatypes with immutable
+ * values are also stored as typed values.
+ * </p>
+ *
+ * <p>
+ * Subclasses that override one of the conversion methods, like
+ * {@link #convertValue(Object)} or
+ * {@link #parseValue(String, Class, Class[])}, will have all values
+ * converted by these methods instead of the codecs. On the server this is
+ * detected once for each subclass. Without reflection, like in GWT, the
+ * conversion methods are always used, which by default delegate to the
+ * same codecs.
+ * </p>
+ *
+ * <p>
+ * By default queries for collection and map properties return a new mutable
+ * instance on each invocation. If an application doesn't modify the returned
+ * values it can switch to immutable values by invoking
+ * {@link #setImmutableValues(boolean)}. Collections and maps will then be
+ * returned as immutable instances that are shared by all queries, and values
+ * that are stored as strings will only be parsed on the first query of a
+ * property. This mode is a runtime setting that will not be serialized.
+ * </p>
+ *
+ * <p>
+ * The method {@link #snapshot()} returns an immutable copy of the current
+ * properties in constant time. The snapshot shares the internal storage with
+ * the originating object which will only copy the storage on the next
+ * modification.
+ * </p>
+ *
+ * <p>
+ * Many objects often have properties with identical content, e.g. the cells
+ * of a table with the same styles. By invoking {@link #intern(PropertyPool)}
+ * such objects can share the storage of a single canonical instance that is
+ * managed by a {@link PropertyPool}. The shared storage will be copied when
+ * the object is modified the next time.
+ * </p>
+ *
+ * <p>
+ * By default the properties are serialized in their string map format to stay
+ * compatible with earlier versions. Subclasses can switch to a compact binary
+ * format by implementing {@link java.io.Externalizable}, which will then be
+ * implemented by the methods {@link #writeExternal(java.io.ObjectOutput)} and
+ * {@link #readExternal(java.io.ObjectInput)} of this class. The binary format
+ * writes each distinct property name only once per object stream, and each
+ * property value as a tagged value that uses variable-length encoding for
+ * numbers. Such subclasses must provide a
+ * public no-argument constructor as required for externalization.
+ * </p>
+ *
+ * <p>
+ * The internal storage of the base implementation will initially be NULL to
+ * save space for empty property objects. Subclasses must handle the case of a
+ * NULL map returned by {@link #getPropertyMap()} appropriately and may
  * explicitly set the map to NULL (through {@link #setPropertyMap(Map)} to
  * indicate an empty map. The method {@link #ensurePropertyMapExists()} can be
  * invoked to force the creation of a property map before accessing it.
@@ -58,10 +137,39 @@ public abstract class AbstractStringProperties
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * The serialized form is still the string map of earlier versions.
+	 */
+	@GwtIncompatible
+	private static final java.io.ObjectStreamField[] serialPersistentFields =
+		{ new java.io.ObjectStreamField("propertyMap", Map.class) };
+
+	private static final Set<String> CONVERSION_METHODS = new HashSet<>(
+		Arrays.asList("convertCollection", "convertMap",
+			"convertValue", "parseCollection", "parseMap", "parseValue"));
+
+	/**
+	 * Checks whether a class overrides the conversion methods. Replaced by a
+	 * reflective check where reflection is available.
+	 */
+	private static Predicate<Class<?>> conversionOverrides = type -> true;
+
+	@GwtIncompatible
+	private static final boolean REFLECTIVE_OVERRIDE_CHECK =
+		installOverrideCheck();
+
 	// ~ Instance fields
 	// --------------------------------------------------------
 
-	private Map<PropertyName<?>, String> propertyMap = null;
+	private transient PropertyStore propertyStore = null;
+
+	private transient PropertyStore parsedValues = null;
+
+	private transient boolean immutableValues = false;
+
+	private transient boolean storeShared = false;
+
+	private transient PropertyMapView propertyMapView = null;
 
 	// ~ Methods
 	// ----------------------------------------------------------------
@@ -79,30 +187,137 @@ public abstract class AbstractStringProperties
 			hasEqualProperties((AbstractStringProperties) obj);
 	}
 
+	/**
+	 * Visits all properties in their storage order. Integer, long, double and
+	 * boolean values are handed to the primitive-specialized methods of the
+	 * visitor without boxing or lookup, other values are converted directly
+	 * from their stored representation.
+	 *
+	 * @see HasProperties#forEachProperty(PropertyVisitor)
+	 */
+	@Override
+	public void forEachProperty(PropertyVisitor visitor) {
+		if (propertyStore != null) {
+			int count = propertyStore.size();
+
+			for (int i = 0; i < count; i++) {
+				PropertyName<?> name = propertyStore.getName(i);
+				Object value = propertyStore.getValue(i);
+
+				if (!visitTypedValue(visitor, name, value)) {
+					visitor.visitProperty(name, toPropertyValue(name, value));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Visits all properties with their raw string representation as it is
+	 * used for the serialization of this instance. This is intended for
+	 * serializers and other code that needs the encoded values.
+	 *
+	 * @param consumer The consumer to invoke with each property name and raw
+	 *                 value
+	 */
+	public void forEachRawProperty(
+		BiConsumer<PropertyName<?>, String> consumer) {
+		if (propertyStore != null) {
+			int count = propertyStore.size();
+
+			for (int i = 0; i < count; i++) {
+				PropertyName<?> name = propertyStore.getName(i);
+
+				consumer.accept(name,
+					toRawValue(name, propertyStore.getValue(i)));
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean getBooleanProperty(PropertyName<Boolean> name,
+		boolean defaultValue) {
+		int flagIndex = name.getFlagIndex();
+
+		if (flagIndex >= 0) {
+			long bit = 1L << flagIndex;
+
+			if (propertyStore == null ||
+				(propertyStore.getFlagWord(flagIndex >>> 6, 0) & bit) == 0) {
+				return defaultValue;
+			}
+
+			return (propertyStore.getFlagWord(flagIndex >>> 6, 1) & bit) != 0;
+		}
+
+		Object value = getStoredValue(name);
+
+		return value != null ?
+		       Boolean.parseBoolean(value.toString()) :
+		       defaultValue;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDoubleProperty(PropertyName<Double> name,
+		double defaultValue) {
+		Object value = getStoredValue(name);
+
+		if (value instanceof Double) {
+			return ((Double) value).doubleValue();
+		} else {
+			return value != null ?
+			       Double.parseDouble(value.toString()) :
+			       defaultValue;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public int getIntProperty(PropertyName<Integer> name, int defaultValue) {
-		String property = getRawProperty(name);
+		Object value = getStoredValue(name);
 
-		return property != null ? Integer.parseInt(property) : defaultValue;
+		if (value instanceof Integer) {
+			return ((Integer) value).intValue();
+		} else {
+			return value != null ?
+			       Integer.parseInt(value.toString()) :
+			       defaultValue;
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public <T> T getProperty(PropertyName<T> name, T defaultValue) {
-		String rawValue = getRawProperty(name);
-		T value = defaultValue;
+	public long getLongProperty(PropertyName<Long> name, long defaultValue) {
+		Object value = getStoredValue(name);
 
-		if (rawValue != null) {
-			value = parseValue(rawValue, name.getDatatype(),
-				name.getElementDatatypes());
+		if (value instanceof Long) {
+			return ((Long) value).longValue();
+		} else {
+			return value != null ?
+			       Long.parseLong(value.toString()) :
+			       defaultValue;
 		}
+	}
 
-		return value;
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T getProperty(PropertyName<T> name, T defaultValue) {
+		Object storedValue = getStoredValue(name);
+
+		return storedValue != null ?
+		       toPropertyValue(name, storedValue) :
+		       defaultValue;
 	}
 
 	/**
@@ -110,7 +325,7 @@ public abstract class AbstractStringProperties
 	 */
 	@Override
 	public int getPropertyCount() {
-		return propertyMap != null ? propertyMap.size() : 0;
+		return propertyStore != null ? propertyStore.size() : 0;
 	}
 
 	/**
@@ -118,19 +333,48 @@ public abstract class AbstractStringProperties
 	 */
 	@Override
 	public Collection<PropertyName<?>> getPropertyNames() {
-		return propertyMap != null ?
-		       propertyMap.keySet() :
+		return propertyStore != null ?
+		       propertyStore.names() :
 		       Collections.emptySet();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasAllFlags(FlagMask flags) {
+		return propertyStore != null ?
+		       propertyStore.hasFlags(flags, true) :
+		       flags.getFlags().isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasAnyFlag(FlagMask flags) {
+		return propertyStore != null && propertyStore.hasFlags(flags, false);
+	}
+
 	/**
 	 * Checks whether this instance has equal properties as another instance.
+	 * Instances that share their storage, e.g. after interning, are equal
+	 * without comparison, and the comparison of other instances is rejected
+	 * early if the hash codes of their content differ.
 	 *
 	 * @param other The other properties object
 	 * @return TRUE if the properties are equal
 	 */
 	public boolean hasEqualProperties(AbstractStringProperties other) {
-		return Objects.equals(propertyMap, other.propertyMap);
+		PropertyStore otherStore = other.propertyStore;
+
+		if (propertyStore == otherStore) {
+			return true;
+		} else if (propertyStore == null || otherStore == null) {
+			return getPropertyCount() == other.getPropertyCount();
+		} else {
+			return propertyStore.contentEquals(otherStore);
+		}
 	}
 
 	/**
@@ -138,9 +382,27 @@ public abstract class AbstractStringProperties
 	 */
 	@Override
 	public boolean hasFlag(PropertyName<Boolean> name) {
-		String property = getRawProperty(name);
+		int flagIndex = name.getFlagIndex();
+
+		if (flagIndex < 0) {
+			return Boolean.TRUE.equals(getStoredValue(name));
+		}
+
+		return propertyStore != null &&
+			(propertyStore.getFlagWord(flagIndex >>> 6, 0) &
+				propertyStore.getFlagWord(flagIndex >>> 6, 1) &
+				(1L << flagIndex)) != 0;
+	}
 
-		return Boolean.parseBoolean(property);
+	/**
+	 * Checks whether this instance returns immutable collection and map
+	 * values.
+	 *
+	 * @return TRUE if immutable values are returned
+	 * @see #setImmutableValues(boolean)
+	 */
+	public final boolean hasImmutableValues() {
+		return immutableValues;
 	}
 
 	/**
@@ -148,7 +410,7 @@ public abstract class AbstractStringProperties
 	 */
 	@Override
 	public boolean hasProperty(PropertyName<?> name) {
-		return propertyMap != null && propertyMap.containsKey(name);
+		return propertyStore != null && propertyStore.contains(name);
 	}
 
 	/**
@@ -156,7 +418,85 @@ public abstract class AbstractStringProperties
 	 */
 	@Override
 	public int hashCode() {
-		return 37 + ((propertyMap == null) ? 0 : propertyMap.hashCode());
+		return 37 +
+			(propertyStore != null ? propertyStore.contentHashCode() : 0);
+	}
+
+	/**
+	 * Replaces the internal storage of this instance with that of the
+	 * canonical instance with equal properties in a property pool. All
+	 * objects with equal properties that are interned in the same pool will
+	 * then share a single storage until they are modified. This should be
+	 * invoked after an object has been fully initialized.
+	 *
+	 * @param pool The pool to intern the properties in
+	 */
+	public final void intern(PropertyPool pool) {
+		if (propertyStore != null && propertyStore.size() > 0) {
+			PropertyStore canonicalStore =
+				pool.intern(snapshot()).getSharedStore();
+
+			if (canonicalStore != propertyStore) {
+				propertyStore = canonicalStore;
+				storeShared = true;
+			}
+		}
+	}
+
+	/**
+	 * Reads the properties of this instance from the compact binary format
+	 * written by {@link #writeExternal(java.io.ObjectOutput)}. See the class
+	 * documentation for details.
+	 *
+	 * @param in The input to read from
+	 * @throws java.io.IOException If reading fails or the input is invalid
+	 */
+	@GwtIncompatible
+	public void readExternal(java.io.ObjectInput in)
+		throws java.io.IOException {
+		BinaryPropertyFormat.read(in, this);
+	}
+
+	/**
+	 * Sets whether this instance returns immutable collection and map values.
+	 * If enabled, queries for collection and map properties will return
+	 * immutable instances that are shared between invocations instead of
+	 * mutable copies and values that are stored as strings will be parsed
+	 * only once. Date values are always returned as copies because they are
+	 * mutable. Invoking code must not try to modify the returned values.
+	 *
+	 * @param immutable TRUE to return immutable values, FALSE to return
+	 *                  mutable copies
+	 */
+	public final void setImmutableValues(boolean immutable) {
+		immutableValues = immutable;
+
+		if (!immutable) {
+			parsedValues = null;
+		}
+	}
+
+	/**
+	 * Returns an immutable snapshot of the current properties of this
+	 * instance. The snapshot is created in constant time because it shares
+	 * the internal storage with this instance until this instance is modified
+	 * the next time. New versions of the snapshot can be derived efficiently
+	 * with the methods {@link ImmutableProperties#with(PropertyName, Object)}
+	 * and {@link ImmutableProperties#without(PropertyName)}. The snapshot
+	 * doesn't reference this instance and converts values only with the
+	 * codecs of the property names, not with overridden conversion methods
+	 * of subclasses.
+	 *
+	 * @return The properties snapshot
+	 */
+	public ImmutableProperties snapshot() {
+		if (propertyStore == null || propertyStore.size() == 0) {
+			return ImmutableProperties.EMPTY;
+		}
+
+		storeShared = true;
+
+		return new ImmutableProperties(propertyStore);
 	}
 
 	/**
@@ -165,7 +505,21 @@ public abstract class AbstractStringProperties
 	@Override
 	public String toString() {
 		return getClass().getSimpleName() +
-			(propertyMap != null ? propertyMap : "[]");
+			(propertyStore != null ? getPropertyMap() : "[]");
+	}
+
+	/**
+	 * Writes the properties of this instance in a compact binary format that
+	 * contains the property names and typed values of the properties. See the
+	 * class documentation for details.
+	 *
+	 * @param out The output to write to
+	 * @throws java.io.IOException If writing fails
+	 */
+	@GwtIncompatible
+	public void writeExternal(java.io.ObjectOutput out)
+		throws java.io.IOException {
+		BinaryPropertyFormat.write(this, out);
 	}
 
 	/**
@@ -176,19 +530,11 @@ public abstract class AbstractStringProperties
 	 */
 	protected String convertCollection(Collection<?> collection) {
 		StringBuilder result = new StringBuilder();
+		boolean first = true;
 
 		for (Object value : collection) {
-			String element = convertValue(value);
-
-			result.append(unicodeEncode(element,
-				DEFAULT_COLLECTION_SEPARATOR));
-			result.append(DEFAULT_COLLECTION_SEPARATOR);
-		}
-
-		int resultLength = result.length();
-
-		if (resultLength > 0) {
-			result.setLength(resultLength - 1);
+			appendElement(result, convertValue(value), first);
+			first = false;
 		}
 
 		return result.toString();
@@ -202,31 +548,30 @@ public abstract class AbstractStringProperties
 	 */
 	protected String convertMap(Map<?, ?> map) {
 		StringBuilder result = new StringBuilder();
+		boolean first = true;
 
-		if (map.size() > 0) {
-			for (Entry<?, ?> entry : map.entrySet()) {
-				String key = convertValue(entry.getKey());
-				String value = convertValue(entry.getValue());
-
-				assert key.indexOf(DEFAULT_COLLECTION_SEPARATOR) < 0 &&
-					key.indexOf(DEFAULT_KEY_VALUE_SEPARATOR) < 0;
+		for (Entry<?, ?> entry : map.entrySet()) {
+			String key = convertValue(entry.getKey());
+			String value = convertValue(entry.getValue());
 
-				result.append(key);
-				result.append(DEFAULT_KEY_VALUE_SEPARATOR);
-				result.append(
-					unicodeEncode(value, DEFAULT_COLLECTION_SEPARATOR));
-				result.append(DEFAULT_COLLECTION_SEPARATOR);
-			}
+			assert key.indexOf(DEFAULT_COLLECTION_SEPARATOR) < 0 &&
+				key.indexOf(DEFAULT_KEY_VALUE_SEPARATOR) < 0;
 
-			result.setLength(
-				result.length() - DEFAULT_COLLECTION_SEPARATOR.length());
+			appendEntry(result, key, value, first);
+			first = false;
 		}
 
 		return result.toString();
 	}
 
 	/**
-	 * Converts a value into a string to be stored in this instance.
+	 * Converts a value into a string to be stored in this instance. Values
+	 * of properties are converted with the {@link PropertyName#getCodec()
+	 * codec} of the property name, like they are parsed. This method will
+	 * therefore only be invoked for property datatypes for which no codec is
+	 * available, or if a subclass overrides one of the conversion methods.
+	 * Subclasses that override it must also override
+	 * {@link #parseValue(String, Class, Class[])} for the same datatypes.
 	 *
 	 * @param value The value to convert
 	 * @return The resulting string
@@ -239,7 +584,37 @@ public abstract class AbstractStringProperties
 		} else if (value instanceof Map) {
 			return convertMap(((Map<?, ?>) value));
 		} else {
-			return value.toString();
+			return PropertyCodecs.encode(value);
+		}
+	}
+
+	/**
+	 * Copies all properties from another instance into this one. Other than
+	 * setting the property values one by one this method copies the values
+	 * directly in their internal representation without parsing or
+	 * converting them. If this instance is empty the internal storage of the
+	 * other instance will be shared until one of the instances is modified.
+	 *
+	 * @param other   The instance to copy the properties from
+	 * @param replace TRUE to replace existing values, FALSE to only add the
+	 *                properties that don't exist in this instance
+	 */
+	protected final void copyProperties(AbstractStringProperties other,
+		boolean replace) {
+		PropertyStore otherStore = other.propertyStore;
+
+		if (other == this || otherStore == null || otherStore.size() == 0) {
+			return;
+		}
+
+		parsedValues = null;
+
+		if (propertyStore == null || propertyStore.size() == 0) {
+			other.storeShared = true;
+			propertyStore = otherStore;
+			storeShared = true;
+		} else {
+			getWritableStore().putAll(otherStore, replace);
 		}
 	}
 
@@ -247,8 +622,9 @@ public abstract class AbstractStringProperties
 	 * Creates the property map if it doesn't exist yet.
 	 */
 	protected final void ensurePropertyMapExists() {
-		if (propertyMap == null) {
-			propertyMap = new HashMap<PropertyName<?>, String>();
+		if (propertyStore == null) {
+			propertyStore = new PropertyStore();
+			storeShared = false;
 		}
 	}
 
@@ -277,10 +653,25 @@ public abstract class AbstractStringProperties
 	 * if no properties have been set in this instance. Invoking method must
 	 * handle this case accordingly.
 	 *
+	 * <p>The returned map is a modifiable view of the properties in their
+	 * string representation. Each access to a value of the map will convert it
+	 * to a string and each string set through the map will be parsed into the
+	 * value's datatype. It should therefore only be used for the transfer of
+	 * the properties in string format. The view is created once and then
+	 * returned on subsequent invocations.</p>
+	 *
 	 * @return The property map or NULL for none
 	 */
 	protected final Map<PropertyName<?>, String> getPropertyMap() {
-		return propertyMap;
+		if (propertyStore == null) {
+			return null;
+		}
+
+		if (propertyMapView == null) {
+			propertyMapView = new PropertyMapView();
+		}
+
+		return propertyMapView;
 	}
 
 	/**
@@ -294,7 +685,7 @@ public abstract class AbstractStringProperties
 	@SuppressWarnings("unchecked")
 	protected <T, C extends Collection<T>> C parseCollection(
 		Class<C> collectionType, String rawElements, Class<T> elementType) {
-		String[] elements = rawElements.split(DEFAULT_COLLECTION_SEPARATOR);
+		Scanner elements = scan(rawElements);
 		C collection;
 
 		if (List.class.isAssignableFrom(collectionType)) {
@@ -303,11 +694,8 @@ public abstract class AbstractStringProperties
 			collection = (C) new HashSet<T>();
 		}
 
-		for (int i = 0; i < elements.length; i++) {
-			String value =
-				unicodeDecode(elements[i], DEFAULT_COLLECTION_SEPARATOR);
-
-			collection.add(parseValue(value, elementType, null));
+		while (elements.next()) {
+			collection.add(parseValue(elements.getValue(), elementType, null));
 		}
 
 		return collection;
@@ -324,21 +712,14 @@ public abstract class AbstractStringProperties
 	protected <K, V> Map<K, V> parseMap(String rawEntries, Class<K> keyType,
 		Class<V> valueType) {
 		Map<K, V> map = new HashMap<>();
-		String[] entries = rawEntries.split(DEFAULT_COLLECTION_SEPARATOR);
+		Scanner entries = scan(rawEntries);
 
-		for (String entry : entries) {
-			int keyEnd = entry.indexOf(DEFAULT_KEY_VALUE_SEPARATOR);
-
-			if (keyEnd > 0) {
-				String key = entry.substring(0, keyEnd);
-
-				String value = entry.substring(
-					keyEnd + DEFAULT_KEY_VALUE_SEPARATOR.length());
-
-				value = unicodeDecode(value, DEFAULT_COLLECTION_SEPARATOR);
+		while (entries.next()) {
+			String key = entries.getKey();
 
+			if (key != null) {
 				map.put(parseValue(key, keyType, null),
-					parseValue(value, valueType, null));
+					parseValue(entries.getEntryValue(), valueType, null));
 			}
 		}
 
@@ -346,34 +727,33 @@ public abstract class AbstractStringProperties
 	}
 
 	/**
-	 * Parses a raw string value into a certain datatype if possible.
+	 * Parses a raw string value into a certain datatype if possible. Values
+	 * of properties are parsed with the {@link PropertyName#getCodec() codec}
+	 * of the property name, and values are converted into strings with the
+	 * same codec. This method will therefore only be invoked for property
+	 * datatypes for which no codec is available, or if a subclass overrides
+	 * one of the conversion methods. Subclasses that override it must also
+	 * override {@link #convertValue(Object)} accordingly. The default
+	 * implementation parses collections and maps with
+	 * {@link #parseCollection(Class, String, Class)} and
+	 * {@link #parseMap(String, Class, Class)} and other values with the codecs
+	 * registered in {@link PropertyCodecs}. Subclasses can override this
+	 * method to support additional datatypes but the preferred way is to
+	 * register a codec for the datatype.
 	 *
 	 * @param rawValue     The raw string value
 	 * @param datatype     The target datatype
 	 * @param elementTypes The element datatype(s) for collection properties or
 	 *                     NULL for none
-	 * @return The parsed valued object
+	 * @return The parsed valued object or NULL if the datatype is not
+	 * supported
 	 */
 	@SuppressWarnings("unchecked")
 	protected <T, E> T parseValue(String rawValue, Class<T> datatype,
 		Class<?>[] elementTypes) {
 		T value = null;
 
-		if (datatype == String.class) {
-			value = (T) rawValue;
-		} else if (datatype.isEnum()) {
-			value = findValue(datatype.getEnumConstants(), rawValue);
-		} else if (datatype == Date.class) {
-			value = (T) new Date(Long.parseLong(rawValue));
-		} else if (datatype == Long.class) {
-			value = (T) Long.valueOf(rawValue);
-		} else if (datatype == Integer.class) {
-			value = (T) Integer.valueOf(rawValue);
-		} else if (datatype == Boolean.class) {
-			value = (T) Boolean.valueOf(rawValue);
-		} else if (datatype == Color.class) {
-			value = (T) Color.valueOf(rawValue);
-		} else if (datatype == List.class || datatype == Set.class) {
+		if (datatype == List.class || datatype == Set.class) {
 			Class<E> elementType = (Class<E>) elementTypes[0];
 
 			value =
@@ -381,6 +761,12 @@ public abstract class AbstractStringProperties
 					rawValue, elementType);
 		} else if (datatype == Map.class) {
 			value = (T) parseMap(rawValue, elementTypes[0], elementTypes[1]);
+		} else {
+			PropertyCodec<T> codec = PropertyCodecs.getCodec(datatype);
+
+			if (codec != null) {
+				value = codec.decode(rawValue);
+			}
 		}
 
 		return value;
@@ -393,13 +779,11 @@ public abstract class AbstractStringProperties
 	 * @param name The property to remove
 	 */
 	protected void removeProperty(PropertyName<?> name) {
-		Map<PropertyName<?>, String> propertyMap = getPropertyMap();
+		if (propertyStore != null) {
+			removeStoredValue(name);
 
-		if (propertyMap != null) {
-			propertyMap.remove(name);
-
-			if (propertyMap.isEmpty()) {
-				setPropertyMap(null);
+			if (propertyStore.size() == 0) {
+				propertyStore = null;
 			}
 		}
 	}
@@ -414,30 +798,697 @@ public abstract class AbstractStringProperties
 	 */
 	protected <T> void setProperty(PropertyName<T> name, T value) {
 		if (value != null) {
-			ensurePropertyMapExists();
-			getPropertyMap().put(name, convertValue(value));
+			putStoredValue(name, toStoredValue(name, value));
 		} else {
 			removeProperty(name);
 		}
 	}
 
 	/**
-	 * Sets the property map of this instance.
+	 * Sets the property map of this instance. The string values in the map
+	 * will be converted into the datatypes of the respective properties.
 	 *
 	 * @param properties The new property map
 	 */
 	protected final void setPropertyMap(
 		Map<PropertyName<?>, String> properties) {
-		propertyMap = properties;
+		parsedValues = null;
+		storeShared = false;
+
+		if (properties != null) {
+			propertyStore = new PropertyStore(properties.size());
+
+			for (Entry<PropertyName<?>, String> entry :
+				properties.entrySet()) {
+				setRawProperty(entry.getKey(), entry.getValue());
+			}
+		} else {
+			propertyStore = null;
+		}
+	}
+
+	/**
+	 * Returns the internal property storage of this instance.
+	 *
+	 * @return The property storage or NULL if no properties have been set
+	 */
+	final PropertyStore getPropertyStore() {
+		return propertyStore;
 	}
 
 	/**
-	 * Returns the unparsed (raw) value of a property as a string.
+	 * Returns the value of a property as it is stored internally.
 	 *
 	 * @param name The name of the property
-	 * @return The string property value or the defaultValue value
+	 * @return The stored value or NULL for none
 	 */
-	private final String getRawProperty(PropertyName<?> name) {
-		return propertyMap != null ? propertyMap.get(name) : null;
+	final Object getStoredValue(PropertyName<?> name) {
+		return propertyStore != null ? propertyStore.get(name) : null;
+	}
+
+	/**
+	 * Parses a property value that is stored as a string. The value is
+	 * parsed with the codec of the property name if available and if the
+	 * conversion methods are not overridden.
+	 *
+	 * @param name     The property name
+	 * @param rawValue The raw string value
+	 * @return The parsed value
+	 */
+	final Object parseRawValue(PropertyName<?> name, String rawValue) {
+		PropertyCodec<?> codec = name.getCodec();
+
+		return codec != null && !hasConversionOverrides() ?
+		       codec.decode(rawValue) :
+		       parseValue(rawValue, name.getDatatype(),
+			       name.getElementDatatypes());
+	}
+
+	/**
+	 * Restores a property value that has been read from a serialized format.
+	 * Strings will be parsed like raw property values, other values will be
+	 * converted like values that are set through
+	 * {@link #setProperty(PropertyName, Object)}.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 */
+	final void restoreProperty(PropertyName<?> name, Object value) {
+		putStoredValue(name, value instanceof String ?
+		                     parseStoredValue(name, (String) value) :
+		                     toStoredValue(name, value));
+	}
+
+	/**
+	 * Converts a property value into it's string representation. Like in
+	 * {@link #parseRawValue(PropertyName, String)} the value is converted
+	 * with the codec of the property name if available and if the conversion
+	 * methods are not overridden.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 * @return The raw string value
+	 */
+	@SuppressWarnings("unchecked")
+	final String toRawValue(PropertyName<?> name, Object value) {
+		if (value instanceof String) {
+			return (String) value;
+		}
+
+		PropertyCodec<Object> codec = (PropertyCodec<Object>) name.getCodec();
+
+		return codec != null && !hasConversionOverrides() ?
+		       codec.encode(value) :
+		       convertValue(value);
+	}
+
+	/**
+	 * Installs the reflective check for overridden conversion methods. The
+	 * result is cached for each class.
+	 *
+	 * @return Always TRUE
+	 */
+	@GwtIncompatible
+	private static boolean installOverrideCheck() {
+		java.lang.ClassValue<Boolean> overrides =
+			new java.lang.ClassValue<Boolean>() {
+				@Override
+				protected Boolean computeValue(Class<?> type) {
+					return Boolean.valueOf(declaresConversionMethod(type));
+				}
+			};
+
+		conversionOverrides = type -> overrides.get(type).booleanValue();
+
+		return true;
+	}
+
+	/**
+	 * Checks whether a subclass or one of it's superclasses below this class
+	 * declares one of the overridable conversion methods.
+	 *
+	 * @param type The subclass to check
+	 * @return TRUE if a conversion method is overridden
+	 */
+	@GwtIncompatible
+	private static boolean declaresConversionMethod(Class<?> type) {
+		for (Class<?> current = type;
+			current != null && current != AbstractStringProperties.class;
+			current = current.getSuperclass()) {
+			for (java.lang.reflect.Method method :
+				current.getDeclaredMethods()) {
+				int modifiers = method.getModifiers();
+
+				if (CONVERSION_METHODS.contains(method.getName()) &&
+					!java.lang.reflect.Modifier.isStatic(modifiers) &&
+					!java.lang.reflect.Modifier.isPrivate(modifiers)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Hands a stored value to the matching primitive-specialized method of a
+	 * property visitor. String values of string properties are also handed
+	 * over directly.
+	 *
+	 * @param visitor     The property visitor
+	 * @param name        The property name
+	 * @param storedValue The stored property value
+	 * @return TRUE if the value has been visited, FALSE if it needs to be
+	 * converted first
+	 */
+	@SuppressWarnings("unchecked")
+	static boolean visitTypedValue(PropertyVisitor visitor,
+		PropertyName<?> name, Object storedValue) {
+		Class<?> datatype = name.getDatatype();
+
+		if (storedValue instanceof Boolean && datatype == Boolean.class) {
+			visitor.visitFlag((PropertyName<Boolean>) name,
+				((Boolean) storedValue).booleanValue());
+		} else if (storedValue instanceof Integer &&
+			datatype == Integer.class) {
+			visitor.visitInt((PropertyName<Integer>) name,
+				((Integer) storedValue).intValue());
+		} else if (storedValue instanceof Long && datatype == Long.class) {
+			visitor.visitLong((PropertyName<Long>) name,
+				((Long) storedValue).longValue());
+		} else if (storedValue instanceof Double && datatype == Double.class) {
+			visitor.visitDouble((PropertyName<Double>) name,
+				((Double) storedValue).doubleValue());
+		} else if (storedValue instanceof String && datatype == String.class) {
+			visitor.visitProperty(name, storedValue);
+		} else {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks whether a certain datatype can be stored with typed values.
+	 *
+	 * @param datatype The datatype to check
+	 * @return TRUE if values of the datatype can be stored directly
+	 */
+	private static boolean isStorableDatatype(Class<?> datatype) {
+		return isStorableScalarType(datatype) || datatype == Date.class ||
+			datatype == List.class || datatype == Set.class ||
+			datatype == Map.class;
+	}
+
+	/**
+	 * Checks whether a certain datatype can be stored with typed values in
+	 * collections. This is the case for all datatypes that have a codec with
+	 * immutable values.
+	 *
+	 * @param datatype The datatype to check
+	 * @return TRUE if values of the datatype can be stored directly
+	 */
+	private static boolean isStorableScalarType(Class<?> datatype) {
+		return PropertyCodecs.isImmutable(datatype);
+	}
+
+	/**
+	 * Checks whether a value can be stored as a typed value for a certain
+	 * datatype. Only instances of the exact datatypes will be stored directly
+	 * so that the internal state always matches the result of parsing the
+	 * string representation.
+	 *
+	 * @param value        The value to check
+	 * @param datatype     The target datatype
+	 * @param elementTypes The element datatypes for collections and maps
+	 * @return TRUE if the value can be stored directly
+	 */
+	private static boolean isStorableValue(Object value, Class<?> datatype,
+		Class<?>[] elementTypes) {
+		if (datatype == List.class || datatype == Set.class) {
+			return (datatype == List.class ?
+			        value instanceof List :
+			        value instanceof Set) &&
+				isStorableCollection((Collection<?>) value, elementTypes[0]);
+		} else if (datatype == Map.class) {
+			return value instanceof Map &&
+				isStorableCollection(((Map<?, ?>) value).keySet(),
+					elementTypes[0]) &&
+				isStorableCollection(((Map<?, ?>) value).values(),
+					elementTypes[1]);
+		} else if (datatype == Date.class) {
+			return value instanceof Date;
+		} else {
+			return isStorableScalar(value, datatype);
+		}
+	}
+
+	/**
+	 * Checks whether all elements of a collection can be stored directly.
+	 *
+	 * @param collection  The collection to check
+	 * @param elementType The datatype of the collection elements
+	 * @return TRUE if the elements can be stored directly
+	 */
+	private static boolean isStorableCollection(Collection<?> collection,
+		Class<?> elementType) {
+		if (!isStorableScalarType(elementType)) {
+			return false;
+		}
+
+		for (Object element : collection) {
+			if (element == null || !isStorableScalar(element, elementType)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks whether a single value can be stored directly.
+	 *
+	 * @param value    The value to check
+	 * @param datatype The target datatype
+	 * @return TRUE if the value can be stored directly
+	 */
+	private static boolean isStorableScalar(Object value, Class<?> datatype) {
+		if (datatype.isEnum()) {
+			return value instanceof Enum &&
+				((Enum<?>) value).getDeclaringClass() == datatype;
+		} else {
+			return value.getClass() == datatype &&
+				isStorableScalarType(datatype);
+		}
+	}
+
+	/**
+	 * Returns an immutable copy of a value that is suitable for storing.
+	 *
+	 * @param value    The value to copy
+	 * @param datatype The datatype of the value
+	 * @return The immutable value
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object toImmutableValue(Object value, Class<?> datatype) {
+		if (datatype == List.class) {
+			return Collections.unmodifiableList(new ArrayList((List) value));
+		} else if (datatype == Set.class) {
+			return Collections.unmodifiableSet(new HashSet((Set) value));
+		} else if (datatype == Map.class) {
+			return Collections.unmodifiableMap(new HashMap((Map) value));
+		} else if (datatype == Date.class) {
+			return new Date(((Date) value).getTime());
+		} else if (datatype == Boolean.class) {
+			return Boolean.valueOf(((Boolean) value).booleanValue());
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the immutable parsed value of a property that is stored as a
+	 * string. The parsed value will be cached until the property is modified.
+	 *
+	 * @param name     The property name
+	 * @param rawValue The raw string value
+	 * @return The parsed value
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object getParsedValue(PropertyName<?> name, String rawValue) {
+		Object value = parsedValues != null ? parsedValues.get(name) : null;
+
+		if (value == null) {
+			Class<?> datatype = name.getDatatype();
+
+			value = parseRawValue(name, rawValue);
+
+			if (value instanceof List) {
+				value = Collections.unmodifiableList((List) value);
+			} else if (value instanceof Set) {
+				value = Collections.unmodifiableSet((Set) value);
+			} else if (value instanceof Map) {
+				value = Collections.unmodifiableMap((Map) value);
+			} else if (datatype == Date.class) {
+				// mutable dates are not cached
+				return value;
+			}
+
+			if (value != null) {
+				if (parsedValues == null) {
+					parsedValues = new PropertyStore();
+				}
+
+				parsedValues.put(name, value);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Parses a stored value from it's string representation. If the property
+	 * has one of the standard datatypes the value will be stored in the typed
+	 * form, else the string will be stored.
+	 *
+	 * @param name     The property name
+	 * @param rawValue The raw string value
+	 * @return The value to store
+	 */
+	private Object parseStoredValue(PropertyName<?> name, String rawValue) {
+		Class<?> datatype = name.getDatatype();
+
+		if (datatype == Boolean.class) {
+			// flags must always be stored as booleans
+			Object value = parseRawValue(name, rawValue);
+
+			return value instanceof Boolean ?
+			       value :
+			       Boolean.valueOf(Boolean.parseBoolean(rawValue));
+		} else if (datatype != String.class && isStorableDatatype(datatype)) {
+			Class<?>[] elementTypes = name.getElementDatatypes();
+
+			try {
+				Object value = parseRawValue(name, rawValue);
+
+				if (value != null &&
+					isStorableValue(value, datatype, elementTypes)) {
+					return toImmutableValue(value, datatype);
+				}
+			} catch (RuntimeException e) {
+				// keep the raw value so that invalid values will cause an
+				// error on access as they did before
+			}
+		}
+
+		return rawValue;
+	}
+
+	/**
+	 * Stores a property value and discards a cached parsed value of the
+	 * property.
+	 *
+	 * @param name  The property name
+	 * @param value The value to store
+	 */
+	private void putStoredValue(PropertyName<?> name, Object value) {
+		getWritableStore().put(name, value);
+
+		if (parsedValues != null) {
+			parsedValues.remove(name);
+		}
+	}
+
+	/**
+	 * Removes a stored property value together with a cached parsed value of
+	 * the property.
+	 *
+	 * @param name The property name
+	 */
+	private void removeStoredValue(PropertyName<?> name) {
+		if (propertyStore != null && propertyStore.contains(name)) {
+			getWritableStore().remove(name);
+		}
+
+		if (parsedValues != null) {
+			parsedValues.remove(name);
+		}
+	}
+
+	/**
+	 * Stores a property value from it's raw string representation.
+	 *
+	 * @param name     The property name
+	 * @param rawValue The raw string value
+	 */
+	private void setRawProperty(PropertyName<?> name, String rawValue) {
+		putStoredValue(name, parseStoredValue(name, rawValue));
+	}
+
+	/**
+	 * Converts a stored value into the value that is returned from property
+	 * queries. Values that are stored as strings will be parsed into the
+	 * property datatype and mutable values will be copied.
+	 *
+	 * @param name        The property name
+	 * @param storedValue The stored value
+	 * @return The property value
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private <T> T toPropertyValue(PropertyName<T> name, Object storedValue) {
+		Class<T> datatype = name.getDatatype();
+		Object value = storedValue;
+
+		if (storedValue instanceof String) {
+			if (datatype != String.class) {
+				value = immutableValues ?
+				        getParsedValue(name, (String) storedValue) :
+				        parseRawValue(name, (String) storedValue);
+			}
+		} else if (immutableValues && datatype != Date.class) {
+			value = storedValue;
+		} else if (datatype == List.class) {
+			value = new ArrayList((List) storedValue);
+		} else if (datatype == Set.class) {
+			value = new HashSet((Set) storedValue);
+		} else if (datatype == Map.class) {
+			value = new HashMap((Map) storedValue);
+		} else if (datatype == Date.class) {
+			value = new Date(((Date) storedValue).getTime());
+		}
+
+		return (T) value;
+	}
+
+	/**
+	 * Checks whether the class of this instance overrides one of the
+	 * conversion methods which must then be used instead of the codecs.
+	 *
+	 * @return TRUE if the conversion methods are overridden
+	 */
+	private boolean hasConversionOverrides() {
+		return conversionOverrides.test(getClass());
+	}
+
+	/**
+	 * Returns the property storage for modification. If the current storage
+	 * is shared with a snapshot it will be copied first.
+	 *
+	 * @return The modifiable property storage
+	 */
+	private PropertyStore getWritableStore() {
+		if (propertyStore == null) {
+			propertyStore = new PropertyStore();
+		} else if (storeShared) {
+			propertyStore = new PropertyStore(propertyStore);
+		}
+
+		storeShared = false;
+
+		return propertyStore;
+	}
+
+	/**
+	 * Converts a property value into the form in which it will be stored.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 * @return The value to store
+	 */
+	final Object toStoredValue(PropertyName<?> name, Object value) {
+		Class<?> datatype = name.getDatatype();
+
+		if (value instanceof Boolean && datatype == Boolean.class) {
+			return value;
+		} else if (isStorableValue(value, datatype, name.getElementDatatypes())) {
+			return toImmutableValue(value, datatype);
+		} else {
+			return parseStoredValue(name, toRawValue(name, value));
+		}
+	}
+
+	/**
+	 * Restores the properties from the serialized string map.
+	 *
+	 * @param in The input stream
+	 * @throws java.io.IOException    If reading fails
+	 * @throws ClassNotFoundException If a class cannot be resolved
+	 */
+	@GwtIncompatible
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream in)
+		throws java.io.IOException, ClassNotFoundException {
+		setPropertyMap((Map<PropertyName<?>, String>) in
+			.readFields()
+			.get("propertyMap", null));
+	}
+
+	/**
+	 * Writes the properties in the string map format.
+	 *
+	 * @param out The output stream
+	 * @throws java.io.IOException If writing fails
+	 */
+	@GwtIncompatible
+	private void writeObject(java.io.ObjectOutputStream out)
+		throws java.io.IOException {
+		java.io.ObjectOutputStream.PutField fields = out.putFields();
+
+		fields.put("propertyMap", propertyStore != null ?
+		                          new HashMap<>(getPropertyMap()) :
+		                          null);
+		out.writeFields();
+	}
+
+	/**
+	 * A modifiable map view of the properties in their string
+	 * representation. It has no state of it's own and therefore remains valid
+	 * if the property storage of the enclosing instance is replaced.
+	 *
+	 * @author eso
+	 */
+	private class PropertyMapView
+		extends AbstractMap<PropertyName<?>, String> {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof PropertyName &&
+				hasProperty((PropertyName<?>) key);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Set<Entry<PropertyName<?>, String>> entrySet() {
+			return new AbstractSet<Entry<PropertyName<?>, String>>() {
+				@Override
+				public Iterator<Entry<PropertyName<?>, String>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return getPropertyCount();
+				}
+			};
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String get(Object key) {
+			Object value = key instanceof PropertyName ?
+			               getStoredValue((PropertyName<?>) key) :
+			               null;
+
+			return value != null ?
+			       toRawValue((PropertyName<?>) key, value) :
+			       null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String put(PropertyName<?> name, String rawValue) {
+			String previous = get(name);
+
+			setRawProperty(name, rawValue);
+
+			return previous;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String remove(Object key) {
+			String previous = get(key);
+
+			if (previous != null) {
+				removeStoredValue((PropertyName<?>) key);
+			}
+
+			return previous;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return getPropertyCount();
+		}
+	}
+
+	/**
+	 * An iterator over the entries of a {@link PropertyMapView}.
+	 *
+	 * @author eso
+	 */
+	private class EntryIterator
+		implements Iterator<Entry<PropertyName<?>, String>> {
+
+		private int next = 0;
+
+		private int current = -1;
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return next < getPropertyCount();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Entry<PropertyName<?>, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			current = next++;
+
+			final PropertyName<?> name = propertyStore.getName(current);
+
+			return new AbstractMap.SimpleEntry<PropertyName<?>, String>(name,
+				toRawValue(name, propertyStore.getValue(current))) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public String setValue(String rawValue) {
+					putStoredValue(name, parseStoredValue(name, rawValue));
+
+					return super.setValue(rawValue);
+				}
+			};
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void remove() {
+			if (current < 0) {
+				throw new IllegalStateException();
+			}
+
+			if (parsedValues != null) {
+				parsedValues.remove(propertyStore.getName(current));
+			}
+
+			// the last entry will be moved to the removed position
+			getWritableStore().removeAt(current);
+			next = current;
+			current = -1;
+		}
 	}
 }
@@ -0,0 +1,537 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Implements the compact binary format that is used by
+ * {@link AbstractStringProperties#writeExternal(java.io.ObjectOutput)} and
+ * {@link AbstractStringProperties#readExternal(java.io.ObjectInput)}. The
+ * format consists of a version byte and the property count, followed by the
+ * properties. Each property is written as the property name and a tagged
+ * value. Numbers and lengths are written as variable-length integers (7 bits
+ * per byte) so that small values only occupy a single byte.
+ *
+ * <p>Property names are written as strings because the numeric name IDs are
+ * only valid inside a single JVM. All names must therefore be defined when
+ * properties are read, like it is required for the standard serialization of
+ * property names. The names and the names of enum constants are written as
+ * objects of the object stream so that each distinct name is only written
+ * once per stream. All further occurrences, e.g. in the other properties
+ * objects of a serialized session, are written as back references of a few
+ * bytes.</p>
+ *
+ * <p>Lengths and counts that are read are checked against fixed limits
+ * (64 MB for strings and 16M elements for collections and properties) so
+ * that corrupt input causes an {@link java.io.InvalidObjectException} instead
+ * of an excessive memory allocation.</p>
+ *
+ * @author eso
+ */
+@GwtIncompatible
+final class BinaryPropertyFormat {
+
+	private static final int VERSION = 2;
+
+	private static final int TAG_STRING = 0;
+
+	private static final int TAG_TRUE = 1;
+
+	private static final int TAG_FALSE = 2;
+
+	private static final int TAG_INTEGER = 3;
+
+	private static final int TAG_LONG = 4;
+
+	private static final int TAG_COLOR = 5;
+
+	private static final int TAG_ENUM = 6;
+
+	private static final int TAG_DATE = 7;
+
+	private static final int TAG_LIST = 8;
+
+	private static final int TAG_SET = 9;
+
+	private static final int TAG_MAP = 10;
+
+	private static final int TAG_DOUBLE = 11;
+
+	private static final int MAX_STRING_LENGTH = 1 << 26;
+
+	private static final int MAX_ELEMENT_COUNT = 1 << 24;
+
+	private static final int MAX_INITIAL_CAPACITY = 1 << 10;
+
+	/**
+	 * Private, only static use.
+	 */
+	private BinaryPropertyFormat() {
+	}
+
+	/**
+	 * Reads properties from the binary format into a properties object. All
+	 * existing properties of the target object will be replaced.
+	 *
+	 * @param in         The input to read from
+	 * @param properties The properties object to read into
+	 * @throws java.io.IOException If reading the input fails or if the input
+	 *                             contains invalid data
+	 */
+	static void read(java.io.ObjectInput in,
+		AbstractStringProperties properties) throws java.io.IOException {
+		int version = in.readUnsignedByte();
+
+		if (version != VERSION) {
+			throw new java.io.InvalidObjectException(
+				"Unsupported format version: " + version);
+		}
+
+		int count = readLength(in, MAX_ELEMENT_COUNT);
+
+		properties.setPropertyMap(null);
+
+		for (int i = 0; i < count; i++) {
+			String propertyName = readSharedString(in);
+			PropertyName<?> name = PropertyName.valueOf(propertyName);
+
+			if (name == null) {
+				throw new java.io.InvalidObjectException(
+					"Undefined property name: " + propertyName);
+			}
+
+			Class<?>[] elementTypes = name.getElementDatatypes();
+			Object value = readValue(in, name.getDatatype(), elementTypes);
+
+			properties.restoreProperty(name, value);
+		}
+	}
+
+	/**
+	 * Writes the properties of a properties object in the binary format.
+	 *
+	 * @param properties The properties object to write
+	 * @param out        The output to write to
+	 * @throws java.io.IOException If writing fails
+	 */
+	static void write(AbstractStringProperties properties,
+		java.io.ObjectOutput out) throws java.io.IOException {
+		out.writeByte(VERSION);
+		writeVarInt(out, properties.getPropertyCount());
+
+		for (PropertyName<?> name : properties.getPropertyNames()) {
+			out.writeObject(name.getName());
+			writeValue(out, properties.getStoredValue(name));
+		}
+	}
+
+	/**
+	 * Checks that a container value is valid for the datatype of the property
+	 * that is read.
+	 *
+	 * @param tag           The value tag
+	 * @param containerType The datatype of the container
+	 * @param datatype      The expected datatype
+	 * @param elementTypes  The element datatypes or NULL for none
+	 * @param elementCount  The required number of element datatypes
+	 * @throws java.io.InvalidObjectException If the container is not valid
+	 */
+	private static void checkContainer(int tag, Class<?> containerType,
+		Class<?> datatype, Class<?>[] elementTypes, int elementCount)
+		throws java.io.InvalidObjectException {
+		if (elementTypes == null || elementTypes.length < elementCount ||
+			!containerType.isAssignableFrom(datatype)) {
+			throw new java.io.InvalidObjectException(
+				"Invalid container tag " + tag + " for " +
+					datatype.getSimpleName());
+		}
+	}
+
+	/**
+	 * Checks that a scalar value is valid for the datatype of the property
+	 * or collection element that is read. Values of all datatypes can also
+	 * be read in their string representation.
+	 *
+	 * @param tag       The value tag
+	 * @param valueType The datatype of the tagged value
+	 * @param datatype  The expected datatype
+	 * @throws java.io.InvalidObjectException If the value is not valid
+	 */
+	private static void checkScalar(int tag, Class<?> valueType,
+		Class<?> datatype) throws java.io.InvalidObjectException {
+		if (valueType != datatype) {
+			throw new java.io.InvalidObjectException(
+				"Invalid value tag " + tag + " for " +
+					datatype.getSimpleName());
+		}
+	}
+
+	/**
+	 * Reads the elements of a collection value.
+	 *
+	 * @param in          The input to read from
+	 * @param collection  The collection to add the elements to
+	 * @param elementType The element datatype
+	 * @return The collection
+	 * @throws java.io.IOException If reading fails
+	 */
+	private static Collection<Object> readElements(java.io.ObjectInput in,
+		Collection<Object> collection, Class<?> elementType)
+		throws java.io.IOException {
+		int count = readLength(in, MAX_ELEMENT_COUNT);
+
+		for (int i = 0; i < count; i++) {
+			collection.add(readValue(in, elementType, null));
+		}
+
+		return collection;
+	}
+
+	/**
+	 * Reads a length or element count and checks that it is valid.
+	 *
+	 * @param in        The input to read from
+	 * @param maxLength The maximum valid length
+	 * @return The length
+	 * @throws java.io.IOException If reading fails or the length is invalid
+	 */
+	private static int readLength(java.io.DataInput in, int maxLength)
+		throws java.io.IOException {
+		long length = readVarLong(in);
+
+		if (length < 0 || length > maxLength) {
+			throw new java.io.InvalidObjectException(
+				"Invalid length: " + length);
+		}
+
+		return (int) length;
+	}
+
+	/**
+	 * Reads a string that has been written as an object of the object stream
+	 * so that repeated occurrences are resolved from their back references.
+	 *
+	 * @param in The input to read from
+	 * @return The string
+	 * @throws java.io.IOException If reading fails or the next object is not
+	 *                             a string
+	 */
+	private static String readSharedString(java.io.ObjectInput in)
+		throws java.io.IOException {
+		Object value;
+
+		try {
+			value = in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new java.io.InvalidObjectException(e.getMessage());
+		}
+
+		if (!(value instanceof String)) {
+			throw new java.io.InvalidObjectException(
+				"String expected: " + value);
+		}
+
+		return (String) value;
+	}
+
+	/**
+	 * Reads a string that has been written with
+	 * {@link #writeString(java.io.DataOutput, String)}.
+	 *
+	 * @param in The input to read from
+	 * @return The string
+	 * @throws java.io.IOException If reading fails
+	 */
+	private static String readString(java.io.DataInput in)
+		throws java.io.IOException {
+		byte[] bytes = new byte[readLength(in, MAX_STRING_LENGTH)];
+
+		in.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a tagged value. Scalar values are only valid for their exact
+	 * datatype and strings for any datatype. Collections and maps are only
+	 * valid as property values with a corresponding datatype and element
+	 * datatypes. Their elements must be scalar values, which are read with
+	 * NULL element types so that corrupt input with nested containers is
+	 * rejected.
+	 *
+	 * @param in           The input to read from
+	 * @param datatype     The expected datatype
+	 * @param elementTypes The element datatypes of collections and maps or
+	 *                     NULL for none
+	 * @return The value
+	 * @throws java.io.IOException If reading fails or the data is invalid
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object readValue(java.io.ObjectInput in, Class<?> datatype,
+		Class<?>[] elementTypes) throws java.io.IOException {
+		int tag = in.readUnsignedByte();
+
+		switch (tag) {
+			case TAG_STRING:
+				return readString(in);
+
+			case TAG_TRUE:
+				checkScalar(tag, Boolean.class, datatype);
+
+				return Boolean.TRUE;
+
+			case TAG_FALSE:
+				checkScalar(tag, Boolean.class, datatype);
+
+				return Boolean.FALSE;
+
+			case TAG_INTEGER:
+				checkScalar(tag, Integer.class, datatype);
+
+				return Integer.valueOf(readVarInt(in));
+
+			case TAG_LONG:
+				checkScalar(tag, Long.class, datatype);
+
+				return Long.valueOf(readVarLong(in));
+
+			case TAG_DOUBLE:
+				checkScalar(tag, Double.class, datatype);
+
+				return Double.valueOf(in.readDouble());
+
+			case TAG_COLOR:
+				checkScalar(tag, Color.class, datatype);
+
+				return Color.valueOf(in.readInt());
+
+			case TAG_DATE:
+				checkScalar(tag, Date.class, datatype);
+
+				return new Date(readVarLong(in));
+
+			case TAG_ENUM:
+				checkScalar(tag, datatype.isEnum() ? datatype : Enum.class,
+					datatype);
+
+				String enumName = readSharedString(in);
+
+				try {
+					return Enum.valueOf((Class<Enum>) datatype, enumName);
+				} catch (IllegalArgumentException e) {
+					throw new java.io.InvalidObjectException(
+						"Undefined enum constant: " + enumName);
+				}
+
+			case TAG_LIST:
+				checkContainer(tag, List.class, datatype, elementTypes, 1);
+
+				return readElements(in, new ArrayList<>(), elementTypes[0]);
+
+			case TAG_SET:
+				checkContainer(tag, Set.class, datatype, elementTypes, 1);
+
+				return readElements(in, new HashSet<>(), elementTypes[0]);
+
+			case TAG_MAP:
+				checkContainer(tag, Map.class, datatype, elementTypes, 2);
+
+				Class<?> keyType = elementTypes[0];
+				Class<?> valueType = elementTypes[1];
+				int count = readLength(in, MAX_ELEMENT_COUNT);
+				Map<Object, Object> map = new HashMap<>(
+					Math.min(count, MAX_INITIAL_CAPACITY) * 4 / 3 + 1);
+
+				for (int i = 0; i < count; i++) {
+					map.put(readValue(in, keyType, null),
+						readValue(in, valueType, null));
+				}
+
+				return map;
+
+			default:
+				throw new java.io.InvalidObjectException(
+					"Invalid value tag: " + tag);
+		}
+	}
+
+	/**
+	 * Reads a variable-length integer.
+	 *
+	 * @param in The input to read from
+	 * @return The integer value
+	 * @throws java.io.IOException If reading fails
+	 */
+	private static int readVarInt(java.io.DataInput in)
+		throws java.io.IOException {
+		return (int) readVarLong(in);
+	}
+
+	/**
+	 * Reads a variable-length long integer.
+	 *
+	 * @param in The input to read from
+	 * @return The long value
+	 * @throws java.io.IOException If reading fails
+	 */
+	private static long readVarLong(java.io.DataInput in)
+		throws java.io.IOException {
+		long value = 0;
+		int shift = 0;
+		int b;
+
+		do {
+			if (shift > 63) {
+				throw new java.io.InvalidObjectException("Invalid number");
+			}
+
+			b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+
+		// zig-zag decoding
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes the elements of a collection.
+	 *
+	 * @param out      The output to write to
+	 * @param elements The collection elements
+	 * @throws java.io.IOException If writing fails
+	 */
+	private static void writeElements(java.io.ObjectOutput out,
+		Collection<?> elements) throws java.io.IOException {
+		writeVarInt(out, elements.size());
+
+		for (Object element : elements) {
+			writeValue(out, element);
+		}
+	}
+
+	/**
+	 * Writes a string as a length-prefixed UTF-8 byte sequence.
+	 *
+	 * @param out   The output to write to
+	 * @param value The string value
+	 * @throws java.io.IOException If writing fails
+	 */
+	private static void writeString(java.io.DataOutput out, String value)
+		throws java.io.IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Writes a tagged value. Values of types that are not supported by the
+	 * binary format are written in their string representation.
+	 *
+	 * @param out   The output to write to
+	 * @param value The value to write
+	 * @throws java.io.IOException If writing fails
+	 */
+	private static void writeValue(java.io.ObjectOutput out, Object value)
+		throws java.io.IOException {
+		if (value instanceof Boolean) {
+			out.writeByte(((Boolean) value).booleanValue() ?
+			              TAG_TRUE :
+			              TAG_FALSE);
+		} else if (value instanceof Integer) {
+			out.writeByte(TAG_INTEGER);
+			writeVarInt(out, ((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			out.writeByte(TAG_LONG);
+			writeVarLong(out, ((Long) value).longValue());
+		} else if (value instanceof Double) {
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble(((Double) value).doubleValue());
+		} else if (value instanceof Color) {
+			out.writeByte(TAG_COLOR);
+			out.writeInt(((Color) value).toRGB());
+		} else if (value instanceof Enum) {
+			out.writeByte(TAG_ENUM);
+			out.writeObject(((Enum<?>) value).name());
+		} else if (value instanceof Date) {
+			out.writeByte(TAG_DATE);
+			writeVarLong(out, ((Date) value).getTime());
+		} else if (value instanceof List) {
+			out.writeByte(TAG_LIST);
+			writeElements(out, (List<?>) value);
+		} else if (value instanceof Set) {
+			out.writeByte(TAG_SET);
+			writeElements(out, (Set<?>) value);
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+
+			out.writeByte(TAG_MAP);
+			writeVarInt(out, map.size());
+
+			for (Entry<?, ?> entry : map.entrySet()) {
+				writeValue(out, entry.getKey());
+				writeValue(out, entry.getValue());
+			}
+		} else {
+			out.writeByte(TAG_STRING);
+			writeString(out, PropertyCodecs.encode(value));
+		}
+	}
+
+	/**
+	 * Writes a variable-length integer.
+	 *
+	 * @param out   The output to write to
+	 * @param value The integer value
+	 * @throws java.io.IOException If writing fails
+	 */
+	private static void writeVarInt(java.io.DataOutput out, int value)
+		throws java.io.IOException {
+		writeVarLong(out, value);
+	}
+
+	/**
+	 * Writes a variable-length long integer. Values are zig-zag encoded so
+	 * that small negative values also need only few bytes.
+	 *
+	 * @param out   The output to write to
+	 * @param value The long value
+	 * @throws java.io.IOException If writing fails
+	 */
+	private static void writeVarLong(java.io.DataOutput out, long value)
+		throws java.io.IOException {
+		value = (value << 1) ^ (value >> 63);
+
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.writeByte((int) value);
+	}
+}
@@ -16,16 +16,36 @@
 //++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
 package de.esoco.lib.property;
 
-import de.esoco.lib.text.TextConvert;
-
 /**
  * An immutable datatype that encapsulates RGB color data and provides
  * conversions to other color data formats like HTML strings. Instances of this
  * classes are created through the different
  * {@link #valueOf(int, int, int) valueOf()} methods.
+ *
+ * <p>A color only stores it's packed RGB integer value. The color constants
+ * and recently used colors are kept in a small cache so that the repeated
+ * parsing of the same colors (e.g. of color properties) returns the same
+ * instances instead of allocating new objects. Instances should nevertheless
+ * be compared with {@link #equals(Object)} because cache entries may be
+ * replaced by other colors.</p>
+ *
+ * <p>For code that processes many colors there are static methods like
+ * {@link #brighterRgb(int)} or {@link #toHtml(int)} that work directly on
+ * packed RGB values and therefore don't create color objects at all. Whole
+ * arrays of RGB values can be transformed with the methods of
+ * {@link ColorArrays}.</p>
  */
 public class Color {
 
+	private static final int CACHE_BITS = 10;
+
+	private static final int CACHE_MASK = (1 << CACHE_BITS) - 1;
+
+	// must be initialized before the color constants
+	private static final Color[] colorCache = new Color[1 << CACHE_BITS];
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
 	/**
 	 * black
 	 */
@@ -166,39 +186,301 @@ public class Color {
 	 */
 	public static final Color DARK_MAGENTA = valueOf(0x0800080);
 
-	private final int red;
+	private final int rgb;
 
-	private final int green;
+	/**
+	 * Internal constructor to create a new instance with a packed RGB value.
+	 *
+	 * @param rgb The RGB value
+	 */
+	private Color(int rgb) {
+		this.rgb = rgb;
+	}
 
-	private final int blue;
+	/**
+	 * Blends a packed RGB value with another by a certain percentage.
+	 *
+	 * @param rgb       The RGB value
+	 * @param targetRgb The RGB value to blend with
+	 * @param percent   The percentage of the target value (0 - 100)
+	 * @return The blended RGB value
+	 * @throws IllegalArgumentException If the percentage is outside of the
+	 *                                  valid range
+	 */
+	public static int blendRgb(int rgb, int targetRgb, int percent) {
+		int weight = blendWeight(percent);
+		int r = red(rgb);
+		int g = green(rgb);
+		int b = blue(rgb);
+
+		r += ((red(targetRgb) - r) * weight) >> 8;
+		g += ((green(targetRgb) - g) * weight) >> 8;
+		b += ((blue(targetRgb) - b) * weight) >> 8;
+
+		return rgb(r, g, b);
+	}
+
+	/**
+	 * Returns the blue component of a packed RGB value.
+	 *
+	 * @param rgb The RGB value
+	 * @return The blue component (0 - 255)
+	 */
+	public static int blue(int rgb) {
+		return rgb & 0xFF;
+	}
+
+	/**
+	 * Returns the packed RGB value of a color that is 10 percent brighter
+	 * than the given RGB value.
+	 *
+	 * @param rgb The RGB value
+	 * @return The brighter RGB value
+	 * @see #brighter()
+	 */
+	public static int brighterRgb(int rgb) {
+		return changeBrightnessRgb(rgb, 10);
+	}
 
 	/**
-	 * Internal constructor to create a new instance with certain RGB parts.
+	 * Calculates the brightest RGB value that can be created from a packed RGB
+	 * value.
 	 *
-	 * @param red   The red part
-	 * @param green The green part
-	 * @param blue  The blue part
+	 * @param rgb The RGB value
+	 * @return The brightest RGB value
+	 * @see #brightest()
 	 */
-	private Color(int red, int green, int blue) {
-		this.red = red;
-		this.green = green;
-		this.blue = blue;
+	public static int brightestRgb(int rgb) {
+		// normalize components to color value * 256 and add 256 to get the
+		// range 1 to 256 to prevent division by zero
+		int r = (red(rgb) << 8) + 256;
+		int g = (green(rgb) << 8) + 256;
+		int b = (blue(rgb) << 8) + 256;
+
+		int max = Math.max(r, Math.max(g, b)) >> 8;
+
+		// scale values and reset to range 0 to 255
+		return rgb(r / max - 1, g / max - 1, b / max - 1);
+	}
+
+	/**
+	 * Returns a packed RGB value with a brightness that has been changed by
+	 * the given percentage.
+	 *
+	 * @param rgb     The RGB value
+	 * @param percent The brightness change factor in percent (positive for a
+	 *                lighter, negative for a darker color)
+	 * @return The resulting RGB value
+	 * @see #changeBrightness(int)
+	 */
+	public static int changeBrightnessRgb(int rgb, int percent) {
+		int change = 255 * percent / 100;
+
+		int r = red(rgb) + change;
+		int g = green(rgb) + change;
+		int b = blue(rgb) + change;
+
+		r = r < 0 ? 0 : (r <= 255 ? r : 255);
+		g = g < 0 ? 0 : (g <= 255 ? g : 255);
+		b = b < 0 ? 0 : (b <= 255 ? b : 255);
+
+		return rgb(r, g, b);
+	}
+
+	/**
+	 * Returns the packed RGB value of a color that is 10 percent darker than
+	 * the given RGB value.
+	 *
+	 * @param rgb The RGB value
+	 * @return The darker RGB value
+	 * @see #darker()
+	 */
+	public static int darkerRgb(int rgb) {
+		return changeBrightnessRgb(rgb, -10);
+	}
+
+	/**
+	 * Converts a packed RGB value into a gray value with the same luminance.
+	 * The luminance is calculated from the RGB components with the weights
+	 * 0.3, 0.59, and 0.11 (approximated as 8-bit fractions).
+	 *
+	 * @param rgb The RGB value
+	 * @return The gray RGB value
+	 */
+	public static int grayscaleRgb(int rgb) {
+		int gray = (red(rgb) * 77 + green(rgb) * 150 + blue(rgb) * 29) >> 8;
+
+		return (gray << 16) | (gray << 8) | gray;
+	}
+
+	/**
+	 * Returns the green component of a packed RGB value.
+	 *
+	 * @param rgb The RGB value
+	 * @return The green component (0 - 255)
+	 */
+	public static int green(int rgb) {
+		return (rgb >> 8) & 0xFF;
+	}
+
+	/**
+	 * Parses a CSS hexadecimal color string into a packed RGB value without
+	 * creating a color object. Other than {@link #parseRgb(CharSequence)} the
+	 * string must contain either exactly 6 hexadecimal digits or 3 digits in
+	 * the CSS shorthand notation where each digit is duplicated (e.g. "#F80"
+	 * is the same as "#FF8800").
+	 *
+	 * @param cssColor The CSS color string (a leading '#' will be ignored)
+	 * @return The RGB value
+	 * @throws NumberFormatException If the string is not a valid CSS color
+	 *                               value
+	 */
+	public static int parseCssRgb(CharSequence cssColor) {
+		int length = cssColor.length();
+		int start = length > 0 && cssColor.charAt(0) == '#' ? 1 : 0;
+		int digits = length - start;
+
+		if (digits != 6 && digits != 3) {
+			throw new NumberFormatException("Invalid color value: " + cssColor);
+		}
+
+		int rgb = 0;
+
+		for (int i = start; i < length; i++) {
+			int digit = Character.digit(cssColor.charAt(i), 16);
+
+			if (digit < 0) {
+				throw new NumberFormatException(
+					"Invalid color value: " + cssColor);
+			}
+
+			rgb = (rgb << 4) | digit;
+
+			if (digits == 3) {
+				rgb = (rgb << 4) | digit;
+			}
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Parses a hexadecimal HTML color string into a packed RGB value without
+	 * creating a color object. The digits after an optional leading '#' are
+	 * parsed like with {@link Integer#parseInt(String, int)} with radix 16 and
+	 * the result is masked to the lower 24 bits. Strings with less than 6
+	 * digits are therefore interpreted as values with leading zeros (e.g.
+	 * "#F80" is the same as "#000F80"). For the CSS shorthand notation
+	 * {@link #parseCssRgb(CharSequence)} must be used instead.
+	 *
+	 * @param htmlColor The HTML color string (a leading '#' will be ignored)
+	 * @return The RGB value
+	 * @throws NumberFormatException If the string is not a valid hexadecimal
+	 *                               integer value
+	 */
+	public static int parseRgb(CharSequence htmlColor) {
+		int length = htmlColor.length();
+		int position = length > 0 && htmlColor.charAt(0) == '#' ? 1 : 0;
+		boolean negative = false;
+
+		if (position < length) {
+			char sign = htmlColor.charAt(position);
+
+			if (sign == '-' || sign == '+') {
+				negative = sign == '-';
+				position++;
+			}
+		}
+
+		if (position == length) {
+			throw new NumberFormatException(
+				"Invalid color value: " + htmlColor);
+		}
+
+		// same value range as Integer.parseInt()
+		long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+		long value = 0;
+
+		while (position < length) {
+			int digit = Character.digit(htmlColor.charAt(position++), 16);
+
+			value = (value << 4) | digit;
+
+			if (digit < 0 || value > limit) {
+				throw new NumberFormatException(
+					"Invalid color value: " + htmlColor);
+			}
+		}
+
+		return (int) (negative ? -value : value) & 0xFFFFFF;
+	}
+
+	/**
+	 * Returns the red component of a packed RGB value.
+	 *
+	 * @param rgb The RGB value
+	 * @return The red component (0 - 255)
+	 */
+	public static int red(int rgb) {
+		return (rgb >> 16) & 0xFF;
+	}
+
+	/**
+	 * Packs RGB components into a single integer value. Only the lowest byte
+	 * of each component will be used.
+	 *
+	 * @param red   The red component (0 - 255)
+	 * @param green The green component (0 - 255)
+	 * @param blue  The blue component (0 - 255)
+	 * @return The packed RGB value
+	 */
+	public static int rgb(int red, int green, int blue) {
+		return ((red & 0xFF) << 16) | ((green & 0xFF) << 8) | (blue & 0xFF);
+	}
+
+	/**
+	 * Converts a packed RGB value to a hexadecimal RGB string as used in HTML
+	 * and CSS, including the '#' prefix.
+	 *
+	 * @param rgb The RGB value
+	 * @return The HTML color string
+	 */
+	public static String toHtml(int rgb) {
+		char[] html = new char[7];
+
+		html[0] = '#';
+
+		for (int i = 6; i > 0; i--) {
+			html[i] = HEX_DIGITS[rgb & 0xF];
+			rgb >>= 4;
+		}
+
+		return new String(html);
 	}
 
 	/**
 	 * Returns a color instance for a combined RGB integer value. The single
 	 * color components are considered to be in the range of (0 - 255), i.e. a
-	 * byte for each.
+	 * byte for each. Frequently used colors will be returned from a cache
+	 * instead of creating a new instance.
 	 *
 	 * @param rgbColor The integer value containing the RGB value bytes
 	 * @return The color instance
 	 */
 	public static Color valueOf(int rgbColor) {
-		int r = (rgbColor & 0x00FF0000) >> 16;
-		int g = (rgbColor & 0x0000FF00) >> 8;
-		int b = (rgbColor & 0x000000FF);
+		int rgb = rgbColor & 0xFFFFFF;
+		int slot = (rgb ^ (rgb >>> CACHE_BITS) ^ (rgb >>> (2 * CACHE_BITS))) &
+			CACHE_MASK;
+		Color color = colorCache[slot];
+
+		// concurrent updates of a slot are harmless because colors are
+		// immutable and only affect the cache hit rate
+		if (color == null || color.rgb != rgb) {
+			color = new Color(rgb);
+			colorCache[slot] = color;
+		}
 
-		return valueOf(r, g, b);
+		return color;
 	}
 
 	/**
@@ -206,13 +488,12 @@ public class Color {
 	 *
 	 * @param htmlColor The HTML color string (a leading '#' will be ignored)
 	 * @return The color instance
+	 * @throws NumberFormatException If the string is not a valid hexadecimal
+	 *                               color value
+	 * @see #parseRgb(CharSequence)
 	 */
 	public static Color valueOf(String htmlColor) {
-		if (htmlColor.charAt(0) == '#') {
-			htmlColor = htmlColor.substring(1);
-		}
-
-		return valueOf(Integer.parseInt(htmlColor, 16));
+		return valueOf(parseRgb(htmlColor));
 	}
 
 	/**
@@ -221,10 +502,24 @@ public class Color {
 	 * @param red   The red component
 	 * @param green The green component
 	 * @param blue  The blue component
-	 * @return A new color instance
+	 * @return The color instance
 	 */
 	public static Color valueOf(int red, int green, int blue) {
-		return new Color(red, green, blue);
+		return valueOf(rgb(red, green, blue));
+	}
+
+	/**
+	 * Returns a color that is blended with another color by a certain
+	 * percentage.
+	 *
+	 * @param other   The color to blend with
+	 * @param percent The percentage of the other color (0 - 100)
+	 * @return The blended color
+	 * @throws IllegalArgumentException If the percentage is outside of the
+	 *                                  valid range
+	 */
+	public Color blend(Color other, int percent) {
+		return valueOf(blendRgb(rgb, other.rgb, percent));
 	}
 
 	/**
@@ -246,20 +541,7 @@ public class Color {
 	 * @return The resulting color
 	 */
 	public Color brightest() {
-		// normalize components to color value * 256 and add 256 to get the
-		// range 1 to 256 to prevent division by zero
-		int r = (red << 8) + 256;
-		int g = (green << 8) + 256;
-		int b = (blue << 8) + 256;
-
-		int max = Math.max(r, Math.max(g, b)) >> 8;
-
-		// scale values and reset to range 0 to 255
-		r = r / max - 1;
-		g = g / max - 1;
-		b = b / max - 1;
-
-		return valueOf(r, g, b);
+		return valueOf(brightestRgb(rgb));
 	}
 
 	/**
@@ -271,17 +553,7 @@ public class Color {
 	 * @return The resulting color
 	 */
 	public Color changeBrightness(int percent) {
-		int change = 255 * percent / 100;
-
-		int r = red + change;
-		int g = green + change;
-		int b = blue + change;
-
-		r = r < 0 ? 0 : (r <= 255 ? r : 255);
-		g = g < 0 ? 0 : (g <= 255 ? g : 255);
-		b = b < 0 ? 0 : (b <= 255 ? b : 255);
-
-		return valueOf(r, g, b);
+		return valueOf(changeBrightnessRgb(rgb, percent));
 	}
 
 	/**
@@ -294,13 +566,24 @@ public class Color {
 		return changeBrightness(-10);
 	}
 
+	/**
+	 * Colors are equal if they have the same RGB values.
+	 *
+	 * @see Object#equals(Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj ||
+			(obj instanceof Color && rgb == ((Color) obj).rgb);
+	}
+
 	/**
 	 * Returns the blue part of this color.
 	 *
 	 * @return The blue part
 	 */
 	public final int getBlue() {
-		return blue;
+		return blue(rgb);
 	}
 
 	/**
@@ -309,7 +592,7 @@ public class Color {
 	 * @return The green part
 	 */
 	public final int getGreen() {
-		return green;
+		return green(rgb);
 	}
 
 	/**
@@ -318,7 +601,25 @@ public class Color {
 	 * @return The red part
 	 */
 	public final int getRed() {
-		return red;
+		return red(rgb);
+	}
+
+	/**
+	 * Returns a gray color with the same luminance as this color.
+	 *
+	 * @return The gray color
+	 * @see #grayscaleRgb(int)
+	 */
+	public Color grayscale() {
+		return valueOf(grayscaleRgb(rgb));
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return rgb;
 	}
 
 	/**
@@ -328,7 +629,7 @@ public class Color {
 	 * @return The HTML color string
 	 */
 	public String toHtml() {
-		return "#" + TextConvert.padLeft(Integer.toHexString(toRGB()), 6, '0');
+		return toHtml(rgb);
 	}
 
 	/**
@@ -337,16 +638,34 @@ public class Color {
 	 * @return An RGB integer value
 	 */
 	public int toRGB() {
-		return (red << 16) + (green << 8) + blue;
+		return rgb;
 	}
 
 	/**
 	 * Returns the same as {@link #toHtml()}.
 	 *
-	 * @return TODO: DOCUMENT ME!
+	 * @return The HTML color string
 	 */
 	@Override
 	public String toString() {
 		return toHtml();
 	}
+
+	/**
+	 * Converts a blend percentage into a fixed-point weight with 8 fraction
+	 * bits.
+	 *
+	 * @param percent The blend percentage (0 - 100)
+	 * @return The blend weight (0 - 256)
+	 * @throws IllegalArgumentException If the percentage is outside of the
+	 *                                  valid range
+	 */
+	static int blendWeight(int percent) {
+		if (percent < 0 || percent > 100) {
+			throw new IllegalArgumentException(
+				"Invalid blend percentage: " + percent);
+		}
+
+		return (percent << 8) / 100;
+	}
 }
@@ -0,0 +1,266 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.stream.IntStream;
+
+/**
+ * Contains static methods that transform arrays of packed RGB values as used
+ * by {@link Color#toRGB()}. These methods perform the same calculations as the
+ * corresponding methods of {@link Color} but modify the array elements in
+ * place without creating any objects. The loops only contain simple integer
+ * arithmetic so that they can be optimized (and vectorized if possible) by
+ * the JIT compiler. Therefore they should be used to transform large amounts
+ * of colors like palettes or pixel buffers.
+ *
+ * <p>Like in {@link java.util.Arrays} ranges are specified by an inclusive
+ * start and an exclusive end index. Very large arrays can be transformed
+ * concurrently with {@link #transformParallel(int[], RangeTransform)}.</p>
+ *
+ * @author eso
+ */
+public final class ColorArrays {
+
+	/**
+	 * The number of array elements that are transformed by a single task of
+	 * {@link #transformParallel(int[], RangeTransform)}.
+	 */
+	public static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * Private, only static use.
+	 */
+	private ColorArrays() {
+	}
+
+	/**
+	 * Blends all RGB values in an array with another RGB value.
+	 *
+	 * @see #blend(int[], int, int, int, int)
+	 */
+	public static void blend(int[] rgb, int targetRgb, int percent) {
+		blend(rgb, 0, rgb.length, targetRgb, percent);
+	}
+
+	/**
+	 * Blends a range of RGB values in an array with another RGB value.
+	 *
+	 * @param rgb       The array of RGB values
+	 * @param fromIndex The index of the first value to transform
+	 * @param toIndex   The index after the last value to transform
+	 * @param targetRgb The RGB value to blend with
+	 * @param percent   The percentage of the target value (0 - 100)
+	 * @throws IllegalArgumentException If the percentage is outside of the
+	 *                                  valid range
+	 * @see Color#blendRgb(int, int, int)
+	 */
+	public static void blend(int[] rgb, int fromIndex, int toIndex,
+		int targetRgb, int percent) {
+		checkRange(rgb, fromIndex, toIndex);
+
+		int weight = Color.blendWeight(percent);
+		int targetR = Color.red(targetRgb);
+		int targetG = Color.green(targetRgb);
+		int targetB = Color.blue(targetRgb);
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			int value = rgb[i];
+			int r = (value >> 16) & 0xFF;
+			int g = (value >> 8) & 0xFF;
+			int b = value & 0xFF;
+
+			r += ((targetR - r) * weight) >> 8;
+			g += ((targetG - g) * weight) >> 8;
+			b += ((targetB - b) * weight) >> 8;
+
+			rgb[i] = ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+		}
+	}
+
+	/**
+	 * Converts all RGB values in an array to the brightest values that can be
+	 * created from them.
+	 *
+	 * @see #brightest(int[], int, int)
+	 */
+	public static void brightest(int[] rgb) {
+		brightest(rgb, 0, rgb.length);
+	}
+
+	/**
+	 * Converts a range of RGB values in an array to the brightest values that
+	 * can be created from them.
+	 *
+	 * @param rgb       The array of RGB values
+	 * @param fromIndex The index of the first value to transform
+	 * @param toIndex   The index after the last value to transform
+	 * @see Color#brightestRgb(int)
+	 */
+	public static void brightest(int[] rgb, int fromIndex, int toIndex) {
+		checkRange(rgb, fromIndex, toIndex);
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			rgb[i] = Color.brightestRgb(rgb[i]);
+		}
+	}
+
+	/**
+	 * Changes the brightness of all RGB values in an array.
+	 *
+	 * @see #changeBrightness(int[], int, int, int)
+	 */
+	public static void changeBrightness(int[] rgb, int percent) {
+		changeBrightness(rgb, 0, rgb.length, percent);
+	}
+
+	/**
+	 * Changes the brightness of a range of RGB values in an array.
+	 *
+	 * @param rgb       The array of RGB values
+	 * @param fromIndex The index of the first value to transform
+	 * @param toIndex   The index after the last value to transform
+	 * @param percent   The brightness change factor in percent (positive for
+	 *                  lighter, negative for darker colors)
+	 * @see Color#changeBrightnessRgb(int, int)
+	 */
+	public static void changeBrightness(int[] rgb, int fromIndex, int toIndex,
+		int percent) {
+		checkRange(rgb, fromIndex, toIndex);
+
+		int change = 255 * percent / 100;
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			int value = rgb[i];
+			int r = ((value >> 16) & 0xFF) + change;
+			int g = ((value >> 8) & 0xFF) + change;
+			int b = (value & 0xFF) + change;
+
+			r = Math.max(0, Math.min(255, r));
+			g = Math.max(0, Math.min(255, g));
+			b = Math.max(0, Math.min(255, b));
+
+			rgb[i] = (r << 16) | (g << 8) | b;
+		}
+	}
+
+	/**
+	 * Converts all RGB values in an array into gray values.
+	 *
+	 * @see #grayscale(int[], int, int)
+	 */
+	public static void grayscale(int[] rgb) {
+		grayscale(rgb, 0, rgb.length);
+	}
+
+	/**
+	 * Converts a range of RGB values in an array into gray values with the
+	 * same luminance.
+	 *
+	 * @param rgb       The array of RGB values
+	 * @param fromIndex The index of the first value to transform
+	 * @param toIndex   The index after the last value to transform
+	 * @see Color#grayscaleRgb(int)
+	 */
+	public static void grayscale(int[] rgb, int fromIndex, int toIndex) {
+		checkRange(rgb, fromIndex, toIndex);
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			int value = rgb[i];
+			int gray = (((value >> 16) & 0xFF) * 77 +
+				((value >> 8) & 0xFF) * 150 + (value & 0xFF) * 29) >> 8;
+
+			rgb[i] = (gray << 16) | (gray << 8) | gray;
+		}
+	}
+
+	/**
+	 * Applies a range transformation concurrently to chunks of an array. Each
+	 * chunk contains {@link #PARALLEL_CHUNK_SIZE} elements (except the last)
+	 * and is transformed by a task of the common fork-join pool. Arrays that
+	 * are not larger than a single chunk will be transformed directly in the
+	 * current thread. The method returns after all chunks have been
+	 * transformed.
+	 *
+	 * <p>Example: {@code transformParallel(pixels, (rgb, from, to) ->
+	 * changeBrightness(rgb, from, to, 20))}</p>
+	 *
+	 * @param rgb       The array of RGB values
+	 * @param transform The transformation to apply to the chunks
+	 */
+	@GwtIncompatible
+	public static void transformParallel(int[] rgb, RangeTransform transform) {
+		int length = rgb.length;
+
+		if (length <= PARALLEL_CHUNK_SIZE) {
+			transform.apply(rgb, 0, length);
+		} else {
+			int chunks =
+				(length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+
+			IntStream
+				.range(0, chunks)
+				.parallel()
+				.forEach(chunk -> {
+					int from = chunk * PARALLEL_CHUNK_SIZE;
+
+					transform.apply(rgb, from,
+						Math.min(length, from + PARALLEL_CHUNK_SIZE));
+				});
+		}
+	}
+
+	/**
+	 * Checks the validity of an array range.
+	 *
+	 * @param array     The array
+	 * @param fromIndex The start index of the range
+	 * @param toIndex   The end index of the range
+	 * @throws IllegalArgumentException       If the start is after the end
+	 * @throws ArrayIndexOutOfBoundsException If the range is outside of the
+	 *                                        array
+	 */
+	private static void checkRange(int[] array, int fromIndex, int toIndex) {
+		if (fromIndex > toIndex) {
+			throw new IllegalArgumentException(
+				"fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
+
+		if (fromIndex < 0 || toIndex > array.length) {
+			throw new ArrayIndexOutOfBoundsException(
+				fromIndex < 0 ? fromIndex : toIndex);
+		}
+	}
+
+	/**
+	 * The interface for transformations of array ranges that can be applied
+	 * with {@link #transformParallel(int[], RangeTransform)}.
+	 *
+	 * @author eso
+	 */
+	@FunctionalInterface
+	public interface RangeTransform {
+
+		/**
+		 * Transforms a range of RGB values in an array.
+		 *
+		 * @param rgb       The array of RGB values
+		 * @param fromIndex The index of the first value to transform
+		 * @param toIndex   The index after the last value to transform
+		 */
+		void apply(int[] rgb, int fromIndex, int toIndex);
+	}
+}
@@ -0,0 +1,437 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe implementation of the {@link MutableProperties} interface that
+ * can be shared between multiple threads without external synchronization.
+ * The current state of an instance is an {@link ImmutableProperties} object
+ * that is kept in an atomic reference. Queries therefore never block and
+ * always see a consistent state. Modifications create a new version of the
+ * immutable state and publish it with a compare-and-set operation, which is
+ * repeated if another thread has modified the instance concurrently. Because
+ * the immutable state is a persistent data structure each modification only
+ * copies a small part of the state.
+ *
+ * <p>The collection returned by {@link #getPropertyNames()} belongs to the
+ * state at the time of the invocation and will not change. For consistent
+ * access to multiple properties the current state can be queried with
+ * {@link #snapshot()}. Merging other properties with
+ * {@link #setProperties(HasProperties, boolean)} is performed atomically,
+ * i.e. other threads will either see none or all of the merged properties.
+ * </p>
+ *
+ * <p>Values are converted and stored in the same way as in
+ * {@link StringProperties}. The serialized form is the string map of the
+ * properties.</p>
+ *
+ * @author eso
+ */
+public class ConcurrentStringProperties
+	implements MutableProperties, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final StringProperties CONVERTER = new StringProperties();
+
+	private transient AtomicReference<ImmutableProperties> state =
+		new AtomicReference<>(ImmutableProperties.EMPTY);
+
+	/**
+	 * Creates a new instance.
+	 */
+	public ConcurrentStringProperties() {
+	}
+
+	/**
+	 * Copy constructor that creates a new instance from another properties
+	 * object.
+	 *
+	 * @param other The instance to copy the properties from
+	 */
+	public ConcurrentStringProperties(HasProperties other) {
+		setProperties(other, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearFlag(PropertyName<Boolean> name) {
+		removeProperty(name);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearProperties() {
+		state.set(ImmutableProperties.EMPTY);
+	}
+
+	/**
+	 * Instances are equal if they are of the same class and contain equal
+	 * properties.
+	 *
+	 * @see Object#equals(Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		return obj != null && getClass() == obj.getClass() &&
+			snapshot().equals(((ConcurrentStringProperties) obj).snapshot());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEachProperty(PropertyVisitor visitor) {
+		snapshot().forEachProperty(visitor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean getBooleanProperty(PropertyName<Boolean> name,
+		boolean defaultValue) {
+		return snapshot().getBooleanProperty(name, defaultValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDoubleProperty(PropertyName<Double> name,
+		double defaultValue) {
+		return snapshot().getDoubleProperty(name, defaultValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getIntProperty(PropertyName<Integer> name, int defaultValue) {
+		return snapshot().getIntProperty(name, defaultValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLongProperty(PropertyName<Long> name, long defaultValue) {
+		return snapshot().getLongProperty(name, defaultValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T getProperty(PropertyName<T> name, T defaultValue) {
+		return snapshot().getProperty(name, defaultValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPropertyCount() {
+		return snapshot().getPropertyCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<PropertyName<?>> getPropertyNames() {
+		return snapshot().getPropertyNames();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasFlag(PropertyName<Boolean> name) {
+		return snapshot().hasFlag(name);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasProperty(PropertyName<?> name) {
+		return snapshot().hasProperty(name);
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 37 + snapshot().hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeProperty(PropertyName<?> name) {
+		ImmutableProperties current;
+		ImmutableProperties updated;
+
+		do {
+			current = state.get();
+			updated = current.without(name);
+		} while (updated != current && !state.compareAndSet(current, updated));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFlag(PropertyName<Boolean> name) {
+		setProperty(name, Boolean.TRUE);
+	}
+
+	/**
+	 * Sets all properties from another properties object in this instance.
+	 * The properties will be merged atomically so that other threads will
+	 * either see all or none of the new properties.
+	 *
+	 * @see MutableProperties#setProperties(HasProperties, boolean)
+	 */
+	@Override
+	public void setProperties(HasProperties other, boolean replace) {
+		List<PropertyName<?>> names = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+
+		collectStoredValues(other, names, values);
+		merge(names, values, replace);
+	}
+
+	/**
+	 * Sets all properties from multiple properties objects in this instance.
+	 * Like {@link #setProperties(HasProperties, boolean)} the properties of
+	 * all sources will be merged in a single atomic operation.
+	 *
+	 * @see MutableProperties#setProperties(Collection, boolean)
+	 */
+	@Override
+	public void setProperties(Collection<? extends HasProperties> sources,
+		boolean replace) {
+		List<PropertyName<?>> names = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+
+		for (HasProperties source : sources) {
+			collectStoredValues(source, names, values);
+		}
+
+		merge(names, values, replace);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> void setProperty(PropertyName<T> name, T value) {
+		ImmutableProperties current;
+		ImmutableProperties updated;
+
+		do {
+			current = state.get();
+			updated = current.with(name, value);
+		} while (updated != current && !state.compareAndSet(current, updated));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperty(PropertyName<Boolean> name, boolean value) {
+		setProperty(name, Boolean.valueOf(value));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperty(PropertyName<Integer> name, int value) {
+		setProperty(name, Integer.valueOf(value));
+	}
+
+	/**
+	 * Returns an immutable snapshot of the current state of this instance.
+	 * This only requires to read the current state and is therefore a
+	 * constant-time operation.
+	 *
+	 * @return The current properties
+	 */
+	public ImmutableProperties snapshot() {
+		return state.get();
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + snapshot().toString()
+			.substring(ImmutableProperties.class.getSimpleName().length());
+	}
+
+	/**
+	 * Adds the property names and internal values of a properties object to
+	 * lists.
+	 *
+	 * @param properties The properties object
+	 * @param names      The list of property names
+	 * @param values     The list of internal values
+	 */
+	private void collectStoredValues(HasProperties properties,
+		List<PropertyName<?>> names, List<Object> values) {
+		if (properties instanceof AbstractStringProperties) {
+			// read the store directly because a snapshot would mark it as
+			// shared and cause a copy on the next modification of the source
+			PropertyStore store =
+				((AbstractStringProperties) properties).getPropertyStore();
+			int count = store != null ? store.size() : 0;
+
+			for (int i = 0; i < count; i++) {
+				names.add(store.getName(i));
+				values.add(store.getValue(i));
+			}
+		} else {
+			ImmutableProperties source = null;
+
+			if (properties instanceof ConcurrentStringProperties) {
+				source = ((ConcurrentStringProperties) properties).snapshot();
+			} else if (properties instanceof ImmutableProperties) {
+				source = (ImmutableProperties) properties;
+			}
+
+			// names and values must be read from the same state
+			HasProperties state = source != null ? source : properties;
+
+			for (PropertyName<?> name : state.getPropertyNames()) {
+				Object value;
+
+				if (source != null) {
+					value = source.getStoredValue(name);
+				} else {
+					value = properties.getProperty(name, null);
+
+					if (value != null) {
+						value = CONVERTER.toStoredValue(name, value);
+					}
+				}
+
+				if (value != null) {
+					names.add(name);
+					values.add(value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges properties in their internal representation atomically into
+	 * the current state.
+	 *
+	 * @param names   The property names
+	 * @param values  The internal property values
+	 * @param replace TRUE to replace existing properties
+	 */
+	private void merge(List<PropertyName<?>> names, List<Object> values,
+		boolean replace) {
+		int count = names.size();
+		ImmutableProperties current;
+		ImmutableProperties updated;
+
+		do {
+			current = state.get();
+			updated = current;
+
+			for (int i = 0; i < count; i++) {
+				PropertyName<?> name = names.get(i);
+
+				// without replace the first value of a name wins, also if it
+				// has been set by a previous source of the same merge
+				if (replace || !updated.hasProperty(name)) {
+					updated = updated.withStoredValue(name, values.get(i));
+				}
+			}
+		} while (updated != current && !state.compareAndSet(current, updated));
+	}
+
+	/**
+	 * Restores the state of this instance from the serialized string map.
+	 *
+	 * @param in The input stream
+	 * @throws java.io.IOException    If reading fails
+	 * @throws ClassNotFoundException If a class cannot be resolved
+	 */
+	@GwtIncompatible
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream in)
+		throws java.io.IOException, ClassNotFoundException {
+		in.defaultReadObject();
+
+		Map<PropertyName<?>, String> rawValues =
+			(Map<PropertyName<?>, String>) in.readObject();
+		StringProperties properties = new StringProperties();
+
+		for (Entry<PropertyName<?>, String> entry : rawValues.entrySet()) {
+			properties.restoreProperty(entry.getKey(), entry.getValue());
+		}
+
+		state = new AtomicReference<>(properties.snapshot());
+	}
+
+	/**
+	 * Writes the current state of this instance as a string map.
+	 *
+	 * @param out The output stream
+	 * @throws java.io.IOException If writing fails
+	 */
+	@GwtIncompatible
+	private void writeObject(java.io.ObjectOutputStream out)
+		throws java.io.IOException {
+		ImmutableProperties properties = snapshot();
+		Map<PropertyName<?>, String> rawValues = new HashMap<>();
+
+		for (PropertyName<?> name : properties.getPropertyNames()) {
+			rawValues.put(name,
+				CONVERTER.toRawValue(name, properties.getStoredValue(name)));
+		}
+
+		out.defaultWriteObject();
+		out.writeObject(rawValues);
+	}
+}
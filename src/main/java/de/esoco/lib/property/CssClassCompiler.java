@@ -0,0 +1,306 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static de.esoco.lib.property.StyleProperties.CSS_STYLES;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+
+/**
+ * Replaces the inline CSS styles of properties objects with shared CSS
+ * classes. Each distinct map of {@link StyleProperties#CSS_STYLES} is
+ * assigned a generated class name and a corresponding CSS rule. The method
+ * {@link #compile(MutableProperties)} removes the styles map from a
+ * properties object and adds the class name to it's
+ * {@link StyleProperties#STYLE} property instead. The rules for all generated
+ * classes can then be transferred once as a style sheet that is queried with
+ * {@link #getStyleSheet()} or, incrementally, with
+ * {@link #getPendingStyleSheet()}.
+ *
+ * <p>Style maps are compared by content, independent of the order of their
+ * entries. For properties objects that are based on
+ * {@link AbstractStringProperties} the internally stored styles map is
+ * looked up directly so that it doesn't need to be copied for each object.
+ * Style names can be given in CSS notation or in camel case as used by the
+ * DOM API (e.g. <code>fontWeight</code>), the latter will be converted to CSS
+ * notation in the generated rules. Style names may only contain letters,
+ * digits, and hyphens. Style values must not contain characters that could
+ * end a declaration or rule, start a comment, or an escape sequence. Styles
+ * with invalid names or values are rejected. Instances are not
+ * thread-safe.</p>
+ *
+ * @author eso
+ */
+public class CssClassCompiler {
+
+	/**
+	 * The default prefix for generated class names.
+	 */
+	public static final String DEFAULT_CLASS_PREFIX = "css-";
+
+	private final String classPrefix;
+
+	private final Map<Map<String, String>, String> classNames =
+		new LinkedHashMap<>();
+
+	private final StringBuilder styleSheet = new StringBuilder();
+
+	private int pendingStart = 0;
+
+	/**
+	 * Creates a new instance with the default class name prefix.
+	 */
+	public CssClassCompiler() {
+		this(DEFAULT_CLASS_PREFIX);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param classPrefix The prefix for the generated class names
+	 */
+	public CssClassCompiler(String classPrefix) {
+		this.classPrefix = classPrefix;
+	}
+
+	/**
+	 * Converts a style name into CSS notation by replacing camel case
+	 * characters with a hyphen and the lower case character.
+	 *
+	 * @param styleName The style name
+	 * @return The CSS style name
+	 */
+	static String toCssName(String styleName) {
+		StringBuilder cssName = null;
+		int length = styleName.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = styleName.charAt(i);
+
+			if (Character.isUpperCase(c)) {
+				if (cssName == null) {
+					cssName = new StringBuilder(length + 4);
+					cssName.append(styleName, 0, i);
+				}
+
+				cssName.append('-').append(Character.toLowerCase(c));
+			} else if (cssName != null) {
+				cssName.append(c);
+			}
+		}
+
+		return cssName != null ? cssName.toString() : styleName;
+	}
+
+	/**
+	 * Checks that a style name only contains letters, digits, and hyphens.
+	 *
+	 * @param name The style name to check
+	 * @throws IllegalArgumentException If the name is empty or contains an
+	 *                                  invalid character
+	 */
+	private static void checkStyleName(String name) {
+		int length = name.length();
+
+		if (length == 0) {
+			throw new IllegalArgumentException("Empty CSS style name");
+		}
+
+		for (int i = 0; i < length; i++) {
+			char c = name.charAt(i);
+
+			if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' ||
+				c >= '0' && c <= '9' || c == '-')) {
+				throw new IllegalArgumentException(
+					"Invalid CSS style name: " + name);
+			}
+		}
+	}
+
+	/**
+	 * Checks that a style value cannot break out of it's declaration, e.g.
+	 * by ending it, by starting a comment or escape sequence, or by opening a
+	 * string that extends over the following rules.
+	 *
+	 * @param value The style value to check
+	 * @throws IllegalArgumentException If the value contains an invalid
+	 *                                  character
+	 */
+	private static void checkStyleValue(String value) {
+		int length = value.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+
+			if (c == ';' || c == '{' || c == '}' || c == '<' || c == '\\' ||
+				c == '"' || c == '\'' || c == '\n' || c == '\r' ||
+				c == '\f' || (c == '/' && i + 1 < length &&
+				value.charAt(i + 1) == '*')) {
+				throw new IllegalArgumentException(
+					"Invalid CSS style value: " + value);
+			}
+		}
+	}
+
+	/**
+	 * Removes all generated classes.
+	 */
+	public void clear() {
+		classNames.clear();
+		styleSheet.setLength(0);
+		pendingStart = 0;
+	}
+
+	/**
+	 * Replaces the CSS styles of a properties object with a reference to the
+	 * generated CSS class for the styles. The class name will be added to the
+	 * {@link StyleProperties#STYLE} property. Objects without CSS styles
+	 * remain unchanged.
+	 *
+	 * @param properties The properties to compile
+	 * @return The class name or NULL if the properties contain no CSS styles
+	 */
+	@SuppressWarnings("unchecked")
+	public String compile(MutableProperties properties) {
+		Map<String, String> styles = null;
+
+		if (properties instanceof AbstractStringProperties) {
+			Object storedStyles = ((AbstractStringProperties) properties)
+				.getStoredValue(CSS_STYLES);
+
+			if (storedStyles instanceof Map) {
+				// stored maps are immutable and can be used without a copy
+				styles = (Map<String, String>) storedStyles;
+			}
+		}
+
+		if (styles == null) {
+			styles = properties.getProperty(CSS_STYLES, null);
+		}
+
+		String className = styles != null ? getClassName(styles) : null;
+
+		if (className != null) {
+			properties.removeProperty(CSS_STYLES);
+			properties.setProperty(STYLE,
+				addClassName(properties.getProperty(STYLE, null), className));
+		}
+
+		return className;
+	}
+
+	/**
+	 * Returns the number of generated classes.
+	 *
+	 * @return The class count
+	 */
+	public int getClassCount() {
+		return classNames.size();
+	}
+
+	/**
+	 * Returns the name of the CSS class for a certain map of CSS styles. If
+	 * no class exists for the styles yet a new class will be generated.
+	 *
+	 * @param styles The CSS styles
+	 * @return The CSS class name
+	 * @throws IllegalArgumentException If a style name or value contains an
+	 *                                  invalid character
+	 */
+	public String getClassName(Map<String, String> styles) {
+		String className = classNames.get(styles);
+
+		if (className == null) {
+			for (Entry<String, String> style : styles.entrySet()) {
+				checkStyleName(style.getKey());
+				checkStyleValue(style.getValue());
+			}
+
+			className = classPrefix +
+				Integer.toString(classNames.size() + 1, Character.MAX_RADIX);
+
+			styleSheet.append('.').append(className).append('{');
+
+			for (Entry<String, String> style : styles.entrySet()) {
+				styleSheet.append(toCssName(style.getKey())).append(':');
+				styleSheet.append(style.getValue()).append(';');
+			}
+
+			styleSheet.append("}\n");
+			classNames.put(new LinkedHashMap<>(styles), className);
+		}
+
+		return className;
+	}
+
+	/**
+	 * Returns the rules of the classes that have been generated since the
+	 * last invocation of this method. This allows to transfer only the new
+	 * rules to a client that already received the previous rules.
+	 *
+	 * @return The new CSS rules (empty for none)
+	 */
+	public String getPendingStyleSheet() {
+		String rules = styleSheet.substring(pendingStart);
+
+		pendingStart = styleSheet.length();
+
+		return rules;
+	}
+
+	/**
+	 * Returns the style sheet that contains the rules of all generated
+	 * classes.
+	 *
+	 * @return The complete style sheet
+	 */
+	public String getStyleSheet() {
+		return styleSheet.toString();
+	}
+
+	/**
+	 * Adds a class name to a space-separated list of class names if it is
+	 * not already contained.
+	 *
+	 * @param classes   The existing class names or NULL for none
+	 * @param className The class name to add
+	 * @return The resulting class names
+	 */
+	private String addClassName(String classes, String className) {
+		if (classes == null || classes.isEmpty()) {
+			return className;
+		}
+
+		int index = classes.indexOf(className);
+		int end = index + className.length();
+
+		while (index >= 0) {
+			if ((index == 0 || classes.charAt(index - 1) == ' ') &&
+				(end == classes.length() || classes.charAt(end) == ' ')) {
+				return classes;
+			}
+
+			index = classes.indexOf(className, index + 1);
+			end = index + className.length();
+		}
+
+		return classes + ' ' + className;
+	}
+}
@@ -0,0 +1,134 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable combination of boolean property names that allows to check
+ * multiple flags at once with {@link HasProperties#hasAllFlags(FlagMask)} and
+ * {@link HasProperties#hasAnyFlag(FlagMask)}. Instances are created with the
+ * factory method {@link #of(PropertyName...)} and should be kept in constants
+ * because the mask calculation is only performed once on creation.
+ *
+ * @author eso
+ */
+public final class FlagMask {
+
+	private final List<PropertyName<Boolean>> flags;
+
+	private final long[] words;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param flags The flag names
+	 */
+	private FlagMask(List<PropertyName<Boolean>> flags) {
+		int maxIndex = 0;
+
+		for (PropertyName<Boolean> flag : flags) {
+			maxIndex = Math.max(maxIndex, getFlagIndex(flag));
+		}
+
+		this.flags = flags;
+		words = new long[(maxIndex >>> 6) + 1];
+
+		for (PropertyName<Boolean> flag : flags) {
+			int index = flag.getFlagIndex();
+
+			words[index >>> 6] |= 1L << index;
+		}
+	}
+
+	/**
+	 * Creates a new instance for certain boolean property names.
+	 *
+	 * @param flags The flag names
+	 * @return The new instance
+	 * @throws IllegalArgumentException If one of the names doesn't have a
+	 *                                  boolean datatype
+	 */
+	@SafeVarargs
+	public static FlagMask of(PropertyName<Boolean>... flags) {
+		List<PropertyName<Boolean>> flagList = new ArrayList<>(flags.length);
+
+		for (PropertyName<Boolean> flag : flags) {
+			flagList.add(flag);
+		}
+
+		return new FlagMask(Collections.unmodifiableList(flagList));
+	}
+
+	/**
+	 * Returns the flag index of a property name and checks that it is valid.
+	 *
+	 * @param flag The flag name
+	 * @return The flag index
+	 * @throws IllegalArgumentException If the name doesn't have a boolean
+	 *                                  datatype
+	 */
+	private static int getFlagIndex(PropertyName<Boolean> flag) {
+		int index = flag.getFlagIndex();
+
+		if (index < 0) {
+			throw new IllegalArgumentException("Not a flag: " + flag);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the property names of the flags in this mask.
+	 *
+	 * @return The immutable list of flag names
+	 */
+	public List<PropertyName<Boolean>> getFlags() {
+		return flags;
+	}
+
+	/**
+	 * Returns the flags in this mask as a bit mask in the flag index word at
+	 * a certain position. Each word contains 64 flags, i.e. word 0 contains
+	 * the flags with indexes 0 to 63, word 1 the indexes 64 to 127 and so on.
+	 *
+	 * @param word The word position
+	 * @return The bit mask word (zero if no flags are set in the word)
+	 */
+	public long getWord(int word) {
+		return word < words.length ? words[word] : 0;
+	}
+
+	/**
+	 * Returns the number of words in this mask.
+	 *
+	 * @return The word count
+	 */
+	public int getWordCount() {
+		return words.length;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + flags;
+	}
+}
@@ -32,6 +32,56 @@ import java.util.Collection;
  */
 public interface HasProperties {
 
+	/**
+	 * Visits all properties of this instance in a single pass. Other than
+	 * iterating over {@link #getPropertyNames()} and querying each value this
+	 * allows implementations to hand over the stored values without further
+	 * lookups and to invoke the primitive-specialized methods of the visitor
+	 * without boxing. The default implementation queries each value with
+	 * {@link #getProperty(PropertyName, Object)}. The visitor must not modify
+	 * this instance.
+	 *
+	 * @param visitor The visitor to invoke for each property
+	 */
+	default void forEachProperty(PropertyVisitor visitor) {
+		for (PropertyName<?> name : getPropertyNames()) {
+			visitor.visitProperty(name, getProperty(name, null));
+		}
+	}
+
+	/**
+	 * A convenience method that returns the value of a boolean property as a
+	 * primitive value. Other than {@link #hasFlag(PropertyName)} this method
+	 * allows to define the result for properties that have not been set.
+	 *
+	 * @param name         The name of the property
+	 * @param defaultValue The default value if no such property exists
+	 * @return The boolean property value or the default value
+	 */
+	default boolean getBooleanProperty(PropertyName<Boolean> name,
+		boolean defaultValue) {
+		Boolean value = getProperty(name, null);
+
+		return value != null ? value.booleanValue() : defaultValue;
+	}
+
+	/**
+	 * A convenience method that returns the value of a property as a double.
+	 * The default implementation unboxes the result of
+	 * {@link #getProperty(PropertyName, Object)} but implementations may
+	 * override this method to avoid boxing.
+	 *
+	 * @param name         The name of the property
+	 * @param defaultValue The default value if no such property exists
+	 * @return The double property value or the default value
+	 */
+	default double getDoubleProperty(PropertyName<Double> name,
+		double defaultValue) {
+		Double value = getProperty(name, null);
+
+		return value != null ? value.doubleValue() : defaultValue;
+	}
+
 	/**
 	 * A convenience method that returns the value of a property as an int.
 	 *
@@ -41,6 +91,60 @@ public interface HasProperties {
 	 */
 	int getIntProperty(PropertyName<Integer> name, int defaultValue);
 
+	/**
+	 * Checks whether all flags in a flag mask are set to TRUE. The default
+	 * implementation queries each flag with {@link #hasFlag(PropertyName)}
+	 * but implementations may override this method to check all flags at
+	 * once.
+	 *
+	 * @param flags The flag mask
+	 * @return TRUE if all flags are set
+	 */
+	default boolean hasAllFlags(FlagMask flags) {
+		for (PropertyName<Boolean> flag : flags.getFlags()) {
+			if (!hasFlag(flag)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks whether at least one flag in a flag mask is set to TRUE. The
+	 * default implementation queries each flag with
+	 * {@link #hasFlag(PropertyName)} but implementations may override this
+	 * method to check all flags at once.
+	 *
+	 * @param flags The flag mask
+	 * @return TRUE if at least one flag is set
+	 */
+	default boolean hasAnyFlag(FlagMask flags) {
+		for (PropertyName<Boolean> flag : flags.getFlags()) {
+			if (hasFlag(flag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A convenience method that returns the value of a property as a long.
+	 * The default implementation unboxes the result of
+	 * {@link #getProperty(PropertyName, Object)} but implementations may
+	 * override this method to avoid boxing.
+	 *
+	 * @param name         The name of the property
+	 * @param defaultValue The default value if no such property exists
+	 * @return The long property value or the default value
+	 */
+	default long getLongProperty(PropertyName<Long> name, long defaultValue) {
+		Long value = getProperty(name, null);
+
+		return value != null ? value.longValue() : defaultValue;
+	}
+
 	/**
 	 * Returns the value of a particular property.
 	 *
@@ -0,0 +1,703 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An immutable implementation of the {@link HasProperties} interface.
+ * Instances are either created as snapshots of mutable properties through
+ * {@link AbstractStringProperties#snapshot()} or derived from other instances
+ * with {@link #with(PropertyName, Object)} and {@link #without(PropertyName)},
+ * starting with the {@link #EMPTY empty instance}.
+ *
+ * <p>A snapshot initially shares the internal storage of the originating
+ * properties object and is therefore created in constant time. When the first
+ * version is derived from it the properties are converted into a persistent
+ * hash trie that is keyed by the {@link PropertyName#getId() property name
+ * IDs}. The trie is created only once for each snapshot and then shared by
+ * all versions derived from it. All derivations only copy the trie nodes on
+ * the path to the modified property and share the rest of the structure with
+ * the original version. Keeping many versions of a properties object
+ * therefore only requires memory for the changed nodes.</p>
+ *
+ * <p>Values are converted with the {@link PropertyName#getCodec() codecs} of
+ * the property names in the same way as in {@link StringProperties}. Instances
+ * don't reference the properties object they have been created from, and
+ * conversions that subclasses of {@link AbstractStringProperties} implement
+ * by overriding their conversion methods are therefore not available in
+ * snapshots. Custom datatypes should instead be supported by registering a
+ * codec in {@link PropertyCodecs}. Because instances are immutable,
+ * collection and map properties are returned as immutable instances that are
+ * shared between all queries.</p>
+ *
+ * @author eso
+ */
+public final class ImmutableProperties implements HasProperties {
+
+	/**
+	 * An empty instance.
+	 */
+	public static final ImmutableProperties EMPTY =
+		new ImmutableProperties(null, null, 0);
+
+	private static final StringProperties CONVERTER = new StringProperties();
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private final PropertyStore store;
+
+	private final Node root;
+
+	private final int size;
+
+	private volatile Node storeTrie;
+
+	private int hashCode;
+
+	/**
+	 * Creates a snapshot that shares a property storage. The storage must
+	 * not be modified after this call.
+	 *
+	 * @param store The property storage
+	 */
+	ImmutableProperties(PropertyStore store) {
+		this(store, null, store.size());
+	}
+
+	/**
+	 * Internal constructor.
+	 *
+	 * @param store The property storage or NULL for a trie
+	 * @param root  The trie root or NULL for a property storage
+	 * @param size  The number of properties
+	 */
+	private ImmutableProperties(PropertyStore store, Node root, int size) {
+		this.store = store;
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns an immutable instance with the properties of another properties
+	 * object. Mutable properties that are based on
+	 * {@link AbstractStringProperties} are converted with a snapshot that
+	 * shares their storage, other properties objects are copied.
+	 *
+	 * @param properties The properties to copy
+	 * @return The immutable properties (the argument itself if it is already
+	 * immutable)
+	 */
+	public static ImmutableProperties copyOf(HasProperties properties) {
+		if (properties instanceof ImmutableProperties) {
+			return (ImmutableProperties) properties;
+		} else if (properties instanceof AbstractStringProperties) {
+			return ((AbstractStringProperties) properties).snapshot();
+		} else if (properties instanceof ConcurrentStringProperties) {
+			return ((ConcurrentStringProperties) properties).snapshot();
+		} else if (properties instanceof LayeredProperties) {
+			return ((LayeredProperties) properties).flatten();
+		} else if (properties.getPropertyCount() == 0) {
+			return EMPTY;
+		} else {
+			return new StringProperties(properties).snapshot();
+		}
+	}
+
+	/**
+	 * Instances are equal if they contain the same properties with equal
+	 * values.
+	 *
+	 * @see Object#equals(Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof ImmutableProperties)) {
+			return false;
+		}
+
+		ImmutableProperties other = (ImmutableProperties) obj;
+
+		if (size != other.size ||
+			(hashCode != 0 && other.hashCode != 0 &&
+				hashCode != other.hashCode)) {
+			return false;
+		}
+
+		for (PropertyName<?> name : getPropertyNames()) {
+			if (!getStoredValue(name).equals(other.getStoredValue(name))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Visits all properties in a single pass over the internal storage. See
+	 * {@link AbstractStringProperties#forEachProperty(PropertyVisitor)} for
+	 * details.
+	 *
+	 * @see HasProperties#forEachProperty(PropertyVisitor)
+	 */
+	@Override
+	public void forEachProperty(PropertyVisitor visitor) {
+		if (store != null) {
+			int count = store.size();
+
+			for (int i = 0; i < count; i++) {
+				visitStoredValue(visitor, store.getName(i), store.getValue(i));
+			}
+		} else if (root != null) {
+			root.visit(this, visitor);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getIntProperty(PropertyName<Integer> name, int defaultValue) {
+		Object value = getStoredValue(name);
+
+		if (value instanceof Integer) {
+			return ((Integer) value).intValue();
+		} else {
+			return value != null ?
+			       Integer.parseInt(value.toString()) :
+			       defaultValue;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T getProperty(PropertyName<T> name, T defaultValue) {
+		Object value = getStoredValue(name);
+
+		return value != null ? toPropertyValue(name, value) : defaultValue;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPropertyCount() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Collection<PropertyName<?>> getPropertyNames() {
+		if (store != null) {
+			return store.names();
+		} else if (root != null) {
+			List<PropertyName<?>> names = new ArrayList<>(size);
+
+			root.collectNames(names);
+
+			return Collections.unmodifiableList(names);
+		} else {
+			return Collections.emptySet();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasFlag(PropertyName<Boolean> name) {
+		return Boolean.TRUE.equals(getStoredValue(name));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasProperty(PropertyName<?> name) {
+		return getStoredValue(name) != null;
+	}
+
+	/**
+	 * Returns the hash code of this instance. The hash code is computed only
+	 * once and then cached.
+	 *
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		int hash = hashCode;
+
+		if (hash == 0 && size > 0) {
+			for (PropertyName<?> name : getPropertyNames()) {
+				hash += name.hashCode() ^ getStoredValue(name).hashCode();
+			}
+
+			hashCode = hash;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("ImmutableProperties{");
+
+		for (PropertyName<?> name : getPropertyNames()) {
+			result.append(name).append('=');
+			result.append(getProperty(name, null)).append(", ");
+		}
+
+		if (size > 0) {
+			result.setLength(result.length() - 2);
+		}
+
+		return result.append('}').toString();
+	}
+
+	/**
+	 * Returns a new version of this instance with a certain property value.
+	 * Setting a value of NULL has the same effect as invoking
+	 * {@link #without(PropertyName)}.
+	 *
+	 * @param name  The property name
+	 * @param value The new property value or NULL to remove the property
+	 * @return The new version or this instance if the property already has
+	 * the given value
+	 */
+	public <T> ImmutableProperties with(PropertyName<T> name, T value) {
+		if (value == null) {
+			return without(name);
+		}
+
+		return withStoredValue(name, CONVERTER.toStoredValue(name, value));
+	}
+
+	/**
+	 * Returns a new version of this instance without a certain property.
+	 *
+	 * @param name The name of the property to remove
+	 * @return The new version or this instance if it doesn't contain the
+	 * property
+	 */
+	public ImmutableProperties without(PropertyName<?> name) {
+		if (!hasProperty(name)) {
+			return this;
+		}
+
+		Node newRoot = getTrieRoot().remove(name, 0);
+
+		return newRoot != null ?
+		       new ImmutableProperties(null, newRoot, size - 1) :
+		       EMPTY;
+	}
+
+	/**
+	 * Returns an instance with the same properties that is backed by a flat
+	 * property storage which can be shared with mutable properties objects.
+	 *
+	 * @return This instance if it already uses a property storage or else a
+	 * new instance
+	 */
+	ImmutableProperties compact() {
+		if (root == null) {
+			return this;
+		}
+
+		PropertyStore flatStore = new PropertyStore(size);
+
+		for (PropertyName<?> name : getPropertyNames()) {
+			flatStore.put(name, getStoredValue(name));
+		}
+
+		ImmutableProperties compact =
+			new ImmutableProperties(flatStore, null, size);
+
+		compact.hashCode = hashCode;
+
+		return compact;
+	}
+
+	/**
+	 * Returns the property storage that is shared with the properties object
+	 * from which this snapshot has been created.
+	 *
+	 * @return The shared property storage or NULL if this instance is backed
+	 * by a trie
+	 */
+	PropertyStore getSharedStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the value of a property as it is stored internally.
+	 *
+	 * @param name The property name
+	 * @return The stored value or NULL for none
+	 */
+	Object getStoredValue(PropertyName<?> name) {
+		if (store != null) {
+			return store.get(name);
+		} else {
+			return root != null ? root.get(name, 0) : null;
+		}
+	}
+
+	/**
+	 * Returns a new version of this instance with a certain property value in
+	 * it's internal representation.
+	 *
+	 * @param name        The property name
+	 * @param storedValue The internal value (must not be NULL)
+	 * @return The new version or this instance if the property already has
+	 * the given value
+	 */
+	ImmutableProperties withStoredValue(PropertyName<?> name,
+		Object storedValue) {
+		Object current = getStoredValue(name);
+
+		if (storedValue.equals(current)) {
+			return this;
+		}
+
+		Node trieRoot = getTrieRoot();
+
+		Node newRoot = trieRoot != null ?
+		               trieRoot.put(name, storedValue, 0) :
+		               Node.EMPTY.put(name, storedValue, 0);
+
+		return new ImmutableProperties(null, newRoot,
+			current != null ? size : size + 1);
+	}
+
+	/**
+	 * Converts a stored value into the value that is returned by queries.
+	 *
+	 * @param name        The property name
+	 * @param storedValue The stored value
+	 * @return The property value
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T toPropertyValue(PropertyName<T> name, Object storedValue) {
+		Object value = storedValue;
+
+		if (value instanceof String && name.getDatatype() != String.class) {
+			value = CONVERTER.parseRawValue(name, (String) value);
+		} else if (value instanceof Date) {
+			value = new Date(((Date) value).getTime());
+		}
+
+		return (T) value;
+	}
+
+	/**
+	 * Hands a stored value to a property visitor.
+	 *
+	 * @param visitor     The property visitor
+	 * @param name        The property name
+	 * @param storedValue The stored value
+	 */
+	private void visitStoredValue(PropertyVisitor visitor,
+		PropertyName<?> name, Object storedValue) {
+		if (!AbstractStringProperties.visitTypedValue(visitor, name,
+			storedValue)) {
+			visitor.visitProperty(name, toPropertyValue(name, storedValue));
+		}
+	}
+
+	/**
+	 * Returns the root of the trie containing the properties of this
+	 * instance. If the properties are still stored in a shared property
+	 * storage the trie will be created from it on the first invocation and
+	 * then cached. Because the trie is immutable concurrent invocations may
+	 * at most create it more than once.
+	 *
+	 * @return The trie root or NULL if this instance is empty
+	 */
+	private Node getTrieRoot() {
+		if (store == null) {
+			return root;
+		}
+
+		Node trie = storeTrie;
+
+		if (trie == null) {
+			int count = store.size();
+
+			trie = Node.EMPTY;
+
+			for (int i = 0; i < count; i++) {
+				trie = trie.put(store.getName(i), store.getValue(i), 0);
+			}
+
+			storeTrie = trie;
+		}
+
+		return trie;
+	}
+
+	/**
+	 * A node of the persistent hash trie. Each node contains a bit map of the
+	 * occupied slots for 5 bits of the property name IDs at the node's level
+	 * and an array that contains pairs of property names and values for each
+	 * occupied slot. If a slot contains another node the name will be NULL
+	 * and the value will be the child node.
+	 *
+	 * @author eso
+	 */
+	private static final class Node {
+
+		static final Node EMPTY = new Node(0, new Object[0]);
+
+		private final int bitmap;
+
+		private final Object[] entries;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param bitmap  The slot bit map
+		 * @param entries The slot entries
+		 */
+		Node(int bitmap, Object[] entries) {
+			this.bitmap = bitmap;
+			this.entries = entries;
+		}
+
+		/**
+		 * Creates a node that contains two properties with different IDs.
+		 *
+		 * @param name1  The first name
+		 * @param value1 The first value
+		 * @param name2  The second name
+		 * @param value2 The second value
+		 * @param shift  The bit shift of the node level
+		 * @return The new node
+		 */
+		static Node create(PropertyName<?> name1, Object value1,
+			PropertyName<?> name2, Object value2, int shift) {
+			int slot1 = (name1.getId() >>> shift) & MASK;
+			int slot2 = (name2.getId() >>> shift) & MASK;
+
+			if (slot1 == slot2) {
+				Node child = create(name1, value1, name2, value2, shift + BITS);
+
+				return new Node(1 << slot1, new Object[] { null, child });
+			} else if (slot1 < slot2) {
+				return new Node((1 << slot1) | (1 << slot2),
+					new Object[] { name1, value1, name2, value2 });
+			} else {
+				return new Node((1 << slot1) | (1 << slot2),
+					new Object[] { name2, value2, name1, value1 });
+			}
+		}
+
+		/**
+		 * Adds the names of all properties in this node and it's children to
+		 * a list.
+		 *
+		 * @param names The target list
+		 */
+		void collectNames(List<PropertyName<?>> names) {
+			for (int i = 0; i < entries.length; i += 2) {
+				if (entries[i] != null) {
+					names.add((PropertyName<?>) entries[i]);
+				} else {
+					((Node) entries[i + 1]).collectNames(names);
+				}
+			}
+		}
+
+		/**
+		 * Visits the properties in this node and it's children.
+		 *
+		 * @param owner   The properties object that contains this node
+		 * @param visitor The property visitor
+		 */
+		void visit(ImmutableProperties owner, PropertyVisitor visitor) {
+			for (int i = 0; i < entries.length; i += 2) {
+				if (entries[i] != null) {
+					owner.visitStoredValue(visitor,
+						(PropertyName<?>) entries[i], entries[i + 1]);
+				} else {
+					((Node) entries[i + 1]).visit(owner, visitor);
+				}
+			}
+		}
+
+		/**
+		 * Returns the value of a property from this node or it's children.
+		 *
+		 * @param name  The property name
+		 * @param shift The bit shift of this node's level
+		 * @return The property value or NULL for none
+		 */
+		Object get(PropertyName<?> name, int shift) {
+			Node node = this;
+
+			while (true) {
+				int bit = 1 << ((name.getId() >>> shift) & MASK);
+
+				if ((node.bitmap & bit) == 0) {
+					return null;
+				}
+
+				int position = node.position(bit);
+				Object key = node.entries[position];
+
+				if (key == null) {
+					node = (Node) node.entries[position + 1];
+					shift += BITS;
+				} else {
+					return key == name ? node.entries[position + 1] : null;
+				}
+			}
+		}
+
+		/**
+		 * Returns a version of this node that contains a certain property.
+		 *
+		 * @param name  The property name
+		 * @param value The property value
+		 * @param shift The bit shift of this node's level
+		 * @return The new node or this instance if it is unchanged
+		 */
+		Node put(PropertyName<?> name, Object value, int shift) {
+			int bit = 1 << ((name.getId() >>> shift) & MASK);
+			int position = position(bit);
+
+			if ((bitmap & bit) == 0) {
+				Object[] newEntries = new Object[entries.length + 2];
+
+				System.arraycopy(entries, 0, newEntries, 0, position);
+				System.arraycopy(entries, position, newEntries, position + 2,
+					entries.length - position);
+				newEntries[position] = name;
+				newEntries[position + 1] = value;
+
+				return new Node(bitmap | bit, newEntries);
+			}
+
+			Object key = entries[position];
+			Object current = entries[position + 1];
+			Object newValue;
+
+			if (key == null) {
+				newValue = ((Node) current).put(name, value, shift + BITS);
+			} else if (key == name) {
+				newValue = value;
+			} else {
+				newValue = create((PropertyName<?>) key, current, name, value,
+					shift + BITS);
+				key = null;
+			}
+
+			if (newValue == current ||
+				key != null && newValue.equals(current)) {
+				return this;
+			}
+
+			Object[] newEntries = entries.clone();
+
+			newEntries[position] = key;
+			newEntries[position + 1] = newValue;
+
+			return new Node(bitmap, newEntries);
+		}
+
+		/**
+		 * Returns a version of this node that doesn't contain a certain
+		 * property.
+		 *
+		 * @param name  The property name
+		 * @param shift The bit shift of this node's level
+		 * @return The new node or NULL if the resulting node is empty
+		 */
+		Node remove(PropertyName<?> name, int shift) {
+			int bit = 1 << ((name.getId() >>> shift) & MASK);
+
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+
+			int position = position(bit);
+			Object key = entries[position];
+
+			if (key == null) {
+				Node child = (Node) entries[position + 1];
+				Node newChild = child.remove(name, shift + BITS);
+
+				if (newChild == child) {
+					return this;
+				} else if (newChild != null) {
+					Object[] newEntries = entries.clone();
+
+					if (newChild.entries.length == 2 &&
+						newChild.entries[0] != null) {
+						// inline a child with a single property
+						newEntries[position] = newChild.entries[0];
+						newEntries[position + 1] = newChild.entries[1];
+					} else {
+						newEntries[position + 1] = newChild;
+					}
+
+					return new Node(bitmap, newEntries);
+				}
+			} else if (key != name) {
+				return this;
+			}
+
+			if (entries.length == 2) {
+				return null;
+			}
+
+			Object[] newEntries = new Object[entries.length - 2];
+
+			System.arraycopy(entries, 0, newEntries, 0, position);
+			System.arraycopy(entries, position + 2, newEntries, position,
+				newEntries.length - position);
+
+			return new Node(bitmap & ~bit, newEntries);
+		}
+
+		/**
+		 * Returns the position of the entry for a certain slot bit.
+		 *
+		 * @param bit The slot bit
+		 * @return The entry position
+		 */
+		private int position(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1)) * 2;
+		}
+	}
+}
@@ -0,0 +1,533 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import de.esoco.lib.text.CollectionTextCodec;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Converts properties from and to the JSON representation that is used for
+ * the transfer to and from web clients. The properties are written as a JSON
+ * object with the property names as keys and the values as JSON strings in
+ * the string format of {@link StringProperties}, i.e. the JSON text is the
+ * same as that of the {@link AbstractStringProperties#getPropertyMap()
+ * property map}. Collections and maps are written in the collection format
+ * (e.g. "a,b" or "key1=a,key2=b"). Because the datatypes are defined by the
+ * property names no type information needs to be included.
+ *
+ * <p>The properties of {@link AbstractStringProperties} objects are written
+ * directly from the internal storage. Numbers, dates, and flags are appended
+ * without creating intermediate strings, the elements of collections and
+ * maps are appended one by one without creating the string format of the
+ * whole collection first, and text is escaped with bulk appends of the
+ * characters that don't need escaping. When reading, the values are parsed
+ * directly from the decoded strings. This class only uses GWT-compatible
+ * APIs.</p>
+ *
+ * @author eso
+ */
+public final class JsonPropertyFormat {
+
+	private static final StringProperties CONVERTER = new StringProperties();
+
+	private static final String HEX_DIGITS = "0123456789abcdef";
+
+	/**
+	 * Private, only static use.
+	 */
+	private JsonPropertyFormat() {
+	}
+
+	/**
+	 * Parses properties from their JSON representation into a new properties
+	 * object.
+	 *
+	 * @param json The JSON text
+	 * @return A new properties object containing the parsed properties
+	 * @throws IllegalArgumentException If the JSON text is invalid or
+	 *                                  contains undefined property names
+	 */
+	public static StringProperties parse(CharSequence json) {
+		StringProperties properties = new StringProperties();
+
+		read(json, properties);
+
+		return properties;
+	}
+
+	/**
+	 * Reads properties from their JSON representation into a properties
+	 * object. All existing properties of the target object will be replaced.
+	 *
+	 * @param json       The JSON text
+	 * @param properties The properties object to read into
+	 * @throws IllegalArgumentException If the JSON text is invalid or
+	 *                                  contains undefined property names
+	 */
+	public static void read(CharSequence json,
+		AbstractStringProperties properties) {
+		new Reader(json).readProperties(properties);
+	}
+
+	/**
+	 * Converts properties into their JSON representation.
+	 *
+	 * @param properties The properties to convert
+	 * @return The JSON text
+	 */
+	public static String toJson(HasProperties properties) {
+		return write(properties,
+			new StringBuilder(properties.getPropertyCount() * 16 + 2))
+			.toString();
+	}
+
+	/**
+	 * Appends the JSON representation of properties to a string builder.
+	 *
+	 * @param properties The properties to write
+	 * @param out        The string builder to append to
+	 * @return The string builder
+	 */
+	public static StringBuilder write(HasProperties properties,
+		StringBuilder out) {
+		out.append('{');
+
+		if (properties instanceof AbstractStringProperties) {
+			PropertyStore store =
+				((AbstractStringProperties) properties).getPropertyStore();
+			int count = store != null ? store.size() : 0;
+
+			for (int i = 0; i < count; i++) {
+				writeProperty(out, store.getName(i), store.getValue(i), i == 0);
+			}
+		} else {
+			boolean first = true;
+
+			for (PropertyName<?> name : properties.getPropertyNames()) {
+				Object value = properties.getProperty(name, null);
+
+				if (value != null) {
+					writeProperty(out, name,
+						CONVERTER.toStoredValue(name, value), first);
+					first = false;
+				}
+			}
+		}
+
+		return out.append('}');
+	}
+
+	/**
+	 * Appends a range of a text with the escaping of JSON strings but
+	 * without the enclosing quotes.
+	 *
+	 * @param out             The string builder to append to
+	 * @param text            The text
+	 * @param start           The start of the range (inclusive)
+	 * @param end             The end of the range (exclusive)
+	 * @param escapeSeparator TRUE to escape collection separators like in
+	 *                        the collection text format
+	 */
+	private static void appendChars(StringBuilder out, CharSequence text,
+		int start, int end, boolean escapeSeparator) {
+		int plain = start;
+
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+
+			if (c >= 0x20 && c != '"' && c != '\\' &&
+				(c != ',' || !escapeSeparator) && c != '\u2028' &&
+				c != '\u2029') {
+				continue;
+			}
+
+			out.append(text, plain, i);
+			plain = i + 1;
+
+			if (c == ',') {
+				String escaped = CollectionTextCodec.ESCAPED_SEPARATOR;
+
+				appendChars(out, escaped, 0, escaped.length(), false);
+			} else if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else {
+				out.append("\\u");
+
+				for (int shift = 12; shift >= 0; shift -= 4) {
+					out.append(HEX_DIGITS.charAt((c >> shift) & 0xF));
+				}
+			}
+		}
+
+		out.append(text, plain, end);
+	}
+
+	/**
+	 * Appends a text as a JSON string.
+	 *
+	 * @param out  The string builder to append to
+	 * @param text The text
+	 */
+	private static void appendString(StringBuilder out, CharSequence text) {
+		out.append('"');
+		appendChars(out, text, 0, text.length(), false);
+		out.append('"');
+	}
+
+	/**
+	 * Writes a single property.
+	 *
+	 * @param out         The string builder to append to
+	 * @param name        The property name
+	 * @param storedValue The stored property value
+	 * @param first       TRUE for the first property
+	 */
+	private static void writeProperty(StringBuilder out, PropertyName<?> name,
+		Object storedValue, boolean first) {
+		if (!first) {
+			out.append(',');
+		}
+
+		appendString(out, name.getName());
+		out.append(':');
+
+		if (storedValue instanceof String) {
+			// also collections and maps that are stored in the string format
+			appendString(out, (String) storedValue);
+		} else if (storedValue instanceof Collection) {
+			boolean firstElement = true;
+
+			out.append('"');
+
+			for (Object element : (Collection<?>) storedValue) {
+				String text = PropertyCodecs.encode(element);
+
+				if (!firstElement) {
+					out.append(',');
+				}
+
+				appendChars(out, text, 0, text.length(), true);
+				firstElement = false;
+			}
+
+			out.append('"');
+		} else if (storedValue instanceof Map) {
+			boolean firstEntry = true;
+
+			out.append('"');
+
+			for (Entry<?, ?> entry : ((Map<?, ?>) storedValue).entrySet()) {
+				String key = PropertyCodecs.encode(entry.getKey());
+				String value = PropertyCodecs.encode(entry.getValue());
+
+				if (!firstEntry) {
+					out.append(',');
+				}
+
+				// keys are not escaped in the collection text format
+				appendChars(out, key, 0, key.length(), false);
+				out.append('=');
+				appendChars(out, value, 0, value.length(), true);
+				firstEntry = false;
+			}
+
+			out.append('"');
+		} else {
+			writeValue(out, storedValue);
+		}
+	}
+
+	/**
+	 * Writes a scalar value as a JSON string. Numbers, dates, and booleans
+	 * are appended directly in their string format.
+	 *
+	 * @param out   The string builder to append to
+	 * @param value The value to write
+	 */
+	private static void writeValue(StringBuilder out, Object value) {
+		if (value instanceof Integer) {
+			out.append('"').append(((Integer) value).intValue()).append('"');
+		} else if (value instanceof Long) {
+			out.append('"').append(((Long) value).longValue()).append('"');
+		} else if (value instanceof Boolean) {
+			out.append('"')
+				.append(((Boolean) value).booleanValue())
+				.append('"');
+		} else if (value instanceof Double) {
+			out.append('"')
+				.append(((Double) value).doubleValue())
+				.append('"');
+		} else if (value instanceof Date) {
+			out.append('"').append(((Date) value).getTime()).append('"');
+		} else {
+			appendString(out, PropertyCodecs.encode(value));
+		}
+	}
+
+	/**
+	 * A simple JSON parser for the properties format.
+	 *
+	 * @author eso
+	 */
+	private static class Reader {
+
+		private final CharSequence json;
+
+		private final int length;
+
+		private int position = 0;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param json The JSON text to read
+		 */
+		Reader(CharSequence json) {
+			this.json = json;
+			this.length = json.length();
+		}
+
+		/**
+		 * Reads a JSON object with properties.
+		 *
+		 * @param properties The properties object to read into
+		 */
+		void readProperties(AbstractStringProperties properties) {
+			properties.setPropertyMap(null);
+			expect('{');
+
+			if (!consume('}')) {
+				do {
+					String propertyName = readString();
+					PropertyName<?> name = PropertyName.valueOf(propertyName);
+
+					if (name == null) {
+						throw new IllegalArgumentException(
+							"Undefined property name: " + propertyName);
+					}
+
+					expect(':');
+
+					String value = readPropertyValue(name);
+
+					if (value != null) {
+						properties.restoreProperty(name, value);
+					}
+				} while (consume(','));
+
+				expect('}');
+			}
+
+			skipWhitespace();
+
+			if (position < length) {
+				throw error("Unexpected content");
+			}
+		}
+
+		/**
+		 * Consumes a character if it is the next non-whitespace character.
+		 *
+		 * @param c The character to consume
+		 * @return TRUE if the character has been consumed
+		 */
+		private boolean consume(char c) {
+			skipWhitespace();
+
+			if (position < length && json.charAt(position) == c) {
+				position++;
+
+				return true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Consumes a JSON literal if it occurs at the current position.
+		 *
+		 * @param literal The literal to consume
+		 * @return TRUE if the literal has been consumed
+		 */
+		private boolean consumeLiteral(String literal) {
+			int end = position + literal.length();
+
+			if (end > length || (end < length && !isDelimiter(end))) {
+				return false;
+			}
+
+			for (int i = literal.length() - 1; i >= 0; i--) {
+				if (json.charAt(position + i) != literal.charAt(i)) {
+					return false;
+				}
+			}
+
+			position = end;
+
+			return true;
+		}
+
+		/**
+		 * Creates an exception for an error at the current position.
+		 *
+		 * @param message The error message
+		 * @return The exception
+		 */
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(
+				message + " at position " + position);
+		}
+
+		/**
+		 * Consumes a character that is required at the current position.
+		 *
+		 * @param c The expected character
+		 * @throws IllegalArgumentException If the character is missing
+		 */
+		private void expect(char c) {
+			if (!consume(c)) {
+				throw error("Expected '" + c + "'");
+			}
+		}
+
+		/**
+		 * Checks whether the character at a certain position ends a token.
+		 *
+		 * @param index The position of the character
+		 * @return TRUE if the character is a delimiter
+		 */
+		private boolean isDelimiter(int index) {
+			char c = json.charAt(index);
+
+			return c == ',' || c == '}' || c == ']' || c == ':' || c <= ' ';
+		}
+
+		/**
+		 * Reads the raw string value of a property.
+		 *
+		 * @param name The property name
+		 * @return The raw property value or NULL for a JSON null value
+		 */
+		private String readPropertyValue(PropertyName<?> name) {
+			skipWhitespace();
+
+			if (position < length && json.charAt(position) == '"') {
+				return readString();
+			} else if (consumeLiteral("null")) {
+				return null;
+			} else {
+				throw error("String value expected for " + name);
+			}
+		}
+
+		/**
+		 * Reads a JSON string.
+		 *
+		 * @return The decoded string
+		 */
+		private String readString() {
+			expect('"');
+
+			StringBuilder result = null;
+			int start = position;
+
+			while (position < length) {
+				char c = json.charAt(position++);
+
+				if (c == '"') {
+					if (result == null) {
+						return json.subSequence(start, position - 1)
+							.toString();
+					} else {
+						return result.toString();
+					}
+				} else if (c == '\\') {
+					if (result == null) {
+						result = new StringBuilder();
+						result.append(json, start, position - 1);
+					}
+
+					result.append(readEscape());
+				} else if (result != null) {
+					result.append(c);
+				}
+			}
+
+			throw error("Unterminated string");
+		}
+
+		/**
+		 * Reads the escaped character after a backslash.
+		 *
+		 * @return The decoded character
+		 */
+		private char readEscape() {
+			if (position >= length) {
+				throw error("Incomplete escape");
+			}
+
+			char c = json.charAt(position++);
+
+			switch (c) {
+				case 'b':
+					return '\b';
+				case 'f':
+					return '\f';
+				case 'n':
+					return '\n';
+				case 'r':
+					return '\r';
+				case 't':
+					return '\t';
+				case 'u':
+					if (position + 4 > length) {
+						throw error("Incomplete escape");
+					}
+
+					int code = 0;
+
+					for (int i = 0; i < 4; i++) {
+						int digit =
+							Character.digit(json.charAt(position++), 16);
+
+						if (digit < 0) {
+							throw error("Invalid escape");
+						}
+
+						code = (code << 4) + digit;
+					}
+
+					return (char) code;
+				default:
+					return c;
+			}
+		}
+
+		/**
+		 * Skips whitespace characters.
+		 */
+		private void skipWhitespace() {
+			while (position < length && json.charAt(position) <= ' ') {
+				position++;
+			}
+		}
+	}
+}
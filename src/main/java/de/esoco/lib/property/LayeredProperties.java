@@ -0,0 +1,475 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link MutableProperties} implementation that is layered on top of a
+ * parent properties object and only stores the differences to the parent.
+ * This allows to share default properties between many objects that deviate
+ * from the defaults in only a few properties, like the columns or cells of a
+ * large table. Queries of properties that have not been modified locally fall
+ * through to the parent. Setting a property to the parent's value removes the
+ * local override, and removing a property of the parent stores a marker that
+ * hides the parent's value.
+ *
+ * <p>The parent is shared and must therefore not be modified while it is
+ * referenced by layered properties. Typically it will be an
+ * {@link ImmutableProperties} instance, but it can also be another layered
+ * properties object to form a chain of defaults. Because queries that are not
+ * overridden need to traverse the complete chain a flattened read cache can be
+ * enabled with {@link #setReadCache(boolean)} for deep chains. It contains all
+ * properties of the chain in a single immutable instance and is discarded on
+ * each local modification.</p>
+ *
+ * <p>Like {@link StringProperties} this implementation is not thread-safe.
+ * </p>
+ *
+ * @author eso
+ */
+public class LayeredProperties implements MutableProperties {
+
+	private final HasProperties parent;
+
+	private StringProperties overrides = null;
+
+	private Set<PropertyName<?>> removed = null;
+
+	private boolean readCacheEnabled = false;
+
+	private ImmutableProperties readCache = null;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param parent The parent properties to fall back to
+	 */
+	public LayeredProperties(HasProperties parent) {
+		this.parent = Objects.requireNonNull(parent);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearFlag(PropertyName<Boolean> name) {
+		removeProperty(name);
+	}
+
+	/**
+	 * Removes all properties, including those of the parent. To discard only
+	 * the local modifications {@link #reset()} must be invoked instead.
+	 *
+	 * @see MutableProperties#clearProperties()
+	 */
+	@Override
+	public void clearProperties() {
+		overrides = null;
+
+		if (parent.getPropertyCount() > 0) {
+			removed = new HashSet<>(parent.getPropertyNames());
+		}
+
+		readCache = null;
+	}
+
+	/**
+	 * Instances are equal if they are of the same class and contain equal
+	 * properties, independent of the distribution of the properties between
+	 * the layers.
+	 *
+	 * @see Object#equals(Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		return obj != null && getClass() == obj.getClass() &&
+			flatten().equals(((LayeredProperties) obj).flatten());
+	}
+
+	/**
+	 * Returns an immutable instance that contains the properties of all
+	 * layers.
+	 *
+	 * @return The flattened properties
+	 */
+	public ImmutableProperties flatten() {
+		if (readCache != null) {
+			return readCache;
+		}
+
+		ImmutableProperties flattened;
+
+		if (parent instanceof ImmutableProperties) {
+			flattened = (ImmutableProperties) parent;
+		} else if (parent instanceof LayeredProperties) {
+			flattened = ((LayeredProperties) parent).flatten();
+		} else {
+			flattened = new StringProperties(parent).snapshot();
+		}
+
+		if (removed != null) {
+			for (PropertyName<?> name : removed) {
+				flattened = flattened.without(name);
+			}
+		}
+
+		if (overrides != null) {
+			for (PropertyName<?> name : overrides.getPropertyNames()) {
+				flattened = flattened.withStoredValue(name,
+					overrides.getStoredValue(name));
+			}
+		}
+
+		if (readCacheEnabled) {
+			readCache = flattened;
+		}
+
+		return flattened;
+	}
+
+	/**
+	 * Visits the properties of the parent directly if this instance has no
+	 * local modifications or those of the flattened read cache if it is
+	 * enabled. Otherwise the values of all layers are queried in the order of
+	 * {@link #getPropertyNames()} and handed to the primitive-specialized
+	 * methods of the visitor where applicable.
+	 *
+	 * @see HasProperties#forEachProperty(PropertyVisitor)
+	 */
+	@Override
+	public void forEachProperty(PropertyVisitor visitor) {
+		if (readCacheEnabled) {
+			flatten().forEachProperty(visitor);
+		} else if (getOverrideCount() == 0) {
+			parent.forEachProperty(visitor);
+		} else {
+			for (PropertyName<?> name : getPropertyNames()) {
+				Object value = getProperty(name, null);
+
+				if (!AbstractStringProperties.visitTypedValue(visitor, name,
+					value)) {
+					visitor.visitProperty(name, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getIntProperty(PropertyName<Integer> name, int defaultValue) {
+		if (readCacheEnabled) {
+			return flatten().getIntProperty(name, defaultValue);
+		} else if (overrides != null && overrides.hasProperty(name)) {
+			return overrides.getIntProperty(name, defaultValue);
+		} else if (isRemoved(name)) {
+			return defaultValue;
+		} else {
+			return parent.getIntProperty(name, defaultValue);
+		}
+	}
+
+	/**
+	 * Returns the number of properties that are stored locally in this
+	 * instance, i.e. the overridden and removed properties of the parent.
+	 *
+	 * @return The number of local modifications
+	 */
+	public int getOverrideCount() {
+		return (overrides != null ? overrides.getPropertyCount() : 0) +
+			(removed != null ? removed.size() : 0);
+	}
+
+	/**
+	 * Returns the parent properties of this instance.
+	 *
+	 * @return The parent properties
+	 */
+	public final HasProperties getParent() {
+		return parent;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T getProperty(PropertyName<T> name, T defaultValue) {
+		if (readCacheEnabled) {
+			return flatten().getProperty(name, defaultValue);
+		} else if (overrides != null && overrides.hasProperty(name)) {
+			return overrides.getProperty(name, defaultValue);
+		} else if (isRemoved(name)) {
+			return defaultValue;
+		} else {
+			return parent.getProperty(name, defaultValue);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPropertyCount() {
+		int count = parent.getPropertyCount();
+
+		if (removed != null) {
+			count -= removed.size();
+		}
+
+		if (overrides != null) {
+			for (PropertyName<?> name : overrides.getPropertyNames()) {
+				if (!parent.hasProperty(name)) {
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the names of the properties of all layers. If the read cache
+	 * is enabled they are returned in the order of the flattened properties
+	 * which is also used by {@link #forEachProperty(PropertyVisitor)}.
+	 *
+	 * @see HasProperties#getPropertyNames()
+	 */
+	@Override
+	public Collection<PropertyName<?>> getPropertyNames() {
+		if (readCacheEnabled) {
+			return flatten().getPropertyNames();
+		} else if (getOverrideCount() == 0) {
+			return parent.getPropertyNames();
+		}
+
+		List<PropertyName<?>> names = new ArrayList<>();
+
+		for (PropertyName<?> name : parent.getPropertyNames()) {
+			if (!isRemoved(name)) {
+				names.add(name);
+			}
+		}
+
+		if (overrides != null) {
+			for (PropertyName<?> name : overrides.getPropertyNames()) {
+				if (!parent.hasProperty(name)) {
+					names.add(name);
+				}
+			}
+		}
+
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasFlag(PropertyName<Boolean> name) {
+		return getProperty(name, Boolean.FALSE).booleanValue();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasProperty(PropertyName<?> name) {
+		if (readCacheEnabled) {
+			return flatten().hasProperty(name);
+		} else if (overrides != null && overrides.hasProperty(name)) {
+			return true;
+		} else {
+			return !isRemoved(name) && parent.hasProperty(name);
+		}
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 37 + flatten().hashCode();
+	}
+
+	/**
+	 * Checks whether a property has been overridden or removed in this
+	 * instance.
+	 *
+	 * @param name The property name
+	 * @return TRUE if the property has been modified locally
+	 */
+	public boolean isOverridden(PropertyName<?> name) {
+		return isRemoved(name) ||
+			(overrides != null && overrides.hasProperty(name));
+	}
+
+	/**
+	 * Checks whether the flattened read cache is enabled.
+	 *
+	 * @return TRUE if the read cache is enabled
+	 */
+	public final boolean isReadCacheEnabled() {
+		return readCacheEnabled;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeProperty(PropertyName<?> name) {
+		if (overrides != null) {
+			overrides.removeProperty(name);
+		}
+
+		if (parent.hasProperty(name)) {
+			if (removed == null) {
+				removed = new HashSet<>();
+			}
+
+			removed.add(name);
+		}
+
+		readCache = null;
+	}
+
+	/**
+	 * Discards all local modifications so that this instance contains the
+	 * same properties as the parent.
+	 */
+	public void reset() {
+		overrides = null;
+		removed = null;
+		readCache = null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFlag(PropertyName<Boolean> name) {
+		setProperty(name, Boolean.TRUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setProperties(HasProperties other, boolean replace) {
+		for (PropertyName<?> name : other.getPropertyNames()) {
+			if (replace || !hasProperty(name)) {
+				Object value = other.getProperty(name, null);
+
+				if (value != null) {
+					setProperty((PropertyName<Object>) name, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets a property value. If the value is equal to the value of the
+	 * parent only a local override or removal of the property will be
+	 * discarded.
+	 *
+	 * @see MutableProperties#setProperty(PropertyName, Object)
+	 */
+	@Override
+	public <T> void setProperty(PropertyName<T> name, T value) {
+		if (value == null) {
+			removeProperty(name);
+		} else {
+			if (removed != null && removed.remove(name) && removed.isEmpty()) {
+				removed = null;
+			}
+
+			if (value.equals(parent.getProperty(name, null))) {
+				if (overrides != null) {
+					overrides.removeProperty(name);
+				}
+			} else {
+				if (overrides == null) {
+					overrides = new StringProperties();
+				}
+
+				overrides.setProperty(name, value);
+			}
+
+			readCache = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperty(PropertyName<Boolean> name, boolean value) {
+		setProperty(name, Boolean.valueOf(value));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperty(PropertyName<Integer> name, int value) {
+		setProperty(name, Integer.valueOf(value));
+	}
+
+	/**
+	 * Enables or disables the flattened read cache. If enabled all queries
+	 * will be performed on a single immutable instance that contains the
+	 * properties of all layers. This is recommended for deep chains of layered
+	 * properties that are queried much more often than modified.
+	 *
+	 * @param enabled TRUE to enable the read cache
+	 */
+	public void setReadCache(boolean enabled) {
+		readCacheEnabled = enabled;
+		readCache = null;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + flatten().toString()
+			.substring(ImmutableProperties.class.getSimpleName().length());
+	}
+
+	/**
+	 * Checks whether a property of the parent has been removed locally.
+	 *
+	 * @param name The property name
+	 * @return TRUE if the property is hidden by a removal marker
+	 */
+	private boolean isRemoved(PropertyName<?> name) {
+		return removed != null && removed.contains(name);
+	}
+}
@@ -16,6 +16,8 @@
 //++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
 package de.esoco.lib.property;
 
+import java.util.Collection;
+
 /**
  * An interface for objects that provide write access to named properties.
  * Type-specific access methods allow to set and retrieve the properties. See
@@ -68,6 +70,25 @@ public interface MutableProperties extends HasProperties {
 	 */
 	void setProperties(HasProperties other, boolean replace);
 
+	/**
+	 * Sets all properties from multiple properties objects in this instance.
+	 * The result is the same as invoking
+	 * {@link #setProperties(HasProperties, boolean)} for each source in the
+	 * iteration order of the collection, i.e. if existing properties are
+	 * replaced the values of later sources take precedence. Implementations
+	 * may override this method to merge the sources more efficiently.
+	 *
+	 * @param sources The properties objects to copy the properties from
+	 * @param replace TRUE to replace existing value, FALSE to only add
+	 *                non-existing values
+	 */
+	default void setProperties(Collection<? extends HasProperties> sources,
+		boolean replace) {
+		for (HasProperties source : sources) {
+			setProperties(source, replace);
+		}
+	}
+
 	/**
 	 * Sets a particular property. Setting a value of NULL will remove the
 	 * property from this instance.
@@ -90,4 +111,26 @@ public interface MutableProperties extends HasProperties {
 	 * @see #setProperty(PropertyName, int)
 	 */
 	void setProperty(PropertyName<Integer> name, int value);
+
+	/**
+	 * Convenience method to set long properties. The default implementation
+	 * boxes the value and invokes {@link #setProperty(PropertyName, Object)}.
+	 *
+	 * @param name  The name of the property
+	 * @param value The property value
+	 */
+	default void setProperty(PropertyName<Long> name, long value) {
+		setProperty(name, Long.valueOf(value));
+	}
+
+	/**
+	 * Convenience method to set double properties. The default implementation
+	 * boxes the value and invokes {@link #setProperty(PropertyName, Object)}.
+	 *
+	 * @param name  The name of the property
+	 * @param value The property value
+	 */
+	default void setProperty(PropertyName<Double> name, double value) {
+		setProperty(name, Double.valueOf(value));
+	}
 }
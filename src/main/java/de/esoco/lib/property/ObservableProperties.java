@@ -0,0 +1,307 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link StringProperties} subclass that notifies registered
+ * {@link PropertyChangeListener PropertyChangeListeners} of changes. Only
+ * modifications that actually change the properties are reported, setting a
+ * property to it's current value will therefore not cause a notification.
+ *
+ * <p>Changes are collected and delivered in batches. Outside of a change
+ * transaction each modification is reported immediately. Between calls to
+ * {@link #beginChanges()} and {@link #endChanges()} the names of the changed
+ * properties are collected and delivered in a single event when the outermost
+ * transaction ends. Transactions can be nested. The bulk methods
+ * {@link #setProperties(HasProperties, boolean)} and
+ * {@link #clearProperties()} always run in a transaction so that they cause
+ * at most one event, independent of the number of changed properties. Changes
+ * that have been collected so far can be delivered before the end of a
+ * transaction by invoking {@link #flushChanges()}.</p>
+ *
+ * <p>The changes of a merge are determined by comparing the state of this
+ * instance before and after the merge, so the source is only read once and
+ * can also be modified concurrently, e.g. if it is a
+ * {@link ConcurrentStringProperties} instance. Reading the properties with
+ * {@link #readExternal(java.io.ObjectInput)} is reported like a merge. The
+ * protected method {@link #setPropertyMap(java.util.Map)} is final and
+ * doesn't notify listeners, subclasses that invoke it are responsible for
+ * reporting the changes.</p>
+ *
+ * <p>Like the base class this implementation is not thread-safe. Listeners
+ * are not serialized.</p>
+ *
+ * @author eso
+ */
+public class ObservableProperties extends StringProperties {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient List<PropertyChangeListener> listeners;
+
+	private transient Set<PropertyName<?>> changedProperties;
+
+	private transient int transactionDepth = 0;
+
+	/**
+	 * Creates a new instance.
+	 */
+	public ObservableProperties() {
+	}
+
+	/**
+	 * Copy constructor that creates a new instance from another properties
+	 * object.
+	 *
+	 * @param other The instance to copy the properties from
+	 */
+	public ObservableProperties(HasProperties other) {
+		super(other);
+	}
+
+	/**
+	 * Registers a listener that will be notified of property changes.
+	 *
+	 * @param listener The listener to register
+	 */
+	public void addChangeListener(PropertyChangeListener listener) {
+		if (listeners == null) {
+			listeners = new ArrayList<>();
+		}
+
+		listeners.add(listener);
+	}
+
+	/**
+	 * Starts a change transaction. All changes until the corresponding call to
+	 * {@link #endChanges()} will be delivered to the listeners in a single
+	 * event. Each invocation of this method must be followed by an invocation
+	 * of {@link #endChanges()}, typically in a finally block.
+	 */
+	public void beginChanges() {
+		transactionDepth++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearProperties() {
+		if (getPropertyCount() > 0) {
+			beginChanges();
+
+			try {
+				for (PropertyName<?> name : getPropertyNames()) {
+					propertyChanged(name);
+				}
+
+				super.clearProperties();
+			} finally {
+				endChanges();
+			}
+		}
+	}
+
+	/**
+	 * Ends a change transaction that has been started with
+	 * {@link #beginChanges()}. If this ends the outermost transaction the
+	 * collected changes will be delivered to the listeners.
+	 *
+	 * @throws IllegalStateException If no transaction is active
+	 */
+	public void endChanges() {
+		if (transactionDepth == 0) {
+			throw new IllegalStateException("No active change transaction");
+		}
+
+		if (--transactionDepth == 0) {
+			flushChanges();
+		}
+	}
+
+	/**
+	 * Delivers all changes that have been collected so far to the listeners,
+	 * even if a transaction is still active. Does nothing if no changes are
+	 * pending.
+	 */
+	public void flushChanges() {
+		if (changedProperties != null && !changedProperties.isEmpty()) {
+			PropertyChangeEvent event =
+				new PropertyChangeEvent(this, changedProperties);
+
+			changedProperties = null;
+
+			if (listeners != null) {
+				for (PropertyChangeListener listener : new ArrayList<>(
+					listeners)) {
+					listener.propertiesChanged(event);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a change transaction is currently active.
+	 *
+	 * @return TRUE if changes are currently collected
+	 */
+	public boolean isInTransaction() {
+		return transactionDepth > 0;
+	}
+
+	/**
+	 * Removes a change listener.
+	 *
+	 * @param listener The listener to remove
+	 */
+	public void removeChangeListener(PropertyChangeListener listener) {
+		if (listeners != null) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The changes of the properties are reported in a single
+	 * transaction.</p>
+	 */
+	@Override
+	@GwtIncompatible
+	public void readExternal(java.io.ObjectInput in)
+		throws java.io.IOException {
+		ImmutableProperties previous = snapshot();
+
+		beginChanges();
+
+		try {
+			super.readExternal(in);
+		} finally {
+			notifyChanges(previous);
+			endChanges();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeProperty(PropertyName<?> name) {
+		if (hasProperty(name)) {
+			super.removeProperty(name);
+			propertyChanged(name);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>All sources are merged in a single transaction.</p>
+	 */
+	@Override
+	public void setProperties(Collection<? extends HasProperties> sources,
+		boolean replace) {
+		beginChanges();
+
+		try {
+			super.setProperties(sources, replace);
+		} finally {
+			endChanges();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The properties are merged in a single transaction.</p>
+	 */
+	@Override
+	public void setProperties(HasProperties other, boolean replace) {
+		if (other.getPropertyCount() > 0) {
+			ImmutableProperties previous = snapshot();
+
+			beginChanges();
+
+			try {
+				super.setProperties(other, replace);
+			} finally {
+				notifyChanges(previous);
+				endChanges();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> void setProperty(PropertyName<T> name, T value) {
+		Object previousValue = getStoredValue(name);
+
+		super.setProperty(name, value);
+
+		if (!Objects.equals(previousValue, getStoredValue(name))) {
+			propertyChanged(name);
+		}
+	}
+
+	/**
+	 * Records the changes of all properties that differ from a previous
+	 * state of this instance. Must be invoked in a transaction.
+	 *
+	 * @param previous The previous state
+	 */
+	private void notifyChanges(ImmutableProperties previous) {
+		for (PropertyName<?> name : previous.getPropertyNames()) {
+			if (!hasProperty(name)) {
+				propertyChanged(name);
+			}
+		}
+
+		for (PropertyName<?> name : getPropertyNames()) {
+			if (!Objects.equals(previous.getStoredValue(name),
+				getStoredValue(name))) {
+				propertyChanged(name);
+			}
+		}
+	}
+
+	/**
+	 * Records the change of a property and notifies the listeners if no
+	 * transaction is active.
+	 *
+	 * @param name The name of the changed property
+	 */
+	private void propertyChanged(PropertyName<?> name) {
+		if (changedProperties == null) {
+			changedProperties = new LinkedHashSet<>();
+		}
+
+		changedProperties.add(name);
+
+		if (transactionDepth == 0) {
+			flushChanges();
+		}
+	}
+}
@@ -0,0 +1,320 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the effective properties of the nodes in a tree of
+ * {@link Hierarchical} property owners where certain properties are inherited
+ * from the parent nodes, like styles or colors in a hierarchy of UI
+ * components. The effective properties of a node consist of it's own
+ * properties and the values of the inherited properties from the nearest
+ * ancestor that contains them.
+ *
+ * <p>The effective properties are resolved from the top down and memoized for
+ * each node as an {@link ImmutableProperties} instance. Resolving a node
+ * therefore only requires to resolve the uncached ancestors, and resolving a
+ * complete tree with {@link #resolveAll(Hierarchical)} is a single linear
+ * pass. Nodes that don't override inherited properties share the instances of
+ * their parents, so that the memory needed for deep trees stays small. After
+ * resolution queries need constant time.</p>
+ *
+ * <p>If the properties of a node change it must be invalidated with
+ * {@link #invalidate(Hierarchical)} which discards the cached properties of
+ * the node and all it's resolved descendants. Nodes that are instances of
+ * {@link ObservableProperties} are invalidated automatically. In that case
+ * only the node itself will be resolved again if none of the changed
+ * properties is inherited. Changes of the tree structure also require the
+ * invalidation of the moved subtrees. Invalidated nodes are no longer
+ * referenced by the cascade, therefore subtrees that are removed from a tree
+ * should be invalidated to allow their garbage collection. A cascade is not
+ * thread-safe.</p>
+ *
+ * @author eso
+ */
+public class PropertyCascade<T extends Hierarchical<T> & HasProperties> {
+
+	private final PropertyName<?>[] inheritedProperties;
+
+	private final Map<T, Resolution> resolutions = new IdentityHashMap<>();
+
+	private final Map<ObservableProperties, Boolean> observedNodes =
+		new IdentityHashMap<>();
+
+	private final PropertyChangeListener changeListener =
+		this::propertiesChanged;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param inheritedProperties The names of the properties that are
+	 *                            inherited by child nodes
+	 */
+	public PropertyCascade(PropertyName<?>... inheritedProperties) {
+		this(Arrays.asList(inheritedProperties));
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param inheritedProperties The names of the properties that are
+	 *                            inherited by child nodes
+	 */
+	public PropertyCascade(Collection<PropertyName<?>> inheritedProperties) {
+		this.inheritedProperties = inheritedProperties.toArray(
+			new PropertyName<?>[inheritedProperties.size()]);
+	}
+
+	/**
+	 * Discards all resolved properties.
+	 */
+	public void clear() {
+		for (ObservableProperties node : observedNodes.keySet()) {
+			node.removeChangeListener(changeListener);
+		}
+
+		observedNodes.clear();
+		resolutions.clear();
+	}
+
+	/**
+	 * Returns the effective value of a property of a certain node.
+	 *
+	 * @param node         The node
+	 * @param name         The property name
+	 * @param defaultValue The default value if the property is not set
+	 * @return The property value or the default value
+	 */
+	public <V> V getProperty(T node, PropertyName<V> name, V defaultValue) {
+		return resolve(node).getProperty(name, defaultValue);
+	}
+
+	/**
+	 * Discards the resolved properties of a node and all it's descendants.
+	 * This must be invoked if the properties of a node have changed (unless
+	 * it is an {@link ObservableProperties} instance) or if a subtree has been
+	 * moved to a different parent or removed. The cascade will also stop to
+	 * observe the invalidated nodes until they are resolved again.
+	 *
+	 * @param node The node to invalidate
+	 */
+	public void invalidate(T node) {
+		List<T> pending = new ArrayList<>();
+
+		pending.add(node);
+
+		while (!pending.isEmpty()) {
+			T current = pending.remove(pending.size() - 1);
+
+			// descendants can only be resolved if their parent is resolved
+			if (resolutions.remove(current) != null) {
+				stopObserving(current);
+
+				for (T child : current) {
+					pending.add(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the properties of a node have been resolved.
+	 *
+	 * @param node The node
+	 * @return TRUE if the properties of the node are cached
+	 */
+	public boolean isResolved(T node) {
+		return resolutions.containsKey(node);
+	}
+
+	/**
+	 * Returns the effective properties of a node. This will resolve the
+	 * properties of all ancestors that have not been resolved yet.
+	 *
+	 * @param node The node to resolve
+	 * @return The effective properties of the node
+	 */
+	public ImmutableProperties resolve(T node) {
+		Resolution resolution = resolutions.get(node);
+
+		if (resolution == null) {
+			List<T> path = new ArrayList<>();
+			T ancestor = node;
+
+			while (ancestor != null && !resolutions.containsKey(ancestor)) {
+				path.add(ancestor);
+				ancestor = ancestor.getParent();
+			}
+
+			ImmutableProperties inherited = ancestor != null ?
+			                                resolutions.get(ancestor).inherited :
+			                                ImmutableProperties.EMPTY;
+
+			for (int i = path.size() - 1; i >= 0; i--) {
+				resolution = resolve(path.get(i), inherited);
+				inherited = resolution.inherited;
+			}
+		}
+
+		return resolution.effective;
+	}
+
+	/**
+	 * Resolves the properties of all nodes in a tree in a single pass.
+	 *
+	 * @param root The root of the tree or subtree to resolve
+	 */
+	public void resolveAll(T root) {
+		List<T> pending = new ArrayList<>();
+
+		resolve(root);
+		pending.add(root);
+
+		while (!pending.isEmpty()) {
+			T parent = pending.remove(pending.size() - 1);
+			ImmutableProperties inherited = resolutions.get(parent).inherited;
+
+			for (T child : parent) {
+				if (!resolutions.containsKey(child)) {
+					resolve(child, inherited);
+				}
+
+				pending.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the resolved properties of an observed node after it's
+	 * properties have changed.
+	 *
+	 * @param event The change event
+	 */
+	@SuppressWarnings("unchecked")
+	private void propertiesChanged(PropertyChangeEvent event) {
+		T node = (T) event.getSource();
+		boolean inheritedChanged = false;
+
+		for (PropertyName<?> name : inheritedProperties) {
+			if (event.isChanged(name)) {
+				inheritedChanged = true;
+
+				break;
+			}
+		}
+
+		T parent = node.getParent();
+		Resolution parentResolution =
+			parent != null ? resolutions.get(parent) : null;
+
+		if (inheritedChanged || (parent != null && parentResolution == null)) {
+			invalidate(node);
+		} else if (resolutions.containsKey(node)) {
+			// the inherited properties are unchanged, only the node needs to
+			// be resolved again to keep it's descendants reachable
+			resolve(node, parentResolution != null ?
+			              parentResolution.inherited :
+			              ImmutableProperties.EMPTY);
+		}
+	}
+
+	/**
+	 * Resolves the properties of a single node and caches the result.
+	 *
+	 * @param node      The node
+	 * @param inherited The properties inherited from the parent node
+	 * @return The resolution of the node
+	 */
+	private Resolution resolve(T node, ImmutableProperties inherited) {
+		ImmutableProperties own = ImmutableProperties.copyOf(node);
+		ImmutableProperties effective = inherited;
+		ImmutableProperties inheritable = inherited;
+
+		if (own.getPropertyCount() > 0) {
+			effective = own;
+
+			for (PropertyName<?> name : inheritedProperties) {
+				Object value = own.getStoredValue(name);
+
+				if (value != null) {
+					inheritable = inheritable.withStoredValue(name, value);
+				} else {
+					value = inherited.getStoredValue(name);
+
+					if (value != null) {
+						effective = effective.withStoredValue(name, value);
+					}
+				}
+			}
+		}
+
+		Resolution resolution = new Resolution(effective, inheritable);
+
+		resolutions.put(node, resolution);
+
+		if (node instanceof ObservableProperties &&
+			observedNodes.put((ObservableProperties) node, Boolean.TRUE) ==
+				null) {
+			((ObservableProperties) node).addChangeListener(changeListener);
+		}
+
+		return resolution;
+	}
+
+	/**
+	 * Removes the change listener from a node if it is observed.
+	 *
+	 * @param node The node
+	 */
+	private void stopObserving(T node) {
+		if (node instanceof ObservableProperties &&
+			observedNodes.remove(node) != null) {
+			((ObservableProperties) node).removeChangeListener(changeListener);
+		}
+	}
+
+	/**
+	 * Contains the resolved properties of a node.
+	 *
+	 * @author eso
+	 */
+	private static class Resolution {
+
+		final ImmutableProperties effective;
+
+		final ImmutableProperties inherited;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param effective The effective properties of the node
+		 * @param inherited The properties that are inherited by the children
+		 *                  of the node
+		 */
+		Resolution(ImmutableProperties effective,
+			ImmutableProperties inherited) {
+			this.effective = effective;
+			this.inherited = inherited;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The catalog of the standard property names that are declared in the
+ * interfaces of this package, like {@link StandardProperties},
+ * {@link ContentProperties}, {@link LayoutProperties},
+ * {@link StateProperties}, {@link StorageProperties}, and
+ * {@link StyleProperties}. The catalog evaluates a table of the names and
+ * their datatypes in a single static initializer. The
+ * initializer creates and registers all standard names in the order of the
+ * table before any other property name can be created. The standard names
+ * therefore always have the same {@link PropertyName#getId() IDs} and
+ * {@link PropertyName#getFlagIndex() flag indexes}, independent of the order
+ * in which the declaring interfaces are initialized.
+ *
+ * <p>The factory methods of {@link PropertyName} return the instances from
+ * the catalog when the declaring interfaces are initialized, and the lookup
+ * of standard names through {@link PropertyName#valueOf(String)} or during
+ * de-serialization only requires the initialization of this class. It is
+ * therefore no longer necessary to initialize the declaring interfaces in
+ * advance, and the initialization of the interfaces never depends on each
+ * other.</p>
+ *
+ * <p>The table in {@link PropertyCatalogTable} is generated from the name
+ * declarations by the Gradle task {@code generatePropertyCatalog} (see
+ * {@code gradle/property-catalog.gradle}) which must be run after a change of
+ * the declarations. The task fails on declarations it cannot evaluate, and
+ * the unit tests verify that the table matches the declared constants. The
+ * table is part of the sources so that it is also available to builds that
+ * don't run the task, like the GWT compiler. The IDs follow the order of the
+ * interfaces in the task and of the declarations in each interface, so new
+ * names should be appended to keep the IDs of the existing names stable.
+ * Property
+ * names that are declared outside of this package are not part of the
+ * catalog and are registered as before when their declaring types are
+ * initialized.</p>
+ *
+ * @author eso
+ */
+public final class PropertyCatalog {
+
+	private static final List<PropertyName<?>> standardNames =
+		new ArrayList<>();
+
+	private static final Map<String, PropertyName<?>> standardNameMap =
+		new HashMap<>();
+
+	private static final Set<String> declaredNames = new HashSet<>();
+
+	static {
+		PropertyCatalogTable.defineStandardNames();
+	}
+
+	/**
+	 * Private, only static use.
+	 */
+	private PropertyCatalog() {
+	}
+
+	/**
+	 * Initializes the catalog which registers all standard property names.
+	 * This happens automatically on the creation or lookup of property names
+	 * but this method can be invoked to register the names at a well-defined
+	 * point in time, e.g. on application startup.
+	 */
+	public static void init() {
+		// class initialization registers the standard names
+	}
+
+	/**
+	 * Declares a property name. If the name is contained in the catalog the
+	 * standard instance will be returned. Each standard name can only be
+	 * declared once.
+	 *
+	 * @param name             The property name
+	 * @param datatype         The datatype of the declaration
+	 * @param elementDatatypes The element datatypes of the declaration
+	 * @return The standard instance or NULL if the name is not in the
+	 * catalog
+	 * @throws IllegalArgumentException If the name has already been declared
+	 *                                  or if the datatypes don't match the
+	 *                                  catalog entry
+	 */
+	static synchronized PropertyName<?> declare(String name,
+		Class<?> datatype, Class<?>[] elementDatatypes) {
+		PropertyName<?> standardName = standardNameMap.get(name);
+
+		if (standardName != null) {
+			if (standardName.getDatatype() != datatype ||
+				!Arrays.equals(standardName.getElementDatatypes(),
+					elementDatatypes)) {
+				throw new IllegalArgumentException(
+					"Datatype differs from catalog: " + name);
+			}
+
+			if (!declaredNames.add(name)) {
+				throw new IllegalArgumentException(
+					"Property name already exists: " + name);
+			}
+		}
+
+		return standardName;
+	}
+
+	/**
+	 * Creates and registers a standard property name. Invoked by the
+	 * generated {@link PropertyCatalogTable}. The ID of the name must be the
+	 * same as it's position in the table.
+	 *
+	 * @param name             The property name
+	 * @param datatype         The datatype
+	 * @param elementDatatypes The element datatypes of collection and map
+	 *                         properties
+	 */
+	static void define(String name, Class<?> datatype,
+		Class<?>... elementDatatypes) {
+		PropertyName<?> standardName = PropertyName.register(
+			new PropertyName<Object>(name, datatype, elementDatatypes));
+
+		if (standardName.getId() != standardNames.size()) {
+			throw new IllegalStateException(
+				"Property name created before catalog: " + name);
+		}
+
+		standardNames.add(standardName);
+		standardNameMap.put(name, standardName);
+	}
+
+	/**
+	 * Returns the standard property name with a certain ID.
+	 *
+	 * @param id The ID (&gt;= 0 and &lt; {@link #getStandardNameCount()})
+	 * @return The standard property name
+	 */
+	static PropertyName<?> getStandardName(int id) {
+		return standardNames.get(id);
+	}
+
+	/**
+	 * Returns the number of standard property names in this catalog.
+	 *
+	 * @return The standard name count
+	 */
+	static int getStandardNameCount() {
+		return standardNames.size();
+	}
+}
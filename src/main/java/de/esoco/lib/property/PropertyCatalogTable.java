@@ -0,0 +1,163 @@
+// Generated by the Gradle task generatePropertyCatalog from the property
+// name declarations. Do not edit, run the task to update this file.
+package de.esoco.lib.property;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The generated table of the standard property names that is evaluated by
+ * the {@link PropertyCatalog}.
+ */
+final class PropertyCatalogTable {
+
+	/**
+	 * Private, only static use.
+	 */
+	private PropertyCatalogTable() {
+	}
+
+	/**
+	 * Defines all standard property names in the order of their declaration.
+	 */
+	static void defineStandardNames() {
+		// StandardProperties
+		PropertyCatalog.define("INTEGER_ID", Integer.class);
+		PropertyCatalog.define("ID", String.class);
+		PropertyCatalog.define("NAME", String.class);
+		PropertyCatalog.define("TITLE", String.class);
+		PropertyCatalog.define("DESCRIPTION", String.class);
+		PropertyCatalog.define("COUNT", Integer.class);
+		PropertyCatalog.define("READONLY", Boolean.class);
+		PropertyCatalog.define("DATE", Date.class);
+		PropertyCatalog.define("START_DATE", Date.class);
+		PropertyCatalog.define("END_DATE", Date.class);
+		PropertyCatalog.define("NEXT_DATE", Date.class);
+		PropertyCatalog.define("REMINDER_DATE", Date.class);
+		PropertyCatalog.define("LOCATION", String.class);
+		PropertyCatalog.define("ALL_DAY", Boolean.class);
+
+		// StorageProperties
+		PropertyCatalog.define("QUERY_START", Integer.class);
+		PropertyCatalog.define("QUERY_LIMIT", Integer.class);
+		PropertyCatalog.define("QUERY_DEPTH", Integer.class);
+		PropertyCatalog.define("QUERY_SEARCH", Map.class, String.class, String.class);
+		PropertyCatalog.define("QUERY_SORT", Map.class, String.class, SortDirection.class);
+
+		// ContentProperties
+		PropertyCatalog.define("ELEMENT_ID", String.class);
+		PropertyCatalog.define("RESOURCE", Boolean.class);
+		PropertyCatalog.define("RESOURCE_ID", String.class);
+		PropertyCatalog.define("LABEL", String.class);
+		PropertyCatalog.define("TOOLTIP", String.class);
+		PropertyCatalog.define("PLACEHOLDER", String.class);
+		PropertyCatalog.define("URL", String.class);
+		PropertyCatalog.define("FILE_NAME", String.class);
+		PropertyCatalog.define("FORMAT", String.class);
+		PropertyCatalog.define("FORMAT_ARGUMENTS", List.class, String.class);
+		PropertyCatalog.define("INPUT_CONSTRAINT", String.class);
+		PropertyCatalog.define("NULL_VALUE", String.class);
+		PropertyCatalog.define("ALLOWED_VALUES", String.class);
+		PropertyCatalog.define("VALUE_RESOURCE_PREFIX", String.class);
+		PropertyCatalog.define("NO_RESOURCE_PREFIX", Boolean.class);
+		PropertyCatalog.define("NOTIFICATION_TYPE", NotificationType.class);
+		PropertyCatalog.define("CONTENT_TYPE", ContentType.class);
+		PropertyCatalog.define("MIME_TYPE", String.class);
+		PropertyCatalog.define("IMAGE", String.class);
+		PropertyCatalog.define("ICON", String.class);
+
+		// LayoutProperties
+		PropertyCatalog.define("ORDER", Integer.class);
+		PropertyCatalog.define("ROW", Integer.class);
+		PropertyCatalog.define("COLUMN", Integer.class);
+		PropertyCatalog.define("ROWS", Integer.class);
+		PropertyCatalog.define("COLUMNS", Integer.class);
+		PropertyCatalog.define("ROW_SPAN", Integer.class);
+		PropertyCatalog.define("COLUMN_SPAN", Integer.class);
+		PropertyCatalog.define("MEDIUM_COLUMN_SPAN", Integer.class);
+		PropertyCatalog.define("SMALL_COLUMN_SPAN", Integer.class);
+		PropertyCatalog.define("WIDTH", Integer.class);
+		PropertyCatalog.define("HEIGHT", Integer.class);
+		PropertyCatalog.define("HTML_WIDTH", String.class);
+		PropertyCatalog.define("HTML_HEIGHT", String.class);
+		PropertyCatalog.define("LAYOUT", LayoutType.class);
+		PropertyCatalog.define("LAYOUT_AREA", String.class);
+		PropertyCatalog.define("LAYOUT_VISIBILITY", LayoutVisibility.class);
+		PropertyCatalog.define("VIEW_DISPLAY_TYPE", ViewDisplayType.class);
+		PropertyCatalog.define("RELATIVE_WIDTH", RelativeSize.class);
+		PropertyCatalog.define("RELATIVE_HEIGHT", RelativeSize.class);
+		PropertyCatalog.define("SAME_ROW", Boolean.class);
+		PropertyCatalog.define("FLOAT", Alignment.class);
+		PropertyCatalog.define("HORIZONTAL_ALIGN", Alignment.class);
+		PropertyCatalog.define("VERTICAL_ALIGN", Alignment.class);
+		PropertyCatalog.define("TEXT_ALIGN", Alignment.class);
+		PropertyCatalog.define("ICON_ALIGN", Alignment.class);
+		PropertyCatalog.define("ICON_SIZE", RelativeScale.class);
+		PropertyCatalog.define("BUTTON_SIZE", RelativeScale.class);
+		PropertyCatalog.define("DIRECTION", Orientation.class);
+
+		// StateProperties
+		PropertyCatalog.define("AUTO_UPDATE_INCREMENT", Integer.class);
+		PropertyCatalog.define("AUTO_UPDATE_INTERVAL", Integer.class);
+		PropertyCatalog.define("CARET_POSITION", Integer.class);
+		PropertyCatalog.define("DISABLED", Boolean.class);
+		PropertyCatalog.define("HIDDEN", Boolean.class);
+		PropertyCatalog.define("INVISIBLE", Boolean.class);
+		PropertyCatalog.define("NO_INTERACTION_LOCK", Boolean.class);
+		PropertyCatalog.define("NO_EVENT_PROPAGATION", Boolean.class);
+		PropertyCatalog.define("ACTION_EVENT_ON_ACTIVATION_ONLY", Boolean.class);
+		PropertyCatalog.define("FOCUSED", Boolean.class);
+		PropertyCatalog.define("CURRENT_SELECTION", Integer.class);
+		PropertyCatalog.define("FILTER_CRITERIA", Map.class, String.class, String.class);
+		PropertyCatalog.define("SORT_DIRECTION", SortDirection.class);
+		PropertyCatalog.define("VALUE_CHANGED", Boolean.class);
+		PropertyCatalog.define("PROPERTIES_CHANGED", Boolean.class);
+		PropertyCatalog.define("STRUCTURE_CHANGED", Boolean.class);
+		PropertyCatalog.define("INTERACTIVE_INPUT_MODE", InteractiveInputMode.class);
+		PropertyCatalog.define("DISABLE_ON_INTERACTION", Boolean.class);
+		PropertyCatalog.define("EVENT_HANDLING_DELAY", Integer.class);
+		PropertyCatalog.define("INTERACTION_EVENT_TYPES", Set.class, InteractionEventType.class);
+		PropertyCatalog.define("INTERACTION_EVENT_DATA", String.class);
+		PropertyCatalog.define("TARGET_ID", String.class);
+		PropertyCatalog.define("SELECTION_DEPENDENCY", String.class);
+
+		// StyleProperties
+		PropertyCatalog.define("TABLE_ROWS", Integer.class);
+		PropertyCatalog.define("MIN_CHARS", Integer.class);
+		PropertyCatalog.define("MAX_CHARS", Integer.class);
+		PropertyCatalog.define("SPLITTER_SIZE", Integer.class);
+		PropertyCatalog.define("ANIMATION_DURATION", Integer.class);
+		PropertyCatalog.define("DISABLED_ELEMENTS", String.class);
+		PropertyCatalog.define("ORIENTATION", Orientation.class);
+		PropertyCatalog.define("HIERARCHICAL", Boolean.class);
+		PropertyCatalog.define("HIDE_LABEL", Boolean.class);
+		PropertyCatalog.define("SHOW_LABEL", Boolean.class);
+		PropertyCatalog.define("AUTO_HIDE", Boolean.class);
+		PropertyCatalog.define("HEADER_LABEL", Boolean.class);
+		PropertyCatalog.define("WRAP", Boolean.class);
+		PropertyCatalog.define("NO_WRAP", Boolean.class);
+		PropertyCatalog.define("EDITABLE", Boolean.class);
+		PropertyCatalog.define("SEARCHABLE", Boolean.class);
+		PropertyCatalog.define("SORTABLE", Boolean.class);
+		PropertyCatalog.define("EXECUTABLE", Boolean.class);
+		PropertyCatalog.define("MULTI_SELECTION", Boolean.class);
+		PropertyCatalog.define("SORT", Boolean.class);
+		PropertyCatalog.define("HAS_IMAGES", Boolean.class);
+		PropertyCatalog.define("STYLE", String.class);
+		PropertyCatalog.define("CSS_STYLES", Map.class, String.class, String.class);
+		PropertyCatalog.define("BUTTON_STYLE", ButtonStyle.class);
+		PropertyCatalog.define("CHECK_BOX_STYLE", CheckBoxStyle.class);
+		PropertyCatalog.define("LABEL_STYLE", LabelStyle.class);
+		PropertyCatalog.define("LIST_STYLE", ListStyle.class);
+		PropertyCatalog.define("TABLE_STYLE", TableStyle.class);
+		PropertyCatalog.define("TEXT_BOX_STYLE", TextFieldStyle.class);
+		PropertyCatalog.define("LIST_LAYOUT_STYLE", ListLayoutStyle.class);
+		PropertyCatalog.define("NAVIGATION_MENU_STYLE", NavigationMenuStyle.class);
+		PropertyCatalog.define("BACKGROUND_COLOR", Color.class);
+		PropertyCatalog.define("FOREGROUND_COLOR", Color.class);
+		PropertyCatalog.define("ICON_COLOR", Color.class);
+		PropertyCatalog.define("USE_STANDARD_COMPONENT", Boolean.class);
+	}
+}
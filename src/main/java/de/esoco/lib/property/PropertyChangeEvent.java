@@ -0,0 +1,86 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An event that describes a batch of changes in {@link ObservableProperties}.
+ * Each changed property is contained only once, even if it has been modified
+ * multiple times since the last notification. A property is contained if it
+ * has been added, removed, or set to a different value.
+ *
+ * @author eso
+ * @see PropertyChangeListener
+ */
+public class PropertyChangeEvent {
+
+	private final ObservableProperties source;
+
+	private final Set<PropertyName<?>> changedProperties;
+
+	/**
+	 * Creates and initializes a new instance.
+	 *
+	 * @param source            The properties that caused the event
+	 * @param changedProperties The names of the changed properties
+	 */
+	public PropertyChangeEvent(ObservableProperties source,
+		Set<PropertyName<?>> changedProperties) {
+		this.source = source;
+		this.changedProperties =
+			Collections.unmodifiableSet(changedProperties);
+	}
+
+	/**
+	 * Returns the names of the changed properties in the order in which they
+	 * have been changed first.
+	 *
+	 * @return The unmodifiable set of changed property names
+	 */
+	public final Set<PropertyName<?>> getChangedProperties() {
+		return changedProperties;
+	}
+
+	/**
+	 * Returns the properties object from which the event originates.
+	 *
+	 * @return The source properties
+	 */
+	public final ObservableProperties getSource() {
+		return source;
+	}
+
+	/**
+	 * Checks whether a certain property has been changed.
+	 *
+	 * @param name The property name
+	 * @return TRUE if the property has been changed
+	 */
+	public final boolean isChanged(PropertyName<?> name) {
+		return changedProperties.contains(name);
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + changedProperties;
+	}
+}
@@ -0,0 +1,64 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+/**
+ * An interface for the conversion of property values from and to their string
+ * representation. Codecs for additional datatypes can be registered with
+ * {@link PropertyCodecs#register(Class, PropertyCodec)}. The codec of a
+ * property is resolved only once by each {@link PropertyName} and can be
+ * queried with {@link PropertyName#getCodec()}.
+ *
+ * @author eso
+ */
+public interface PropertyCodec<T> {
+
+	/**
+	 * Parses a value from it's string representation.
+	 *
+	 * @param rawValue The raw string value
+	 * @return The parsed value or NULL if the string cannot be mapped to a
+	 * value
+	 * @throws RuntimeException Any kind of runtime exception if the string
+	 *                          has an invalid format
+	 */
+	T decode(String rawValue);
+
+	/**
+	 * Converts a value into it's string representation. The default
+	 * implementation returns the result of the value's toString() method.
+	 *
+	 * @param value The value to convert
+	 * @return The string representation of the value
+	 */
+	default String encode(T value) {
+		return value.toString();
+	}
+
+	/**
+	 * Checks whether the values of this codec are immutable. Immutable values
+	 * will be stored in properties objects in their original form and will be
+	 * returned without copying. The values of other datatypes will be stored
+	 * in their string representation. The default implementation returns
+	 * FALSE.
+	 *
+	 * @return TRUE if the values of this codec are immutable
+	 */
+	default boolean isImmutable() {
+		return false;
+	}
+}
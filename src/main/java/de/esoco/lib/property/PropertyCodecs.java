@@ -0,0 +1,453 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import de.esoco.lib.text.CollectionTextCodec.Scanner;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static de.esoco.lib.text.CollectionTextCodec.appendElement;
+import static de.esoco.lib.text.CollectionTextCodec.appendEntry;
+import static de.esoco.lib.text.CollectionTextCodec.scan;
+
+/**
+ * The registry of {@link PropertyCodec property codecs}. Codecs are registered
+ * for the exact class of a datatype. Codecs for strings, the numeric wrapper
+ * types, {@link BigDecimal}, {@link BigInteger}, booleans, dates, and
+ * {@link Color} are registered by default and codecs for enums will be
+ * created on demand. Enum codecs map the string representation of the enum
+ * constants (i.e. the result of their toString() method) with a hash table
+ * that is created only once for each enum class.
+ *
+ * <p>The codecs for lists, sets, and maps are created by the property names
+ * from the codecs of the element datatypes. They use the collection format
+ * that is implemented by {@link de.esoco.lib.text.CollectionTextCodec}.</p>
+ *
+ * <p>Property names cache the resolved codecs. Registering a codec
+ * invalidates these caches so that subsequent conversions use the new
+ * codec, but values that have already been parsed and stored in a typed
+ * form are not converted again. Codecs should therefore be registered
+ * before properties of the respective datatype are set. Codecs for the types of the java.time package can be registered
+ * by invoking {@link #registerJavaTimeCodecs()} on the server side. These are
+ * not registered by default because the java.time package is not available in
+ * GWT.</p>
+ *
+ * @author eso
+ */
+public final class PropertyCodecs {
+
+	private static final Map<Class<?>, PropertyCodec<?>> codecs =
+		new ConcurrentHashMap<>();
+
+	private static volatile int version = 0;
+
+	static {
+		register(String.class, s -> s, true);
+		register(Integer.class, Integer::valueOf, true);
+		register(Long.class, Long::valueOf, true);
+		register(Double.class, Double::valueOf, true);
+		register(BigDecimal.class, BigDecimal::new, true);
+		register(BigInteger.class, BigInteger::new, true);
+		register(Boolean.class, Boolean::valueOf, true);
+		register(Color.class, Color::valueOf, true);
+		register(Date.class, new DateCodec());
+	}
+
+	/**
+	 * Private, only static use.
+	 */
+	private PropertyCodecs() {
+	}
+
+	/**
+	 * Converts a value into it's string representation with the codec that
+	 * is registered for the value's class. If no codec is registered the
+	 * result of the value's toString() method will be returned.
+	 *
+	 * @param value The value to encode
+	 * @return The string representation of the value
+	 */
+	@SuppressWarnings("unchecked")
+	public static String encode(Object value) {
+		PropertyCodec<Object> codec =
+			(PropertyCodec<Object>) codecs.get(value.getClass());
+
+		return codec != null ? codec.encode(value) : value.toString();
+	}
+
+	/**
+	 * Returns the codec for a certain datatype. For enum datatypes a new
+	 * codec will be created and registered if necessary.
+	 *
+	 * @param datatype The datatype
+	 * @return The codec or NULL if no codec is registered for the datatype
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> PropertyCodec<T> getCodec(Class<T> datatype) {
+		PropertyCodec<T> codec = (PropertyCodec<T>) codecs.get(datatype);
+
+		if (codec == null && datatype.isEnum()) {
+			codec = new EnumCodec(datatype);
+
+			PropertyCodec<T> existing =
+				(PropertyCodec<T>) codecs.putIfAbsent(datatype, codec);
+
+			if (existing != null) {
+				codec = existing;
+			}
+		}
+
+		return codec;
+	}
+
+	/**
+	 * Checks whether the values of a datatype are immutable according to the
+	 * registered codec.
+	 *
+	 * @param datatype The datatype to check
+	 * @return TRUE if a codec is registered for the datatype and has
+	 * immutable values
+	 */
+	public static boolean isImmutable(Class<?> datatype) {
+		PropertyCodec<?> codec = getCodec(datatype);
+
+		return codec != null && codec.isImmutable();
+	}
+
+	/**
+	 * Registers a codec for a certain datatype. An existing codec for the
+	 * datatype will be replaced. The codecs that have been cached by property
+	 * names will be resolved again on their next use.
+	 *
+	 * @param datatype The datatype
+	 * @param codec    The codec for the datatype
+	 */
+	public static synchronized <T> void register(Class<T> datatype,
+		PropertyCodec<T> codec) {
+		codecs.put(datatype, codec);
+		version++;
+	}
+
+	/**
+	 * Registers a codec for a datatype that uses a parse function to decode
+	 * values and the toString() method of the values to encode them.
+	 *
+	 * @param datatype  The datatype
+	 * @param parser    The function that parses values from strings
+	 * @param immutable TRUE if the values of the datatype are immutable
+	 */
+	public static <T> void register(Class<T> datatype,
+		Function<String, T> parser, boolean immutable) {
+		register(datatype, new ValueCodec<>(parser, immutable));
+	}
+
+	/**
+	 * Registers codecs for the datatypes of the java.time package. All these
+	 * types are immutable and use their toString() and parse(CharSequence)
+	 * methods for the conversion.
+	 */
+	@GwtIncompatible
+	public static void registerJavaTimeCodecs() {
+		register(java.time.Instant.class, java.time.Instant::parse, true);
+		register(java.time.LocalDate.class, java.time.LocalDate::parse, true);
+		register(java.time.LocalTime.class, java.time.LocalTime::parse, true);
+		register(java.time.LocalDateTime.class,
+			java.time.LocalDateTime::parse, true);
+		register(java.time.OffsetDateTime.class,
+			java.time.OffsetDateTime::parse, true);
+		register(java.time.ZonedDateTime.class,
+			java.time.ZonedDateTime::parse, true);
+		register(java.time.Duration.class, java.time.Duration::parse, true);
+		register(java.time.Period.class, java.time.Period::parse, true);
+		register(java.time.Year.class, java.time.Year::parse, true);
+		register(java.time.YearMonth.class, java.time.YearMonth::parse, true);
+	}
+
+	/**
+	 * Returns the version of the registered codecs which is incremented on
+	 * each registration.
+	 *
+	 * @return The current registration version
+	 */
+	static int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Resolves the codec for a property datatype. For collection datatypes a
+	 * new codec will be created from the codecs of the element datatypes.
+	 *
+	 * @param datatype     The property datatype
+	 * @param elementTypes The element datatypes of collections and maps
+	 * @return The codec or NULL if no codec is available for the datatype or
+	 * one of the element datatypes
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static <T> PropertyCodec<T> resolve(Class<T> datatype,
+		Class<?>[] elementTypes) {
+		if (datatype == List.class || datatype == Set.class) {
+			PropertyCodec<?> elementCodec = getCodec(elementTypes[0]);
+
+			return elementCodec != null ?
+			       new CollectionCodec(elementCodec, datatype == List.class) :
+			       null;
+		} else if (datatype == Map.class) {
+			PropertyCodec<?> keyCodec = getCodec(elementTypes[0]);
+			PropertyCodec<?> valueCodec = getCodec(elementTypes[1]);
+
+			return keyCodec != null && valueCodec != null ?
+			       new MapCodec(keyCodec, valueCodec) :
+			       null;
+		} else {
+			return getCodec(datatype);
+		}
+	}
+
+	/**
+	 * A codec for lists and sets.
+	 *
+	 * @author eso
+	 */
+	private static class CollectionCodec<E>
+		implements PropertyCodec<Collection<E>> {
+
+		private final PropertyCodec<E> elementCodec;
+
+		private final boolean list;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param elementCodec The codec of the collection elements
+		 * @param list         TRUE for lists, FALSE for sets
+		 */
+		CollectionCodec(PropertyCodec<E> elementCodec, boolean list) {
+			this.elementCodec = elementCodec;
+			this.list = list;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Collection<E> decode(String rawValue) {
+			Collection<E> collection =
+				list ? new ArrayList<E>() : new HashSet<E>();
+			Scanner elements = scan(rawValue);
+
+			while (elements.next()) {
+				collection.add(elementCodec.decode(elements.getValue()));
+			}
+
+			return collection;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String encode(Collection<E> collection) {
+			StringBuilder result = new StringBuilder();
+			boolean first = true;
+
+			for (E element : collection) {
+				appendElement(result, elementCodec.encode(element), first);
+				first = false;
+			}
+
+			return result.toString();
+		}
+	}
+
+	/**
+	 * A codec for dates that uses the milliseconds of a date as the string
+	 * representation.
+	 *
+	 * @author eso
+	 */
+	private static class DateCodec implements PropertyCodec<Date> {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Date decode(String rawValue) {
+			return new Date(Long.parseLong(rawValue));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String encode(Date value) {
+			return Long.toString(value.getTime());
+		}
+	}
+
+	/**
+	 * A codec for enums that maps the string representations of the enum
+	 * constants with a hash table.
+	 *
+	 * @author eso
+	 */
+	private static class EnumCodec<E extends Enum<E>>
+		implements PropertyCodec<E> {
+
+		private final Map<String, E> constants = new HashMap<>();
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param enumClass The enum class
+		 */
+		EnumCodec(Class<E> enumClass) {
+			for (E constant : enumClass.getEnumConstants()) {
+				// like in a linear search the first match takes precedence
+				if (!constants.containsKey(constant.toString())) {
+					constants.put(constant.toString(), constant);
+				}
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E decode(String rawValue) {
+			return constants.get(rawValue);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isImmutable() {
+			return true;
+		}
+	}
+
+	/**
+	 * A codec for maps.
+	 *
+	 * @author eso
+	 */
+	private static class MapCodec<K, V> implements PropertyCodec<Map<K, V>> {
+
+		private final PropertyCodec<K> keyCodec;
+
+		private final PropertyCodec<V> valueCodec;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param keyCodec   The codec of the map keys
+		 * @param valueCodec The codec of the map values
+		 */
+		MapCodec(PropertyCodec<K> keyCodec, PropertyCodec<V> valueCodec) {
+			this.keyCodec = keyCodec;
+			this.valueCodec = valueCodec;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Map<K, V> decode(String rawValue) {
+			Map<K, V> map = new HashMap<>();
+			Scanner entries = scan(rawValue);
+
+			while (entries.next()) {
+				String key = entries.getKey();
+
+				if (key != null) {
+					map.put(keyCodec.decode(key),
+						valueCodec.decode(entries.getEntryValue()));
+				}
+			}
+
+			return map;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String encode(Map<K, V> map) {
+			StringBuilder result = new StringBuilder();
+			boolean first = true;
+
+			for (Entry<K, V> entry : map.entrySet()) {
+				appendEntry(result, keyCodec.encode(entry.getKey()),
+					valueCodec.encode(entry.getValue()), first);
+				first = false;
+			}
+
+			return result.toString();
+		}
+	}
+
+	/**
+	 * A codec that uses a parse function to decode values.
+	 *
+	 * @author eso
+	 */
+	private static class ValueCodec<T> implements PropertyCodec<T> {
+
+		private final Function<String, T> parser;
+
+		private final boolean immutable;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param parser    The parse function
+		 * @param immutable TRUE if the values are immutable
+		 */
+		ValueCodec(Function<String, T> parser, boolean immutable) {
+			this.parser = parser;
+			this.immutable = immutable;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T decode(String rawValue) {
+			return parser.apply(rawValue);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isImmutable() {
+			return immutable;
+		}
+	}
+}
@@ -0,0 +1,418 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contains the differences between two states of a properties object as a
+ * list of properties that have been set or removed. A delta is computed with
+ * {@link #between(HasProperties, HasProperties)} and can then be applied to
+ * other properties objects with {@link #applyTo(MutableProperties)}. This
+ * allows to synchronize properties objects by only transferring the modified
+ * properties instead of all properties.
+ *
+ * <p>For the transfer a delta can be converted into a compact string with
+ * {@link #encode()} and restored with {@link #decode(CharSequence)}. The
+ * encoded delta is a sequence of entries, each either in the form
+ * <code>NAME=length:value</code> for a modified property or
+ * <code>NAME;</code> for a removed property. The values are encoded in the
+ * same string format that is used by {@link StringProperties} and prefixed
+ * with their length so that they don't need to be escaped.</p>
+ *
+ * <p>If the compared properties are {@link AbstractStringProperties} or
+ * {@link ImmutableProperties} objects the values will be compared in their
+ * internal representation without parsing. A typical application is to
+ * compare a {@link AbstractStringProperties#snapshot() snapshot} of the last
+ * synchronized state with the current state of a properties object. If the
+ * properties object has not been modified since the snapshot has been taken
+ * the comparison only needs constant time. Of
+ * {@link ConcurrentStringProperties} a single snapshot is compared so that
+ * the delta refers to a consistent state even if they are modified
+ * concurrently.</p>
+ *
+ * @author eso
+ */
+public final class PropertyDelta {
+
+	/**
+	 * An empty delta.
+	 */
+	public static final PropertyDelta EMPTY =
+		new PropertyDelta(new PropertyName<?>[0], new Object[0]);
+
+	private static final StringProperties CONVERTER = new StringProperties();
+
+	private static final char VALUE_MARKER = '=';
+
+	private static final char REMOVE_MARKER = ';';
+
+	private static final char LENGTH_END = ':';
+
+	private final PropertyName<?>[] names;
+
+	private final Object[] values;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param names  The names of the modified properties
+	 * @param values The new property values (NULL for removed properties)
+	 */
+	private PropertyDelta(PropertyName<?>[] names, Object[] values) {
+		this.names = names;
+		this.values = values;
+	}
+
+	/**
+	 * Computes the delta between two properties objects. The resulting delta
+	 * contains all properties of the target object that don't exist in the
+	 * source object or that have different values, and all properties of the
+	 * source object that don't exist in the target.
+	 *
+	 * @param from The source properties or NULL to create a delta that
+	 *             contains all properties of the target
+	 * @param to   The target properties
+	 * @return The delta (may be empty but will never be NULL)
+	 */
+	public static PropertyDelta between(HasProperties from,
+		HasProperties to) {
+		if (from == to) {
+			return EMPTY;
+		}
+
+		from = getComparableState(from);
+		to = getComparableState(to);
+
+		if (hasSameStorage(from, to)) {
+			return EMPTY;
+		}
+
+		List<PropertyName<?>> changedNames = new ArrayList<>();
+		List<Object> changedValues = new ArrayList<>();
+
+		for (PropertyName<?> name : to.getPropertyNames()) {
+			Object value = getStoredValue(to, name);
+
+			if (from == null || !value.equals(getStoredValue(from, name))) {
+				changedNames.add(name);
+				changedValues.add(value);
+			}
+		}
+
+		if (from != null && from.getPropertyCount() > 0) {
+			for (PropertyName<?> name : from.getPropertyNames()) {
+				if (!to.hasProperty(name)) {
+					changedNames.add(name);
+					changedValues.add(null);
+				}
+			}
+		}
+
+		if (changedNames.isEmpty()) {
+			return EMPTY;
+		}
+
+		return new PropertyDelta(
+			changedNames.toArray(new PropertyName<?>[changedNames.size()]),
+			changedValues.toArray());
+	}
+
+	/**
+	 * Decodes a delta from the string format created by {@link #encode()}.
+	 *
+	 * @param encodedDelta The encoded delta
+	 * @return The decoded delta
+	 * @throws IllegalArgumentException If the encoded delta is invalid or
+	 *                                  contains an undefined property name
+	 */
+	public static PropertyDelta decode(CharSequence encodedDelta) {
+		List<PropertyName<?>> changedNames = new ArrayList<>();
+		List<Object> changedValues = new ArrayList<>();
+		int length = encodedDelta.length();
+		int position = 0;
+
+		while (position < length) {
+			int nameEnd = position;
+			char marker = 0;
+
+			while (nameEnd < length) {
+				marker = encodedDelta.charAt(nameEnd);
+
+				if (marker == VALUE_MARKER || marker == REMOVE_MARKER) {
+					break;
+				}
+
+				nameEnd++;
+			}
+
+			if (nameEnd == length) {
+				throw new IllegalArgumentException(
+					"Invalid delta entry at " + position);
+			}
+
+			PropertyName<?> name =
+				PropertyName.valueOf(encodedDelta.subSequence(position,
+					nameEnd));
+
+			if (name == null) {
+				throw new IllegalArgumentException("Undefined property name: " +
+					encodedDelta.subSequence(position, nameEnd));
+			}
+
+			String value = null;
+
+			position = nameEnd + 1;
+
+			if (marker == VALUE_MARKER) {
+				int lengthStart = position;
+				long valueLength = 0;
+				char c;
+
+				while (position < length &&
+					(c = encodedDelta.charAt(position)) != LENGTH_END) {
+					if (c < '0' || c > '9') {
+						throw new IllegalArgumentException(
+							"Invalid value length for " + name);
+					}
+
+					valueLength = valueLength * 10 + (c - '0');
+
+					// a length that exceeds the remaining input is invalid,
+					// which also prevents an overflow of the length value
+					if (valueLength > length - position) {
+						throw new IllegalArgumentException(
+							"Incomplete value for " + name);
+					}
+
+					position++;
+				}
+
+				if (position == lengthStart || position == length) {
+					throw new IllegalArgumentException(
+						"Invalid value length for " + name);
+				}
+
+				// skip length end marker
+				position++;
+
+				if (valueLength > length - position) {
+					throw new IllegalArgumentException(
+						"Incomplete value for " + name);
+				}
+
+				int valueEnd = position + (int) valueLength;
+
+				value = encodedDelta.subSequence(position, valueEnd).toString();
+				position = valueEnd;
+			}
+
+			changedNames.add(name);
+			changedValues.add(value);
+		}
+
+		return changedNames.isEmpty() ?
+		       EMPTY :
+		       new PropertyDelta(
+			       changedNames.toArray(new PropertyName<?>[changedNames.size()]),
+			       changedValues.toArray());
+	}
+
+	/**
+	 * Returns the state of a properties object that is used for the
+	 * comparison. For {@link ConcurrentStringProperties} this is a snapshot
+	 * of the current state, other objects are returned unchanged.
+	 *
+	 * @param properties The properties object (may be NULL)
+	 * @return The state to compare
+	 */
+	private static HasProperties getComparableState(HasProperties properties) {
+		return properties instanceof ConcurrentStringProperties ?
+		       ((ConcurrentStringProperties) properties).snapshot() :
+		       properties;
+	}
+
+	/**
+	 * Returns the value of a property in a form that is suitable for the
+	 * comparison of properties. This is the internal representation for
+	 * properties objects that are based on {@link AbstractStringProperties}.
+	 *
+	 * @param properties The properties object
+	 * @param name       The property name
+	 * @return The comparable value or NULL for none
+	 */
+	private static Object getStoredValue(HasProperties properties,
+		PropertyName<?> name) {
+		if (properties instanceof AbstractStringProperties) {
+			return ((AbstractStringProperties) properties).getStoredValue(name);
+		} else if (properties instanceof ImmutableProperties) {
+			return ((ImmutableProperties) properties).getStoredValue(name);
+		} else {
+			Object value = properties.getProperty(name, null);
+
+			return value != null ? CONVERTER.toStoredValue(name, value) : null;
+		}
+	}
+
+	/**
+	 * Checks whether two properties objects share the same internal storage
+	 * because one is an unmodified snapshot of the other.
+	 *
+	 * @param first  The first properties object
+	 * @param second The second properties object
+	 * @return TRUE if both objects share their storage
+	 */
+	private static boolean hasSameStorage(HasProperties first,
+		HasProperties second) {
+		PropertyStore firstStore = getStorage(first);
+
+		return firstStore != null && firstStore == getStorage(second);
+	}
+
+	/**
+	 * Returns the internal storage of a properties object if possible.
+	 *
+	 * @param properties The properties object
+	 * @return The property storage or NULL if not available
+	 */
+	private static PropertyStore getStorage(HasProperties properties) {
+		if (properties instanceof AbstractStringProperties) {
+			return ((AbstractStringProperties) properties).getPropertyStore();
+		} else if (properties instanceof ImmutableProperties) {
+			return ((ImmutableProperties) properties).getSharedStore();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Applies this delta to a mutable properties object by setting or
+	 * removing the properties in this delta.
+	 *
+	 * @param target The properties object to apply this delta to
+	 */
+	@SuppressWarnings("unchecked")
+	public void applyTo(MutableProperties target) {
+		for (int i = 0; i < names.length; i++) {
+			PropertyName<?> name = names[i];
+			Object value = values[i];
+
+			if (value == null) {
+				target.removeProperty(name);
+			} else {
+				if (value instanceof String &&
+					name.getDatatype() != String.class &&
+					!(target instanceof AbstractStringProperties)) {
+					// string-based targets parse raw values themselves
+					value = CONVERTER.parseRawValue(name, (String) value);
+				}
+
+				target.setProperty((PropertyName<Object>) name, value);
+			}
+		}
+	}
+
+	/**
+	 * Encodes this delta into a compact string that can be decoded with
+	 * {@link #decode(CharSequence)}.
+	 *
+	 * @return The encoded delta
+	 */
+	public String encode() {
+		StringBuilder result = new StringBuilder();
+
+		for (int i = 0; i < names.length; i++) {
+			Object value = values[i];
+
+			result.append(names[i].getName());
+
+			if (value != null) {
+				String rawValue = CONVERTER.toRawValue(names[i], value);
+
+				result.append(VALUE_MARKER).append(rawValue.length());
+				result.append(LENGTH_END).append(rawValue);
+			} else {
+				result.append(REMOVE_MARKER);
+			}
+		}
+
+		return result.toString();
+	}
+
+	/**
+	 * Returns the names of the properties that have been removed.
+	 *
+	 * @return The removed property names
+	 */
+	public Collection<PropertyName<?>> getRemovedProperties() {
+		List<PropertyName<?>> removed = new ArrayList<>();
+
+		for (int i = 0; i < names.length; i++) {
+			if (values[i] == null) {
+				removed.add(names[i]);
+			}
+		}
+
+		return Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * Returns the names of the properties that have been set to a new value.
+	 *
+	 * @return The changed property names
+	 */
+	public Collection<PropertyName<?>> getSetProperties() {
+		List<PropertyName<?>> changed = new ArrayList<>();
+
+		for (int i = 0; i < names.length; i++) {
+			if (values[i] != null) {
+				changed.add(names[i]);
+			}
+		}
+
+		return Collections.unmodifiableList(changed);
+	}
+
+	/**
+	 * Checks whether this delta doesn't contain any changes.
+	 *
+	 * @return TRUE if this delta is empty
+	 */
+	public boolean isEmpty() {
+		return names.length == 0;
+	}
+
+	/**
+	 * Returns the number of changed properties in this delta.
+	 *
+	 * @return The number of set and removed properties
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * @see Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + encode() + "]";
+	}
+}
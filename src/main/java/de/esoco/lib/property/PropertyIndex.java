@@ -0,0 +1,456 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over the properties of many {@link HasProperties} objects that
+ * allows to find objects by property values without scanning all of them.
+ * An index is created for a fixed set of property names. Boolean properties
+ * are indexed in bit maps with one bit for each indexed object so that
+ * objects with a combination of flags can be found with bit operations. All
+ * other properties are indexed in hash tables that map property values to
+ * the objects containing them.
+ *
+ * <p>Objects are compared by identity, not by their properties. If the values
+ * of indexed properties change the index must be updated with
+ * {@link #update(HasProperties)}. Objects that are instances of
+ * {@link ObservableProperties} are updated automatically through change
+ * notifications as long as they are contained in the index. Indexes are not
+ * thread-safe.</p>
+ *
+ * @author eso
+ */
+public class PropertyIndex<T extends HasProperties> {
+
+	private final Map<PropertyName<?>, ValueIndex> valueIndexes =
+		new LinkedHashMap<>();
+
+	private final Map<PropertyName<?>, FlagIndex> flagIndexes =
+		new LinkedHashMap<>();
+
+	private final Map<T, Integer> slots = new IdentityHashMap<>();
+
+	private final List<T> owners = new ArrayList<>();
+
+	private final PropertyChangeListener changeListener =
+		this::propertiesChanged;
+
+	private int[] freeSlots = new int[0];
+
+	private int freeSlotCount = 0;
+
+	/**
+	 * Creates a new instance that indexes certain properties.
+	 *
+	 * @param indexedProperties The names of the properties to index
+	 */
+	public PropertyIndex(PropertyName<?>... indexedProperties) {
+		this(Arrays.asList(indexedProperties));
+	}
+
+	/**
+	 * Creates a new instance that indexes certain properties.
+	 *
+	 * @param indexedProperties The names of the properties to index
+	 */
+	@SuppressWarnings("unchecked")
+	public PropertyIndex(Collection<PropertyName<?>> indexedProperties) {
+		for (PropertyName<?> name : indexedProperties) {
+			if (name.getDatatype() == Boolean.class) {
+				flagIndexes.put(name,
+					new FlagIndex((PropertyName<Boolean>) name));
+			} else {
+				valueIndexes.put(name, new ValueIndex(name));
+			}
+		}
+	}
+
+	/**
+	 * Adds an object to this index. If the object is already indexed it will
+	 * be updated instead.
+	 *
+	 * @param owner The object to add
+	 */
+	public void add(T owner) {
+		Integer slot = slots.get(owner);
+
+		if (slot != null) {
+			updateSlot(slot.intValue(), null);
+		} else {
+			int newSlot;
+
+			if (freeSlotCount > 0) {
+				newSlot = freeSlots[--freeSlotCount];
+				owners.set(newSlot, owner);
+			} else {
+				newSlot = owners.size();
+				owners.add(owner);
+			}
+
+			slots.put(owner, Integer.valueOf(newSlot));
+			updateSlot(newSlot, null);
+
+			if (owner instanceof ObservableProperties) {
+				((ObservableProperties) owner).addChangeListener(
+					changeListener);
+			}
+		}
+	}
+
+	/**
+	 * Adds multiple objects to this index.
+	 *
+	 * @param newOwners The objects to add
+	 */
+	public void addAll(Collection<? extends T> newOwners) {
+		for (T owner : newOwners) {
+			add(owner);
+		}
+	}
+
+	/**
+	 * Removes all objects from this index.
+	 */
+	public void clear() {
+		for (T owner : new ArrayList<>(slots.keySet())) {
+			remove(owner);
+		}
+
+		owners.clear();
+		freeSlotCount = 0;
+	}
+
+	/**
+	 * Checks whether an object is contained in this index.
+	 *
+	 * @param owner The object to check
+	 * @return TRUE if the object is indexed
+	 */
+	public boolean contains(T owner) {
+		return slots.containsKey(owner);
+	}
+
+	/**
+	 * Returns all indexed objects that have a certain property value. This
+	 * requires constant time.
+	 *
+	 * @param name  The name of an indexed property
+	 * @param value The property value to search for
+	 * @return An unmodifiable collection of the matching objects (empty for
+	 * none)
+	 * @throws IllegalArgumentException If the property is not indexed by
+	 *                                  values
+	 */
+	public <V> Collection<T> find(PropertyName<V> name, V value) {
+		ValueIndex index = valueIndexes.get(name);
+
+		if (index == null) {
+			throw new IllegalArgumentException("Not indexed: " + name);
+		}
+
+		Map<T, Boolean> matches = index.valueOwners.get(value);
+
+		return matches != null ?
+		       Collections.unmodifiableSet(matches.keySet()) :
+		       Collections.<T>emptySet();
+	}
+
+	/**
+	 * Returns all indexed objects that have all flags of a flag mask set to
+	 * TRUE. The bit maps of the flags are combined word by word, therefore
+	 * the time required is proportional to the number of indexed objects
+	 * divided by 64 plus the size of the result. Like
+	 * {@link HasProperties#hasAllFlags(FlagMask)} an empty mask matches all
+	 * indexed objects.
+	 *
+	 * @param flags The flags to search for
+	 * @return A new list of the matching objects
+	 * @throws IllegalArgumentException If a flag is not indexed
+	 */
+	public List<T> findWithFlags(FlagMask flags) {
+		List<PropertyName<Boolean>> names = flags.getFlags();
+		long[][] bitMaps = new long[names.size()][];
+		int words = (owners.size() + 63) >>> 6;
+
+		for (int i = 0; i < bitMaps.length; i++) {
+			FlagIndex index = flagIndexes.get(names.get(i));
+
+			if (index == null) {
+				throw new IllegalArgumentException(
+					"Not indexed: " + names.get(i));
+			}
+
+			bitMaps[i] = index.bits;
+			words = Math.min(words, index.bits.length);
+		}
+
+		List<T> result = new ArrayList<>();
+
+		if (bitMaps.length == 0) {
+			for (T owner : owners) {
+				if (owner != null) {
+					result.add(owner);
+				}
+			}
+
+			return result;
+		}
+
+		for (int word = 0; word < words; word++) {
+			long bits = -1L;
+
+			for (int i = 0; i < bitMaps.length && bits != 0; i++) {
+				bits &= bitMaps[i][word];
+			}
+
+			while (bits != 0) {
+				int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+
+				T owner = slot < owners.size() ? owners.get(slot) : null;
+
+				// the bits of freed slots are cleared but check anyway
+				if (owner != null) {
+					result.add(owner);
+				}
+
+				bits &= bits - 1;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes an object from this index.
+	 *
+	 * @param owner The object to remove
+	 */
+	public void remove(T owner) {
+		Integer slot = slots.remove(owner);
+
+		if (slot != null) {
+			int position = slot.intValue();
+
+			for (ValueIndex index : valueIndexes.values()) {
+				index.update(owner, position, null);
+			}
+
+			for (FlagIndex index : flagIndexes.values()) {
+				index.update(position, false);
+			}
+
+			owners.set(position, null);
+
+			if (freeSlotCount == freeSlots.length) {
+				freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2 + 4);
+			}
+
+			freeSlots[freeSlotCount++] = position;
+
+			if (owner instanceof ObservableProperties) {
+				((ObservableProperties) owner).removeChangeListener(
+					changeListener);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of indexed objects.
+	 *
+	 * @return The index size
+	 */
+	public int size() {
+		return slots.size();
+	}
+
+	/**
+	 * Updates all indexed properties of an object. This must be invoked after
+	 * indexed properties of an object have been modified, except for
+	 * {@link ObservableProperties} which are updated automatically. Objects
+	 * that are not contained in the index will be ignored.
+	 *
+	 * @param owner The object to update
+	 */
+	public void update(T owner) {
+		Integer slot = slots.get(owner);
+
+		if (slot != null) {
+			updateSlot(slot.intValue(), null);
+		}
+	}
+
+	/**
+	 * Updates the index for the properties of an object that have changed.
+	 *
+	 * @param event The property change event
+	 */
+	private void propertiesChanged(PropertyChangeEvent event) {
+		Integer slot = slots.get(event.getSource());
+
+		if (slot != null) {
+			updateSlot(slot.intValue(), event.getChangedProperties());
+		}
+	}
+
+	/**
+	 * Updates the indexed properties of the object in a certain slot.
+	 *
+	 * @param slot    The slot of the object
+	 * @param changed The names of the changed properties or NULL to update
+	 *                all indexed properties
+	 */
+	private void updateSlot(int slot, Collection<PropertyName<?>> changed) {
+		T owner = owners.get(slot);
+
+		for (ValueIndex index : valueIndexes.values()) {
+			if (changed == null || changed.contains(index.name)) {
+				index.update(owner, slot, owner.getProperty(index.name, null));
+			}
+		}
+
+		for (FlagIndex index : flagIndexes.values()) {
+			if (changed == null || changed.contains(index.name)) {
+				index.update(slot, owner.hasFlag(index.name));
+			}
+		}
+	}
+
+	/**
+	 * A bit map index of a boolean property.
+	 *
+	 * @author eso
+	 */
+	private static class FlagIndex {
+
+		private final PropertyName<Boolean> name;
+
+		private long[] bits = new long[1];
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param name The name of the indexed property
+		 */
+		FlagIndex(PropertyName<Boolean> name) {
+			this.name = name;
+		}
+
+		/**
+		 * Sets the bit of a certain slot.
+		 *
+		 * @param slot  The slot index
+		 * @param value The flag value
+		 */
+		void update(int slot, boolean value) {
+			int word = slot >>> 6;
+
+			if (word >= bits.length) {
+				if (!value) {
+					return;
+				}
+
+				bits = Arrays.copyOf(bits, Math.max(word + 1,
+					bits.length * 2));
+			}
+
+			if (value) {
+				bits[word] |= 1L << slot;
+			} else {
+				bits[word] &= ~(1L << slot);
+			}
+		}
+	}
+
+	/**
+	 * A hash index of the values of a property.
+	 *
+	 * @author eso
+	 */
+	private class ValueIndex {
+
+		private final PropertyName<?> name;
+
+		private final Map<Object, Map<T, Boolean>> valueOwners =
+			new HashMap<>();
+
+		private Object[] slotValues = new Object[16];
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param name The name of the indexed property
+		 */
+		ValueIndex(PropertyName<?> name) {
+			this.name = name;
+		}
+
+		/**
+		 * Updates the indexed value of an object.
+		 *
+		 * @param owner The object
+		 * @param slot  The slot of the object
+		 * @param value The new property value or NULL for none
+		 */
+		void update(T owner, int slot, Object value) {
+			if (slot >= slotValues.length) {
+				slotValues = Arrays.copyOf(slotValues,
+					Math.max(slot + 1, slotValues.length * 2));
+			}
+
+			Object previous = slotValues[slot];
+
+			if (previous != null ?
+			    previous.equals(value) :
+			    value == null) {
+				return;
+			}
+
+			if (previous != null) {
+				Map<T, Boolean> previousOwners = valueOwners.get(previous);
+
+				previousOwners.remove(owner);
+
+				if (previousOwners.isEmpty()) {
+					valueOwners.remove(previous);
+				}
+			}
+
+			if (value != null) {
+				Map<T, Boolean> newOwners = valueOwners.get(value);
+
+				if (newOwners == null) {
+					newOwners = new IdentityHashMap<>();
+					valueOwners.put(value, newOwners);
+				}
+
+				newOwners.put(owner, Boolean.TRUE);
+			}
+
+			slotValues[slot] = value;
+		}
+	}
+}
@@ -18,41 +18,70 @@ package de.esoco.lib.property;
 
 import java.io.Serializable;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class to define type-safe name constants for properties. The type parameter
  * allows to create type-safe mappings by using the type parameter in the
  * signatures of generic methods. Instances are created through the static
  * factory methods.
+ *
+ * <p>All instances are registered in a global registry that can be safely
+ * accessed concurrently. Lookups of registered names through the
+ * {@link #valueOf(String) valueOf} methods and through de-serialization don't
+ * lock. Each instance is assigned a small numeric {@link #getId() ID} on
+ * creation that can be used for efficient indexing. Names with a boolean
+ * datatype are additionally assigned a dense {@link #getFlagIndex() flag
+ * index} that allows to store flags in bit sets. The standard names of this
+ * package are created by the {@link PropertyCatalog} before any other
+ * name.</p>
  */
 public class PropertyName<T> implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
 	private static final Map<String, PropertyName<?>> nameRegistry =
-		new HashMap<String, PropertyName<?>>();
+		new ConcurrentHashMap<String, PropertyName<?>>();
+
+	private static final AtomicInteger nextId = new AtomicInteger();
+
+	private static final AtomicInteger nextFlagIndex = new AtomicInteger();
+
+	private static volatile NameTable nameTable = new NameTable();
+
+	private static volatile PropertyName<?>[] flagNames =
+		new PropertyName<?>[64];
 
 	private final String name;
 
+	private final transient int id;
+
+	private final transient int flagIndex;
+
 	private final Class<?> datatype;
 
 	private final Class<?>[] elementDatatypes;
 
+	private transient volatile ResolvedCodec<T> codec;
+
 	/**
 	 * Internal constructor to creates a new instance with a certain name and
 	 * datatype. Instances must always be created through one of the public
-	 * factory methods.
+	 * factory methods or by the {@link PropertyCatalog} which register the
+	 * new instance with {@link #register(PropertyName)} after it has been
+	 * constructed.
 	 *
 	 * @param name             The name of this instance
 	 * @param datatype         The class of the name's datatype
 	 * @param elementDatatypes The optional datatypes for collection
 	 *                         properties
-	 * @throws IllegalArgumentException If the given name has already been used
 	 */
 	PropertyName(String name, Class<?> datatype,
 		Class<?>... elementDatatypes) {
@@ -60,12 +89,9 @@ public class PropertyName<T> implements Serializable {
 		this.datatype = datatype;
 		this.elementDatatypes = elementDatatypes;
 
-		if (nameRegistry.containsKey(name)) {
-			throw new IllegalArgumentException(
-				"Property name already exists: " + name);
-		}
-
-		nameRegistry.put(name, this);
+		id = nextId.getAndIncrement();
+		flagIndex =
+			datatype == Boolean.class ? nextFlagIndex.getAndIncrement() : -1;
 	}
 
 	/**
@@ -88,6 +114,16 @@ public class PropertyName<T> implements Serializable {
 		return newName(name, Date.class);
 	}
 
+	/**
+	 * Factory method to create a new property name with a double datatype.
+	 *
+	 * @param name The name
+	 * @return A new instance with the given name
+	 */
+	public static PropertyName<Double> newDoubleName(String name) {
+		return newName(name, Double.class);
+	}
+
 	/**
 	 * Factory method to create a new property name with an enum datatype.
 	 *
@@ -119,7 +155,17 @@ public class PropertyName<T> implements Serializable {
 	 */
 	public static <E> PropertyName<List<E>> newListName(String name,
 		Class<E> elementType) {
-		return new PropertyName<List<E>>(name, List.class, elementType);
+		return define(name, List.class, elementType);
+	}
+
+	/**
+	 * Factory method to create a new property name with a long datatype.
+	 *
+	 * @param name The name
+	 * @return A new instance with the given name
+	 */
+	public static PropertyName<Long> newLongName(String name) {
+		return newName(name, Long.class);
 	}
 
 	/**
@@ -132,8 +178,7 @@ public class PropertyName<T> implements Serializable {
 	 */
 	public static <K, V> PropertyName<Map<K, V>> newMapName(String name,
 		Class<K> keyType, Class<V> valueType) {
-		return new PropertyName<Map<K, V>>(name, Map.class, keyType,
-			valueType);
+		return define(name, Map.class, keyType, valueType);
 	}
 
 	/**
@@ -144,7 +189,7 @@ public class PropertyName<T> implements Serializable {
 	 * @return A new instance with the given name and datatype
 	 */
 	public static <T> PropertyName<T> newName(String name, Class<T> datatype) {
-		return new PropertyName<T>(name, datatype);
+		return define(name, datatype);
 	}
 
 	/**
@@ -156,7 +201,7 @@ public class PropertyName<T> implements Serializable {
 	 */
 	public static <E> PropertyName<Set<E>> newSetName(String name,
 		Class<E> elementType) {
-		return new PropertyName<Set<E>>(name, Set.class, elementType);
+		return define(name, Set.class, elementType);
 	}
 
 	/**
@@ -178,7 +223,66 @@ public class PropertyName<T> implements Serializable {
 	 * registered
 	 */
 	public static PropertyName<?> valueOf(String name) {
-		return nameRegistry.get(name);
+		PropertyName<?> propertyName = nameRegistry.get(name);
+
+		if (propertyName == null) {
+			// registers the standard names if no name has been created yet
+			PropertyCatalog.init();
+			propertyName = nameRegistry.get(name);
+		}
+
+		return propertyName;
+	}
+
+	/**
+	 * Returns the instance that has been registered with the name contained
+	 * in a character sequence. Other than {@link #valueOf(String)} this
+	 * method
+	 * doesn't require the name to be converted into a string and it will
+	 * therefore not allocate memory if the name is stored in some other
+	 * character sequence like a {@link StringBuilder}.
+	 *
+	 * @param name The character sequence containing the name
+	 * @return The instance with the given name or NULL if no such name has
+	 * been registered
+	 */
+	public static PropertyName<?> valueOf(CharSequence name) {
+		if (name instanceof String) {
+			return valueOf((String) name);
+		}
+
+		PropertyName<?> propertyName = getNameTable().get(name);
+
+		if (propertyName == null) {
+			PropertyCatalog.init();
+			propertyName = getNameTable().get(name);
+		}
+
+		return propertyName;
+	}
+
+	/**
+	 * Returns the codec for the conversion of this property's values from and
+	 * to strings. The codec is resolved through {@link PropertyCodecs} on the
+	 * first invocation and then cached until another codec is registered.
+	 *
+	 * @return The property codec or NULL if no codec is available for the
+	 * datatype of this property
+	 */
+	public final PropertyCodec<T> getCodec() {
+		int version = PropertyCodecs.getVersion();
+		ResolvedCodec<T> resolved = codec;
+
+		if (resolved == null || resolved.version != version) {
+			@SuppressWarnings("unchecked")
+			Class<T> type = (Class<T>) datatype;
+
+			resolved = new ResolvedCodec<>(
+				PropertyCodecs.resolve(type, elementDatatypes), version);
+			codec = resolved;
+		}
+
+		return resolved.codec;
 	}
 
 	/**
@@ -202,6 +306,32 @@ public class PropertyName<T> implements Serializable {
 		return elementDatatypes;
 	}
 
+	/**
+	 * Returns the flag index of a property name with a boolean datatype. Flag
+	 * indexes are assigned densely to all boolean property names in the order
+	 * of their creation. Like the {@link #getId() ID} they are only valid in
+	 * the current runtime environment.
+	 *
+	 * @return The flag index or -1 if this name has no boolean datatype
+	 */
+	public final int getFlagIndex() {
+		return flagIndex;
+	}
+
+	/**
+	 * Returns the numeric ID of this instance. IDs are assigned densely in the
+	 * order in which the property names are created. The standard names of
+	 * the {@link PropertyCatalog} are always created first and therefore
+	 * have fixed IDs in a certain version of this library. IDs may change
+	 * between versions and must therefore not be persisted or transferred to
+	 * other environments.
+	 *
+	 * @return The property name ID
+	 */
+	public final int getId() {
+		return id;
+	}
+
 	/**
 	 * Returns the name of this instance.
 	 *
@@ -221,13 +351,113 @@ public class PropertyName<T> implements Serializable {
 		return name;
 	}
 
+	/**
+	 * Returns the boolean property name with a certain flag index.
+	 *
+	 * @param flagIndex The flag index
+	 * @return The property name
+	 */
+	@SuppressWarnings("unchecked")
+	static PropertyName<Boolean> getFlagName(int flagIndex) {
+		return (PropertyName<Boolean>) flagNames[flagIndex];
+	}
+
+	/**
+	 * Registers a new property name instance. A boolean name is first
+	 * registered for the lookup by it's flag index and only then published
+	 * in the name registry so that it's flag index is always valid when the
+	 * name is visible to other threads. The registration is performed after
+	 * the construction of the instance has been completed to ensure the
+	 * visibility of it's final fields.
+	 *
+	 * @param propertyName The new property name
+	 * @return The registered instance
+	 * @throws IllegalArgumentException If the given name has already been used
+	 */
+	static synchronized <T> PropertyName<T> register(
+		PropertyName<T> propertyName) {
+		String name = propertyName.name;
+
+		if (nameRegistry.containsKey(name)) {
+			throw new IllegalArgumentException(
+				"Property name already exists: " + name);
+		}
+
+		if (propertyName.flagIndex >= 0) {
+			registerFlag(propertyName);
+		}
+
+		nameRegistry.put(name, propertyName);
+
+		return propertyName;
+	}
+
+	/**
+	 * Defines a property name. Standard names are returned from the
+	 * {@link PropertyCatalog}, all other names are created and registered.
+	 *
+	 * @param name             The name
+	 * @param datatype         The datatype
+	 * @param elementDatatypes The element datatypes of collection and map
+	 *                         properties
+	 * @return The property name instance
+	 * @throws IllegalArgumentException If the given name has already been used
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> PropertyName<T> define(String name, Class<?> datatype,
+		Class<?>... elementDatatypes) {
+		// the catalog must be accessed outside of the registration lock
+		PropertyName<?> standardName =
+			PropertyCatalog.declare(name, datatype, elementDatatypes);
+
+		return standardName != null ?
+		       (PropertyName<T>) standardName :
+		       register(new PropertyName<T>(name, datatype, elementDatatypes));
+	}
+
+	/**
+	 * Returns the current name table and rebuilds it if names have been
+	 * registered since it has been created.
+	 *
+	 * @return The current name table
+	 */
+	private static NameTable getNameTable() {
+		NameTable table = nameTable;
+
+		if (table.size != nameRegistry.size()) {
+			table = new NameTable(nameRegistry.values());
+			nameTable = table;
+		}
+
+		return table;
+	}
+
+	/**
+	 * Registers a boolean property name for the lookup by it's flag index.
+	 *
+	 * @param name The property name to register
+	 */
+	private static synchronized void registerFlag(PropertyName<?> name) {
+		PropertyName<?>[] names = flagNames;
+
+		if (name.flagIndex >= names.length) {
+			names = Arrays.copyOf(names,
+				Math.max(names.length * 2, name.flagIndex + 1));
+		}
+
+		names[name.flagIndex] = name;
+
+		// the volatile write publishes the array content
+		flagNames = names;
+	}
+
 	/**
 	 * Returns the instance for the given name.
 	 *
 	 * @return The resolved property name instance
 	 */
 	Object readResolve() {
-		PropertyName<?> key = nameRegistry.get(name);
+		PropertyName<?> key = valueOf(name);
 
 		if (key == null) {
 			throw new IllegalStateException("Undefined property name: " + name);
@@ -235,4 +465,144 @@ public class PropertyName<T> implements Serializable {
 
 		return key;
 	}
+
+	/**
+	 * An immutable hash table of the registered names that allows to lookup
+	 * names by their character content. New tables are created when names
+	 * have been registered after the creation of the current table.
+	 *
+	 * @author eso
+	 */
+	private static class NameTable {
+
+		private final PropertyName<?>[] slots;
+
+		private final int size;
+
+		/**
+		 * Creates an empty table.
+		 */
+		NameTable() {
+			slots = new PropertyName<?>[1];
+			size = 0;
+		}
+
+		/**
+		 * Creates a new table that contains certain names.
+		 *
+		 * @param names The names to add to the table
+		 */
+		NameTable(Collection<PropertyName<?>> names) {
+			PropertyName<?>[] nameArray =
+				names.toArray(new PropertyName<?>[names.size()]);
+
+			int capacity = 16;
+
+			while (capacity < nameArray.length * 2) {
+				capacity <<= 1;
+			}
+
+			int mask = capacity - 1;
+
+			slots = new PropertyName<?>[capacity];
+			size = nameArray.length;
+
+			for (PropertyName<?> name : nameArray) {
+				int slot = hash(name.name) & mask;
+
+				while (slots[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+
+				slots[slot] = name;
+			}
+		}
+
+		/**
+		 * Calculates the hash code of a character sequence.
+		 *
+		 * @param chars The characters to calculate the hash code of
+		 * @return The hash code
+		 */
+		static int hash(CharSequence chars) {
+			int length = chars.length();
+			int hash = 0;
+
+			for (int i = 0; i < length; i++) {
+				hash = 31 * hash + chars.charAt(i);
+			}
+
+			return hash ^ (hash >>> 16);
+		}
+
+		/**
+		 * Returns the name with a certain character content.
+		 *
+		 * @param chars The characters of the name
+		 * @return The matching name or NULL for none
+		 */
+		PropertyName<?> get(CharSequence chars) {
+			int mask = slots.length - 1;
+			int slot = hash(chars) & mask;
+			PropertyName<?> name;
+
+			while ((name = slots[slot]) != null) {
+				if (contentEquals(name.name, chars)) {
+					return name;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			return null;
+		}
+
+		/**
+		 * Compares a string with the content of a character sequence.
+		 *
+		 * @param string The string
+		 * @param chars  The character sequence
+		 * @return TRUE if the contents are equal
+		 */
+		private static boolean contentEquals(String string,
+			CharSequence chars) {
+			int length = string.length();
+
+			if (length != chars.length()) {
+				return false;
+			}
+
+			for (int i = 0; i < length; i++) {
+				if (string.charAt(i) != chars.charAt(i)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Holds a resolved codec together with the version of the codec registry
+	 * from which it has been resolved.
+	 *
+	 * @author eso
+	 */
+	private static final class ResolvedCodec<T> {
+
+		private final PropertyCodec<T> codec;
+
+		private final int version;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param codec   The resolved codec or NULL for none
+		 * @param version The version of the codec registry
+		 */
+		ResolvedCodec(PropertyCodec<T> codec, int version) {
+			this.codec = codec;
+			this.version = version;
+		}
+	}
 }
@@ -0,0 +1,101 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of canonical {@link ImmutableProperties} instances that allows to
+ * share a single instance between all objects with equal properties. This
+ * reduces the memory needed for large numbers of objects that have only a few
+ * distinct property sets, like the cells of a table or the items of a list
+ * with the same styles and flags. Mutable properties can share the storage of
+ * a canonical instance through {@link AbstractStringProperties#intern(
+ * PropertyPool)}.
+ *
+ * <p>Properties are matched only by their content. Because
+ * {@link ImmutableProperties} convert values only with the codecs of the
+ * property names, a canonical instance can be shared by properties objects of
+ * different classes and doesn't reference the object it has been created
+ * from. A pool keeps strong references to all canonical instances. It should
+ * therefore have the same scope as the objects it is used for and be cleared
+ * or discarded together with them. The hash codes of the interned instances
+ * are cached so that lookups only compare the properties of instances with
+ * equal hash codes. Pools are thread-safe.</p>
+ *
+ * @author eso
+ */
+public final class PropertyPool {
+
+	private final Map<ImmutableProperties, ImmutableProperties> canonicals =
+		new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance.
+	 */
+	public PropertyPool() {
+	}
+
+	/**
+	 * Removes all canonical instances from this pool. Objects that already
+	 * share an instance are not affected.
+	 */
+	public void clear() {
+		canonicals.clear();
+	}
+
+	/**
+	 * Returns the canonical instance for the content of a properties object.
+	 * If the pool doesn't contain equal properties yet an immutable copy of
+	 * the argument will become the canonical instance. Empty properties are
+	 * not added to the pool and are interned to
+	 * {@link ImmutableProperties#EMPTY} like their snapshots.
+	 *
+	 * @param properties The properties to intern
+	 * @return The canonical instance with the same properties
+	 */
+	public ImmutableProperties intern(HasProperties properties) {
+		ImmutableProperties immutable = ImmutableProperties.copyOf(properties);
+
+		if (immutable.getPropertyCount() == 0) {
+			return ImmutableProperties.EMPTY;
+		}
+
+		ImmutableProperties canonical = canonicals.get(immutable);
+
+		if (canonical == null) {
+			immutable = immutable.compact();
+			canonical = canonicals.putIfAbsent(immutable, immutable);
+
+			if (canonical == null) {
+				canonical = immutable;
+			}
+		}
+
+		return canonical;
+	}
+
+	/**
+	 * Returns the number of canonical instances in this pool.
+	 *
+	 * @return The pool size
+	 */
+	public int size() {
+		return canonicals.size();
+	}
+}
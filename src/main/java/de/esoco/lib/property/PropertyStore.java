@@ -0,0 +1,731 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact storage for property values that is used internally by the
+ * property implementations in this package. The names and values are kept in
+ * two parallel arrays. Small stores are searched linearly which is faster than
+ * hashing for the typical number of properties. If a store grows beyond a
+ * certain size an open-addressing index is created that is keyed by the
+ * {@link PropertyName#getId() ID} of the property names, which provides
+ * constant lookup times for large stores. The index is always maintained by
+ * the modifying methods so that read accesses never modify a store, which
+ * allows to share stores between threads once they are no longer modified.
+ *
+ * <p>Boolean properties are stored in a bit set that is indexed by the
+ * {@link PropertyName#getFlagIndex() flag index} of the property names. For
+ * each flag word of 64 flags two long values are stored, the first with a bit
+ * for each flag that is set and the second with the flag values. Boolean
+ * properties must therefore always be stored with boolean values. In the
+ * position-based access methods the flags follow after the other
+ * properties.</p>
+ *
+ * <p>The store doesn't interpret the stored values in any way, it is the
+ * responsibility of the owning object to store values that are immutable or at
+ * least never modified after storing. This is also required because the hash
+ * code of the content is updated incrementally on each modification so that
+ * {@link #contentHashCode()} doesn't need to iterate over the values and
+ * {@link #contentEquals(PropertyStore)} can reject stores with different
+ * content without comparing them.</p>
+ *
+ * @author eso
+ */
+final class PropertyStore {
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	private static final int INDEX_THRESHOLD = 8;
+
+	private PropertyName<?>[] names;
+
+	private Object[] values;
+
+	private int size;
+
+	private int[] index;
+
+	private long[] flags;
+
+	private int flagCount;
+
+	private int valueHash;
+
+	/**
+	 * Creates a new empty instance.
+	 */
+	PropertyStore() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new instance with a certain initial capacity.
+	 *
+	 * @param capacity The initial capacity
+	 */
+	PropertyStore(int capacity) {
+		capacity = Math.max(capacity, 1);
+
+		names = new PropertyName<?>[capacity];
+		values = new Object[capacity];
+	}
+
+	/**
+	 * Creates a copy of another store. The copy will have exactly the capacity
+	 * needed for the properties of the other store.
+	 *
+	 * @param other The store to copy
+	 */
+	PropertyStore(PropertyStore other) {
+		this(other.size);
+
+		System.arraycopy(other.names, 0, names, 0, other.size);
+		System.arraycopy(other.values, 0, values, 0, other.size);
+		size = other.size;
+		valueHash = other.valueHash;
+
+		if (other.index != null) {
+			index = other.index.clone();
+		}
+
+		if (other.flagCount > 0) {
+			flags = other.flags.clone();
+			flagCount = other.flagCount;
+		}
+	}
+
+	/**
+	 * Checks whether this store contains a certain property.
+	 *
+	 * @param name The property name
+	 * @return TRUE if the property is stored
+	 */
+	boolean contains(PropertyName<?> name) {
+		int flagIndex = name.getFlagIndex();
+
+		return flagIndex >= 0 ?
+		       (getFlagWord(flagIndex >>> 6, 0) & (1L << flagIndex)) != 0 :
+		       indexOf(name) >= 0;
+	}
+
+	/**
+	 * Checks whether this store contains the same properties with equal
+	 * values as another store.
+	 *
+	 * @param other The other store
+	 * @return TRUE if the stores contain equal properties
+	 */
+	boolean contentEquals(PropertyStore other) {
+		if (size != other.size || flagCount != other.flagCount ||
+			valueHash != other.valueHash) {
+			return false;
+		}
+
+		int flagWords = Math.max(getFlagWordCount(), other.getFlagWordCount());
+
+		for (int i = 0; i < flagWords * 2; i++) {
+			if (getFlagWord(i >> 1, i & 1) != other.getFlagWord(i >> 1,
+				i & 1)) {
+				return false;
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			Object otherValue = other.get(names[i]);
+
+			if (otherValue == null || !otherValue.equals(values[i])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a hash code for the content of this store that is independent
+	 * of the property order. The hash code of the non-flag properties is
+	 * maintained incrementally, therefore only the flag words need to be
+	 * evaluated.
+	 *
+	 * @return The content hash code
+	 */
+	int contentHashCode() {
+		int hashCode = valueHash;
+
+		for (int i = getFlagWordCount() * 2 - 1; i >= 0; i--) {
+			long word = flags[i];
+
+			// empty words must not change the hash code
+			hashCode += (i + 1) * (int) (word ^ (word >>> 32));
+		}
+
+		return hashCode;
+	}
+
+	/**
+	 * Returns the value of a certain property.
+	 *
+	 * @param name The property name
+	 * @return The property value or NULL if not stored
+	 */
+	Object get(PropertyName<?> name) {
+		int flagIndex = name.getFlagIndex();
+
+		if (flagIndex >= 0) {
+			long bit = 1L << flagIndex;
+			int word = flagIndex >>> 6;
+
+			return (getFlagWord(word, 0) & bit) != 0 ?
+			       Boolean.valueOf((getFlagWord(word, 1) & bit) != 0) :
+			       null;
+		} else {
+			int position = indexOf(name);
+
+			return position >= 0 ? values[position] : null;
+		}
+	}
+
+	/**
+	 * Returns the word at a certain position in the flag bit set.
+	 *
+	 * @param word   The word position
+	 * @param values 0 for the word of the set flags, 1 for the flag values
+	 * @return The bit set word
+	 */
+	long getFlagWord(int word, int values) {
+		int position = word * 2 + values;
+
+		return flags != null && position < flags.length ? flags[position] : 0;
+	}
+
+	/**
+	 * Returns the number of flag words that are stored in this instance.
+	 *
+	 * @return The flag word count
+	 */
+	int getFlagWordCount() {
+		return flags != null ? flags.length / 2 : 0;
+	}
+
+	/**
+	 * Returns the property name at a certain position.
+	 *
+	 * @param position The position (&gt;= 0 and &lt; {@link #size()})
+	 * @return The property name
+	 */
+	PropertyName<?> getName(int position) {
+		return position < size ?
+		       names[position] :
+		       PropertyName.getFlagName(getFlagIndexAt(position));
+	}
+
+	/**
+	 * Returns the property value at a certain position.
+	 *
+	 * @param position The position (&gt;= 0 and &lt; {@link #size()})
+	 * @return The property value
+	 */
+	Object getValue(int position) {
+		if (position < size) {
+			return values[position];
+		} else {
+			int flagIndex = getFlagIndexAt(position);
+
+			return Boolean.valueOf(
+				(getFlagWord(flagIndex >>> 6, 1) & (1L << flagIndex)) != 0);
+		}
+	}
+
+	/**
+	 * Checks whether all or any of the flags in a flag mask are set to TRUE.
+	 *
+	 * @param mask The flag mask
+	 * @param all  TRUE to check for all flags, FALSE for any
+	 * @return The result of the check
+	 */
+	boolean hasFlags(FlagMask mask, boolean all) {
+		int words = mask.getWordCount();
+
+		for (int i = 0; i < words; i++) {
+			long bits = mask.getWord(i);
+			long set = getFlagWord(i, 0) & getFlagWord(i, 1) & bits;
+
+			if (all && set != bits) {
+				return false;
+			} else if (!all && set != 0) {
+				return true;
+			}
+		}
+
+		return all;
+	}
+
+	/**
+	 * Returns the position of a certain property in this store.
+	 *
+	 * @param name The property name
+	 * @return The property position or -1 if the property is not stored
+	 */
+	int indexOf(PropertyName<?> name) {
+		if (index == null) {
+			for (int i = 0; i < size; i++) {
+				if (names[i] == name) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+		int slot = findSlot(name);
+
+		return slot >= 0 ? index[slot] - 1 : -1;
+	}
+
+	/**
+	 * Returns a read-only view of the property names in this store.
+	 *
+	 * @return The collection of property names
+	 */
+	Collection<PropertyName<?>> names() {
+		return new AbstractCollection<PropertyName<?>>() {
+			@Override
+			public boolean contains(Object name) {
+				return name instanceof PropertyName &&
+					PropertyStore.this.contains((PropertyName<?>) name);
+			}
+
+			@Override
+			public Iterator<PropertyName<?>> iterator() {
+				return new Iterator<PropertyName<?>>() {
+					int next = 0;
+
+					@Override
+					public boolean hasNext() {
+						return next < size();
+					}
+
+					@Override
+					public PropertyName<?> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+
+						return getName(next++);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return PropertyStore.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Stores a property value.
+	 *
+	 * @param name  The property name
+	 * @param value The property value (must not be NULL)
+	 * @return The previous value or NULL for none
+	 */
+	Object put(PropertyName<?> name, Object value) {
+		int flagIndex = name.getFlagIndex();
+
+		if (flagIndex >= 0) {
+			Object previous = get(name);
+
+			setFlag(flagIndex, ((Boolean) value).booleanValue());
+
+			return previous;
+		}
+
+		int position = indexOf(name);
+
+		if (position >= 0) {
+			Object previous = values[position];
+
+			values[position] = value;
+			valueHash += entryHashCode(name, value) -
+				entryHashCode(name, previous);
+
+			return previous;
+		}
+
+		if (size == names.length) {
+			int capacity = size + (size >> 1) + 1;
+
+			names = Arrays.copyOf(names, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		names[size] = name;
+		values[size] = value;
+		valueHash += entryHashCode(name, value);
+		size++;
+
+		if (index != null) {
+			if (size * 2 > index.length) {
+				buildIndex(size);
+			} else {
+				index[findFreeSlot(name)] = size;
+			}
+		} else if (size > INDEX_THRESHOLD) {
+			buildIndex(size);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Stores all properties of another store. The values of flags are merged
+	 * with bit operations on complete flag words.
+	 *
+	 * @param other   The store to copy the properties from
+	 * @param replace TRUE to replace existing values, FALSE to only add the
+	 *                properties that are not stored yet
+	 */
+	void putAll(PropertyStore other, boolean replace) {
+		int required = size + other.size;
+
+		if (required > names.length) {
+			names = Arrays.copyOf(names, required);
+			values = Arrays.copyOf(values, required);
+		}
+
+		for (int i = 0; i < other.size; i++) {
+			PropertyName<?> name = other.names[i];
+
+			if (replace || indexOf(name) < 0) {
+				put(name, other.values[i]);
+			}
+		}
+
+		if (other.flagCount > 0) {
+			long[] otherFlags = other.flags;
+
+			if (flags == null || flags.length < otherFlags.length) {
+				flags = flags != null ?
+				        Arrays.copyOf(flags, otherFlags.length) :
+				        new long[otherFlags.length];
+			}
+
+			flagCount = 0;
+
+			for (int i = 0; i < flags.length; i += 2) {
+				if (i < otherFlags.length) {
+					long merged = replace ?
+					              otherFlags[i] :
+					              otherFlags[i] & ~flags[i];
+
+					flags[i] |= otherFlags[i];
+					flags[i + 1] =
+						(flags[i + 1] & ~merged) | (otherFlags[i + 1] & merged);
+				}
+
+				flagCount += Long.bitCount(flags[i]);
+			}
+		}
+	}
+
+	/**
+	 * Removes a certain property.
+	 *
+	 * @param name The property name
+	 * @return The removed value or NULL if the property was not stored
+	 */
+	Object remove(PropertyName<?> name) {
+		int flagIndex = name.getFlagIndex();
+
+		if (flagIndex >= 0) {
+			Object previous = get(name);
+
+			if (previous != null) {
+				clearFlag(flagIndex);
+			}
+
+			return previous;
+		}
+
+		int position = indexOf(name);
+		Object value = null;
+
+		if (position >= 0) {
+			value = values[position];
+			removeAt(position);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Removes the property at a certain position. The last property will be
+	 * moved to the freed position.
+	 *
+	 * @param position The position (&gt;= 0 and &lt; {@link #size()})
+	 */
+	void removeAt(int position) {
+		if (position >= size) {
+			clearFlag(getFlagIndexAt(position));
+
+			return;
+		}
+
+		int last = size - 1;
+
+		valueHash -= entryHashCode(names[position], values[position]);
+
+		if (index != null) {
+			removeSlot(findSlot(names[position]));
+		}
+
+		if (position < last) {
+			names[position] = names[last];
+			values[position] = values[last];
+
+			if (index != null) {
+				index[findSlot(names[position])] = position + 1;
+			}
+		}
+
+		names[last] = null;
+		values[last] = null;
+		size = last;
+
+		if (size <= INDEX_THRESHOLD) {
+			index = null;
+		}
+	}
+
+	/**
+	 * Replaces the value at a certain position.
+	 *
+	 * @param position The position (&gt;= 0 and &lt; {@link #size()})
+	 * @param value    The new value (must not be NULL)
+	 */
+	void setValue(int position, Object value) {
+		if (position < size) {
+			Object previous = values[position];
+
+			values[position] = value;
+			valueHash += entryHashCode(names[position], value) -
+				entryHashCode(names[position], previous);
+		} else {
+			setFlag(getFlagIndexAt(position),
+				((Boolean) value).booleanValue());
+		}
+	}
+
+	/**
+	 * Returns the number of properties in this store.
+	 *
+	 * @return The property count
+	 */
+	int size() {
+		return size + flagCount;
+	}
+
+	/**
+	 * Removes a flag from the bit set.
+	 *
+	 * @param flagIndex The flag index
+	 */
+	private void clearFlag(int flagIndex) {
+		int word = (flagIndex >>> 6) * 2;
+		long bit = 1L << flagIndex;
+
+		if (flags != null && word < flags.length && (flags[word] & bit) != 0) {
+			flags[word] &= ~bit;
+			flags[word + 1] &= ~bit;
+			flagCount--;
+		}
+	}
+
+	/**
+	 * Calculates the hash code of a single property.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 * @return The property hash code
+	 */
+	private static int entryHashCode(PropertyName<?> name, Object value) {
+		return name.hashCode() ^ value.hashCode();
+	}
+
+	/**
+	 * Returns the flag index of the flag at a certain position.
+	 *
+	 * @param position The position (&gt;= the number of non-flag properties)
+	 * @return The flag index
+	 */
+	private int getFlagIndexAt(int position) {
+		int remaining = position - size;
+
+		for (int i = 0; i < flags.length; i += 2) {
+			long word = flags[i];
+			int count = Long.bitCount(word);
+
+			if (remaining < count) {
+				while (remaining-- > 0) {
+					word &= word - 1;
+				}
+
+				return (i / 2) * 64 + Long.numberOfTrailingZeros(word);
+			}
+
+			remaining -= count;
+		}
+
+		throw new IndexOutOfBoundsException("Invalid position: " + position);
+	}
+
+	/**
+	 * Sets a flag in the bit set.
+	 *
+	 * @param flagIndex The flag index
+	 * @param value     The flag value
+	 */
+	private void setFlag(int flagIndex, boolean value) {
+		int word = (flagIndex >>> 6) * 2;
+		long bit = 1L << flagIndex;
+
+		if (flags == null || word >= flags.length) {
+			flags = flags != null ?
+			        Arrays.copyOf(flags, word + 2) :
+			        new long[word + 2];
+		}
+
+		if ((flags[word] & bit) == 0) {
+			flags[word] |= bit;
+			flagCount++;
+		}
+
+		if (value) {
+			flags[word + 1] |= bit;
+		} else {
+			flags[word + 1] &= ~bit;
+		}
+	}
+
+	/**
+	 * Builds the index for a certain number of properties.
+	 *
+	 * @param count The number of properties to index
+	 */
+	private void buildIndex(int count) {
+		int capacity = 16;
+
+		while (capacity < count * 2) {
+			capacity <<= 1;
+		}
+
+		int[] newIndex = new int[capacity];
+		int mask = capacity - 1;
+
+		for (int i = 0; i < count; i++) {
+			int slot = names[i].getId() & mask;
+
+			while (newIndex[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+
+			newIndex[slot] = i + 1;
+		}
+
+		index = newIndex;
+	}
+
+	/**
+	 * Returns the first free index slot for a certain property name.
+	 *
+	 * @param name The property name
+	 * @return The free slot
+	 */
+	private int findFreeSlot(PropertyName<?> name) {
+		int mask = index.length - 1;
+		int slot = name.getId() & mask;
+
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Returns the index slot that refers to a certain property name.
+	 *
+	 * @param name The property name
+	 * @return The slot or -1 if the name is not indexed
+	 */
+	private int findSlot(PropertyName<?> name) {
+		int mask = index.length - 1;
+		int slot = name.getId() & mask;
+		int entry;
+
+		while ((entry = index[slot]) != 0) {
+			if (names[entry - 1] == name) {
+				return slot;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Clears an index slot and moves subsequent entries of the same probe
+	 * sequence backwards so that no lookup gaps are created.
+	 *
+	 * @param slot The slot to clear
+	 */
+	private void removeSlot(int slot) {
+		int mask = index.length - 1;
+		int next = slot;
+
+		while (true) {
+			next = (next + 1) & mask;
+
+			int entry = index[next];
+
+			if (entry == 0) {
+				break;
+			}
+
+			int home = names[entry - 1].getId() & mask;
+
+			boolean inRange = slot <= next ?
+			                  slot < home && home <= next :
+			                  slot < home || home <= next;
+
+			if (!inRange) {
+				index[slot] = entry;
+				slot = next;
+			}
+		}
+
+		index[slot] = 0;
+	}
+}
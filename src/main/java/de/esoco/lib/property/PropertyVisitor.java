@@ -0,0 +1,82 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+/**
+ * A visitor for the properties of a {@link HasProperties} object that is
+ * invoked by {@link HasProperties#forEachProperty(PropertyVisitor)} with the
+ * name and value of each property. Implementations only need to implement
+ * {@link #visitProperty(PropertyName, Object)} but can override the
+ * primitive-specialized methods to receive numbers and flags without boxing.
+ * Property implementations that store such values in primitive or typed form
+ * will invoke the specialized methods. Their default implementations forward
+ * the boxed value to {@link #visitProperty(PropertyName, Object)}.
+ *
+ * @author eso
+ */
+@FunctionalInterface
+public interface PropertyVisitor {
+
+	/**
+	 * Visits a double property.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 */
+	default void visitDouble(PropertyName<Double> name, double value) {
+		visitProperty(name, Double.valueOf(value));
+	}
+
+	/**
+	 * Visits a boolean property.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 */
+	default void visitFlag(PropertyName<Boolean> name, boolean value) {
+		visitProperty(name, Boolean.valueOf(value));
+	}
+
+	/**
+	 * Visits an integer property.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 */
+	default void visitInt(PropertyName<Integer> name, int value) {
+		visitProperty(name, Integer.valueOf(value));
+	}
+
+	/**
+	 * Visits a long property.
+	 *
+	 * @param name  The property name
+	 * @param value The property value
+	 */
+	default void visitLong(PropertyName<Long> name, long value) {
+		visitProperty(name, Long.valueOf(value));
+	}
+
+	/**
+	 * Visits a property. This is invoked for all properties that are not
+	 * handled by one of the primitive-specialized methods.
+	 *
+	 * @param name  The property name
+	 * @param value The property value (never NULL)
+	 */
+	void visitProperty(PropertyName<?> name, Object value);
+}
@@ -17,12 +17,19 @@
 package de.esoco.lib.property;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * This class implements a property mapping that encodes all property values as
  * strings. See the implemented interface {@link MutableProperties} for
  * details.
  *
+ * <p>Values are stored as objects, so the setters for primitive values must
+ * box them. Only values that are not covered by the caches of the wrapper
+ * classes (like integers outside of -128 to 127) allocate an object, and
+ * flags are stored as bits. The primitive getters read the stored values
+ * without any allocation.</p>
+ *
  * @author eso
  */
 public class StringProperties extends AbstractStringProperties
@@ -87,18 +94,48 @@ public class StringProperties extends AbstractStringProperties
 
 	/**
 	 * {@inheritDoc}
+	 *
+	 * <p>If this instance is empty and existing values are to be replaced the
+	 * sources will be merged in reverse order without replacing so that each
+	 * property is only copied once.</p>
 	 */
 	@Override
-	public void setProperties(HasProperties other, boolean replace) {
-		if (other.getPropertyCount() > 0) {
-			ensurePropertyMapExists();
+	public void setProperties(Collection<? extends HasProperties> sources,
+		boolean replace) {
+		if (replace && getPropertyCount() == 0) {
+			HasProperties[] reverse =
+				sources.toArray(new HasProperties[sources.size()]);
 
+			for (int i = reverse.length - 1; i >= 0; i--) {
+				setProperties(reverse[i], false);
+			}
+		} else {
+			for (HasProperties source : sources) {
+				setProperties(source, replace);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>If the other instance is also a subclass of
+	 * {@link AbstractStringProperties} the internal values will be copied
+	 * directly with {@link #copyProperties(AbstractStringProperties,
+	 * boolean)}.</p>
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setProperties(HasProperties other, boolean replace) {
+		if (other instanceof AbstractStringProperties) {
+			copyProperties((AbstractStringProperties) other, replace);
+		} else if (other.getPropertyCount() > 0) {
 			for (PropertyName<?> name : other.getPropertyNames()) {
 				if (replace || !hasProperty(name)) {
 					Object value = other.getProperty(name, null);
 
 					if (value != null) {
-						getPropertyMap().put(name, convertValue(value));
+						setProperty((PropertyName<Object>) name, value);
 					}
 				}
 			}
@@ -128,4 +165,20 @@ public class StringProperties extends AbstractStringProperties
 	public final void setProperty(PropertyName<Integer> name, int value) {
 		setProperty(name, Integer.valueOf(value));
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final void setProperty(PropertyName<Long> name, long value) {
+		setProperty(name, Long.valueOf(value));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final void setProperty(PropertyName<Double> name, double value) {
+		setProperty(name, Double.valueOf(value));
+	}
 }
@@ -0,0 +1,406 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.text;
+
+import java.io.IOException;
+
+/**
+ * Encodes and decodes the text format of collections and maps that is used by
+ * the string-based properties. Collection elements and map entries are
+ * separated by {@link TextConvert#DEFAULT_COLLECTION_SEPARATOR commas} and map
+ * keys and values by {@link TextConvert#DEFAULT_KEY_VALUE_SEPARATOR equal
+ * signs}. Commas in elements and map values are escaped with the unicode
+ * escape sequence {@link #ESCAPED_SEPARATOR}.
+ *
+ * <p>The results are identical to the conversion with
+ * {@link TextConvert#unicodeEncode(String, String)},
+ * {@link TextConvert#unicodeDecode(String, String)} and
+ * {@link String#split(String)} but this class works in a single pass over the
+ * text without regular expressions and intermediate arrays. Encoded text can
+ * be written to arbitrary {@link Appendable} instances and decoding is
+ * performed on ranges of {@link CharSequence CharSequences} with a
+ * {@link Scanner}. Like the split method the scanner ignores trailing empty
+ * elements.</p>
+ *
+ * @author eso
+ */
+public final class CollectionTextCodec {
+
+	/**
+	 * The escape sequence of the collection separator in encoded values.
+	 */
+	public static final String ESCAPED_SEPARATOR = "\\u002C";
+
+	private static final char SEPARATOR = ',';
+
+	private static final char KEY_VALUE_SEPARATOR = '=';
+
+	/**
+	 * Private, only static use.
+	 */
+	private CollectionTextCodec() {
+	}
+
+	/**
+	 * Appends a collection element to an {@link Appendable}. The element will
+	 * be escaped and if it is not the first element a separator will be
+	 * inserted before it.
+	 *
+	 * @param target  The target to append to
+	 * @param element The element value
+	 * @param first   TRUE for the first element of a collection
+	 * @return The target
+	 * @throws IOException If appending fails
+	 */
+	public static <A extends Appendable> A appendElement(A target,
+		CharSequence element, boolean first) throws IOException {
+		if (!first) {
+			target.append(SEPARATOR);
+		}
+
+		return appendEscaped(target, element);
+	}
+
+	/**
+	 * A variant of {@link #appendElement(Appendable, CharSequence, boolean)}
+	 * for string builders that doesn't throw exceptions.
+	 *
+	 * @param target  The target to append to
+	 * @param element The element value
+	 * @param first   TRUE for the first element of a collection
+	 * @return The target
+	 */
+	public static StringBuilder appendElement(StringBuilder target,
+		CharSequence element, boolean first) {
+		if (!first) {
+			target.append(SEPARATOR);
+		}
+
+		return appendEscaped(target, element);
+	}
+
+	/**
+	 * Appends a map entry to an {@link Appendable}. The key will be appended
+	 * unchanged and therefore must not contain separators, the value will be
+	 * escaped. If the entry is not the first one a separator will be
+	 * inserted before it.
+	 *
+	 * @param target The target to append to
+	 * @param key    The entry key
+	 * @param value  The entry value
+	 * @param first  TRUE for the first entry of a map
+	 * @return The target
+	 * @throws IOException If appending fails
+	 */
+	public static <A extends Appendable> A appendEntry(A target,
+		CharSequence key, CharSequence value, boolean first)
+		throws IOException {
+		if (!first) {
+			target.append(SEPARATOR);
+		}
+
+		target.append(key).append(KEY_VALUE_SEPARATOR);
+
+		return appendEscaped(target, value);
+	}
+
+	/**
+	 * A variant of
+	 * {@link #appendEntry(Appendable, CharSequence, CharSequence, boolean)}
+	 * for string builders that doesn't throw exceptions.
+	 *
+	 * @param target The target to append to
+	 * @param key    The entry key
+	 * @param value  The entry value
+	 * @param first  TRUE for the first entry of a map
+	 * @return The target
+	 */
+	public static StringBuilder appendEntry(StringBuilder target,
+		CharSequence key, CharSequence value, boolean first) {
+		if (!first) {
+			target.append(SEPARATOR);
+		}
+
+		target.append(key).append(KEY_VALUE_SEPARATOR);
+
+		return appendEscaped(target, value);
+	}
+
+	/**
+	 * Appends a value to an {@link Appendable} and escapes all collection
+	 * separators in the value.
+	 *
+	 * @param target The target to append to
+	 * @param value  The value to append
+	 * @return The target
+	 * @throws IOException If appending fails
+	 */
+	public static <A extends Appendable> A appendEscaped(A target,
+		CharSequence value) throws IOException {
+		int length = value.length();
+		int start = 0;
+
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) == SEPARATOR) {
+				target.append(value, start, i).append(ESCAPED_SEPARATOR);
+				start = i + 1;
+			}
+		}
+
+		target.append(value, start, length);
+
+		return target;
+	}
+
+	/**
+	 * A variant of {@link #appendEscaped(Appendable, CharSequence)} for
+	 * string builders that doesn't throw exceptions.
+	 *
+	 * @param target The target to append to
+	 * @param value  The value to append
+	 * @return The target
+	 */
+	public static StringBuilder appendEscaped(StringBuilder target,
+		CharSequence value) {
+		try {
+			appendEscaped((Appendable) target, value);
+		} catch (IOException e) {
+			// cannot occur with string builders
+			throw new IllegalStateException(e);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Returns a new scanner for the elements or entries in a text.
+	 *
+	 * @param text The text to scan
+	 * @return The new scanner
+	 */
+	public static Scanner scan(CharSequence text) {
+		return new Scanner(text, 0, text.length());
+	}
+
+	/**
+	 * Returns a new scanner for the elements or entries in a range of a text.
+	 *
+	 * @param text  The text to scan
+	 * @param start The start of the range (inclusive)
+	 * @param end   The end of the range (exclusive)
+	 * @return The new scanner
+	 */
+	public static Scanner scan(CharSequence text, int start, int end) {
+		return new Scanner(text, start, end);
+	}
+
+	/**
+	 * Decodes a range of a text by replacing all escaped collection
+	 * separators with the separator character.
+	 *
+	 * @param text  The text to decode
+	 * @param start The start of the range (inclusive)
+	 * @param end   The end of the range (exclusive)
+	 * @return The decoded string
+	 */
+	public static String unescape(CharSequence text, int start, int end) {
+		int escapeLength = ESCAPED_SEPARATOR.length();
+		StringBuilder result = null;
+		int copyStart = start;
+
+		for (int i = start; i <= end - escapeLength; i++) {
+			if (text.charAt(i) == '\\' && isEscapedSeparator(text, i)) {
+				if (result == null) {
+					result = new StringBuilder(end - start);
+				}
+
+				result.append(text, copyStart, i).append(SEPARATOR);
+				i += escapeLength - 1;
+				copyStart = i + 1;
+			}
+		}
+
+		if (result == null) {
+			return text.subSequence(start, end).toString();
+		} else {
+			return result.append(text, copyStart, end).toString();
+		}
+	}
+
+	/**
+	 * Checks whether the escaped separator occurs at a certain position of a
+	 * text.
+	 *
+	 * @param text     The text
+	 * @param position The position to check
+	 * @return TRUE if the escape sequence starts at the position
+	 */
+	private static boolean isEscapedSeparator(CharSequence text,
+		int position) {
+		int escapeLength = ESCAPED_SEPARATOR.length();
+
+		for (int i = 1; i < escapeLength; i++) {
+			if (text.charAt(position + i) != ESCAPED_SEPARATOR.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * A scanner over the elements of an encoded collection or the entries of
+	 * an encoded map. The method {@link #next()} advances to the next element
+	 * and the current element can then be queried with the other methods.
+	 *
+	 * @author eso
+	 */
+	public static final class Scanner {
+
+		private final CharSequence text;
+
+		private final int end;
+
+		private int position;
+
+		private int elementStart = -1;
+
+		private int elementEnd = -1;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param text  The text to scan
+		 * @param start The start of the range to scan
+		 * @param end   The end of the range to scan
+		 */
+		Scanner(CharSequence text, int start, int end) {
+			int last = end;
+
+			// ignore trailing empty elements like String.split()
+			while (last > start && text.charAt(last - 1) == SEPARATOR) {
+				last--;
+			}
+
+			this.text = text;
+			this.position = start;
+			this.end = last;
+
+			if (last == start && end > start) {
+				// only separators, no elements
+				position = end + 1;
+			}
+		}
+
+		/**
+		 * Returns the end position of the current element in the text.
+		 *
+		 * @return The element end (exclusive)
+		 */
+		public int getElementEnd() {
+			return elementEnd;
+		}
+
+		/**
+		 * Returns the start position of the current element in the text.
+		 *
+		 * @return The element start (inclusive)
+		 */
+		public int getElementStart() {
+			return elementStart;
+		}
+
+		/**
+		 * Returns the decoded value of the current map entry.
+		 *
+		 * @return The decoded entry value or NULL if the current element
+		 * doesn't contain a key
+		 */
+		public String getEntryValue() {
+			int separator = getKeyValueSeparator();
+
+			return separator > elementStart ?
+			       unescape(text, separator + 1, elementEnd) :
+			       null;
+		}
+
+		/**
+		 * Returns the key of the current map entry. The key is the text before
+		 * the first key-value separator in the element and it will not be
+		 * decoded.
+		 *
+		 * @return The entry key or NULL if the current element doesn't contain
+		 * a key
+		 */
+		public String getKey() {
+			int separator = getKeyValueSeparator();
+
+			return separator > elementStart ?
+			       text.subSequence(elementStart, separator).toString() :
+			       null;
+		}
+
+		/**
+		 * Returns the decoded value of the current collection element.
+		 *
+		 * @return The decoded element value
+		 */
+		public String getValue() {
+			return unescape(text, elementStart, elementEnd);
+		}
+
+		/**
+		 * Advances to the next element in the text.
+		 *
+		 * @return TRUE if a next element exists, FALSE if the end of the text
+		 * has been reached
+		 */
+		public boolean next() {
+			if (position > end) {
+				return false;
+			}
+
+			int separator = position;
+
+			while (separator < end && text.charAt(separator) != SEPARATOR) {
+				separator++;
+			}
+
+			elementStart = position;
+			elementEnd = separator;
+			position = separator + 1;
+
+			return true;
+		}
+
+		/**
+		 * Returns the position of the first key-value separator in the current
+		 * element.
+		 *
+		 * @return The separator position or -1 if not found
+		 */
+		private int getKeyValueSeparator() {
+			for (int i = elementStart; i < elementEnd; i++) {
+				if (text.charAt(i) == KEY_VALUE_SEPARATOR) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+	}
+}
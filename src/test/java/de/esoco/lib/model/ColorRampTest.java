@@ -0,0 +1,262 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.model;
+
+import de.esoco.lib.model.ColorRamp.Interpolation;
+import de.esoco.lib.property.Color;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link ColorRamp}.
+ *
+ * @author eso
+ */
+public class ColorRampTest {
+
+	private static final Color[] PRIMARY_COLORS =
+		{ Color.RED, Color.GREEN, Color.BLUE };
+
+	/**
+	 * Test of the lookup table endpoints and the mapping of values outside of
+	 * the value range.
+	 */
+	@Test
+	public void testEndpoints() {
+		for (Interpolation interpolation : Interpolation.values()) {
+			ColorRamp ramp = new ColorRamp(-10, 10, 100, interpolation,
+				Arrays.asList(Color.RED, Color.YELLOW, Color.BLUE));
+
+			assertEquals(100, ramp.getSize());
+			assertEquals(Color.RED.toRGB(), ramp.getRgb(-10));
+			assertEquals(Color.BLUE.toRGB(), ramp.getRgb(10));
+			assertEquals(Color.RED.toRGB(), ramp.getRgb(-1000));
+			assertEquals(Color.BLUE.toRGB(), ramp.getRgb(1000));
+			assertEquals(Color.RED.toRGB(), ramp.getRgb(Double.NaN));
+			assertEquals(Color.BLUE, ramp.getColor(10));
+			assertEquals(Color.toHtml(Color.RED.toRGB()), ramp.getHtml(-10));
+		}
+
+		ColorRamp single = new ColorRamp(5, 5, Color.GREEN);
+
+		assertEquals(Color.GREEN.toRGB(), single.getRgb(5));
+		assertEquals(Color.GREEN.toRGB(), single.getRgb(0));
+		assertThrows(IllegalArgumentException.class,
+			() -> new ColorRamp(0, 1, 1, Interpolation.RGB,
+				Arrays.asList(Color.RED)));
+		assertThrows(IllegalArgumentException.class,
+			() -> new ColorRamp(0, 1));
+	}
+
+	/**
+	 * Test of the mapping of gray stops in HSL interpolation which receive
+	 * the hue of their neighbor.
+	 */
+	@Test
+	public void testGrayStops() {
+		ColorRamp ramp = new ColorRamp(0, 2, 3, Interpolation.HSL,
+			Arrays.asList(Color.WHITE, Color.RED, Color.BLACK));
+
+		assertEquals(Color.WHITE.toRGB(), ramp.getRgb(0));
+		assertEquals(Color.RED.toRGB(), ramp.getRgb(1));
+		assertEquals(Color.BLACK.toRGB(), ramp.getRgb(2));
+
+		ramp = new ColorRamp(0, 4, 5, Interpolation.HSL,
+			Arrays.asList(Color.WHITE, Color.BLUE, Color.BLACK));
+
+		// the intermediate colors are tints and shades of blue
+		for (int rgb : new int[] { ramp.getRgb(1), ramp.getRgb(3) }) {
+			assertEquals(Color.red(rgb), Color.green(rgb));
+			assertTrue(Color.blue(rgb) > Color.red(rgb));
+		}
+	}
+
+	/**
+	 * Test of HSL interpolation along the shorter direction of the color
+	 * wheel.
+	 */
+	@Test
+	public void testHslInterpolation() {
+		ColorRamp ramp = new ColorRamp(0, 2, 3, Interpolation.HSL,
+			Arrays.asList(Color.RED, Color.BLUE));
+
+		// 0 -> 240 rotates backwards through magenta instead of green
+		assertEquals(Color.MAGENTA.toRGB(), ramp.getRgb(1));
+
+		ramp = new ColorRamp(0, 2, 3, Interpolation.HSL,
+			Arrays.asList(Color.RED, Color.GREEN));
+
+		assertEquals(Color.YELLOW.toRGB(), ramp.getRgb(1));
+	}
+
+	/**
+	 * Test of HSL interpolation of stops that rotate around the color wheel
+	 * multiple times.
+	 */
+	@Test
+	public void testHueWrapAround() {
+		Color[] stops = new Color[7];
+		Color[] between = { Color.YELLOW, Color.CYAN, Color.MAGENTA };
+
+		for (int i = 0; i < stops.length; i++) {
+			stops[i] = PRIMARY_COLORS[i % 3];
+		}
+
+		ColorRamp ramp = new ColorRamp(0, 12, 13, Interpolation.HSL,
+			Arrays.asList(stops));
+
+		for (int i = 0; i < stops.length; i++) {
+			assertEquals(stops[i].toRGB(), ramp.getRgb(i * 2));
+		}
+
+		for (int i = 0; i < stops.length - 1; i++) {
+			assertEquals(between[i % 3].toRGB(), ramp.getRgb(i * 2 + 1),
+				"Segment " + i);
+		}
+
+		// the reverse direction must also take the shorter rotation
+		Collections.reverse(Arrays.asList(stops));
+		ramp = new ColorRamp(0, 12, 13, Interpolation.HSL,
+			Arrays.asList(stops));
+
+		for (int i = 0; i < stops.length - 1; i++) {
+			assertEquals(between[2 - i % 3].toRGB(),
+				ramp.getRgb(i * 2 + 1), "Segment " + i);
+		}
+	}
+
+	/**
+	 * Test of L*a*b* interpolation.
+	 */
+	@Test
+	public void testLabInterpolation() {
+		ColorRamp ramp = new ColorRamp(0, 2, 3, Interpolation.LAB,
+			Arrays.asList(Color.BLACK, Color.WHITE));
+		int gray = ramp.getRgb(1);
+
+		// L* = 50 is perceptually darker than the RGB mean
+		assertEquals(Color.red(gray), Color.green(gray));
+		assertEquals(Color.red(gray), Color.blue(gray));
+		assertEquals(119, Color.red(gray), 1);
+
+		ramp = new ColorRamp(0, 100, 101, Interpolation.LAB,
+			Arrays.asList(Color.BLACK, Color.WHITE));
+
+		for (int i = 1; i <= 100; i++) {
+			assertTrue(Color.red(ramp.getRgb(i)) >=
+				Color.red(ramp.getRgb(i - 1)));
+		}
+	}
+
+	/**
+	 * Test of the mapping of data set rows and columns.
+	 */
+	@Test
+	public void testMapDataSet() {
+		ColorRamp ramp = new ColorRamp(0, 2, 3, Interpolation.RGB,
+			Arrays.asList(PRIMARY_COLORS));
+		int[] red = { Color.RED.toRGB() };
+		String[] html = new String[3];
+
+		for (int i = 0; i < 3; i++) {
+			html[i] = Color.toHtml(PRIMARY_COLORS[i].toRGB());
+		}
+
+		DoubleDataSet doubles =
+			new DoubleDataSet(Arrays.asList("A", "B", "C"), "", "", "");
+
+		doubles.addRow("1", 0.0, 1.0, 2.0);
+		doubles.addRow("2", 2.0, 0.9, -1.0);
+
+		IntDataSet ints =
+			new IntDataSet(Arrays.asList("A", "B", "C"), "", "", "");
+
+		ints.addRow("1", 0, 1, 2);
+		ints.addRow("2", 2, 1, 0);
+
+		int[] expected = rgb(PRIMARY_COLORS);
+		int[] column = rgb(Color.GREEN, Color.GREEN);
+
+		assertArrayEquals(expected, ramp.mapRow(doubles, 0, null));
+		assertArrayEquals(expected, ramp.mapRow(ints, 0, new int[3]));
+		assertArrayEquals(column, ramp.mapColumn(doubles, 1, red));
+		assertArrayEquals(column, ramp.mapColumn(ints, 1, new int[1]));
+		assertArrayEquals(rgb(Color.BLUE, Color.GREEN, Color.RED),
+			ramp.mapRow(doubles, 1, null));
+		assertArrayEquals(rgb(Color.BLUE, Color.GREEN, Color.RED),
+			ramp.mapRow(ints, 1, null));
+
+		String[] htmlRow = ramp.mapRowToHtml(ints, 0, null);
+
+		assertArrayEquals(html, htmlRow);
+		assertArrayEquals(new String[] { html[0], html[2] },
+			ramp.mapColumnToHtml(doubles, 0, null));
+
+		// the HTML strings are shared between invocations
+		assertSame(htmlRow[2], ramp.mapRowToHtml(doubles, 0, null)[2]);
+
+		int[] target = new int[5];
+
+		assertSame(target, ramp.mapRow(ints, 0, target));
+		ramp.map(new double[] { 5, 2, 1, 0 }, 1, 4, target);
+		assertArrayEquals(
+			new int[] { 0x0000FF, 0x00FF00, 0xFF0000, 0, 0 }, target);
+	}
+
+	/**
+	 * Test of RGB interpolation.
+	 */
+	@Test
+	public void testRgbInterpolation() {
+		ColorRamp ramp = new ColorRamp(0, 4, 5, Interpolation.RGB,
+			Arrays.asList(Color.BLACK, Color.WHITE));
+
+		assertEquals(0x404040, ramp.getRgb(1));
+		assertEquals(0x808080, ramp.getRgb(2));
+		assertEquals(0xBFBFBF, ramp.getRgb(3));
+
+		ramp = new ColorRamp(0, 2, 3, Interpolation.RGB,
+			Arrays.asList(Color.RED, Color.BLUE));
+
+		assertEquals(0x800080, ramp.getRgb(1));
+	}
+
+	/**
+	 * Returns the packed RGB values of colors.
+	 *
+	 * @param colors The colors
+	 * @return The RGB values
+	 */
+	private int[] rgb(Color... colors) {
+		int[] rgb = new int[colors.length];
+
+		for (int i = 0; i < colors.length; i++) {
+			rgb[i] = colors[i].toRGB();
+		}
+
+		return rgb;
+	}
+}
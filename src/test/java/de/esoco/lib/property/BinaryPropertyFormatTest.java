@@ -0,0 +1,377 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.ContentProperties.FORMAT_ARGUMENTS;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StandardProperties.DATE;
+import static de.esoco.lib.property.StandardProperties.NAME;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StateProperties.INTERACTION_EVENT_TYPES;
+import static de.esoco.lib.property.StorageProperties.QUERY_SORT;
+import static de.esoco.lib.property.StyleProperties.BACKGROUND_COLOR;
+import static de.esoco.lib.property.StyleProperties.ORIENTATION;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link BinaryPropertyFormat}.
+ *
+ * @author eso
+ */
+public class BinaryPropertyFormatTest {
+
+	private static final PropertyName<Long> TEST_LONG =
+		PropertyName.newLongName("BINARY_FORMAT_TEST_LONG");
+
+	private static final PropertyName<Double> TEST_DOUBLE =
+		PropertyName.newDoubleName("BINARY_FORMAT_TEST_DOUBLE");
+
+	/**
+	 * Test of reading corrupt input.
+	 *
+	 * @throws IOException If creating the test data fails
+	 */
+	@Test
+	public void testCorruptInput() throws IOException {
+		// string tag and length -1 (zig-zag encoded)
+		assertInvalid(propertyData(STYLE, 0, 1));
+
+		// string tag and length 2^31 (zig-zag encoded)
+		assertInvalid(propertyData(STYLE, 0, 0x80, 0x80, 0x80, 0x80, 0x10));
+
+		// version and huge property count
+		assertInvalid(data(2, 0xFE, 0xFF, 0xFF, 0xFF, 0x07));
+
+		// unsupported version
+		assertInvalid(data(99, 0));
+
+		// a property name that is not a string
+		ByteArrayOutputStream invalidName = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(invalidName)) {
+			out.writeByte(2);
+			out.writeByte(2);
+			out.writeObject(Integer.valueOf(1));
+		}
+
+		assertInvalid(invalidName.toByteArray());
+
+		// invalid value tag
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(STYLE, "x");
+
+		byte[] data = write(properties);
+
+		data[data.length - 3] = 99;
+		assertInvalid(data);
+	}
+
+	/**
+	 * Test of writing and reading empty properties.
+	 *
+	 * @throws IOException If reading fails
+	 */
+	@Test
+	public void testEmpty() throws IOException {
+		assertEquals(new StringProperties(),
+			read(write(new StringProperties())));
+	}
+
+	/**
+	 * Test of reading collection and map values that are not valid for the
+	 * property datatype, including deeply nested containers.
+	 *
+	 * @throws IOException If creating the test data fails
+	 */
+	@Test
+	public void testInvalidContainers() throws IOException {
+		ByteArrayOutputStream nested = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = startProperty(nested, FORMAT_ARGUMENTS)) {
+			// list tag and element count 1 (zig-zag encoded), nested 200000
+			// times
+			for (int i = 0; i < 200000; i++) {
+				out.writeByte(8);
+				out.writeByte(2);
+			}
+		}
+
+		assertInvalid(nested.toByteArray());
+
+		// a list with a map element
+		assertInvalid(propertyData(FORMAT_ARGUMENTS, 8, 2, 10, 0));
+
+		// a map with a list value
+		assertInvalid(propertyData(QUERY_SORT, 10, 2, 0, 0, 8, 0));
+
+		// container tags for scalar properties
+		assertInvalid(propertyData(NAME, 8, 2, 0, 0));
+		assertInvalid(propertyData(NAME, 9, 2, 0, 0));
+		assertInvalid(propertyData(NAME, 10, 2, 0, 0, 0, 0));
+		assertInvalid(propertyData(WIDTH, 8, 0));
+
+		// container tags that don't match the property datatype
+		assertInvalid(propertyData(FORMAT_ARGUMENTS, 9, 0));
+		assertInvalid(propertyData(FORMAT_ARGUMENTS, 10, 0));
+		assertInvalid(propertyData(INTERACTION_EVENT_TYPES, 8, 0));
+	}
+
+	/**
+	 * Test of reading scalar values with tags that don't match the datatype
+	 * of the property or collection element.
+	 *
+	 * @throws IOException If creating the test data fails
+	 */
+	@Test
+	public void testInvalidScalars() throws IOException {
+		// integer tag for a color, date tag for a string
+		assertInvalid(propertyData(BACKGROUND_COLOR, 3, 2));
+		assertInvalid(propertyData(NAME, 7, 0));
+
+		// long, double, and boolean tags for an integer
+		assertInvalid(propertyData(WIDTH, 4, 2));
+		assertInvalid(propertyData(WIDTH, 11, 0, 0, 0, 0, 0, 0, 0, 0));
+		assertInvalid(propertyData(WIDTH, 1));
+
+		// integer tag for a flag and color tag for a date
+		assertInvalid(propertyData(DISABLED, 3, 2));
+		assertInvalid(propertyData(DATE, 5, 0, 0, 0, 0));
+
+		// a list of strings with an integer element and a map with an
+		// integer value instead of an enum
+		assertInvalid(propertyData(FORMAT_ARGUMENTS, 8, 2, 3, 2));
+		assertInvalid(propertyData(QUERY_SORT, 10, 2, 0, 0, 3, 2));
+
+		// enum tag for a string
+		ByteArrayOutputStream enumForString = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = startProperty(enumForString, NAME)) {
+			out.writeByte(6);
+			out.writeObject("ACTION");
+		}
+
+		assertInvalid(enumForString.toByteArray());
+
+		// string values are valid for all datatypes
+		assertEquals(Integer.valueOf(5),
+			read(propertyData(WIDTH, 0, 2, '5')).getProperty(WIDTH, null));
+	}
+
+	/**
+	 * Test that property and enum names are only written once if multiple
+	 * properties objects are written to the same stream.
+	 *
+	 * @throws IOException If writing or reading fails
+	 */
+	@Test
+	public void testRepeatedNames() throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		StringProperties first = new StringProperties();
+		StringProperties second = new StringProperties();
+		int firstSize;
+
+		first.setProperty(INTERACTION_EVENT_TYPES,
+			EnumSet.of(InteractionEventType.ACTION));
+		first.setProperty(ORIENTATION, Orientation.VERTICAL);
+		second.setProperty(ORIENTATION, Orientation.VERTICAL);
+		second.setProperty(INTERACTION_EVENT_TYPES,
+			EnumSet.of(InteractionEventType.ACTION));
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			BinaryPropertyFormat.write(first, out);
+			out.flush();
+			firstSize = data.size();
+			BinaryPropertyFormat.write(second, out);
+		}
+
+		// the property and enum names alone have 48 characters
+		assertTrue(data.size() - firstSize < 40);
+
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(data.toByteArray()))) {
+			StringProperties result = new StringProperties();
+
+			BinaryPropertyFormat.read(in, result);
+			assertEquals(first, result);
+			BinaryPropertyFormat.read(in, result);
+			assertEquals(second, result);
+		}
+	}
+
+	/**
+	 * Test of writing and reading all kinds of values.
+	 *
+	 * @throws IOException If reading fails
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		StringProperties properties = new StringProperties();
+		Map<String, SortDirection> sort = new HashMap<>();
+
+		sort.put("name", SortDirection.ASCENDING);
+		sort.put("date", SortDirection.DESCENDING);
+
+		properties.setProperty(STYLE, "Ä ü €");
+		properties.setProperty(WIDTH, -12345);
+		properties.setProperty(TEST_LONG, Long.MIN_VALUE);
+		properties.setProperty(TEST_DOUBLE, 0.1);
+		properties.setProperty(DATE, new Date(1234567890123L));
+		properties.setProperty(BACKGROUND_COLOR, Color.valueOf(0x123456));
+		properties.setProperty(ORIENTATION, Orientation.VERTICAL);
+		properties.setProperty(FORMAT_ARGUMENTS, Arrays.asList("a", "b,c"));
+		properties.setProperty(INTERACTION_EVENT_TYPES,
+			EnumSet.of(InteractionEventType.ACTION,
+				InteractionEventType.UPDATE));
+		properties.setProperty(QUERY_SORT, sort);
+		properties.setFlag(DISABLED);
+		properties.setProperty(HIDDEN, false);
+
+		StringProperties result = read(write(properties));
+
+		assertEquals(properties, result);
+		assertEquals(properties.getPropertyCount(), result.getPropertyCount());
+		assertEquals(sort, result.getProperty(QUERY_SORT, null));
+		assertEquals(Long.MIN_VALUE, result.getLongProperty(TEST_LONG, 0));
+	}
+
+	/**
+	 * Asserts that reading certain data fails with an
+	 * {@link InvalidObjectException}.
+	 *
+	 * @param data The data to read
+	 */
+	private void assertInvalid(byte[] data) {
+		assertThrows(InvalidObjectException.class, () -> read(data));
+	}
+
+	/**
+	 * Creates binary data that consists of the given bytes.
+	 *
+	 * @param bytes The data bytes
+	 * @return The binary data
+	 * @throws IOException If creating the data fails
+	 */
+	private byte[] data(int... bytes) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			for (int b : bytes) {
+				out.writeByte(b);
+			}
+		}
+
+		return data.toByteArray();
+	}
+
+	/**
+	 * Creates the binary data of a single property with a value that consists
+	 * of the given bytes.
+	 *
+	 * @param name  The property name
+	 * @param value The value bytes, starting with the value tag
+	 * @return The binary data
+	 * @throws IOException If creating the data fails
+	 */
+	private byte[] propertyData(PropertyName<?> name, int... value)
+		throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = startProperty(data, name)) {
+			for (int b : value) {
+				out.writeByte(b);
+			}
+		}
+
+		return data.toByteArray();
+	}
+
+	/**
+	 * Reads properties from binary data.
+	 *
+	 * @param data The data to read
+	 * @return The properties
+	 * @throws IOException If reading fails
+	 */
+	private StringProperties read(byte[] data) throws IOException {
+		StringProperties properties = new StringProperties();
+
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(data))) {
+			BinaryPropertyFormat.read(in, properties);
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Writes the header and the name of a single property to binary data.
+	 *
+	 * @param data The data stream to write to
+	 * @param name The property name
+	 * @return An object output that writes to the data stream and must be
+	 * closed by the invoking code
+	 * @throws IOException If writing fails
+	 */
+	private ObjectOutputStream startProperty(ByteArrayOutputStream data,
+		PropertyName<?> name) throws IOException {
+		ObjectOutputStream out = new ObjectOutputStream(data);
+
+		// version and property count 1 (zig-zag encoded)
+		out.writeByte(2);
+		out.writeByte(2);
+		out.writeObject(name.getName());
+
+		return out;
+	}
+
+	/**
+	 * Writes properties to binary data.
+	 *
+	 * @param properties The properties to write
+	 * @return The binary data
+	 */
+	private byte[] write(StringProperties properties) {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			BinaryPropertyFormat.write(properties, out);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return data.toByteArray();
+	}
+}
@@ -0,0 +1,123 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of {@link ColorArrays}.
+ *
+ * @author eso
+ */
+public class ColorArraysTest {
+
+	private static final int[] COLORS =
+		{ 0x000000, 0xFFFFFF, 0x123456, 0xFF0080, 0x00FF7F, 0x808080 };
+
+	/**
+	 * Test of {@link ColorArrays#blend(int[], int, int)}.
+	 */
+	@Test
+	public void testBlend() {
+		for (int percent : new int[] { 0, 1, 33, 50, 99, 100 }) {
+			for (int target : COLORS) {
+				int[] rgb = COLORS.clone();
+
+				ColorArrays.blend(rgb, target, percent);
+
+				for (int i = 0; i < rgb.length; i++) {
+					assertEquals(Color.blendRgb(COLORS[i], target, percent),
+						rgb[i]);
+				}
+			}
+		}
+
+		int[] rgb = COLORS.clone();
+
+		ColorArrays.blend(rgb, 0xFFFFFF, 100);
+		assertEquals(0xFFFFFF, rgb[0]);
+	}
+
+	/**
+	 * Test of the validation of blend percentages.
+	 */
+	@Test
+	public void testBlendPercentage() {
+		int[] rgb = COLORS.clone();
+
+		assertThrows(IllegalArgumentException.class,
+			() -> ColorArrays.blend(rgb, 0xFFFFFF, 101));
+		assertThrows(IllegalArgumentException.class,
+			() -> ColorArrays.blend(rgb, 0xFFFFFF, -1));
+		assertThrows(IllegalArgumentException.class,
+			() -> Color.blendRgb(0, 0xFFFFFF, 101));
+		assertThrows(IllegalArgumentException.class,
+			() -> Color.valueOf(0).blend(Color.valueOf(0xFFFFFF), -1));
+		assertArrayEquals(COLORS, rgb);
+	}
+
+	/**
+	 * Test of the range-based transformations.
+	 */
+	@Test
+	public void testRanges() {
+		int[] rgb = COLORS.clone();
+
+		ColorArrays.grayscale(rgb, 2, 4);
+		assertEquals(COLORS[1], rgb[1]);
+		assertEquals(Color.grayscaleRgb(COLORS[2]), rgb[2]);
+		assertEquals(Color.grayscaleRgb(COLORS[3]), rgb[3]);
+		assertEquals(COLORS[4], rgb[4]);
+
+		rgb = COLORS.clone();
+		ColorArrays.changeBrightness(rgb, -20);
+
+		for (int i = 0; i < rgb.length; i++) {
+			assertEquals(Color.changeBrightnessRgb(COLORS[i], -20), rgb[i]);
+		}
+
+		int[] array = COLORS.clone();
+
+		assertThrows(IllegalArgumentException.class,
+			() -> ColorArrays.grayscale(array, 3, 2));
+		assertThrows(ArrayIndexOutOfBoundsException.class,
+			() -> ColorArrays.grayscale(array, 0, array.length + 1));
+	}
+
+	/**
+	 * Test of {@link ColorArrays#transformParallel(int[],
+	 * ColorArrays.RangeTransform)}.
+	 */
+	@Test
+	public void testTransformParallel() {
+		int[] rgb = new int[ColorArrays.PARALLEL_CHUNK_SIZE * 3 + 17];
+
+		for (int i = 0; i < rgb.length; i++) {
+			rgb[i] = i & 0xFFFFFF;
+		}
+
+		ColorArrays.transformParallel(rgb, ColorArrays::grayscale);
+
+		for (int i = 0; i < rgb.length; i++) {
+			assertEquals(Color.grayscaleRgb(i & 0xFFFFFF), rgb[i]);
+		}
+	}
+}
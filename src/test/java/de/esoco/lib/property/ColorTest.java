@@ -0,0 +1,88 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of {@link Color}.
+ *
+ * @author eso
+ */
+public class ColorTest {
+
+	/**
+	 * Test of {@link Color#parseCssRgb(CharSequence)}.
+	 */
+	@Test
+	public void testParseCssRgb() {
+		assertEquals(0x12AB9F, Color.parseCssRgb("#12ab9F"));
+		assertEquals(0x12AB9F, Color.parseCssRgb("12AB9F"));
+		assertEquals(0xFF8800, Color.parseCssRgb("#F80"));
+		assertEquals(0x000000, Color.parseCssRgb("000"));
+
+		for (String invalid : new String[] { "", "#", "#F", "#FFFF", "#FFFFF",
+			"#FFFFFFF", "#80FFFFFF", "#GGGGGG", "##FFFFF" }) {
+			assertThrows(NumberFormatException.class,
+				() -> Color.parseCssRgb(invalid));
+		}
+	}
+
+	/**
+	 * Test of {@link Color#parseRgb(CharSequence)} which must be compatible
+	 * with parsing the digits with {@link Integer#parseInt(String, int)}.
+	 */
+	@Test
+	public void testParseRgb() {
+		assertEquals(0x12AB9F, Color.parseRgb("#12ab9F"));
+		assertEquals(0x12AB9F, Color.parseRgb("12AB9F"));
+		assertEquals(0x000F80, Color.parseRgb("#F80"));
+		assertEquals(0x0000FF, Color.parseRgb("#FF"));
+		assertEquals(0x000000, Color.parseRgb("0"));
+		assertEquals(0x0ABCDE, Color.parseRgb("#0000000ABCDE"));
+		assertEquals(0xBCDEF0, Color.parseRgb("ABCDEF0"));
+		assertEquals(0xFFFFFF, Color.parseRgb("7FFFFFFF"));
+		assertEquals(0xFFFFF1, Color.parseRgb("-F"));
+		assertEquals(0x000000, Color.parseRgb("#-80000000"));
+
+		for (String invalid : new String[] { "", "#", "#-", "+", "#80000000",
+			"-80000001", "#GGGGGG", "##FFFFF", "#FF FF" }) {
+			assertThrows(NumberFormatException.class,
+				() -> Color.parseRgb(invalid));
+		}
+	}
+
+	/**
+	 * Test of {@link Color#valueOf(String)} and {@link Color#toHtml()}.
+	 */
+	@Test
+	public void testValueOf() {
+		Color color = Color.valueOf("#0A0B0C");
+
+		assertEquals("#0a0b0c", color.toHtml());
+		assertEquals(0x0A0B0C, color.toRGB());
+		assertEquals(10, Color.red(color.toRGB()));
+		assertEquals(11, Color.green(color.toRGB()));
+		assertEquals(12, Color.blue(color.toRGB()));
+		assertEquals(color, Color.valueOf(10, 11, 12));
+		assertEquals(0x000F80, Color.valueOf("#F80").toRGB());
+		assertEquals(0x0000FF, Color.valueOf("FF").toRGB());
+	}
+}
@@ -0,0 +1,210 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link ConcurrentStringProperties}.
+ *
+ * @author eso
+ */
+public class ConcurrentStringPropertiesTest {
+
+	/**
+	 * Test of concurrent modifications from multiple threads.
+	 *
+	 * @throws InterruptedException If waiting for a thread fails
+	 */
+	@Test
+	public void testConcurrentModification() throws InterruptedException {
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+		List<PropertyName<Integer>> names =
+			Arrays.asList(WIDTH, HEIGHT, LayoutProperties.ROWS,
+				LayoutProperties.COLUMNS);
+		List<Thread> threads = new ArrayList<>();
+
+		for (PropertyName<Integer> name : names) {
+			Thread thread = new Thread(() -> {
+				for (int i = 1; i <= 1000; i++) {
+					properties.setProperty(name, i);
+				}
+			});
+
+			threads.add(thread);
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(names.size(), properties.getPropertyCount());
+
+		for (PropertyName<Integer> name : names) {
+			assertEquals(1000, properties.getIntProperty(name, 0));
+		}
+	}
+
+	/**
+	 * Test of setting, querying, and removing properties.
+	 */
+	@Test
+	public void testSetAndRemove() {
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+
+		properties.setProperty(STYLE, "test");
+		properties.setProperty(WIDTH, 42);
+		properties.setFlag(DISABLED);
+
+		assertEquals("test", properties.getProperty(STYLE, null));
+		assertEquals(42, properties.getIntProperty(WIDTH, 0));
+		assertTrue(properties.hasFlag(DISABLED));
+		assertEquals(3, properties.getPropertyCount());
+
+		properties.removeProperty(WIDTH);
+		properties.clearFlag(DISABLED);
+
+		assertFalse(properties.hasProperty(WIDTH));
+		assertFalse(properties.hasFlag(DISABLED));
+		assertEquals(1, properties.getPropertyCount());
+	}
+
+	/**
+	 * Test of {@link ConcurrentStringProperties#setProperties(HasProperties,
+	 * boolean)}.
+	 */
+	@Test
+	public void testSetProperties() {
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+		StringProperties source = new StringProperties();
+
+		properties.setProperty(WIDTH, 1);
+		source.setProperty(WIDTH, 2);
+		source.setProperty(STYLE, "source");
+		source.setFlag(DISABLED);
+
+		properties.setProperties(source, false);
+		assertEquals(1, properties.getIntProperty(WIDTH, 0));
+		assertEquals("source", properties.getProperty(STYLE, null));
+		assertTrue(properties.hasFlag(DISABLED));
+
+		properties.setProperties(source, true);
+		assertEquals(2, properties.getIntProperty(WIDTH, 0));
+
+		// the merge must not be affected by later changes of the source
+		source.setProperty(STYLE, "changed");
+		assertEquals("source", properties.getProperty(STYLE, null));
+		assertEquals("changed", source.getProperty(STYLE, null));
+	}
+
+	/**
+	 * Test of merging multiple sources that contain the same names.
+	 */
+	@Test
+	public void testSetPropertiesFromMultipleSources() {
+		StringProperties first = new StringProperties();
+		StringProperties second = new StringProperties();
+
+		first.setProperty(STYLE, "first");
+		first.setProperty(WIDTH, 1);
+		second.setProperty(STYLE, "second");
+		second.setProperty(HEIGHT, 2);
+
+		List<HasProperties> sources = Arrays.asList(first, second);
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+		StringProperties reference = new StringProperties();
+
+		properties.setProperty(WIDTH, 5);
+		reference.setProperty(WIDTH, 5);
+		properties.setProperties(sources, false);
+		reference.setProperties(sources, false);
+
+		assertEquals("first", properties.getProperty(STYLE, null));
+		assertEquals(5, properties.getIntProperty(WIDTH, 0));
+		assertEquals(2, properties.getIntProperty(HEIGHT, 0));
+		assertEquals(reference.snapshot(), properties.snapshot());
+
+		properties.setProperties(sources, true);
+		reference.setProperties(sources, true);
+
+		assertEquals("second", properties.getProperty(STYLE, null));
+		assertEquals(1, properties.getIntProperty(WIDTH, 0));
+		assertEquals(reference.snapshot(), properties.snapshot());
+	}
+
+	/**
+	 * Test of merging another concurrent instance and immutable properties.
+	 */
+	@Test
+	public void testSetPropertiesFromSnapshotSources() {
+		ConcurrentStringProperties source = new ConcurrentStringProperties();
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+
+		source.setProperty(STYLE, "source");
+		source.setFlag(DISABLED);
+
+		properties.setProperties(source, true);
+		assertEquals(source.snapshot(), properties.snapshot());
+
+		properties.clearProperties();
+		properties.setProperties(source.snapshot(), true);
+		assertEquals(source.snapshot(), properties.snapshot());
+	}
+
+	/**
+	 * Test of {@link ConcurrentStringProperties#snapshot()}.
+	 */
+	@Test
+	public void testSnapshot() {
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+
+		properties.setProperty(STYLE, "before");
+
+		ImmutableProperties snapshot = properties.snapshot();
+
+		assertSame(snapshot, properties.snapshot());
+
+		properties.setProperty(STYLE, "after");
+		assertEquals("before", snapshot.getProperty(STYLE, null));
+		assertEquals("after", properties.getProperty(STYLE, null));
+
+		properties.clearProperties();
+		assertNull(properties.getProperty(STYLE, null));
+		assertEquals(0, properties.getPropertyCount());
+	}
+}
@@ -0,0 +1,144 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.StyleProperties.CSS_STYLES;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link CssClassCompiler}.
+ *
+ * @author eso
+ */
+public class CssClassCompilerTest {
+
+	/**
+	 * Test of {@link CssClassCompiler#compile(MutableProperties)}.
+	 */
+	@Test
+	public void testCompile() {
+		CssClassCompiler compiler = new CssClassCompiler();
+		StringProperties first = new StringProperties();
+		StringProperties second = new StringProperties();
+		StringProperties plain = new StringProperties();
+
+		first.setProperty(CSS_STYLES, styles("color", "red", "fontWeight",
+			"bold"));
+		first.setProperty(STYLE, "cell");
+		second.setProperty(CSS_STYLES, styles("fontWeight", "bold", "color",
+			"red"));
+
+		String className = compiler.compile(first);
+
+		assertEquals(className, compiler.compile(second));
+		assertNull(compiler.compile(plain));
+		assertEquals(1, compiler.getClassCount());
+		assertFalse(first.hasProperty(CSS_STYLES));
+		assertEquals("cell " + className, first.getProperty(STYLE, null));
+		assertEquals(className, second.getProperty(STYLE, null));
+
+		String styleSheet = compiler.getStyleSheet();
+
+		assertEquals(styleSheet, compiler.getPendingStyleSheet());
+		assertEquals("", compiler.getPendingStyleSheet());
+		assertTrue(styleSheet.contains("font-weight:bold;"));
+	}
+
+	/**
+	 * Test of the rejection of invalid style names.
+	 */
+	@Test
+	public void testInvalidStyleNames() {
+		CssClassCompiler compiler = new CssClassCompiler();
+
+		for (String name : new String[] { "", "color;x", "a b", "a:b",
+			"a/*", "a\\b", "a\nb" }) {
+			assertThrows(IllegalArgumentException.class,
+				() -> compiler.getClassName(styles(name, "red")));
+		}
+
+		assertEquals(0, compiler.getClassCount());
+		assertEquals("", compiler.getStyleSheet());
+	}
+
+	/**
+	 * Test of the rejection of style values that could escape from a rule.
+	 */
+	@Test
+	public void testInvalidStyleValues() {
+		CssClassCompiler compiler = new CssClassCompiler();
+
+		for (String value : new String[] { "red;background:blue", "red}",
+			"red{", "red/* comment", "\\72 ed", "\"red", "'red", "red\n",
+			"red\r", "</style>" }) {
+			assertThrows(IllegalArgumentException.class,
+				() -> compiler.getClassName(styles("color", value)));
+		}
+
+		assertEquals(0, compiler.getClassCount());
+		assertEquals("", compiler.getStyleSheet());
+	}
+
+	/**
+	 * Test of {@link CssClassCompiler#toCssName(String)}.
+	 */
+	@Test
+	public void testToCssName() {
+		assertEquals("font-weight", CssClassCompiler.toCssName("fontWeight"));
+		assertEquals("font-weight", CssClassCompiler.toCssName("font-weight"));
+		assertEquals("color", CssClassCompiler.toCssName("color"));
+	}
+
+	/**
+	 * Test of valid style values.
+	 */
+	@Test
+	public void testValidStyleValues() {
+		CssClassCompiler compiler = new CssClassCompiler();
+
+		compiler.getClassName(styles("width", "calc(100% - 2em)", "color",
+			"rgb(10, 20, 30)", "backgroundImage", "url(img/a.png)"));
+
+		assertEquals(1, compiler.getClassCount());
+	}
+
+	/**
+	 * Creates a map of CSS styles from name-value pairs.
+	 *
+	 * @param nameValuePairs The style names and values
+	 * @return The styles map
+	 */
+	private Map<String, String> styles(String... nameValuePairs) {
+		Map<String, String> styles = new HashMap<>();
+
+		for (int i = 0; i < nameValuePairs.length; i += 2) {
+			styles.put(nameValuePairs[i], nameValuePairs[i + 1]);
+		}
+
+		return styles;
+	}
+}
@@ -0,0 +1,236 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test of {@link ImmutableProperties}.
+ *
+ * @author eso
+ */
+public class ImmutablePropertiesTest {
+
+	private static final PropertyName<Point> TEST_POINT =
+		PropertyName.newName("IMMUTABLE_TEST_POINT", Point.class);
+
+	private static final int NAME_COUNT = 200;
+
+	private static final List<PropertyName<Integer>> NAMES =
+		new ArrayList<>();
+
+	static {
+		PropertyCodecs.register(Point.class, Point::parse, false);
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			NAMES.add(PropertyName.newIntegerName("IMMUTABLE_TEST_" + i));
+		}
+	}
+
+	/**
+	 * Test of snapshots with a custom datatype that has a codec.
+	 */
+	@Test
+	public void testCustomDatatype() {
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(TEST_POINT, new Point(1, 2));
+
+		ImmutableProperties snapshot = properties.snapshot();
+
+		assertEquals(new Point(1, 2), properties.getProperty(TEST_POINT, null));
+		assertEquals(new Point(1, 2), snapshot.getProperty(TEST_POINT, null));
+
+		ImmutableProperties derived = snapshot
+			.with(TEST_POINT, new Point(3, 4))
+			.with(StyleProperties.STYLE, "x");
+
+		assertEquals(new Point(3, 4), derived.getProperty(TEST_POINT, null));
+		assertEquals(new Point(3, 4),
+			derived.without(StyleProperties.STYLE)
+				.getProperty(TEST_POINT, null));
+		ImmutableProperties empty = derived
+			.without(TEST_POINT)
+			.without(StyleProperties.STYLE);
+
+		assertEquals(ImmutableProperties.EMPTY, empty);
+		assertEquals(new Point(5, 6),
+			empty.with(TEST_POINT, new Point(5, 6))
+				.getProperty(TEST_POINT, null));
+		assertEquals(new Point(7, 8),
+			new StringProperties()
+				.snapshot()
+				.with(TEST_POINT, new Point(7, 8))
+				.getProperty(TEST_POINT, null));
+	}
+
+	/**
+	 * Test that multiple versions derived from the same snapshot are
+	 * independent of each other and of the originating object.
+	 */
+	@Test
+	public void testDerivedVersions() {
+		ObservableProperties properties = new ObservableProperties();
+
+		for (int i = 0; i < 10; i++) {
+			properties.setProperty(NAMES.get(i), i);
+		}
+
+		ImmutableProperties snapshot = properties.snapshot();
+		ImmutableProperties first = snapshot.with(NAMES.get(0), -1);
+		ImmutableProperties second = snapshot.without(NAMES.get(1));
+
+		properties.setProperty(NAMES.get(2), -2);
+
+		assertEquals(-1, first.getIntProperty(NAMES.get(0), 0));
+		assertEquals(1, first.getIntProperty(NAMES.get(1), 0));
+		assertEquals(0, second.getIntProperty(NAMES.get(0), -1));
+		assertFalse(second.hasProperty(NAMES.get(1)));
+		assertEquals(2, snapshot.getIntProperty(NAMES.get(2), 0));
+		assertEquals(10, first.getPropertyCount());
+		assertEquals(9, second.getPropertyCount());
+		assertEquals(snapshot, second.with(NAMES.get(1), 1));
+		assertEquals(snapshot,
+			first.with(NAMES.get(0), 0).with(NAMES.get(0), 0));
+
+		properties.setProperty(NAMES.get(2), 2);
+
+		ImmutableProperties plain = new StringProperties(properties)
+			.snapshot();
+
+		assertEquals(plain, properties.snapshot());
+		assertEquals(plain.hashCode(), properties.snapshot().hashCode());
+	}
+
+	/**
+	 * Test of a trie with enough properties to create collisions of the name
+	 * ID slots on multiple trie levels, and the removal of all properties.
+	 */
+	@Test
+	public void testManyProperties() {
+		ImmutableProperties properties = ImmutableProperties.EMPTY;
+		StringProperties expected = new StringProperties();
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			properties = properties.with(NAMES.get(i), i);
+			expected.setProperty(NAMES.get(i), i);
+			assertEquals(i + 1, properties.getPropertyCount());
+		}
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			assertEquals(i, properties.getIntProperty(NAMES.get(i), -1));
+		}
+
+		assertSame(properties, properties.with(NAMES.get(0), 0));
+		assertEquals(expected.snapshot(), properties);
+		assertEquals(expected.snapshot().hashCode(), properties.hashCode());
+		assertEquals(NAME_COUNT, properties.getPropertyNames().size());
+
+		List<PropertyName<Integer>> order = new ArrayList<>(NAMES);
+
+		Collections.shuffle(order, new Random(42));
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			PropertyName<Integer> name = order.get(i);
+
+			assertEquals(NAMES.indexOf(name),
+				properties.getIntProperty(name, -1));
+
+			properties = properties.without(name);
+			expected.removeProperty(name);
+
+			assertEquals(NAME_COUNT - i - 1, properties.getPropertyCount());
+			assertFalse(properties.hasProperty(name));
+			assertNull(properties.getProperty(name, null));
+			assertSame(properties, properties.without(name));
+			assertEquals(expected.snapshot(), properties);
+		}
+
+		assertSame(ImmutableProperties.EMPTY, properties);
+	}
+
+	/**
+	 * A simple custom datatype.
+	 *
+	 * @author eso
+	 */
+	static class Point {
+
+		private final int x;
+
+		private final int y;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param x The x coordinate
+		 * @param y The y coordinate
+		 */
+		Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		/**
+		 * Parses a point from it's string representation.
+		 *
+		 * @param text The string representation
+		 * @return The new point
+		 */
+		static Point parse(String text) {
+			String[] coordinates = text.split(";");
+
+			return new Point(Integer.parseInt(coordinates[0]),
+				Integer.parseInt(coordinates[1]));
+		}
+
+		/**
+		 * @see Object#equals(Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Point && ((Point) obj).x == x &&
+				((Point) obj).y == y;
+		}
+
+		/**
+		 * @see Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return x * 31 + y;
+		}
+
+		/**
+		 * @see Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return x + ";" + y;
+		}
+	}
+}
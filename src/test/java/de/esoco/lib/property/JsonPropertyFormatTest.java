@@ -0,0 +1,224 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.ContentProperties.FORMAT_ARGUMENTS;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StandardProperties.DATE;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StateProperties.INTERACTION_EVENT_TYPES;
+import static de.esoco.lib.property.StorageProperties.QUERY_SORT;
+import static de.esoco.lib.property.StyleProperties.BACKGROUND_COLOR;
+import static de.esoco.lib.property.StyleProperties.ORIENTATION;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test of {@link JsonPropertyFormat}.
+ *
+ * @author eso
+ */
+public class JsonPropertyFormatTest {
+
+	private static final PropertyName<Long> TEST_LONG =
+		PropertyName.newLongName("JSON_FORMAT_TEST_LONG");
+
+	private static final PropertyName<Double> TEST_DOUBLE =
+		PropertyName.newDoubleName("JSON_FORMAT_TEST_DOUBLE");
+
+	/**
+	 * Test of the string format of collections and maps.
+	 */
+	@Test
+	public void testCollections() {
+		StringProperties properties = new StringProperties();
+		Map<String, SortDirection> sort = new HashMap<>();
+
+		sort.put("name", SortDirection.ASCENDING);
+		properties.setProperty(FORMAT_ARGUMENTS, Arrays.asList("", "b,c"));
+		properties.setProperty(QUERY_SORT, sort);
+
+		String json = JsonPropertyFormat.toJson(properties);
+
+		assertEquals("{\"FORMAT_ARGUMENTS\":\",b\\\\u002Cc\"," +
+			"\"QUERY_SORT\":\"name=ASCENDING\"}", json);
+		assertEquals(properties, JsonPropertyFormat.parse(json));
+	}
+
+	/**
+	 * Test of writing and reading empty properties.
+	 */
+	@Test
+	public void testEmpty() {
+		assertEquals("{}", JsonPropertyFormat.toJson(new StringProperties()));
+		assertEquals(new StringProperties(), JsonPropertyFormat.parse("{}"));
+		assertEquals(new StringProperties(),
+			JsonPropertyFormat.parse(" { } "));
+	}
+
+	/**
+	 * Test of parsing invalid JSON.
+	 */
+	@Test
+	public void testInvalidInput() {
+		for (String json : new String[] { "", "{", "[]", "{\"STYLE\"}",
+			"{\"STYLE\":\"x\",}", "{\"STYLE\":\"x\"} x",
+			"{\"JSON_FORMAT_TEST_UNDEFINED\":\"1\"}", "{\"WIDTH\":}",
+			"{\"WIDTH\":1}", "{\"WIDTH\":[\"1\"]}", "{\"DISABLED\":true}" }) {
+			assertThrows(IllegalArgumentException.class,
+				() -> JsonPropertyFormat.parse(json));
+		}
+
+		// like in the property map invalid values are detected on access
+		StringProperties properties = JsonPropertyFormat.parse(
+			"{\"WIDTH\":\"2147483648\",\"JSON_FORMAT_TEST_LONG\":" +
+				"\"-9223372036854775809\",\"JSON_FORMAT_TEST_DOUBLE\":\"0.1x\"}");
+
+		assertThrows(NumberFormatException.class,
+			() -> properties.getIntProperty(WIDTH, 0));
+		assertThrows(NumberFormatException.class,
+			() -> properties.getLongProperty(TEST_LONG, 0));
+		assertThrows(NumberFormatException.class,
+			() -> properties.getDoubleProperty(TEST_DOUBLE, 0));
+	}
+
+	/**
+	 * Test of reading numbers at the limits of their datatypes.
+	 */
+	@Test
+	public void testNumberLimits() {
+		StringProperties properties = JsonPropertyFormat.parse(
+			"{\"WIDTH\": \"-2147483648\" ,\"JSON_FORMAT_TEST_LONG\":" +
+				"\"9223372036854775807\",\"DATE\":\"0\"}");
+
+		assertEquals(Integer.MIN_VALUE, properties.getIntProperty(WIDTH, 0));
+		assertEquals(Long.MAX_VALUE, properties.getLongProperty(TEST_LONG, 0));
+		assertEquals(new Date(0), properties.getProperty(DATE, null));
+	}
+
+	/**
+	 * Test that the JSON format contains the values of the property map.
+	 */
+	@Test
+	public void testPropertyMapFormat() {
+		StringProperties properties = createProperties();
+		StringBuilder expected = new StringBuilder("{");
+
+		for (Map.Entry<PropertyName<?>, String> entry : properties
+			.getPropertyMap()
+			.entrySet()) {
+			if (expected.length() > 1) {
+				expected.append(',');
+			}
+
+			expected
+				.append('"')
+				.append(entry.getKey())
+				.append("\":\"")
+				.append(entry
+					.getValue()
+					.replace("\\", "\\\\")
+					.replace("\"", "\\\"")
+					.replace("\n", "\\u000a")
+					.replace("\t", "\\u0009")
+					.replace("\u0001", "\\u0001"))
+				.append('"');
+		}
+
+		assertEquals(expected.append('}').toString(),
+			JsonPropertyFormat.toJson(properties));
+	}
+
+	/**
+	 * Test of writing and reading all kinds of values.
+	 */
+	@Test
+	public void testRoundTrip() {
+		StringProperties properties = createProperties();
+		String json = JsonPropertyFormat.toJson(properties);
+		StringProperties result = JsonPropertyFormat.parse(json);
+
+		assertEquals(properties, result);
+		assertEquals(properties.getPropertyCount(), result.getPropertyCount());
+		assertEquals(Long.MIN_VALUE, result.getLongProperty(TEST_LONG, 0));
+		assertEquals("\"\\\\\n\t\u0001 Ä €",
+			result.getProperty(STYLE, null));
+		assertEquals(properties.getProperty(QUERY_SORT, null),
+			result.getProperty(QUERY_SORT, null));
+		assertEquals(json, JsonPropertyFormat.toJson(result));
+	}
+
+	/**
+	 * Test of writing properties that are not stored in an
+	 * {@link AbstractStringProperties} instance.
+	 */
+	@Test
+	public void testWriteSnapshot() {
+		StringProperties properties = createProperties();
+		ImmutableProperties snapshot =
+			properties.snapshot().with(WIDTH, 42).without(HIDDEN);
+
+		StringProperties result =
+			JsonPropertyFormat.parse(JsonPropertyFormat.toJson(snapshot));
+
+		properties.setProperty(WIDTH, 42);
+		properties.removeProperty(HIDDEN);
+		assertEquals(properties, result);
+		assertEquals(snapshot, result.snapshot());
+	}
+
+	/**
+	 * Creates properties that contain all kinds of values.
+	 *
+	 * @return The properties
+	 */
+	private StringProperties createProperties() {
+		StringProperties properties = new StringProperties();
+		Map<String, SortDirection> sort = new HashMap<>();
+
+		sort.put("name", SortDirection.ASCENDING);
+		sort.put("da\"te", SortDirection.DESCENDING);
+
+		properties.setProperty(STYLE, "\"\\\\\n\t\u0001 Ä €");
+		properties.setProperty(WIDTH, -12345);
+		properties.setProperty(TEST_LONG, Long.MIN_VALUE);
+		properties.setProperty(TEST_DOUBLE, 0.1);
+		properties.setProperty(DATE, new Date(1234567890123L));
+		properties.setProperty(BACKGROUND_COLOR, Color.valueOf(0x123456));
+		properties.setProperty(ORIENTATION, Orientation.VERTICAL);
+		properties.setProperty(FORMAT_ARGUMENTS,
+			Arrays.asList("a", "b,c", "[d]"));
+		properties.setProperty(INTERACTION_EVENT_TYPES,
+			EnumSet.of(InteractionEventType.ACTION,
+				InteractionEventType.UPDATE));
+		properties.setProperty(QUERY_SORT, sort);
+		properties.setFlag(DISABLED);
+		properties.setProperty(HIDDEN, false);
+
+		return properties;
+	}
+}
@@ -0,0 +1,229 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link LayeredProperties}.
+ *
+ * @author eso
+ */
+public class LayeredPropertiesTest {
+
+	private static final ImmutableProperties PARENT = ImmutableProperties.EMPTY
+		.with(WIDTH, 100)
+		.with(HEIGHT, 50)
+		.with(STYLE, "parent");
+
+	/**
+	 * Test of {@link LayeredProperties#clearProperties()} and
+	 * {@link LayeredProperties#reset()}.
+	 */
+	@Test
+	public void testClearAndReset() {
+		LayeredProperties properties = new LayeredProperties(PARENT);
+
+		properties.setProperty(WIDTH, 1);
+		properties.setFlag(DISABLED);
+		properties.clearProperties();
+
+		assertEquals(0, properties.getPropertyCount());
+		assertTrue(properties.getPropertyNames().isEmpty());
+		assertFalse(properties.hasProperty(WIDTH));
+		assertFalse(properties.hasFlag(DISABLED));
+		assertEquals(3, properties.getOverrideCount());
+
+		properties.setProperty(HEIGHT, 50);
+		assertEquals(1, properties.getPropertyCount());
+		assertEquals(Arrays.asList(HEIGHT), names(properties));
+
+		properties.reset();
+		assertEquals(0, properties.getOverrideCount());
+		assertEquals(PARENT, properties.flatten());
+		assertEquals(3, properties.getPropertyCount());
+	}
+
+	/**
+	 * Test that instances with the same properties are equal, independent of
+	 * the distribution between the layers.
+	 */
+	@Test
+	public void testEquals() {
+		LayeredProperties first = new LayeredProperties(PARENT);
+		LayeredProperties second =
+			new LayeredProperties(new StringProperties(PARENT));
+
+		first.setProperty(WIDTH, 1);
+		second.removeProperty(STYLE);
+		second.setProperty(STYLE, "parent");
+		second.setProperty(WIDTH, 1);
+
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertEquals(PARENT.with(WIDTH, 1), first.flatten());
+
+		second.setFlag(HIDDEN);
+		assertFalse(first.equals(second));
+	}
+
+	/**
+	 * Test of overriding properties of the parent and the resulting count and
+	 * names of the properties.
+	 */
+	@Test
+	public void testOverrides() {
+		LayeredProperties properties = new LayeredProperties(PARENT);
+
+		assertEquals(3, properties.getPropertyCount());
+		assertEquals(names(PARENT), names(properties));
+
+		properties.setProperty(WIDTH, 200);
+		properties.setFlag(DISABLED);
+
+		assertEquals(200, properties.getIntProperty(WIDTH, 0));
+		assertEquals(100, PARENT.getIntProperty(WIDTH, 0));
+		assertTrue(properties.hasFlag(DISABLED));
+		assertTrue(properties.isOverridden(WIDTH));
+		assertFalse(properties.isOverridden(HEIGHT));
+		assertEquals(2, properties.getOverrideCount());
+		assertEquals(4, properties.getPropertyCount());
+
+		ArrayList<PropertyName<?>> expected = names(PARENT);
+
+		expected.add(DISABLED);
+		assertEquals(expected, names(properties));
+
+		// setting the parent's value discards the override
+		properties.setProperty(WIDTH, 100);
+		assertFalse(properties.isOverridden(WIDTH));
+		assertEquals(1, properties.getOverrideCount());
+		assertEquals(4, properties.getPropertyCount());
+
+		properties.clearFlag(DISABLED);
+		assertEquals(0, properties.getOverrideCount());
+		assertEquals(3, properties.getPropertyCount());
+		assertEquals(PARENT, properties.flatten());
+	}
+
+	/**
+	 * Test of the invalidation of the flattened read cache on local
+	 * modifications.
+	 */
+	@Test
+	public void testReadCache() {
+		LayeredProperties middle = new LayeredProperties(PARENT);
+
+		middle.setProperty(HEIGHT, 60);
+
+		LayeredProperties properties = new LayeredProperties(middle);
+
+		properties.setReadCache(true);
+		assertTrue(properties.isReadCacheEnabled());
+
+		ImmutableProperties cache = properties.flatten();
+
+		assertSame(cache, properties.flatten());
+		assertEquals(60, properties.getIntProperty(HEIGHT, 0));
+
+		properties.setProperty(WIDTH, 1);
+		assertEquals(1, properties.getIntProperty(WIDTH, 0));
+		assertFalse(cache == properties.flatten());
+
+		properties.removeProperty(HEIGHT);
+		assertFalse(properties.hasProperty(HEIGHT));
+		assertEquals(0, properties.getIntProperty(HEIGHT, 0));
+
+		properties.setFlag(DISABLED);
+		assertTrue(properties.hasFlag(DISABLED));
+
+		properties.clearProperties();
+		assertNull(properties.getProperty(STYLE, null));
+
+		properties.reset();
+		assertEquals(60, properties.getIntProperty(HEIGHT, 0));
+		assertEquals("parent", properties.getProperty(STYLE, null));
+
+		cache = properties.flatten();
+		properties.setReadCache(false);
+		assertFalse(cache == properties.flatten());
+		assertEquals(cache, properties.flatten());
+	}
+
+	/**
+	 * Test that removing properties of the parent hides them through
+	 * removal markers.
+	 */
+	@Test
+	public void testRemoveMarkers() {
+		LayeredProperties properties = new LayeredProperties(PARENT);
+
+		properties.removeProperty(WIDTH);
+
+		assertFalse(properties.hasProperty(WIDTH));
+		assertNull(properties.getProperty(WIDTH, null));
+		assertEquals(-1, properties.getIntProperty(WIDTH, -1));
+		assertTrue(properties.isOverridden(WIDTH));
+		assertTrue(PARENT.hasProperty(WIDTH));
+		assertEquals(2, properties.getPropertyCount());
+		assertEquals(names(PARENT.without(WIDTH)), names(properties));
+		assertEquals(PARENT.without(WIDTH), properties.flatten());
+
+		// removing properties that the parent doesn't have needs no marker
+		properties.removeProperty(DISABLED);
+		assertEquals(1, properties.getOverrideCount());
+
+		properties.setProperty(WIDTH, 100);
+		assertFalse(properties.isOverridden(WIDTH));
+		assertEquals(0, properties.getOverrideCount());
+		assertEquals(100, properties.getIntProperty(WIDTH, 0));
+
+		properties.removeProperty(STYLE);
+		properties.setProperty(STYLE, "local");
+		assertEquals("local", properties.getProperty(STYLE, null));
+		assertEquals(3, properties.getPropertyCount());
+		assertEquals(names(PARENT), names(properties));
+
+		properties.setProperty(STYLE, null);
+		assertFalse(properties.hasProperty(STYLE));
+		assertEquals(2, properties.getPropertyCount());
+	}
+
+	/**
+	 * Returns the property names of a properties object as a list.
+	 *
+	 * @param properties The properties
+	 * @return The property names
+	 */
+	private ArrayList<PropertyName<?>> names(HasProperties properties) {
+		return new ArrayList<>(properties.getPropertyNames());
+	}
+}
@@ -0,0 +1,285 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link ObservableProperties}.
+ *
+ * @author eso
+ */
+public class ObservablePropertiesTest {
+
+	private final ObservableProperties properties = new ObservableProperties();
+
+	private final List<PropertyChangeEvent> events = new ArrayList<>();
+
+	/**
+	 * Creates a new instance and registers a listener that records the change
+	 * events of the test properties.
+	 */
+	public ObservablePropertiesTest() {
+		properties.addChangeListener(events::add);
+	}
+
+	/**
+	 * Test that the bulk methods deliver a single event with all changed
+	 * properties.
+	 */
+	@Test
+	public void testBulkChanges() {
+		StringProperties other = new StringProperties();
+
+		properties.setProperty(WIDTH, 1);
+		events.clear();
+
+		other.setProperty(WIDTH, 1);
+		other.setProperty(HEIGHT, 2);
+		other.setProperty(STYLE, "test");
+		properties.setProperties(other, true);
+
+		// WIDTH is unchanged and therefore not reported
+		assertEvents(Arrays.asList(HEIGHT, STYLE));
+
+		other.setProperty(WIDTH, 3);
+		other.setProperty(HEIGHT, 4);
+		properties.setProperties(other, false);
+		assertEvents();
+
+		StringProperties second = new StringProperties();
+
+		second.setFlag(DISABLED);
+		properties.setProperties(Arrays.asList(other, second), true);
+		assertEvents(Arrays.asList(WIDTH, HEIGHT, DISABLED));
+
+		properties.clearProperties();
+		assertEvents(Arrays.asList(WIDTH, HEIGHT, STYLE, DISABLED));
+		assertEquals(0, properties.getPropertyCount());
+
+		properties.clearProperties();
+		assertEvents();
+	}
+
+	/**
+	 * Test of {@link ObservableProperties#flushChanges()}.
+	 */
+	@Test
+	public void testFlushChanges() {
+		properties.beginChanges();
+		properties.setProperty(WIDTH, 1);
+		properties.flushChanges();
+		assertEvents(Arrays.asList(WIDTH));
+
+		properties.flushChanges();
+		properties.setProperty(HEIGHT, 2);
+		properties.endChanges();
+		assertEvents(Arrays.asList(HEIGHT));
+
+		properties.flushChanges();
+		assertEvents();
+	}
+
+	/**
+	 * Test that single modifications are reported immediately outside of a
+	 * transaction and only if they change a property.
+	 */
+	@Test
+	public void testImmediateEvents() {
+		properties.setProperty(WIDTH, 1);
+		assertEvents(Arrays.asList(WIDTH));
+
+		properties.setProperty(WIDTH, Integer.valueOf(1));
+		properties.removeProperty(HEIGHT);
+		properties.clearFlag(DISABLED);
+		assertEvents();
+
+		properties.setFlag(DISABLED);
+		properties.setFlag(DISABLED);
+		properties.setProperty(WIDTH, 2);
+		properties.removeProperty(WIDTH);
+		properties.clearFlag(DISABLED);
+		assertEvents(Arrays.asList(DISABLED), Arrays.asList(WIDTH),
+			Arrays.asList(WIDTH), Arrays.asList(DISABLED));
+	}
+
+	/**
+	 * Test of a merge with a source that is modified concurrently between
+	 * the query of it's size and of it's names.
+	 */
+	@Test
+	public void testMergeConcurrentSource() {
+		ConcurrentStringProperties source = new ConcurrentStringProperties() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int getPropertyCount() {
+				int count = super.getPropertyCount();
+
+				setProperty(STYLE, "added");
+
+				return count;
+			}
+		};
+
+		source.setProperty(WIDTH, 1);
+		properties.setProperties(source, true);
+
+		// the iteration order of the concurrent source is undefined
+		assertEquals(1, events.size());
+		assertEquals(new HashSet<>(Arrays.asList(WIDTH, STYLE)),
+			events.get(0).getChangedProperties());
+		assertEquals("added", properties.getProperty(STYLE, null));
+	}
+
+	/**
+	 * Test that reading the binary format reports the changed properties
+	 * in a single event.
+	 *
+	 * @throws Exception If reading or writing fails
+	 */
+	@Test
+	public void testReadExternal() throws Exception {
+		StringProperties other = new StringProperties();
+
+		properties.setProperty(WIDTH, 1);
+		properties.setProperty(HEIGHT, 2);
+		events.clear();
+		other.setProperty(WIDTH, 1);
+		other.setProperty(STYLE, "test");
+		other.setFlag(DISABLED);
+
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			other.writeExternal(out);
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(data.toByteArray()))) {
+			properties.readExternal(in);
+		}
+
+		assertEquals(other, new StringProperties(properties));
+		assertEvents(Arrays.asList(HEIGHT, STYLE, DISABLED));
+
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(new byte[] { -84, -19, 0, 5 }))) {
+			assertThrows(IOException.class, () -> properties.readExternal(in));
+		}
+
+		assertEvents();
+	}
+
+	/**
+	 * Test of the removal of listeners.
+	 */
+	@Test
+	public void testRemoveChangeListener() {
+		List<PropertyChangeEvent> other = new ArrayList<>();
+		PropertyChangeListener listener = other::add;
+
+		properties.addChangeListener(listener);
+		properties.setProperty(WIDTH, 1);
+		properties.removeChangeListener(listener);
+		properties.setProperty(WIDTH, 2);
+
+		assertEquals(1, other.size());
+		assertSame(properties, other.get(0).getSource());
+		assertEvents(Arrays.asList(WIDTH), Arrays.asList(WIDTH));
+	}
+
+	/**
+	 * Test that changes in nested transactions are coalesced into a single
+	 * event at the end of the outermost transaction.
+	 */
+	@Test
+	public void testTransactions() {
+		assertFalse(properties.isInTransaction());
+		properties.beginChanges();
+		properties.setProperty(WIDTH, 1);
+		properties.setProperty(HEIGHT, 2);
+		properties.beginChanges();
+		properties.setProperty(WIDTH, 3);
+		properties.setFlag(DISABLED);
+		properties.endChanges();
+
+		assertTrue(properties.isInTransaction());
+		assertEvents();
+
+		properties.removeProperty(HEIGHT);
+		properties.endChanges();
+
+		assertFalse(properties.isInTransaction());
+		assertEvents(Arrays.asList(WIDTH, HEIGHT, DISABLED));
+
+		// changes that are reverted are still reported
+		properties.beginChanges();
+		properties.setProperty(WIDTH, 4);
+		properties.setProperty(WIDTH, 3);
+		properties.endChanges();
+		assertEvents(Arrays.asList(WIDTH));
+
+		assertThrows(IllegalStateException.class,
+			() -> properties.endChanges());
+	}
+
+	/**
+	 * Asserts that the recorded events contain exactly the given property
+	 * names in the given order and clears the events.
+	 *
+	 * @param expectedNames The names of the changed properties for each
+	 *                      expected event
+	 */
+	@SafeVarargs
+	private final void assertEvents(List<PropertyName<?>>... expectedNames) {
+		assertEquals(expectedNames.length, events.size());
+
+		for (int i = 0; i < expectedNames.length; i++) {
+			PropertyChangeEvent event = events.get(i);
+
+			assertEquals(expectedNames[i],
+				new ArrayList<>(event.getChangedProperties()));
+
+			for (PropertyName<?> name : expectedNames[i]) {
+				assertTrue(event.isChanged(name));
+			}
+		}
+
+		events.clear();
+	}
+}
@@ -0,0 +1,172 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyCascade}.
+ *
+ * @author eso
+ */
+public class PropertyCascadeTest {
+
+	/**
+	 * Test of {@link PropertyCascade#invalidate(Hierarchical)}.
+	 */
+	@Test
+	public void testInvalidate() {
+		PropertyCascade<Node> cascade = new PropertyCascade<>(STYLE);
+		Node root = new Node(null);
+		Node child = new Node(root);
+		Node leaf = new Node(child);
+
+		root.setProperty(STYLE, "root");
+		cascade.resolveAll(root);
+		assertEquals("root", cascade.getProperty(leaf, STYLE, null));
+		assertEquals(1, leaf.listenerCount);
+
+		root.removeChild(child);
+		cascade.invalidate(child);
+		assertTrue(cascade.isResolved(root));
+		assertFalse(cascade.isResolved(child));
+		assertFalse(cascade.isResolved(leaf));
+		assertEquals(1, root.listenerCount);
+		assertEquals(0, child.listenerCount);
+		assertEquals(0, leaf.listenerCount);
+
+		leaf.setProperty(WIDTH, 10);
+		assertFalse(cascade.isResolved(leaf));
+
+		cascade.resolve(leaf);
+		assertEquals(1, leaf.listenerCount);
+
+		cascade.clear();
+		assertEquals(0, root.listenerCount);
+		assertEquals(0, leaf.listenerCount);
+	}
+
+	/**
+	 * Test of the automatic invalidation of {@link ObservableProperties}.
+	 */
+	@Test
+	public void testPropertyChange() {
+		PropertyCascade<Node> cascade = new PropertyCascade<>(STYLE);
+		Node root = new Node(null);
+		Node child = new Node(root);
+
+		root.setProperty(STYLE, "first");
+		cascade.resolveAll(root);
+		assertEquals("first", cascade.getProperty(child, STYLE, null));
+
+		root.setProperty(STYLE, "second");
+		assertFalse(cascade.isResolved(child));
+		assertEquals(0, child.listenerCount);
+		assertEquals("second", cascade.getProperty(child, STYLE, null));
+		assertEquals(1, root.listenerCount);
+		assertEquals(1, child.listenerCount);
+
+		child.setProperty(WIDTH, 10);
+		assertTrue(cascade.isResolved(child));
+		assertEquals(10, cascade.resolve(child).getIntProperty(WIDTH, 0));
+		assertEquals(1, child.listenerCount);
+	}
+
+	/**
+	 * A tree node for the tests that counts it's listeners.
+	 *
+	 * @author eso
+	 */
+	static class Node extends ObservableProperties
+		implements Hierarchical<Node> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Node> children = new ArrayList<>();
+
+		private Node parent;
+
+		int listenerCount;
+
+		/**
+		 * Creates a new instance and adds it to a parent.
+		 *
+		 * @param parent The parent node or NULL for a root node
+		 */
+		Node(Node parent) {
+			this.parent = parent;
+
+			if (parent != null) {
+				parent.children.add(this);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void addChangeListener(PropertyChangeListener listener) {
+			super.addChangeListener(listener);
+			listenerCount++;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Node getParent() {
+			return parent;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<Node> iterator() {
+			return children.iterator();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void removeChangeListener(PropertyChangeListener listener) {
+			super.removeChangeListener(listener);
+			listenerCount--;
+		}
+
+		/**
+		 * Removes a child node.
+		 *
+		 * @param child The child node
+		 */
+		void removeChild(Node child) {
+			children.remove(child);
+			child.parent = null;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyCatalog}.
+ *
+ * @author eso
+ */
+public class PropertyCatalogTest {
+
+	private static final String PACKAGE_PATH =
+		PropertyCatalog.class.getPackage().getName().replace('.', '/');
+
+	/**
+	 * Test that the catalog contains exactly the name constants that are
+	 * declared in the types of this package. All types are checked so that
+	 * the test also fails for new declaring types that are missing in the
+	 * catalog generation.
+	 *
+	 * @throws Exception If accessing a type or constant fails
+	 */
+	@Test
+	public void testCatalogMatchesDeclarations() throws Exception {
+		Set<PropertyName<?>> declared = new HashSet<>();
+
+		for (Class<?> type : getPackageTypes()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (field.getType() == PropertyName.class &&
+					Modifier.isStatic(field.getModifiers())) {
+					field.setAccessible(true);
+
+					PropertyName<?> name = (PropertyName<?>) field.get(null);
+					int id = name.getId();
+
+					assertTrue(id < PropertyCatalog.getStandardNameCount(),
+						type.getSimpleName() + "." + field.getName());
+					assertSame(name, PropertyCatalog.getStandardName(id));
+					declared.add(name);
+				}
+			}
+		}
+
+		assertEquals(PropertyCatalog.getStandardNameCount(), declared.size());
+	}
+
+	/**
+	 * Test of the rejection of conflicting declarations of standard names.
+	 */
+	@Test
+	public void testConflictingDeclarations() {
+		StyleProperties.STYLE.getId();
+
+		assertThrows(IllegalArgumentException.class,
+			() -> PropertyName.newStringName("STYLE"));
+		assertThrows(IllegalArgumentException.class,
+			() -> PropertyName.newIntegerName("TEXT_BOX_STYLE"));
+	}
+
+	/**
+	 * Test of the fixed IDs and flag indexes of the standard names.
+	 */
+	@Test
+	public void testFixedIds() {
+		PropertyCatalog.init();
+
+		assertEquals(0, PropertyName.valueOf("INTEGER_ID").getId());
+		assertEquals(0, PropertyName.valueOf("READONLY").getFlagIndex());
+		assertEquals(1, PropertyName.valueOf("ALL_DAY").getFlagIndex());
+
+		for (int i = 0; i < PropertyCatalog.getStandardNameCount(); i++) {
+			assertEquals(i, PropertyCatalog.getStandardName(i).getId());
+		}
+
+		PropertyName<String> name =
+			PropertyName.newStringName("CATALOG_TEST_NAME");
+
+		assertTrue(name.getId() >= PropertyCatalog.getStandardNameCount());
+	}
+
+	/**
+	 * Test of the lookup of standard names.
+	 */
+	@Test
+	public void testStandardNames() {
+		assertSame(StorageProperties.QUERY_START,
+			PropertyName.valueOf("QUERY_START"));
+		assertSame(ContentProperties.FORMAT_ARGUMENTS,
+			PropertyName.valueOf("FORMAT_ARGUMENTS"));
+		assertSame(StyleProperties.CSS_STYLES,
+			PropertyName.valueOf(new StringBuilder("CSS_STYLES")));
+		assertSame(StyleProperties.TEXT_FIELD_STYLE,
+			PropertyName.valueOf("TEXT_BOX_STYLE"));
+		assertNull(PropertyName.valueOf("CATALOG_TEST_UNDEFINED"));
+	}
+
+	/**
+	 * Returns the top-level types of the main package of the catalog from
+	 * the directory or JAR file that contains it.
+	 *
+	 * @return The list of types
+	 * @throws Exception If listing or loading the types fails
+	 */
+	private static List<Class<?>> getPackageTypes() throws Exception {
+		URL location = PropertyCatalog.class.getProtectionDomain()
+			.getCodeSource()
+			.getLocation();
+		File root = new File(location.toURI());
+		List<String> classFiles = new ArrayList<>();
+		List<Class<?>> types = new ArrayList<>();
+
+		if (root.isDirectory()) {
+			String[] files = new File(root, PACKAGE_PATH).list();
+
+			assertNotNull(files);
+
+			for (String file : files) {
+				classFiles.add(PACKAGE_PATH + '/' + file);
+			}
+		} else {
+			try (JarFile jar = new JarFile(root)) {
+				Enumeration<JarEntry> entries = jar.entries();
+
+				while (entries.hasMoreElements()) {
+					classFiles.add(entries.nextElement().getName());
+				}
+			}
+		}
+
+		for (String classFile : classFiles) {
+			String name = classFile.substring(classFile.lastIndexOf('/') + 1);
+
+			if (classFile.equals(PACKAGE_PATH + '/' + name) &&
+				name.endsWith(".class") && name.indexOf('$') < 0) {
+				types.add(Class.forName(classFile
+					.substring(0, classFile.length() - 6)
+					.replace('/', '.')));
+			}
+		}
+
+		assertTrue(types.contains(StyleProperties.class));
+
+		return types;
+	}
+}
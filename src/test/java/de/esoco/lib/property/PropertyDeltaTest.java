@@ -0,0 +1,266 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.ContentProperties.FORMAT_ARGUMENTS;
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StyleProperties.CSS_STYLES;
+import static de.esoco.lib.property.StyleProperties.ORIENTATION;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyDelta}.
+ *
+ * @author eso
+ */
+public class PropertyDeltaTest {
+
+	/**
+	 * Test that applying a delta to the source creates the target, including
+	 * the removal of properties and flags.
+	 */
+	@Test
+	public void testApplyTo() {
+		StringProperties source = createSource();
+		StringProperties target = createTarget(source);
+		PropertyDelta delta = PropertyDelta.between(source, target);
+
+		assertEquals(new HashSet<>(Arrays.asList(WIDTH, ORIENTATION,
+				FORMAT_ARGUMENTS, HIDDEN)),
+			new HashSet<>(delta.getSetProperties()));
+		assertEquals(new HashSet<>(Arrays.asList(HEIGHT, DISABLED)),
+			new HashSet<>(delta.getRemovedProperties()));
+
+		delta.applyTo(source);
+		assertEquals(target, source);
+		assertTrue(PropertyDelta.between(source, target).isEmpty());
+	}
+
+	/**
+	 * Test of applying a delta to properties that are not string-based and
+	 * therefore receive parsed values.
+	 */
+	@Test
+	public void testApplyToParsedValues() {
+		StringProperties source = createSource();
+		StringProperties target = createTarget(source);
+		LayeredProperties layered =
+			new LayeredProperties(new StringProperties(source));
+
+		PropertyDelta.decode(PropertyDelta.between(source, target).encode())
+			.applyTo(layered);
+
+		assertEquals(Integer.valueOf(200), layered.getProperty(WIDTH, null));
+		assertEquals(Orientation.HORIZONTAL,
+			layered.getProperty(ORIENTATION, null));
+		assertEquals(Arrays.asList("a", "b,c"),
+			layered.getProperty(FORMAT_ARGUMENTS, null));
+		assertEquals(target.getPropertyCount(), layered.getPropertyCount());
+		assertTrue(PropertyDelta.between(layered, target).isEmpty());
+		assertTrue(PropertyDelta.between(target, layered).isEmpty());
+	}
+
+	/**
+	 * Test that the state of {@link ConcurrentStringProperties} is only
+	 * queried once per delta.
+	 */
+	@Test
+	public void testConcurrentProperties() {
+		StringProperties source = createSource();
+		StringProperties target = createTarget(source);
+		int[] snapshots = new int[1];
+
+		ConcurrentStringProperties concurrent =
+			new ConcurrentStringProperties(target) {
+				@Override
+				public ImmutableProperties snapshot() {
+					snapshots[0]++;
+
+					return super.snapshot();
+				}
+			};
+
+		PropertyDelta delta = PropertyDelta.between(source, concurrent);
+		StringProperties copy = new StringProperties(source);
+
+		assertEquals(1, snapshots[0]);
+		assertEquals(PropertyDelta.between(source, target).size(),
+			delta.size());
+		delta.applyTo(copy);
+		assertEquals(target, copy);
+
+		delta = PropertyDelta.between(concurrent, source);
+		copy = new StringProperties(target);
+
+		assertEquals(2, snapshots[0]);
+		delta.applyTo(copy);
+		assertEquals(source, copy);
+
+		assertSame(PropertyDelta.EMPTY,
+			PropertyDelta.between(concurrent, concurrent.snapshot()));
+		assertEquals(4, snapshots[0]);
+	}
+
+	/**
+	 * Test of {@link PropertyDelta#decode(CharSequence)} with invalid input.
+	 */
+	@Test
+	public void testDecodeInvalid() {
+		for (String invalid : new String[] { "WIDTH", "WIDTH=1x:1",
+			"WIDTH=5:12", "PROPERTY_DELTA_TEST_UNDEFINED;" }) {
+			assertThrows(IllegalArgumentException.class,
+				() -> PropertyDelta.decode(invalid));
+		}
+	}
+
+	/**
+	 * Test of {@link PropertyDelta#decode(CharSequence)} with missing,
+	 * incomplete, or overflowing value lengths.
+	 */
+	@Test
+	public void testDecodeInvalidLength() {
+		for (String invalid : new String[] { "STYLE=", "STYLE=:", "STYLE=3",
+			"STYLE=0", "STYLE=4294967297:abc", "STYLE=4294967296:WIDTH;",
+			"STYLE=99999999999999999999:x", "WIDTH=1:1STYLE=" }) {
+			assertThrows(IllegalArgumentException.class,
+				() -> PropertyDelta.decode(invalid));
+		}
+
+		StringProperties properties = new StringProperties();
+
+		PropertyDelta.decode("STYLE=0:").applyTo(properties);
+		assertEquals("", properties.getProperty(STYLE, null));
+	}
+
+	/**
+	 * Test of empty deltas.
+	 */
+	@Test
+	public void testEmpty() {
+		StringProperties source = createSource();
+
+		assertSame(PropertyDelta.EMPTY,
+			PropertyDelta.between(source, source));
+		assertSame(PropertyDelta.EMPTY,
+			PropertyDelta.between(source.snapshot(), source));
+		assertSame(PropertyDelta.EMPTY,
+			PropertyDelta.between(source, new StringProperties(source)));
+		assertSame(PropertyDelta.EMPTY, PropertyDelta.decode(""));
+		assertEquals("", PropertyDelta.EMPTY.encode());
+
+		PropertyDelta all = PropertyDelta.between(null, source);
+		StringProperties copy = new StringProperties();
+
+		assertEquals(source.getPropertyCount(), all.size());
+		all.applyTo(copy);
+		assertEquals(source, copy);
+	}
+
+	/**
+	 * Test that an encoded and decoded delta has the same effect as the
+	 * original delta.
+	 */
+	@Test
+	public void testEncodeDecode() {
+		StringProperties source = createSource();
+		StringProperties target = createTarget(source);
+		PropertyDelta delta = PropertyDelta.between(source, target);
+		String encoded = delta.encode();
+		PropertyDelta decoded = PropertyDelta.decode(encoded);
+
+		assertEquals(delta.size(), decoded.size());
+		assertEquals(encoded, decoded.encode());
+
+		decoded.applyTo(source);
+		assertEquals(target, source);
+	}
+
+	/**
+	 * Test of deltas between snapshots.
+	 */
+	@Test
+	public void testSnapshots() {
+		StringProperties properties = createSource();
+		ImmutableProperties before = properties.snapshot();
+
+		properties.removeProperty(STYLE);
+		properties.setProperty(WIDTH, 101);
+
+		ImmutableProperties after = properties.snapshot();
+		PropertyDelta delta = PropertyDelta.between(before, after);
+		StringProperties copy = new StringProperties(before);
+
+		assertEquals(2, delta.size());
+		assertEquals(Arrays.asList(STYLE), delta.getRemovedProperties());
+
+		delta.applyTo(copy);
+		assertEquals(properties, copy);
+	}
+
+	/**
+	 * Creates the source properties for the tests.
+	 *
+	 * @return The source properties
+	 */
+	private StringProperties createSource() {
+		StringProperties properties = new StringProperties();
+		Map<String, String> styles = new HashMap<>();
+
+		styles.put("color", "red");
+		properties.setProperty(WIDTH, 100);
+		properties.setProperty(HEIGHT, 50);
+		properties.setProperty(STYLE, "a;b=c");
+		properties.setProperty(CSS_STYLES, styles);
+		properties.setFlag(DISABLED);
+
+		return properties;
+	}
+
+	/**
+	 * Creates the target properties for the tests by modifying a copy of the
+	 * source.
+	 *
+	 * @param source The source properties
+	 * @return The target properties
+	 */
+	private StringProperties createTarget(StringProperties source) {
+		StringProperties properties = new StringProperties(source);
+
+		properties.setProperty(WIDTH, 200);
+		properties.removeProperty(HEIGHT);
+		properties.clearFlag(DISABLED);
+		properties.setFlag(HIDDEN);
+		properties.setProperty(ORIENTATION, Orientation.HORIZONTAL);
+		properties.setProperty(FORMAT_ARGUMENTS, Arrays.asList("a", "b,c"));
+
+		return properties;
+	}
+}
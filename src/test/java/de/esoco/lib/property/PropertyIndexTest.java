@@ -0,0 +1,107 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyIndex}.
+ *
+ * @author eso
+ */
+public class PropertyIndexTest {
+
+	/**
+	 * Test of {@link PropertyIndex#find(PropertyName, Object)}.
+	 */
+	@Test
+	public void testFind() {
+		PropertyIndex<StringProperties> index = new PropertyIndex<>(WIDTH);
+		StringProperties first = properties(10, false, false);
+		StringProperties second = properties(10, true, false);
+
+		index.addAll(Arrays.asList(first, second));
+		assertEquals(2, index.find(WIDTH, 10).size());
+
+		second.setProperty(WIDTH, 20);
+		index.update(second);
+		assertEquals(Collections.singletonList(first),
+			Arrays.asList(index.find(WIDTH, 10).toArray()));
+		assertEquals(1, index.find(WIDTH, 20).size());
+
+		index.remove(first);
+		assertFalse(index.contains(first));
+		assertTrue(index.find(WIDTH, 10).isEmpty());
+	}
+
+	/**
+	 * Test of {@link PropertyIndex#findWithFlags(FlagMask)}.
+	 */
+	@Test
+	public void testFindWithFlags() {
+		PropertyIndex<StringProperties> index =
+			new PropertyIndex<>(DISABLED, HIDDEN);
+		StringProperties first = properties(1, true, true);
+		StringProperties second = properties(2, true, false);
+		StringProperties third = properties(3, false, false);
+
+		index.addAll(Arrays.asList(first, second, third));
+
+		assertEquals(Arrays.asList(first, second),
+			index.findWithFlags(FlagMask.of(DISABLED)));
+		assertEquals(Collections.singletonList(first),
+			index.findWithFlags(FlagMask.of(DISABLED, HIDDEN)));
+
+		index.remove(second);
+
+		// an empty mask matches all objects but not the freed slots
+		assertEquals(Arrays.asList(first, third),
+			index.findWithFlags(FlagMask.of()));
+		assertEquals(Collections.singletonList(first),
+			index.findWithFlags(FlagMask.of(DISABLED)));
+		assertEquals(2, index.size());
+	}
+
+	/**
+	 * Creates a properties object for the tests.
+	 *
+	 * @param width    The width
+	 * @param disabled The disabled flag
+	 * @param hidden   The hidden flag
+	 * @return The new properties
+	 */
+	private StringProperties properties(int width, boolean disabled,
+		boolean hidden) {
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(WIDTH, width);
+		properties.setProperty(DISABLED, disabled);
+		properties.setProperty(HIDDEN, hidden);
+
+		return properties;
+	}
+}
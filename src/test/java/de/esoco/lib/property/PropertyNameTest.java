@@ -0,0 +1,180 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyName}.
+ *
+ * @author eso
+ */
+public class PropertyNameTest {
+
+	/**
+	 * Test of the concurrent creation of flag names while they are looked up
+	 * by their flag index.
+	 *
+	 * @throws InterruptedException If waiting for a thread fails
+	 */
+	@Test
+	public void testConcurrentFlagRegistration() throws InterruptedException {
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+
+		for (int t = 0; t < 4; t++) {
+			String prefix = "NAME_TEST_FLAG_" + t + "_";
+
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < 200; i++) {
+						PropertyName<Boolean> flag =
+							PropertyName.newBooleanName(prefix + i);
+						PropertyName<?> registered =
+							PropertyName.valueOf(flag.getName());
+
+						assertSame(registered, PropertyName.getFlagName(
+							registered.getFlagIndex()));
+					}
+				} catch (Throwable e) {
+					synchronized (errors) {
+						errors.add(e);
+					}
+				}
+			}));
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue(errors.isEmpty());
+	}
+
+	/**
+	 * Test of the rejection of duplicate names.
+	 */
+	@Test
+	public void testDuplicateName() {
+		PropertyName<String> name =
+			PropertyName.newStringName("NAME_TEST_DUPLICATE");
+
+		assertThrows(IllegalArgumentException.class,
+			() -> PropertyName.newIntegerName("NAME_TEST_DUPLICATE"));
+		assertSame(name, PropertyName.valueOf("NAME_TEST_DUPLICATE"));
+	}
+
+	/**
+	 * Test of the lookup of flag names by their flag index.
+	 */
+	@Test
+	public void testFlagIndex() {
+		PropertyName<Boolean> flag =
+			PropertyName.newBooleanName("NAME_TEST_FLAG");
+		PropertyName<String> name =
+			PropertyName.newStringName("NAME_TEST_NO_FLAG");
+
+		assertTrue(flag.getFlagIndex() >= 0);
+		assertEquals(-1, name.getFlagIndex());
+		assertSame(flag, PropertyName.getFlagName(flag.getFlagIndex()));
+	}
+
+	/**
+	 * Test of the factory methods for long and double names.
+	 */
+	@Test
+	public void testNumericNames() {
+		PropertyName<Long> longName =
+			PropertyName.newLongName("NAME_TEST_LONG");
+		PropertyName<Double> doubleName =
+			PropertyName.newDoubleName("NAME_TEST_DOUBLE");
+
+		assertEquals(Long.class, longName.getDatatype());
+		assertEquals(Double.class, doubleName.getDatatype());
+		assertEquals(-1, longName.getFlagIndex());
+		assertEquals(-1, doubleName.getFlagIndex());
+		assertSame(longName, PropertyName.valueOf("NAME_TEST_LONG"));
+		assertSame(doubleName, PropertyName.valueOf("NAME_TEST_DOUBLE"));
+		assertEquals(Long.valueOf(-3), longName.getCodec().decode("-3"));
+		assertEquals("0.5", doubleName.getCodec().encode(0.5));
+		assertThrows(IllegalArgumentException.class,
+			() -> PropertyName.newDoubleName("NAME_TEST_LONG"));
+	}
+
+	/**
+	 * Test of the serialization of property names.
+	 *
+	 * @throws Exception If the serialization fails
+	 */
+	@Test
+	public void testSerialization() throws Exception {
+		assertSame(StyleProperties.STYLE, serialize(StyleProperties.STYLE));
+		assertSame(StateProperties.DISABLED,
+			serialize(StateProperties.DISABLED));
+	}
+
+	/**
+	 * Test of {@link PropertyName#valueOf(CharSequence)}.
+	 */
+	@Test
+	public void testValueOf() {
+		assertSame(StyleProperties.STYLE,
+			PropertyName.valueOf(new StringBuilder("STYLE")));
+		assertSame(StyleProperties.STYLE, PropertyName.valueOf("STYLE"));
+		assertNull(PropertyName.valueOf("NAME_TEST_UNDEFINED"));
+	}
+
+	/**
+	 * Serializes and de-serializes an object.
+	 *
+	 * @param object The object
+	 * @return The de-serialized object
+	 * @throws IOException            If the serialization fails
+	 * @throws ClassNotFoundException If the de-serialization fails
+	 */
+	private Object serialize(Object object)
+		throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+			out.writeObject(object);
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(data.toByteArray()))) {
+			return in.readObject();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyPool}.
+ *
+ * @author eso
+ */
+public class PropertyPoolTest {
+
+	/**
+	 * Test of {@link PropertyPool#clear()}.
+	 */
+	@Test
+	public void testClear() {
+		PropertyPool pool = new PropertyPool();
+		ImmutableProperties canonical = pool.intern(create(1, "a"));
+
+		pool.clear();
+		assertEquals(0, pool.size());
+
+		ImmutableProperties next = pool.intern(create(1, "a"));
+
+		assertEquals(canonical, next);
+		assertFalse(canonical == next);
+		assertSame(next, pool.intern(canonical));
+	}
+
+	/**
+	 * Test that equal properties from different threads are interned to the
+	 * same canonical instance.
+	 *
+	 * @throws Exception If a thread fails
+	 */
+	@Test
+	public void testConcurrentIntern() throws Exception {
+		PropertyPool pool = new PropertyPool();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<ImmutableProperties>> results = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < 100; i++) {
+				int width = i % 5;
+
+				results.add(
+					executor.submit(() -> pool.intern(create(width, "c"))));
+			}
+
+			for (int i = 0; i < results.size(); i++) {
+				assertSame(results.get(i % 5).get(), results.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(5, pool.size());
+	}
+
+	/**
+	 * Test that equal property sets are interned to the same canonical
+	 * instance, independent of their type and the order of the properties.
+	 */
+	@Test
+	public void testIntern() {
+		PropertyPool pool = new PropertyPool();
+		StringProperties reversed = new StringProperties();
+
+		reversed.setFlag(DISABLED);
+		reversed.setProperty(STYLE, "a");
+		reversed.setProperty(WIDTH, 1);
+
+		ImmutableProperties canonical = pool.intern(create(1, "a"));
+		ImmutableProperties built = ImmutableProperties.EMPTY
+			.with(WIDTH, 1)
+			.with(STYLE, "a")
+			.with(DISABLED, Boolean.TRUE);
+
+		assertSame(canonical, pool.intern(create(1, "a")));
+		assertSame(canonical, pool.intern(create(1, "a").snapshot()));
+		assertSame(canonical, pool.intern(reversed));
+		assertSame(canonical, pool.intern(built));
+		assertSame(canonical, pool.intern(canonical));
+		assertNotNull(canonical.getSharedStore());
+		assertEquals(1, pool.size());
+
+		ImmutableProperties other = pool.intern(create(2, "a"));
+
+		assertFalse(canonical == other);
+		assertSame(other, pool.intern(canonical.with(WIDTH, 2)));
+		assertEquals(2, pool.size());
+
+		assertSame(ImmutableProperties.EMPTY,
+			pool.intern(new StringProperties()));
+		assertSame(ImmutableProperties.EMPTY,
+			pool.intern(canonical.without(WIDTH)
+				.without(STYLE)
+				.without(DISABLED)));
+		assertEquals(2, pool.size());
+	}
+
+	/**
+	 * Test that properties of different classes share the same canonical
+	 * instance and that empty properties are interned like their snapshots.
+	 */
+	@Test
+	public void testInternSubclass() {
+		PropertyPool pool = new PropertyPool();
+		ObservableProperties observable =
+			new ObservableProperties(create(1, "a"));
+		StringProperties plain = create(1, "a");
+		ImmutableProperties canonical = pool.intern(observable);
+
+		assertSame(canonical, pool.intern(plain));
+		assertEquals(plain.snapshot(), canonical);
+
+		plain.intern(pool);
+		observable.intern(pool);
+		assertSame(plain.getPropertyStore(), observable.getPropertyStore());
+		assertEquals("a", plain.getProperty(STYLE, null));
+
+		observable.setProperty(STYLE, "b");
+		assertEquals("a", plain.getProperty(STYLE, null));
+		assertEquals("a", canonical.getProperty(STYLE, null));
+
+		ObservableProperties empty = new ObservableProperties();
+
+		assertSame(empty.snapshot(), pool.intern(empty));
+		assertSame(ImmutableProperties.EMPTY, pool.intern(empty));
+		assertEquals(1, pool.size());
+	}
+
+	/**
+	 * Test that mutable properties share the storage of the canonical
+	 * instance after interning until they are modified.
+	 */
+	@Test
+	public void testInternMutable() {
+		PropertyPool pool = new PropertyPool();
+		StringProperties first = create(1, "a");
+		StringProperties second = create(1, "a");
+
+		first.intern(pool);
+		second.intern(pool);
+
+		PropertyStore store = first.getPropertyStore();
+
+		assertSame(store, second.getPropertyStore());
+		assertSame(store, pool.intern(first).getSharedStore());
+
+		second.setProperty(HEIGHT, 2);
+		assertFalse(store == second.getPropertyStore());
+		assertFalse(first.hasProperty(HEIGHT));
+		assertEquals(create(1, "a"), first);
+		assertEquals(1, second.getIntProperty(WIDTH, 0));
+		assertTrue(second.hasFlag(DISABLED));
+
+		second.removeProperty(HEIGHT);
+		second.intern(pool);
+		assertSame(store, second.getPropertyStore());
+		assertEquals(1, pool.size());
+	}
+
+	/**
+	 * Creates new properties for the tests.
+	 *
+	 * @param width The width property
+	 * @param style The style property
+	 * @return The new properties
+	 */
+	private StringProperties create(int width, String style) {
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(WIDTH, width);
+		properties.setProperty(STYLE, style);
+		properties.setFlag(DISABLED);
+
+		return properties;
+	}
+}
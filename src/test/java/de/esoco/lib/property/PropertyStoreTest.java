@@ -0,0 +1,459 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link PropertyStore}.
+ *
+ * @author eso
+ */
+public class PropertyStoreTest {
+
+	private static final int NAME_COUNT = 100;
+
+	private static final List<PropertyName<Integer>> NAMES =
+		new ArrayList<>();
+
+	private static final PropertyName<Boolean> TEST_FLAG =
+		PropertyName.newBooleanName("PROPERTY_STORE_TEST_FLAG");
+
+	private static final List<PropertyName<Boolean>> FLAGS =
+		new ArrayList<>();
+
+	private static final List<PropertyName<?>> ALL_NAMES = new ArrayList<>();
+
+	static {
+		for (int i = 0; i < NAME_COUNT; i++) {
+			NAMES.add(PropertyName.newIntegerName("PROPERTY_STORE_TEST_" + i));
+			FLAGS.add(
+				PropertyName.newBooleanName("PROPERTY_STORE_TEST_FLAG_" + i));
+		}
+
+		ALL_NAMES.addAll(NAMES.subList(0, 20));
+		ALL_NAMES.add(TEST_FLAG);
+		ALL_NAMES.add(DISABLED);
+		ALL_NAMES.add(HIDDEN);
+	}
+
+	/**
+	 * Test that the incrementally maintained content hash code and the
+	 * content equality match those of a freshly built store after each
+	 * modification.
+	 */
+	@Test
+	public void testContentAfterModifications() {
+		Random random = new Random(42);
+		PropertyStore store = new PropertyStore();
+		Map<PropertyName<?>, Object> expected = new HashMap<>();
+
+		for (int i = 0; i < 1000; i++) {
+			int operation = random.nextInt(10);
+
+			if (operation < 7) {
+				PropertyName<?> name = randomName(random);
+				Object value = randomValue(name, random);
+
+				assertEquals(expected.put(name, value), store.put(name, value));
+			} else if (operation < 9) {
+				PropertyName<?> name = randomName(random);
+
+				assertEquals(expected.remove(name), store.remove(name));
+			} else {
+				PropertyStore other = new PropertyStore();
+				boolean replace = random.nextBoolean();
+
+				for (int j = random.nextInt(8); j > 0; j--) {
+					PropertyName<?> name = randomName(random);
+
+					other.put(name, randomValue(name, random));
+				}
+
+				for (int j = 0; j < other.size(); j++) {
+					PropertyName<?> name = other.getName(j);
+
+					if (replace || !expected.containsKey(name)) {
+						expected.put(name, other.getValue(j));
+					}
+				}
+
+				store.putAll(other, replace);
+			}
+
+			PropertyStore rebuilt = build(expected, random);
+
+			assertEquals(expected.size(), store.size());
+			assertTrue(rebuilt.contentEquals(store));
+			assertTrue(store.contentEquals(rebuilt));
+			assertEquals(rebuilt.contentHashCode(), store.contentHashCode());
+		}
+	}
+
+	/**
+	 * Test that the content hash code and equality don't depend on the
+	 * insertion order of the properties.
+	 */
+	@Test
+	public void testContentOrder() {
+		Random random = new Random(42);
+		Map<PropertyName<?>, Object> content = new HashMap<>();
+
+		for (PropertyName<?> name : ALL_NAMES) {
+			content.put(name, randomValue(name, random));
+
+			PropertyStore first = build(content, random);
+			PropertyStore second = build(content, random);
+
+			assertTrue(first.contentEquals(second));
+			assertEquals(first.contentHashCode(), second.contentHashCode());
+		}
+
+		PropertyStore store = build(content, random);
+		PropertyStore changed = build(content, random);
+
+		changed.put(TEST_FLAG, !(Boolean) content.get(TEST_FLAG));
+		assertFalse(store.contentEquals(changed));
+
+		changed.put(TEST_FLAG, content.get(TEST_FLAG));
+		changed.put(NAMES.get(0), -1);
+		assertFalse(store.contentEquals(changed));
+	}
+
+	/**
+	 * Test of flags with indexes that span multiple flag words.
+	 */
+	@Test
+	public void testFlagWords() {
+		PropertyName<Boolean> low = DISABLED;
+		PropertyName<Boolean> high = FLAGS.get(NAME_COUNT - 2);
+		PropertyStore store = new PropertyStore();
+		Map<PropertyName<?>, Object> expected = new HashMap<>();
+
+		assertTrue(low.getFlagIndex() < 64);
+		assertTrue(high.getFlagIndex() >= 128);
+
+		store.put(low, Boolean.TRUE);
+		expected.put(low, Boolean.TRUE);
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			Boolean value = Boolean.valueOf(i % 3 != 0);
+
+			assertNull(store.put(FLAGS.get(i), value));
+			expected.put(FLAGS.get(i), value);
+		}
+
+		assertEquals(NAME_COUNT + 1, store.size());
+		assertTrue(store.getFlagWordCount() > 2);
+
+		for (int i = 0; i < store.size(); i++) {
+			assertEquals(expected.get(store.getName(i)), store.getValue(i));
+			assertEquals(store.getValue(i), store.get(store.getName(i)));
+		}
+
+		PropertyStore rebuilt = build(expected, new Random(42));
+
+		assertTrue(rebuilt.contentEquals(store));
+		assertEquals(rebuilt.contentHashCode(), store.contentHashCode());
+
+		FlagMask set = FlagMask.of(low, FLAGS.get(1), high);
+		FlagMask cleared = FlagMask.of(FLAGS.get(0), FLAGS.get(NAME_COUNT - 4));
+
+		assertEquals(Boolean.TRUE, store.get(high));
+		assertTrue(store.hasFlags(set, true));
+		assertTrue(store.hasFlags(set, false));
+		assertFalse(store.hasFlags(cleared, true));
+		assertFalse(store.hasFlags(cleared, false));
+		assertFalse(
+			store.hasFlags(FlagMask.of(low, FLAGS.get(NAME_COUNT - 4)), true));
+
+		assertEquals(Boolean.TRUE, store.remove(high));
+		assertNull(store.get(high));
+		assertEquals(NAME_COUNT, store.size());
+		assertFalse(store.hasFlags(set, true));
+		assertTrue(store.hasFlags(FlagMask.of(high, low), false));
+		assertFalse(store.hasFlags(FlagMask.of(high), false));
+
+		expected.remove(high);
+		rebuilt = build(expected, new Random(42));
+		assertTrue(rebuilt.contentEquals(store));
+		assertEquals(rebuilt.contentHashCode(), store.contentHashCode());
+	}
+
+	/**
+	 * Test of the merging of flags from different flag words in
+	 * {@link PropertyStore#putAll(PropertyStore, boolean)}.
+	 */
+	@Test
+	public void testPutAllFlagWords() {
+		PropertyName<Boolean> middle = FLAGS.get(NAME_COUNT / 2);
+		PropertyName<Boolean> high = FLAGS.get(NAME_COUNT - 1);
+		PropertyStore lowStore = new PropertyStore();
+		PropertyStore highStore = new PropertyStore();
+
+		lowStore.put(DISABLED, Boolean.TRUE);
+		lowStore.put(HIDDEN, Boolean.FALSE);
+		lowStore.put(middle, Boolean.TRUE);
+		highStore.put(HIDDEN, Boolean.TRUE);
+		highStore.put(middle, Boolean.FALSE);
+		highStore.put(high, Boolean.FALSE);
+
+		for (boolean replace : new boolean[] { false, true }) {
+			PropertyStore grown = new PropertyStore(lowStore);
+			PropertyStore merged = new PropertyStore(highStore);
+
+			grown.putAll(highStore, replace);
+			merged.putAll(lowStore, replace);
+
+			assertEquals(4, grown.size());
+			assertEquals(4, merged.size());
+			assertEquals(Boolean.TRUE, grown.get(DISABLED));
+			assertEquals(Boolean.TRUE, merged.get(DISABLED));
+			assertEquals(Boolean.FALSE, grown.get(high));
+			assertEquals(Boolean.FALSE, merged.get(high));
+			assertEquals(Boolean.valueOf(replace), grown.get(HIDDEN));
+			assertEquals(Boolean.valueOf(!replace), merged.get(HIDDEN));
+			assertEquals(Boolean.valueOf(!replace), grown.get(middle));
+			assertEquals(Boolean.valueOf(replace), merged.get(middle));
+
+			Map<PropertyName<?>, Object> content = new HashMap<>();
+
+			for (int i = 0; i < grown.size(); i++) {
+				content.put(grown.getName(i), grown.getValue(i));
+			}
+
+			PropertyStore rebuilt = build(content, new Random(42));
+
+			assertEquals(4, content.size());
+			assertTrue(rebuilt.contentEquals(grown));
+			assertEquals(rebuilt.contentHashCode(), grown.contentHashCode());
+			assertEquals(replace,
+				grown.hasFlags(FlagMask.of(DISABLED, HIDDEN), true));
+			assertEquals(!replace,
+				grown.hasFlags(FlagMask.of(DISABLED, middle), true));
+			assertFalse(grown.hasFlags(FlagMask.of(high), false));
+		}
+	}
+
+	/**
+	 * Test of the growth of the store and it's lookup index. The index must
+	 * be created on insertion so that lookups never modify a store.
+	 */
+	@Test
+	public void testIndexGrowth() {
+		PropertyStore store = new PropertyStore();
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			assertNull(store.put(NAMES.get(i), i));
+			assertEquals(i + 1, store.size());
+			assertEquals(store.size() > 8, isIndexed(store));
+
+			for (int j = 0; j <= i; j++) {
+				assertEquals(Integer.valueOf(j), store.get(NAMES.get(j)));
+			}
+
+			if (i + 1 < NAME_COUNT) {
+				assertFalse(store.contains(NAMES.get(i + 1)));
+			}
+		}
+
+		assertEquals(Integer.valueOf(0), store.put(NAMES.get(0), -1));
+		assertEquals(NAME_COUNT, store.size());
+
+		for (int i = 0; i < store.size(); i++) {
+			assertEquals(store.getValue(i), store.get(store.getName(i)));
+		}
+
+		PropertyStore copy = new PropertyStore(store);
+
+		assertTrue(isIndexed(copy));
+		assertTrue(copy.contentEquals(store));
+		assertEquals(store.contentHashCode(), copy.contentHashCode());
+	}
+
+	/**
+	 * Test of flags in {@link PropertyStore#putAll(PropertyStore, boolean)}.
+	 */
+	@Test
+	public void testPutAllFlags() {
+		PropertyStore target = new PropertyStore();
+		PropertyStore source = new PropertyStore();
+
+		target.put(STYLE, "target");
+		target.put(DISABLED, Boolean.TRUE);
+		target.put(HIDDEN, Boolean.FALSE);
+		source.put(STYLE, "source");
+		source.put(HIDDEN, Boolean.TRUE);
+		source.put(TEST_FLAG, Boolean.FALSE);
+
+		PropertyStore added = new PropertyStore(target);
+
+		added.putAll(source, false);
+		assertEquals(4, added.size());
+		assertEquals("target", added.get(STYLE));
+		assertEquals(Boolean.TRUE, added.get(DISABLED));
+		assertEquals(Boolean.FALSE, added.get(HIDDEN));
+		assertEquals(Boolean.FALSE, added.get(TEST_FLAG));
+
+		PropertyStore replaced = new PropertyStore(target);
+
+		replaced.putAll(source, true);
+		assertEquals(4, replaced.size());
+		assertEquals("source", replaced.get(STYLE));
+		assertEquals(Boolean.TRUE, replaced.get(DISABLED));
+		assertEquals(Boolean.TRUE, replaced.get(HIDDEN));
+		assertEquals(Boolean.FALSE, replaced.get(TEST_FLAG));
+
+		Map<PropertyName<?>, Object> content = new HashMap<>();
+
+		for (int i = 0; i < replaced.size(); i++) {
+			content.put(replaced.getName(i), replaced.getValue(i));
+		}
+
+		assertEquals(4, content.size());
+		assertEquals(Boolean.TRUE, content.get(HIDDEN));
+
+		PropertyStore expected = new PropertyStore();
+
+		expected.put(TEST_FLAG, Boolean.FALSE);
+		expected.put(HIDDEN, Boolean.TRUE);
+		expected.put(DISABLED, Boolean.TRUE);
+		expected.put(STYLE, "source");
+		assertTrue(expected.contentEquals(replaced));
+		assertEquals(expected.contentHashCode(), replaced.contentHashCode());
+	}
+
+	/**
+	 * Test of removals from an indexed store which move entries of the
+	 * index probe sequences backwards.
+	 */
+	@Test
+	public void testRemove() {
+		PropertyStore store = new PropertyStore();
+		Map<PropertyName<Integer>, Integer> expected = new HashMap<>();
+		List<PropertyName<Integer>> order = new ArrayList<>(NAMES);
+
+		for (int i = 0; i < NAME_COUNT; i++) {
+			store.put(NAMES.get(i), i);
+			expected.put(NAMES.get(i), i);
+		}
+
+		Collections.shuffle(order, new Random(42));
+
+		for (PropertyName<Integer> name : order) {
+			assertEquals(expected.remove(name), store.remove(name));
+			assertNull(store.remove(name));
+			assertEquals(expected.size(), store.size());
+			assertEquals(store.size() > 8, isIndexed(store));
+
+			PropertyStore rebuilt = new PropertyStore();
+
+			for (PropertyName<Integer> remaining : NAMES) {
+				Integer value = expected.get(remaining);
+
+				assertEquals(value, store.get(remaining));
+
+				if (value != null) {
+					rebuilt.put(remaining, value);
+				}
+			}
+
+			assertTrue(rebuilt.contentEquals(store));
+			assertEquals(rebuilt.contentHashCode(), store.contentHashCode());
+		}
+
+		assertEquals(0, store.size());
+	}
+
+	/**
+	 * Builds a new store from a map of properties in random order.
+	 *
+	 * @param content The property map
+	 * @param random  The random generator for the order
+	 * @return The new store
+	 */
+	private static PropertyStore build(Map<PropertyName<?>, Object> content,
+		Random random) {
+		List<PropertyName<?>> order = new ArrayList<>(content.keySet());
+		PropertyStore store = new PropertyStore();
+
+		Collections.shuffle(order, random);
+
+		for (PropertyName<?> name : order) {
+			store.put(name, content.get(name));
+		}
+
+		return store;
+	}
+
+	/**
+	 * Checks whether a store has a lookup index.
+	 *
+	 * @param store The store to check
+	 * @return TRUE if the store has an index
+	 */
+	private static boolean isIndexed(PropertyStore store) {
+		try {
+			Field index = PropertyStore.class.getDeclaredField("index");
+
+			index.setAccessible(true);
+
+			return index.get(store) != null;
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Returns a random property name from {@link #ALL_NAMES}.
+	 *
+	 * @param random The random generator
+	 * @return The property name
+	 */
+	private static PropertyName<?> randomName(Random random) {
+		return ALL_NAMES.get(random.nextInt(ALL_NAMES.size()));
+	}
+
+	/**
+	 * Returns a random value for a property name.
+	 *
+	 * @param name   The property name
+	 * @param random The random generator
+	 * @return The value
+	 */
+	private static Object randomValue(PropertyName<?> name, Random random) {
+		return name.getFlagIndex() >= 0 ?
+		       Boolean.valueOf(random.nextBoolean()) :
+		       Integer.valueOf(random.nextInt(5));
+	}
+}
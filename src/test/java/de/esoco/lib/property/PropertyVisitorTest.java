@@ -0,0 +1,237 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test of {@link PropertyVisitor} with the implementations of
+ * {@link HasProperties#forEachProperty(PropertyVisitor)}.
+ *
+ * @author eso
+ */
+public class PropertyVisitorTest {
+
+	private static final PropertyName<Long> TEST_LONG =
+		PropertyName.newLongName("VISITOR_TEST_LONG");
+
+	private static final PropertyName<Double> TEST_DOUBLE =
+		PropertyName.newDoubleName("VISITOR_TEST_DOUBLE");
+
+	private static final PropertyName<List<String>> TEST_LIST =
+		PropertyName.newListName("VISITOR_TEST_LIST", String.class);
+
+	/**
+	 * Test of {@link ConcurrentStringProperties}.
+	 */
+	@Test
+	public void testConcurrentStringProperties() {
+		ConcurrentStringProperties properties =
+			new ConcurrentStringProperties();
+
+		properties.setProperties(createProperties(), true);
+		assertVisits(properties);
+	}
+
+	/**
+	 * Test of store-based and trie-based {@link ImmutableProperties}.
+	 */
+	@Test
+	public void testImmutableProperties() {
+		ImmutableProperties snapshot = createProperties().snapshot();
+		ImmutableProperties trie = snapshot.with(HEIGHT, 42);
+
+		assertVisits(snapshot);
+		assertVisits(trie);
+		assertVisits(trie.without(WIDTH).without(DISABLED));
+		assertVisits(ImmutableProperties.EMPTY);
+	}
+
+	/**
+	 * Test of {@link LayeredProperties} with and without local overrides and
+	 * read cache.
+	 */
+	@Test
+	public void testLayeredProperties() {
+		LayeredProperties properties =
+			new LayeredProperties(createProperties().snapshot());
+
+		assertVisits(properties);
+
+		properties.setProperty(HEIGHT, 42);
+		properties.setProperty(TEST_LONG, 7L);
+		properties.removeProperty(TEST_DOUBLE);
+		properties.setFlag(HIDDEN);
+		assertVisits(properties);
+
+		properties.setReadCache(true);
+		assertVisits(properties);
+
+		assertVisits(new LayeredProperties(properties));
+	}
+
+	/**
+	 * Test of {@link StringProperties} with typed and parsed values.
+	 */
+	@Test
+	public void testStringProperties() {
+		StringProperties properties = createProperties();
+
+		assertVisits(properties);
+		assertVisits(new StringProperties(properties));
+		assertVisits(new StringProperties());
+
+		properties.removeProperty(WIDTH);
+		properties.clearFlag(DISABLED);
+		properties.setProperty(WIDTH, 5);
+		assertVisits(properties);
+	}
+
+	/**
+	 * Checks that a visitor receives all properties of a properties object in
+	 * the order of {@link HasProperties#getPropertyNames()} and that numbers
+	 * and flags are handed to the primitive-specialized methods.
+	 *
+	 * @param properties The properties to visit
+	 */
+	private static void assertVisits(HasProperties properties) {
+		RecordingVisitor visitor = new RecordingVisitor();
+		List<PropertyName<?>> expectedNames =
+			new ArrayList<>(properties.getPropertyNames());
+		List<String> expectedMethods = new ArrayList<>();
+
+		properties.forEachProperty(visitor);
+
+		for (PropertyName<?> name : expectedNames) {
+			expectedMethods.add(getVisitMethod(name.getDatatype()));
+		}
+
+		assertEquals(expectedNames, visitor.names);
+		assertEquals(expectedMethods, visitor.methods);
+
+		for (int i = 0; i < expectedNames.size(); i++) {
+			assertEquals(properties.getProperty(expectedNames.get(i), null),
+				visitor.values.get(i));
+		}
+	}
+
+	/**
+	 * Creates a properties object that contains values of all primitive
+	 * visitor types and other datatypes.
+	 *
+	 * @return The new properties
+	 */
+	private static StringProperties createProperties() {
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(STYLE, "style");
+		properties.setProperty(WIDTH, 10);
+		properties.setFlag(DISABLED);
+		properties.setProperty(TEST_LONG, 1234567890123L);
+		properties.setProperty(HIDDEN, Boolean.FALSE);
+		properties.setProperty(TEST_DOUBLE, 0.5);
+		properties.setProperty(TEST_LIST, Arrays.asList("a", "b"));
+
+		return properties;
+	}
+
+	/**
+	 * Returns the name of the visitor method that is expected to be invoked
+	 * for a certain datatype.
+	 *
+	 * @param datatype The property datatype
+	 * @return The visitor method name
+	 */
+	private static String getVisitMethod(Class<?> datatype) {
+		if (datatype == Integer.class) {
+			return "visitInt";
+		} else if (datatype == Long.class) {
+			return "visitLong";
+		} else if (datatype == Double.class) {
+			return "visitDouble";
+		} else if (datatype == Boolean.class) {
+			return "visitFlag";
+		} else {
+			return "visitProperty";
+		}
+	}
+
+	/**
+	 * A visitor that records the invoked methods with the visited names and
+	 * values.
+	 *
+	 * @author eso
+	 */
+	private static class RecordingVisitor implements PropertyVisitor {
+
+		private final List<String> methods = new ArrayList<>();
+
+		private final List<PropertyName<?>> names = new ArrayList<>();
+
+		private final List<Object> values = new ArrayList<>();
+
+		@Override
+		public void visitDouble(PropertyName<Double> name, double value) {
+			record("visitDouble", name, value);
+		}
+
+		@Override
+		public void visitFlag(PropertyName<Boolean> name, boolean value) {
+			record("visitFlag", name, value);
+		}
+
+		@Override
+		public void visitInt(PropertyName<Integer> name, int value) {
+			record("visitInt", name, value);
+		}
+
+		@Override
+		public void visitLong(PropertyName<Long> name, long value) {
+			record("visitLong", name, value);
+		}
+
+		@Override
+		public void visitProperty(PropertyName<?> name, Object value) {
+			record("visitProperty", name, value);
+		}
+
+		/**
+		 * Records a method invocation.
+		 *
+		 * @param method The method name
+		 * @param name   The property name
+		 * @param value  The property value
+		 */
+		private void record(String method, PropertyName<?> name,
+			Object value) {
+			methods.add(method);
+			names.add(name);
+			values.add(value);
+		}
+	}
+}
@@ -0,0 +1,584 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.property.ContentProperties.FORMAT_ARGUMENTS;
+import static de.esoco.lib.property.LayoutProperties.HEIGHT;
+import static de.esoco.lib.property.LayoutProperties.WIDTH;
+import static de.esoco.lib.property.StateProperties.DISABLED;
+import static de.esoco.lib.property.StateProperties.HIDDEN;
+import static de.esoco.lib.property.StyleProperties.STYLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of {@link StringProperties}.
+ *
+ * @author eso
+ */
+public class StringPropertiesTest {
+
+	private static final PropertyName<Date> TEST_DATE =
+		PropertyName.newDateName("STRING_PROPERTIES_TEST_DATE");
+
+	private static final PropertyName<List<Date>> TEST_DATES =
+		PropertyName.newListName("STRING_PROPERTIES_TEST_DATES", Date.class);
+
+	private static final PropertyName<Long> TEST_LONG =
+		PropertyName.newLongName("STRING_PROPERTIES_TEST_LONG");
+
+	private static final PropertyName<Double> TEST_DOUBLE =
+		PropertyName.newDoubleName("STRING_PROPERTIES_TEST_DOUBLE");
+
+	private static final PropertyName<Code> TEST_CODE =
+		PropertyName.newName("STRING_PROPERTIES_TEST_CODE", Code.class);
+
+	/**
+	 * Test that re-registering a codec replaces the codec that has been
+	 * cached by a property name.
+	 */
+	@Test
+	public void testCodecRegistration() {
+		PropertyCodecs.register(Code.class, Code::new, true);
+
+		StringProperties properties = new StringProperties();
+
+		properties.setProperty(TEST_CODE, new Code("abc"));
+		assertEquals("abc", properties.getPropertyMap().get(TEST_CODE));
+
+		PropertyCodecs.register(Code.class, new PropertyCodec<Code>() {
+			@Override
+			public Code decode(String rawValue) {
+				return new Code(rawValue.toLowerCase());
+			}
+
+			@Override
+			public String encode(Code value) {
+				return value.toString().toUpperCase();
+			}
+		});
+
+		assertEquals("ABC", properties.getPropertyMap().get(TEST_CODE));
+		properties.getPropertyMap().put(TEST_CODE, "XYZ");
+		assertEquals(new Code("xyz"), properties.getProperty(TEST_CODE, null));
+	}
+
+	/**
+	 * Test that a subclass that overrides the conversion methods converts
+	 * all values with these methods, including those of datatypes with a
+	 * codec, and that other instances still use the codecs.
+	 */
+	@Test
+	public void testConversionOverrides() {
+		Date date = new Date(1234567000L);
+		List<Date> dates = Arrays.asList(date, new Date(42000));
+		SecondsProperties properties = new SecondsProperties();
+
+		properties.setProperty(TEST_DATE, date);
+		properties.setProperty(TEST_DATES, dates);
+
+		Map<PropertyName<?>, String> rawValues =
+			new HashMap<>(properties.getPropertyMap());
+
+		assertEquals("1234567", rawValues.get(TEST_DATE));
+		assertEquals("1234567,42", rawValues.get(TEST_DATES));
+		assertEquals(date, properties.getProperty(TEST_DATE, null));
+		assertEquals(dates, properties.getProperty(TEST_DATES, null));
+
+		SecondsProperties copy = new SecondsProperties();
+
+		copy.setPropertyMap(rawValues);
+		assertEquals(date, copy.getProperty(TEST_DATE, null));
+		assertEquals(dates, copy.getProperty(TEST_DATES, null));
+		assertEquals(properties, copy);
+		assertEquals(date, properties.snapshot().getProperty(TEST_DATE, null));
+
+		StringProperties standard = new StringProperties(properties);
+
+		assertEquals("1234567000", standard.getPropertyMap().get(TEST_DATE));
+		assertEquals(properties.getPropertyMap().keySet(),
+			standard.getPropertyMap().keySet());
+	}
+
+	/**
+	 * Test that collection values which are parsed from their string
+	 * representation are cached in the immutable value mode and that the
+	 * cache is invalidated by modifications, copies, and snapshots.
+	 */
+	@Test
+	public void testImmutableValues() {
+		StringProperties properties = new StringProperties();
+		List<Date> dates = Arrays.asList(new Date(1000), new Date(2000));
+		List<Date> otherDates = Arrays.asList(new Date(3000));
+
+		properties.setProperty(TEST_DATES, dates);
+		properties.setProperty(FORMAT_ARGUMENTS, Arrays.asList("a", "b"));
+
+		// lists of dates are stored as strings and parsed on each query
+		assertTrue(properties.getStoredValue(TEST_DATES) instanceof String);
+
+		List<Date> copy = properties.getProperty(TEST_DATES, null);
+
+		assertNotSame(copy, properties.getProperty(TEST_DATES, null));
+		copy.add(new Date(0));
+		assertEquals(dates, properties.getProperty(TEST_DATES, null));
+
+		properties.setImmutableValues(true);
+
+		List<Date> cached = properties.getProperty(TEST_DATES, null);
+
+		assertEquals(dates, cached);
+		assertSame(cached, properties.getProperty(TEST_DATES, null));
+		assertSame(properties.getProperty(FORMAT_ARGUMENTS, null),
+			properties.getProperty(FORMAT_ARGUMENTS, null));
+		assertThrows(UnsupportedOperationException.class,
+			() -> cached.add(new Date(0)));
+
+		// setting a property
+		properties.setProperty(TEST_DATES, otherDates);
+		assertEquals(otherDates, properties.getProperty(TEST_DATES, null));
+
+		List<Date> updated = properties.getProperty(TEST_DATES, null);
+
+		assertNotSame(cached, updated);
+		assertSame(updated, properties.getProperty(TEST_DATES, null));
+
+		// a snapshot keeps the previous value
+		ImmutableProperties snapshot = properties.snapshot();
+
+		assertSame(updated, properties.getProperty(TEST_DATES, null));
+		properties.setProperty(TEST_DATES, dates);
+		assertEquals(dates, properties.getProperty(TEST_DATES, null));
+		assertEquals(otherDates, snapshot.getProperty(TEST_DATES, null));
+
+		// copying properties with and without replacing
+		StringProperties other = new StringProperties();
+
+		other.setProperty(TEST_DATES, otherDates);
+		properties.setProperties(other, false);
+		assertEquals(dates, properties.getProperty(TEST_DATES, null));
+		properties.setProperties(other, true);
+		assertEquals(otherDates, properties.getProperty(TEST_DATES, null));
+
+		// removing a property
+		properties.removeProperty(TEST_DATES);
+		assertNull(properties.getProperty(TEST_DATES, null));
+		properties.setProperty(TEST_DATES, dates);
+		assertEquals(dates, properties.getProperty(TEST_DATES, null));
+
+		// setting raw values
+		properties.getPropertyMap().put(TEST_DATES, "5");
+		assertEquals(Arrays.asList(new Date(5)),
+			properties.getProperty(TEST_DATES, null));
+
+		Map<PropertyName<?>, String> rawValues = new HashMap<>();
+
+		rawValues.put(TEST_DATES, "6");
+		properties.setPropertyMap(rawValues);
+		assertEquals(Arrays.asList(new Date(6)),
+			properties.getProperty(TEST_DATES, null));
+
+		properties.setImmutableValues(false);
+		assertNotSame(properties.getProperty(TEST_DATES, null),
+			properties.getProperty(TEST_DATES, null));
+	}
+
+	/**
+	 * Test that merging into a non-empty instance handles flags and values
+	 * according to the replace parameter and doesn't modify the source or
+	 * other instances that share the target's store.
+	 */
+	@Test
+	public void testMergeProperties() {
+		StringProperties origin = new StringProperties();
+		StringProperties source = new StringProperties();
+
+		origin.setProperty(STYLE, "target");
+		origin.setProperty(WIDTH, 1);
+		origin.setFlag(DISABLED);
+		origin.setProperty(HIDDEN, false);
+		source.setProperty(STYLE, "source");
+		source.setProperty(HEIGHT, 2);
+		source.setFlag(HIDDEN);
+		source.setProperty(DISABLED, false);
+
+		StringProperties expectedOrigin = copyOf(origin);
+		StringProperties expectedSource = copyOf(source);
+		StringProperties added = new StringProperties(origin);
+		StringProperties replaced = new StringProperties(origin);
+
+		added.setProperties(source, false);
+		replaced.setProperties(source, true);
+
+		assertEquals(5, added.getPropertyCount());
+		assertEquals("target", added.getProperty(STYLE, null));
+		assertEquals(1, added.getIntProperty(WIDTH, 0));
+		assertEquals(2, added.getIntProperty(HEIGHT, 0));
+		assertTrue(added.hasFlag(DISABLED));
+		assertFalse(added.hasFlag(HIDDEN));
+		assertEquals(Boolean.FALSE, added.getProperty(HIDDEN, null));
+
+		assertEquals(5, replaced.getPropertyCount());
+		assertEquals("source", replaced.getProperty(STYLE, null));
+		assertEquals(1, replaced.getIntProperty(WIDTH, 0));
+		assertEquals(2, replaced.getIntProperty(HEIGHT, 0));
+		assertFalse(replaced.hasFlag(DISABLED));
+		assertEquals(Boolean.FALSE, replaced.getProperty(DISABLED, null));
+		assertTrue(replaced.hasFlag(HIDDEN));
+
+		assertEquals(expectedOrigin, origin);
+		assertEquals(expectedSource, source);
+		assertEquals(origin.hashCode(), expectedOrigin.hashCode());
+
+		source.clearFlag(HIDDEN);
+		assertTrue(replaced.hasFlag(HIDDEN));
+		assertFalse(added.hasFlag(HIDDEN));
+	}
+
+	/**
+	 * Test that copying into an empty instance shares the store of the
+	 * source until one of both instances is modified.
+	 */
+	@Test
+	public void testSharedCopy() {
+		StringProperties source = new StringProperties();
+
+		source.setProperty(STYLE, "source");
+		source.setProperty(WIDTH, 1);
+		source.setFlag(DISABLED);
+
+		StringProperties expected = copyOf(source);
+		StringProperties target = new StringProperties();
+
+		target.setProperties(source, true);
+		assertSame(source.getPropertyStore(), target.getPropertyStore());
+		assertEquals(source, target);
+
+		target.setProperty(STYLE, "target");
+		target.clearFlag(DISABLED);
+		target.setFlag(HIDDEN);
+		assertNotSame(source.getPropertyStore(), target.getPropertyStore());
+		assertEquals(expected, source);
+		assertEquals("source", source.getProperty(STYLE, null));
+		assertTrue(source.hasFlag(DISABLED));
+		assertFalse(source.hasFlag(HIDDEN));
+		assertEquals("target", target.getProperty(STYLE, null));
+		assertEquals(1, target.getIntProperty(WIDTH, 0));
+		assertFalse(target.hasFlag(DISABLED));
+		assertTrue(target.hasFlag(HIDDEN));
+
+		StringProperties second = new StringProperties();
+
+		second.setProperties(source, true);
+		source.removeProperty(WIDTH);
+		source.setProperty(HEIGHT, 2);
+		assertEquals(expected, second);
+		assertNull(source.getProperty(WIDTH, null));
+		assertEquals(1, target.getIntProperty(WIDTH, 0));
+		assertNull(target.getProperty(HEIGHT, null));
+
+		second.setProperty(STYLE, "second");
+		assertEquals("source", source.getProperty(STYLE, null));
+		assertEquals("target", target.getProperty(STYLE, null));
+	}
+
+	/**
+	 * Test that the property map view is only created once and reflects the
+	 * current properties if the property storage is shared or replaced.
+	 */
+	@Test
+	public void testPropertyMapView() {
+		StringProperties source = new StringProperties();
+		StringProperties properties = new StringProperties();
+
+		assertNull(properties.getPropertyMap());
+
+		properties.setProperty(STYLE, "style");
+
+		Map<PropertyName<?>, String> map = properties.getPropertyMap();
+
+		assertSame(map, properties.getPropertyMap());
+		assertEquals("style", map.get(STYLE));
+
+		source.setProperty(WIDTH, 1);
+		properties.clearProperties();
+		properties.setProperties(source, true);
+		assertSame(source.getPropertyStore(), properties.getPropertyStore());
+		assertSame(map, properties.getPropertyMap());
+		assertEquals(1, map.size());
+		assertEquals("1", map.get(WIDTH));
+
+		map.put(HEIGHT, "2");
+		assertEquals(2, properties.getIntProperty(HEIGHT, 0));
+		assertFalse(source.hasProperty(HEIGHT));
+		assertNotSame(source.getPropertyStore(), properties.getPropertyStore());
+		assertSame(map, properties.getPropertyMap());
+		assertEquals("1", map.remove(WIDTH));
+		assertEquals(1, source.getIntProperty(WIDTH, 0));
+		assertEquals(1, map.size());
+	}
+
+	/**
+	 * Test of the primitive accessors with typed values, with values parsed
+	 * from raw strings, and with default values, for the mutable, immutable,
+	 * and concurrent implementations.
+	 */
+	@Test
+	public void testPrimitiveAccessors() {
+		StringProperties typed = new StringProperties();
+		StringProperties parsed = new StringProperties();
+		Map<PropertyName<?>, String> rawValues = new HashMap<>();
+
+		typed.setProperty(WIDTH, 100000);
+		typed.setProperty(TEST_LONG, Long.MIN_VALUE);
+		typed.setProperty(TEST_DOUBLE, -0.25);
+		typed.setProperty(DISABLED, true);
+		typed.setProperty(HIDDEN, false);
+
+		rawValues.put(WIDTH, "100000");
+		rawValues.put(TEST_LONG, Long.toString(Long.MIN_VALUE));
+		rawValues.put(TEST_DOUBLE, "-0.25");
+		rawValues.put(DISABLED, "true");
+		rawValues.put(HIDDEN, "false");
+		parsed.setPropertyMap(rawValues);
+
+		assertEquals(typed, parsed);
+		assertEquals(Long.valueOf(Long.MIN_VALUE),
+			typed.getProperty(TEST_LONG, null));
+		assertEquals(Double.valueOf(-0.25),
+			parsed.getProperty(TEST_DOUBLE, null));
+
+		for (HasProperties properties : Arrays.asList(typed, parsed,
+			typed.snapshot(), new ConcurrentStringProperties(parsed))) {
+			assertEquals(100000, properties.getIntProperty(WIDTH, 0));
+			assertEquals(Long.MIN_VALUE,
+				properties.getLongProperty(TEST_LONG, 0));
+			assertEquals(-0.25, properties.getDoubleProperty(TEST_DOUBLE, 0),
+				0.0);
+			assertTrue(properties.getBooleanProperty(DISABLED, false));
+			assertFalse(properties.getBooleanProperty(HIDDEN, true));
+			assertEquals(-1, properties.getIntProperty(HEIGHT, -1));
+		}
+
+		for (HasProperties empty : Arrays.asList(new StringProperties(),
+			ImmutableProperties.EMPTY, new ConcurrentStringProperties())) {
+			assertEquals(-1, empty.getIntProperty(WIDTH, -1));
+			assertEquals(42L, empty.getLongProperty(TEST_LONG, 42L));
+			assertEquals(1.5, empty.getDoubleProperty(TEST_DOUBLE, 1.5), 0.0);
+			assertTrue(empty.getBooleanProperty(DISABLED, true));
+			assertFalse(empty.getBooleanProperty(DISABLED, false));
+		}
+
+		// invalid raw values fail on access like generic queries do
+		rawValues.clear();
+		rawValues.put(TEST_LONG, "x");
+		rawValues.put(TEST_DOUBLE, "y");
+		parsed.setPropertyMap(rawValues);
+
+		assertThrows(NumberFormatException.class,
+			() -> parsed.getLongProperty(TEST_LONG, 0));
+		assertThrows(NumberFormatException.class,
+			() -> parsed.getDoubleProperty(TEST_DOUBLE, 0));
+		assertThrows(NumberFormatException.class,
+			() -> parsed.getProperty(TEST_LONG, null));
+
+		parsed.setProperty(TEST_LONG, 7L);
+		parsed.setProperty(TEST_DOUBLE, 7.0);
+		parsed.setProperty(TEST_LONG, -7L);
+		assertEquals(-7L, parsed.getLongProperty(TEST_LONG, 0));
+		assertEquals(7.0, parsed.getDoubleProperty(TEST_DOUBLE, 0), 0.0);
+		assertEquals("-7", parsed.getPropertyMap().get(TEST_LONG));
+		assertEquals("7.0", parsed.getPropertyMap().get(TEST_DOUBLE));
+	}
+
+	/**
+	 * Test that setting the properties of multiple sources gives the same
+	 * result as setting them one after the other, independent of the
+	 * emptiness of the target.
+	 */
+	@Test
+	public void testSetPropertiesOrder() {
+		StringProperties first = new StringProperties();
+		StringProperties second = new StringProperties();
+		StringProperties third = new StringProperties();
+
+		first.setProperty(STYLE, "first");
+		first.setProperty(WIDTH, 1);
+		first.setFlag(HIDDEN);
+		second.setProperty(STYLE, "second");
+		second.setProperty(HEIGHT, 2);
+		second.setProperty(HIDDEN, false);
+		third.setProperty(STYLE, "third");
+		third.setFlag(DISABLED);
+
+		List<StringProperties> sources = Arrays.asList(first, second, third);
+		List<StringProperties> expectedSources = new ArrayList<>();
+
+		for (StringProperties source : sources) {
+			expectedSources.add(copyOf(source));
+		}
+
+		StringProperties initial = new StringProperties();
+
+		initial.setProperty(STYLE, "initial");
+		initial.setProperty(WIDTH, 0);
+
+		for (StringProperties start : Arrays.asList(new StringProperties(),
+			initial)) {
+			for (boolean replace : new boolean[] { true, false }) {
+				StringProperties merged = new StringProperties(start);
+				StringProperties expected = copyOf(start);
+
+				merged.setProperties(sources, replace);
+
+				for (StringProperties source : sources) {
+					expected.setProperties(copyOf(source), replace);
+				}
+
+				assertEquals(expected, merged);
+				assertEquals(expected.hashCode(), merged.hashCode());
+				assertEquals(expectedSources, sources);
+
+				merged.setProperty(STYLE, "merged");
+				merged.clearFlag(DISABLED);
+				assertEquals(expectedSources, sources);
+			}
+		}
+
+		StringProperties merged = new StringProperties();
+
+		merged.setProperties(sources, true);
+		assertEquals("third", merged.getProperty(STYLE, null));
+		assertEquals(1, merged.getIntProperty(WIDTH, 0));
+		assertEquals(Boolean.FALSE, merged.getProperty(HIDDEN, null));
+		assertTrue(merged.hasFlag(DISABLED));
+
+		merged = new StringProperties();
+		merged.setProperties(sources, false);
+		assertEquals("first", merged.getProperty(STYLE, null));
+		assertTrue(merged.hasFlag(HIDDEN));
+	}
+
+	/**
+	 * Creates an unshared copy of some properties by setting the property
+	 * values one by one.
+	 *
+	 * @param properties The properties to copy
+	 * @return The new copy
+	 */
+	@SuppressWarnings("unchecked")
+	private static StringProperties copyOf(StringProperties properties) {
+		StringProperties copy = new StringProperties();
+
+		for (PropertyName<?> name : properties.getPropertyNames()) {
+			copy.setProperty((PropertyName<Object>) name,
+				properties.getProperty(name, null));
+		}
+
+		return copy;
+	}
+
+	/**
+	 * A simple value class for codec tests.
+	 *
+	 * @author eso
+	 */
+	static class Code {
+
+		private final String code;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param code The code string
+		 */
+		Code(String code) {
+			this.code = code;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Code && code.equals(((Code) obj).code);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return code.hashCode();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return code;
+		}
+	}
+
+	/**
+	 * A subclass that overrides the conversion of dates to store them in
+	 * seconds instead of milliseconds.
+	 *
+	 * @author eso
+	 */
+	static class SecondsProperties extends StringProperties {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected String convertValue(Object value) {
+			return value instanceof Date ?
+			       Long.toString(((Date) value).getTime() / 1000) :
+			       super.convertValue(value);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		protected <T, E> T parseValue(String rawValue, Class<T> datatype,
+			Class<?>[] elementTypes) {
+			return datatype == Date.class ?
+			       (T) new Date(Long.parseLong(rawValue) * 1000) :
+			       super.parseValue(rawValue, datatype, elementTypes);
+		}
+	}
+}
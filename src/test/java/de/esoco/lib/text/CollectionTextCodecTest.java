@@ -0,0 +1,311 @@
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+// This file is a part of the 'esoco-common' project.
+// Copyright 2020 Elmar Sonnenschein, esoco GmbH, Flensburg, Germany
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	  http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
+package de.esoco.lib.text;
+
+import de.esoco.lib.text.CollectionTextCodec.Scanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static de.esoco.lib.text.TextConvert.DEFAULT_COLLECTION_SEPARATOR;
+import static de.esoco.lib.text.TextConvert.DEFAULT_KEY_VALUE_SEPARATOR;
+import static de.esoco.lib.text.TextConvert.unicodeDecode;
+import static de.esoco.lib.text.TextConvert.unicodeEncode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test of {@link CollectionTextCodec}. Compares the results with the
+ * conversion through {@link TextConvert#unicodeEncode(String, String)},
+ * {@link TextConvert#unicodeDecode(String, String)}, and
+ * {@link String#split(String)} that has been used before.
+ *
+ * @author eso
+ */
+public class CollectionTextCodecTest {
+
+	private static final List<List<String>> COLLECTIONS = Arrays.asList(
+		Collections.<String>emptyList(), Collections.singletonList(""),
+		Arrays.asList("", ""), Arrays.asList("", "a"), Arrays.asList("a", ""),
+		Arrays.asList("a", "", "b"), Arrays.asList("a", "b", "c"),
+		Arrays.asList(",", ",a", "a,", "a,,b"),
+		Arrays.asList("\\", "a\\b", "\\,", "a\\\\,b"),
+		Arrays.asList("äöü", "€,∑", "\u0000￿", "日本,語"),
+		Arrays.asList("a=b", "=", "x=,y"), Arrays.asList(" ", " , "));
+
+	private static final String[] ENCODED_TEXTS =
+		{ "", ",", ",,", "a", ",a", "a,", "a,,", ",a,", ",,a,,b,,",
+			"a\\u002Cb", "\\u002C", "\\u002", "a\\u002C\\u002Cb,\\", "ä,€",
+			"\\u002c" };
+
+	private static final String[] ENCODED_MAPS =
+		{ "", ",", "a=1", "a=1,b=2", "a=1,,b=2,", ",a=1", "=1,a=", "a",
+			"a=b=c", "a=\\u002C,b=x\\u002Cy", "k=ä€,€=k", "a=1,a=2",
+			"a\\u002C=1" };
+
+	/**
+	 * Test that decoding the encoded collections returns the original
+	 * elements, except for trailing empty elements which are ignored like in
+	 * {@link String#split(String)}.
+	 */
+	@Test
+	public void testCollectionRoundTrip() {
+		for (List<String> collection : COLLECTIONS) {
+			List<String> expected = new ArrayList<>(collection);
+			String text = encode(collection);
+
+			while (!expected.isEmpty() &&
+				expected.get(expected.size() - 1).isEmpty()) {
+				expected.remove(expected.size() - 1);
+			}
+
+			if (text.isEmpty()) {
+				// an empty string is decoded into a single empty element
+				expected.add("");
+			}
+
+			assertEquals(expected, decode(text), text);
+		}
+	}
+
+	/**
+	 * Test that collections are decoded like before.
+	 */
+	@Test
+	public void testDecodeCollection() {
+		for (String text : ENCODED_TEXTS) {
+			assertEquals(splitDecode(text), decode(text), text);
+		}
+
+		for (List<String> collection : COLLECTIONS) {
+			String text = encode(collection);
+
+			assertEquals(splitDecode(text), decode(text), text);
+		}
+	}
+
+	/**
+	 * Test that maps are decoded like before.
+	 */
+	@Test
+	public void testDecodeMap() {
+		for (String text : ENCODED_MAPS) {
+			assertEquals(splitDecodeMap(text), decodeMap(text), text);
+		}
+	}
+
+	/**
+	 * Test that collections are encoded like before.
+	 */
+	@Test
+	public void testEncodeCollection() {
+		for (List<String> collection : COLLECTIONS) {
+			assertEquals(unicodeEncodeCollection(collection),
+				encode(collection));
+		}
+	}
+
+	/**
+	 * Test that maps are encoded like before and decoded into the original
+	 * entries.
+	 */
+	@Test
+	public void testEncodeMap() {
+		for (List<String> values : COLLECTIONS) {
+			List<String> entries = new ArrayList<>();
+			int key = 0;
+
+			for (String value : values) {
+				entries.add("k" + key++);
+				entries.add(value);
+			}
+
+			String text = encodeMap(entries);
+
+			assertEquals(unicodeEncodeMap(entries), text);
+
+			if (!entries.isEmpty()) {
+				assertEquals(entries, decodeMap(text));
+			}
+		}
+	}
+
+	/**
+	 * Decodes a collection with the codec.
+	 *
+	 * @param text The text to decode
+	 * @return The decoded elements
+	 */
+	private List<String> decode(String text) {
+		List<String> elements = new ArrayList<>();
+		Scanner scanner = CollectionTextCodec.scan(text);
+
+		while (scanner.next()) {
+			elements.add(scanner.getValue());
+		}
+
+		return elements;
+	}
+
+	/**
+	 * Decodes a map with the codec.
+	 *
+	 * @param text The text to decode
+	 * @return The decoded keys and values in alternating order
+	 */
+	private List<String> decodeMap(String text) {
+		List<String> entries = new ArrayList<>();
+		Scanner scanner = CollectionTextCodec.scan(text);
+
+		while (scanner.next()) {
+			String key = scanner.getKey();
+
+			if (key != null) {
+				entries.add(key);
+				entries.add(scanner.getEntryValue());
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Encodes a collection with the codec.
+	 *
+	 * @param collection The collection to encode
+	 * @return The encoded text
+	 */
+	private String encode(List<String> collection) {
+		StringBuilder result = new StringBuilder();
+		boolean first = true;
+
+		for (String element : collection) {
+			CollectionTextCodec.appendElement(result, element, first);
+			first = false;
+		}
+
+		return result.toString();
+	}
+
+	/**
+	 * Encodes map entries with the codec.
+	 *
+	 * @param entries The keys and values in alternating order
+	 * @return The encoded text
+	 */
+	private String encodeMap(List<String> entries) {
+		StringBuilder result = new StringBuilder();
+
+		for (int i = 0; i < entries.size(); i += 2) {
+			CollectionTextCodec.appendEntry(result, entries.get(i),
+				entries.get(i + 1), i == 0);
+		}
+
+		return result.toString();
+	}
+
+	/**
+	 * Decodes a collection like the previous implementation.
+	 *
+	 * @param text The text to decode
+	 * @return The decoded elements
+	 */
+	private List<String> splitDecode(String text) {
+		List<String> elements = new ArrayList<>();
+
+		for (String element : text.split(DEFAULT_COLLECTION_SEPARATOR)) {
+			elements.add(unicodeDecode(element, DEFAULT_COLLECTION_SEPARATOR));
+		}
+
+		return elements;
+	}
+
+	/**
+	 * Decodes a map like the previous implementation.
+	 *
+	 * @param text The text to decode
+	 * @return The decoded keys and values in alternating order
+	 */
+	private List<String> splitDecodeMap(String text) {
+		List<String> entries = new ArrayList<>();
+
+		for (String entry : text.split(DEFAULT_COLLECTION_SEPARATOR)) {
+			int keyEnd = entry.indexOf(DEFAULT_KEY_VALUE_SEPARATOR);
+
+			if (keyEnd > 0) {
+				String value = entry.substring(
+					keyEnd + DEFAULT_KEY_VALUE_SEPARATOR.length());
+
+				entries.add(entry.substring(0, keyEnd));
+				entries.add(
+					unicodeDecode(value, DEFAULT_COLLECTION_SEPARATOR));
+			}
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Encodes a collection like the previous implementation.
+	 *
+	 * @param collection The collection to encode
+	 * @return The encoded text
+	 */
+	private String unicodeEncodeCollection(List<String> collection) {
+		StringBuilder result = new StringBuilder();
+
+		for (String element : collection) {
+			result.append(
+				unicodeEncode(element, DEFAULT_COLLECTION_SEPARATOR));
+			result.append(DEFAULT_COLLECTION_SEPARATOR);
+		}
+
+		if (result.length() > 0) {
+			result.setLength(result.length() - 1);
+		}
+
+		return result.toString();
+	}
+
+	/**
+	 * Encodes map entries like the previous implementation.
+	 *
+	 * @param entries The keys and values in alternating order
+	 * @return The encoded text
+	 */
+	private String unicodeEncodeMap(List<String> entries) {
+		StringBuilder result = new StringBuilder();
+
+		for (int i = 0; i < entries.size(); i += 2) {
+			result.append(entries.get(i));
+			result.append(DEFAULT_KEY_VALUE_SEPARATOR);
+			result.append(unicodeEncode(entries.get(i + 1),
+				DEFAULT_COLLECTION_SEPARATOR));
+			result.append(DEFAULT_COLLECTION_SEPARATOR);
+		}
+
+		if (result.length() > 0) {
+			result.setLength(
+				result.length() - DEFAULT_COLLECTION_SEPARATOR.length());
+		}
+
+		return result.toString();
+	}
+}